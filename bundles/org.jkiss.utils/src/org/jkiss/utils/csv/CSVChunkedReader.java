@@ -0,0 +1,441 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.utils.io.ByteOrderMark;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CSV reader which parses local file in several threads.
+ * Returns the same records as {@link CSVReader} with the same parser settings.
+ *
+ * File is read by chunks into byte arrays (workers decode them anyway, so there is no point in memory mapping).
+ * Chunk always ends at record boundary: reader scans chunk bytes
+ * and tracks quote state the same way as {@link CSVParser} does. Chunks are parsed by worker threads
+ * (each chunk with its own parser) and records are returned in the original order.
+ *
+ * Only UTF-8 and single-byte charsets are supported. Line feeds, separator, quote and escape characters
+ * must be ASCII characters, so they never appear inside of other characters bytes. See {@link #isSupported}.
+ */
+public class CSVChunkedReader implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private static final int MAX_PARSER_THREADS = 8;
+    // Max array size
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE - 8;
+
+    private static class ScanState {
+        private int position;
+        private boolean inQuotes;
+        private boolean inField;
+    }
+
+    private static class Chunk {
+        private final ByteBuffer data;
+        private final boolean last;
+
+        Chunk(ByteBuffer data, boolean last) {
+            this.data = data;
+            this.last = last;
+        }
+    }
+
+    private final CSVParser parser;
+    private final Charset charset;
+    private final int chunkSize;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final ExecutorService executor;
+    private final int maxQueuedChunks;
+    private final Deque<Future<List<String[]>>> queuedChunks = new ArrayDeque<>();
+    // Line feeds, separator, quote and escape
+    private final boolean[] specialBytes = new boolean[256];
+
+    private long scanPosition;
+    private List<String[]> currentRows;
+    private int currentRowIndex;
+
+    /**
+     * Constructs reader which uses all available processors (but not more than 8 threads).
+     *
+     * @param file    CSV file
+     * @param charset file charset
+     * @param parser  parser with CSV settings. It is not used for parsing, each chunk is parsed by its own copy.
+     */
+    public CSVChunkedReader(@NotNull File file, @NotNull Charset charset, @NotNull CSVParser parser) throws IOException {
+        this(file, charset, parser, DEFAULT_CHUNK_SIZE, getDefaultThreadCount());
+    }
+
+    /**
+     * Constructs reader.
+     *
+     * @param file      CSV file
+     * @param charset   file charset
+     * @param parser    parser with CSV settings. It is not used for parsing, each chunk is parsed by its own copy.
+     * @param chunkSize approximate size of chunk in bytes
+     * @param threads   number of parser threads
+     * @throws IllegalArgumentException if charset or parser settings are not supported
+     */
+    public CSVChunkedReader(@NotNull File file, @NotNull Charset charset, @NotNull CSVParser parser, int chunkSize, int threads) throws IOException {
+        if (!isSupported(charset, parser)) {
+            throw new IllegalArgumentException("Charset " + charset.name() + " is not supported by chunked CSV reader");
+        }
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Chunk size and threads count must be positive");
+        }
+        this.parser = parser;
+        this.charset = charset;
+        this.chunkSize = chunkSize;
+        for (char c : new char[] {'\r', '\n', parser.getSeparator(), parser.getQuotechar(), parser.getEscape()}) {
+            specialBytes[c] = true;
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.scanPosition = getBOMLength();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "CSV parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxQueuedChunks = threads * 2;
+    }
+
+    /**
+     * Checks that file with specified charset may be split into chunks at byte level.
+     */
+    public static boolean isSupported(@NotNull Charset charset, @NotNull CSVParser parser) {
+        if (!charset.equals(StandardCharsets.UTF_8) && (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1)) {
+            return false;
+        }
+        char[] specialChars = {'\r', '\n', parser.getSeparator(), parser.getQuotechar(), parser.getEscape()};
+        for (int i = 0; i < specialChars.length; i++) {
+            char c = specialChars[i];
+            if (c >= 0x80 || (i >= 2 && (c == '\r' || c == '\n'))) {
+                return false;
+            }
+            // Character must be encoded as the same byte
+            byte[] bytes = String.valueOf(c).getBytes(charset);
+            if (bytes.length != 1 || bytes[0] != c || new String(bytes, charset).charAt(0) != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getDefaultThreadCount() {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARSER_THREADS));
+    }
+
+    public CSVParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return record fields or null if end of file reached
+     * @throws IOException if bad things happen during the read
+     */
+    public String[] readNext() throws IOException {
+        while (currentRows == null || currentRowIndex >= currentRows.size()) {
+            currentRows = null;
+            currentRowIndex = 0;
+            queueChunks();
+            Future<List<String[]>> chunkResult = queuedChunks.poll();
+            if (chunkResult == null) {
+                return null;
+            }
+            currentRows = getChunkRows(chunkResult);
+        }
+        // Do not keep returned rows in memory
+        return currentRows.set(currentRowIndex++, null);
+    }
+
+    /**
+     * Stops parser threads and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Future<List<String[]>> chunkResult : queuedChunks) {
+            chunkResult.cancel(true);
+        }
+        queuedChunks.clear();
+        currentRows = null;
+        executor.shutdownNow();
+        channel.close();
+    }
+
+    private int getBOMLength() throws IOException {
+        if (!charset.equals(StandardCharsets.UTF_8)) {
+            return 0;
+        }
+        byte[] bom = ByteOrderMark.UTF_8.getBytes();
+        if (fileSize < bom.length) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bom.length);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // read the whole BOM
+        }
+        for (int i = 0; i < bom.length; i++) {
+            if (buffer.get(i) != bom[i]) {
+                return 0;
+            }
+        }
+        return bom.length;
+    }
+
+    private void queueChunks() throws IOException {
+        while (queuedChunks.size() < maxQueuedChunks && scanPosition < fileSize) {
+            Chunk chunk = nextChunk();
+            queuedChunks.add(executor.submit(() -> parseChunk(chunk)));
+        }
+    }
+
+    private List<String[]> getChunkRows(Future<List<String[]>> chunkResult) throws IOException {
+        try {
+            return chunkResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV parse interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error parsing CSV chunk", cause);
+        }
+    }
+
+    /**
+     * Reads the next chunk. Read region is extended if the last record of chunk is too long.
+     */
+    private Chunk nextChunk() throws IOException {
+        long start = scanPosition;
+        byte[] data = new byte[(int) Math.min(fileSize - start, (long) chunkSize + chunkSize / 4)];
+        int readSize = 0;
+        ScanState state = new ScanState();
+        while (true) {
+            readSize += readFully(data, readSize, start + readSize);
+            boolean eof = start + data.length >= fileSize;
+            int end = findChunkEnd(data, state, eof);
+            if (end >= 0) {
+                scanPosition = start + end;
+                return new Chunk(ByteBuffer.wrap(data, 0, end), scanPosition >= fileSize);
+            }
+            if (data.length >= MAX_CHUNK_SIZE) {
+                throw new IOException("CSV record at position " + start + " is too long");
+            }
+            // Extend chunk. Bytes which were already read (and scanned) are kept.
+            data = Arrays.copyOf(data, (int) Math.min(fileSize - start, Math.min((long) data.length * 2, MAX_CHUNK_SIZE)));
+        }
+    }
+
+    /**
+     * Reads the rest of array from the specified file position.
+     *
+     * @return number of read bytes
+     */
+    private int readFully(byte[] data, int offset, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, data.length - offset);
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + buffer.position() - offset);
+            if (count < 0) {
+                throw new IOException("Unexpected end of CSV file at position " + (position + buffer.position() - offset));
+            }
+        }
+        return data.length - offset;
+    }
+
+    /**
+     * Finds end of the first record which ends after chunk size.
+     * Scan state transitions must be the same as in {@link CSVParser#parseLineMulti(String)}.
+     *
+     * @return chunk length or -1 if data ends before such record end
+     */
+    private int findChunkEnd(byte[] data, ScanState state, boolean eof) {
+        final byte separator = (byte) parser.getSeparator();
+        final byte quotechar = (byte) parser.getQuotechar();
+        final byte escape = (byte) parser.getEscape();
+        final boolean strictQuotes = parser.isStrictQuotes();
+        final boolean ignoreQuotations = parser.isIgnoreQuotations();
+        final boolean[] specialBytes = this.specialBytes;
+
+        int limit = data.length;
+        int i = state.position;
+        boolean inQuotes = state.inQuotes;
+        boolean inField = state.inField;
+        while (i < limit) {
+            if (!specialBytes[data[i] & 0xff]) {
+                // Skip regular characters. They change nothing but field state.
+                do {
+                    i++;
+                } while (i < limit && !specialBytes[data[i] & 0xff]);
+                if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
+                    inField = true;
+                }
+                continue;
+            }
+            byte c = data[i];
+            if (c == '\n' || c == '\r') {
+                int lineEnd = i + 1;
+                if (c == '\r') {
+                    if (lineEnd == limit && !eof) {
+                        // Need the next byte to find out line feed length
+                        break;
+                    }
+                    if (lineEnd < limit && data[lineEnd] == '\n') {
+                        lineEnd++;
+                    }
+                }
+                i = lineEnd;
+                if (inQuotes && !ignoreQuotations) {
+                    // Quoted field continues on the next line
+                    continue;
+                }
+                inQuotes = false;
+                inField = false;
+                if (i >= chunkSize) {
+                    return i;
+                }
+                continue;
+            }
+            if (c == escape || c == quotechar) {
+                if (i + 1 == limit && !eof) {
+                    // Need the next byte to find out whether it is escaped
+                    break;
+                }
+            }
+            if (c == escape) {
+                if (((inQuotes && !ignoreQuotations) || inField) && i + 1 < limit) {
+                    byte next = data[i + 1];
+                    if (next == quotechar || next == escape) {
+                        i++;
+                    }
+                }
+            } else if (c == quotechar) {
+                if (((inQuotes && !ignoreQuotations) || inField) && i + 1 < limit && data[i + 1] == quotechar) {
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (c == separator && !(inQuotes && !ignoreQuotations)) {
+                inField = false;
+            } else if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
+                inField = true;
+            }
+            i++;
+        }
+        if (eof && i >= limit) {
+            return limit;
+        }
+        state.position = i;
+        state.inQuotes = inQuotes;
+        state.inField = inField;
+        return -1;
+    }
+
+    /**
+     * Splits chunk into lines (the same way as {@link java.io.BufferedReader#readLine()} does) and parses them.
+     */
+    private List<String[]> parseChunk(Chunk chunk) throws IOException {
+        CharBuffer text = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(chunk.data);
+        char[] chars = text.array();
+        int offset = text.arrayOffset() + text.position();
+        int end = offset + text.remaining();
+
+        CSVParser chunkParser = new CSVParser(
+            parser.getSeparator(),
+            parser.getQuotechar(),
+            parser.getEscape(),
+            parser.isStrictQuotes(),
+            parser.isIgnoreLeadingWhiteSpace(),
+            parser.isIgnoreQuotations(),
+            parser.nullFieldIndicator());
+        List<String[]> rows = new ArrayList<>();
+        String[] record = null;
+        int lineStart = offset;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && chars[lineEnd] != '\n' && chars[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            String[] tokens = chunkParser.parseLineMulti(new String(chars, lineStart, lineEnd - lineStart));
+            if (tokens.length > 0) {
+                record = record == null ? tokens : combineTokens(record, tokens);
+            }
+            if (!chunkParser.isPending()) {
+                rows.add(record);
+                record = null;
+            }
+            lineStart = lineEnd;
+            if (lineStart < end && chars[lineStart] == '\r') {
+                lineStart++;
+            }
+            if (lineStart < end && chars[lineStart] == '\n') {
+                lineStart++;
+            }
+        }
+        if (record != null) {
+            if (!chunk.last) {
+                throw new IOException("CSV chunk ends in the middle of record");
+            }
+            // Unterminated quoted field at the end of file. Return what was parsed like CSVReader does.
+            rows.add(record);
+        }
+        return rows;
+    }
+
+    private static String[] combineTokens(String[] buffer, String[] lastRead) {
+        String[] result = new String[buffer.length + lastRead.length];
+        System.arraycopy(buffer, 0, result, 0, buffer.length);
+        System.arraycopy(lastRead, 0, result, buffer.length, lastRead.length);
+        return result;
+    }
+
+}
@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
@@ -27,19 +29,26 @@ import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
+    private static final long INITIALIZE_CHECK_PERIOD = 100;
+    private static final int LOAD_CHECK_PERIOD = 100;
+
     private final Object PROPS_LOCK = new Object();
 
     private CompareObjectsSettings settings;
@@ -50,7 +59,7 @@ public class CompareObjectsExecutor {
     private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
+    private volatile CountDownLatch initializeLatch;
     private volatile IStatus initializeError;
     private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
 
@@ -126,8 +135,10 @@ public class CompareObjectsExecutor {
             {
                 if (!status.isOK()) {
                     initializeError = status;
-                } else {
-                    initializedCount++;
+                }
+                CountDownLatch latch = initializeLatch;
+                if (latch != null) {
+                    latch.countDown();
                 }
             }
         };
@@ -162,11 +173,11 @@ public class CompareObjectsExecutor {
         reportLines.clear();
         lastLine = null;
 
-        compareNodes(monitor, nodes);
+        compareNodes(monitor, nodes, true);
         return new CompareReport(rootNodes, reportLines);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, boolean topLevel)
         throws DBException, InterruptedException
     {
         reportObjectsCompareBegin(nodes);
@@ -178,7 +189,7 @@ public class CompareObjectsExecutor {
                     compareProperties(monitor, nodes);
                 }
 
-                compareChildren(monitor, nodes);
+                compareChildren(monitor, nodes, topLevel);
             }
         } finally {
             reportObjectsCompareEnd();
@@ -190,7 +201,7 @@ public class CompareObjectsExecutor {
         boolean onlyStruct = settings.isCompareOnlyStructure();
 
         // Clear compare singletons
-        this.initializedCount = 0;
+        this.initializeLatch = new CountDownLatch(nodes.size());
         this.initializeError = null;
         this.propertyValues.clear();
 
@@ -204,15 +215,18 @@ public class CompareObjectsExecutor {
                 node.initializeNode(null, initializeFinisher);
                 monitor.worked(1);
             }
-            while (initializedCount != nodes.size()) {
+            // Wait for initialization but check for cancel from time to time
+            while (!initializeLatch.await(INITIALIZE_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
                 if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
+                    break;
                 }
-                Thread.sleep(50);
                 if (monitor.isCanceled()) {
                     throw new InterruptedException();
                 }
             }
+            if (initializeError != null) {
+                throw new DBException(initializeError.getMessage());
+            }
         }
 
         monitor.subTask("Compare " + title.toString());
@@ -288,32 +302,31 @@ public class CompareObjectsExecutor {
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, boolean topLevel) throws DBException, InterruptedException
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
         // Use submonitor to avoid huge number of tasks
         DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+        List<DBNDatabaseNode[]> allChildren;
+        if (topLevel) {
+            allChildren = loadChildrenParallel(subMonitor, nodes);
+        } else {
+            allChildren = new ArrayList<>(nodeCount);
+            for (DBNDatabaseNode node : nodes) {
+                allChildren.add(loadNodeChildren(subMonitor, node));
             }
         }
 
+        // Children of each node by name. Node names are unique within parent, if not then first node wins.
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(nodeCount);
         Set<String> allChildNames = new LinkedHashSet<>();
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, DBNDatabaseNode> childMap = new HashMap<>();
+            childrenByName.add(childMap);
             if (childList == null) continue;
             for (DBNDatabaseNode child : childList) {
+                childMap.putIfAbsent(child.getNodeName(), child);
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -328,42 +341,72 @@ public class CompareObjectsExecutor {
         }
 
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
+            for (Map<String, DBNDatabaseNode> childMap : childrenByName) {
+                DBNDatabaseNode child = childMap.get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
+            // Compare children recursively
+            compareNodes(monitor, nodesToCompare, false);
+        }
+    }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
+    /**
+     * Reads children of top level nodes. Nodes usually belong to different connections and reading of their
+     * structure is the longest part of compare, so each node is read in a separate job.
+     * Deeper levels are read sequentially. Result contains null for nodes whose children can't be read.
+     */
+    private List<DBNDatabaseNode[]> loadChildrenParallel(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws InterruptedException
+    {
+        int nodeCount = nodes.size();
+        List<LoadChildrenJob> loadJobs = new ArrayList<>(nodeCount - 1);
+        for (int i = 1; i < nodeCount; i++) {
+            LoadChildrenJob loadJob = new LoadChildrenJob(nodes.get(i));
+            loadJobs.add(loadJob);
+            loadJob.schedule();
+        }
+        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
+        allChildren.add(loadNodeChildren(monitor, nodes.get(0)));
+        try {
+            for (LoadChildrenJob loadJob : loadJobs) {
+                while (loadJob.getState() != Job.NONE) {
+                    if (monitor.isCanceled()) {
+                        throw new InterruptedException();
                     }
+                    RuntimeUtils.pause(LOAD_CHECK_PERIOD);
                 }
+                allChildren.add(loadJob.children);
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+        } finally {
+            for (LoadChildrenJob loadJob : loadJobs) {
+                loadJob.cancel();
+            }
+        }
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
         }
+        return allChildren;
     }
 
+    private DBNDatabaseNode[] loadNodeChildren(DBRProgressMonitor monitor, DBNDatabaseNode node)
+    {
+        monitor.subTask("Read " + node.getNodeFullName());
+        try {
+            // Cache structure if possible
+            if (node.getObject() instanceof DBSObjectContainer) {
+                ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+            }
+            return node.getChildren(monitor);
+        } catch (Exception e) {
+            log.warn("Error reading child nodes for compare", e);
+            return null;
+        }
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -379,4 +422,21 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
-}
\ No newline at end of file
+    private class LoadChildrenJob extends AbstractJob {
+        private final DBNDatabaseNode node;
+        private volatile DBNDatabaseNode[] children;
+
+        LoadChildrenJob(DBNDatabaseNode node) {
+            super("Read " + node.getNodeFullName());
+            this.node = node;
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            children = loadNodeChildren(monitor, node);
+            return Status.OK_STATUS;
+        }
+    }
+
+}
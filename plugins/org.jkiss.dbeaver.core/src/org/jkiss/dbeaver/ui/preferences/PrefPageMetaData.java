@@ -22,6 +22,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Spinner;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -40,6 +41,8 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button metadataIndexCheck;
+    private Spinner metadataIndexRefreshSpinner;
 
     public PrefPageMetaData()
     {
@@ -54,7 +57,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_INDEX_ENABLED) ||
+            store.contains(ModelPreferences.META_INDEX_REFRESH_INTERVAL)
             ;
     }
 
@@ -76,6 +81,12 @@ public class PrefPageMetaData extends TargetPrefPage
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
         }
+        {
+            Group indexGroup = UIUtils.createControlGroup(composite, CoreMessages.pref_page_database_general_group_metadata_index, 2, GridData.HORIZONTAL_ALIGN_BEGINNING, 0);
+
+            metadataIndexCheck = UIUtils.createCheckbox(indexGroup, CoreMessages.pref_page_database_general_use_metadata_index, CoreMessages.pref_page_database_general_use_metadata_index_tip, false, 2);
+            metadataIndexRefreshSpinner = UIUtils.createLabelSpinner(indexGroup, CoreMessages.pref_page_database_general_metadata_index_refresh_interval, CoreMessages.pref_page_database_general_metadata_index_refresh_interval_tip, 0, 0, Integer.MAX_VALUE);
+        }
 
         return composite;
     }
@@ -88,6 +99,8 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            metadataIndexCheck.setSelection(store.getBoolean(ModelPreferences.META_INDEX_ENABLED));
+            metadataIndexRefreshSpinner.setSelection(store.getInt(ModelPreferences.META_INDEX_REFRESH_INTERVAL));
 
         } catch (Exception e) {
             log.warn(e);
@@ -102,6 +115,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_INDEX_ENABLED, metadataIndexCheck.getSelection());
+            store.setValue(ModelPreferences.META_INDEX_REFRESH_INTERVAL, metadataIndexRefreshSpinner.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -116,6 +131,8 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_INDEX_ENABLED);
+        store.setToDefault(ModelPreferences.META_INDEX_REFRESH_INTERVAL);
 
     }
 
@@ -60,6 +60,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Text textHistoryDays;
     private Text textEntriesPerPage;
     private Button checkStoreLog;
+    private Button checkStoreHistory;
     private Text textOutputFolder;
 
 
@@ -103,16 +104,22 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
             GridData gd = new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING);
             gd.horizontalSpan = 2;
             checkStoreLog.setLayoutData(gd);
-            checkStoreLog.addSelectionListener(new SelectionAdapter() {
+            checkStoreHistory = UIUtils.createCheckbox(storageSettings, CoreMessages.pref_page_query_manager_checkbox_store_history, false);
+            checkStoreHistory.setToolTipText(CoreMessages.pref_page_query_manager_checkbox_store_history_tip);
+            gd = new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING);
+            gd.horizontalSpan = 2;
+            checkStoreHistory.setLayoutData(gd);
+            SelectionAdapter storageListener = new SelectionAdapter() {
                 @Override
                 public void widgetSelected(SelectionEvent e)
                 {
-                    UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
+                    updateStorageControls();
                 }
-            });
+            };
+            checkStoreLog.addSelectionListener(storageListener);
+            checkStoreHistory.addSelectionListener(storageListener);
             textOutputFolder = DialogUtils.createOutputFolderChooser(storageSettings, CoreMessages.pref_page_query_manager_logs_folder, null);
             textHistoryDays = UIUtils.createLabelText(storageSettings, CoreMessages.pref_page_query_manager_label_days_to_store_log, "", SWT.BORDER, new GridData(50, SWT.DEFAULT)); //$NON-NLS-2$
-            textHistoryDays.setEnabled(false);
 
             CLabel infoLabel = UIUtils.createInfoLabel(storageSettings, CoreMessages.pref_page_query_manager_log_file_hint);
             infoLabel.setLayoutData(new GridData(GridData.FILL, GridData.BEGINNING, true, false, 2, 1));
@@ -144,8 +151,9 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         textEntriesPerPage.setText(store.getString(QMConstants.PROP_ENTRIES_PER_PAGE));
 
         checkStoreLog.setSelection(store.getBoolean(QMConstants.PROP_STORE_LOG_FILE));
+        checkStoreHistory.setSelection(store.getBoolean(QMConstants.PROP_STORE_HISTORY));
         textOutputFolder.setText(store.getString(QMConstants.PROP_LOG_DIRECTORY));
-        UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
+        updateStorageControls();
 
         super.performDefaults();
     }
@@ -179,12 +187,19 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
             store.setValue(QMConstants.PROP_ENTRIES_PER_PAGE, entriesPerPage);
         }
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
+        store.setValue(QMConstants.PROP_STORE_HISTORY, checkStoreHistory.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
         PrefUtils.savePreferenceStore(store);
 
         return super.performOk();
     }
 
+    private void updateStorageControls()
+    {
+        UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection() || checkStoreHistory.getSelection());
+        textHistoryDays.setEnabled(checkStoreHistory.getSelection());
+    }
+
     @Override
     public IAdaptable getElement()
     {
@@ -50,9 +50,11 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelinedTransferCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Text readPartitionsText;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -138,6 +140,14 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 }
             });
 
+            pipelinedTransferCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip, false, 4);
+            pipelinedTransferCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelinedTransfer(pipelinedTransferCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             ((GridData)fetchSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(fetchSizeText) * 10;
@@ -147,6 +157,15 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            readPartitionsText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_read_partitions, "", SWT.BORDER);
+            readPartitionsText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)readPartitionsText.getLayoutData()).widthHint = UIUtils.getFontHeight(readPartitionsText) * 10;
+            readPartitionsText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_read_partitions_tooltip);
+            readPartitionsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            readPartitionsText.addModifyListener(e -> {
+                settings.setReadPartitionCount(CommonUtils.toInt(readPartitionsText.getText(), 1));
+            });
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -227,6 +246,7 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelinedTransferCheckbox.setSelection(settings.isPipelinedTransfer());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
@@ -236,6 +256,7 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        readPartitionsText.setText(String.valueOf(settings.getReadPartitionCount()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -89,6 +89,8 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             } catch (Exception e) {
                 listener.subTaskFinished(e);
                 throw new InvocationTargetException(e);
+            } finally {
+                settings.releaseDataPipe(transferPipe);
             }
         }
         monitor.done();
@@ -21,6 +21,8 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPObject;
+import org.jkiss.dbeaver.model.DBPObjectStatistics;
+import org.jkiss.dbeaver.model.DBPObjectStatisticsCollector;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -75,6 +77,11 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private int maxJobCount = DEFAULT_THREADS_NUM;
 
     private transient int curPipeNum = 0;
+    // Order in which pipes are transferred. Pipes list itself keeps the order chosen by user.
+    private transient List<DataTransferPipe> transferOrder;
+    private transient int activePipeNum = 0;
+    private transient int finishedPipeNum = 0;
+    private transient boolean transferFinished = false;
 
     private boolean showFinalMessage = true;
     // Hacky flag. Says that pipe selection is frozen.
@@ -499,6 +506,45 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         });
     }
 
+    /**
+     * Makes pipes with the largest source objects to be transferred first.
+     * Used in parallel transfer, so the biggest tables do not start last and do not prolong the whole transfer.
+     * Sizes are taken from catalog statistics, pipes without statistics keep their relative order.
+     * Pipes list order doesn't change (so the last pipe is still the one chosen by user).
+     */
+    public void sortDataPipesBySize(DBRProgressMonitor monitor) {
+        Map<DataTransferPipe, Long> pipeSizes = new HashMap<>();
+        for (DataTransferPipe pipe : dataPipes) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            DBSObject sourceObject = pipe.getProducer() == null ? null : pipe.getProducer().getDatabaseObject();
+            if (!(sourceObject instanceof DBPObjectStatistics)) {
+                continue;
+            }
+            DBSObject parentObject = sourceObject.getParentObject();
+            if (parentObject instanceof DBPObjectStatisticsCollector && !((DBPObjectStatisticsCollector) parentObject).isStatisticsCollected()) {
+                try {
+                    ((DBPObjectStatisticsCollector) parentObject).collectObjectStatistics(monitor, true, false);
+                } catch (DBException e) {
+                    log.debug("Error reading statistics of '" + parentObject.getName() + "'", e);
+                }
+            }
+            if (((DBPObjectStatistics) sourceObject).hasStatistics()) {
+                pipeSizes.put(pipe, ((DBPObjectStatistics) sourceObject).getStatObjectSize());
+            }
+        }
+        if (!pipeSizes.isEmpty()) {
+            List<DataTransferPipe> sortedPipes = new ArrayList<>(dataPipes);
+            sortedPipes.sort((pipe1, pipe2) -> Long.compare(
+                pipeSizes.getOrDefault(pipe2, 0L),
+                pipeSizes.getOrDefault(pipe1, 0L)));
+            synchronized (this) {
+                transferOrder = sortedPipes;
+            }
+        }
+    }
+
     public void processPipeEarlier(@NotNull DataTransferPipe pipe) {
         CommonUtils.shiftLeft(dataPipes, pipe);
     }
@@ -510,19 +556,30 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) {
         if (curPipeNum >= dataPipes.size()) {
             // End of transfer
-            // Signal last pipe about it
-            if (!dataPipes.isEmpty()) {
+            // Signal last pipe about it. In parallel mode do it only after all other pipes are finished.
+            if (!dataPipes.isEmpty() && activePipeNum == 0 && !transferFinished) {
+                transferFinished = true;
                 dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
             }
             return null;
         }
 
-        DataTransferPipe result = dataPipes.get(curPipeNum);
+        DataTransferPipe result = transferOrder != null ? transferOrder.get(curPipeNum) : dataPipes.get(curPipeNum);
 
         curPipeNum++;
+        activePipeNum++;
         return result;
     }
 
+    public synchronized void releaseDataPipe(@NotNull DataTransferPipe pipe) {
+        activePipeNum--;
+        finishedPipeNum++;
+    }
+
+    public synchronized int getFinishedPipesCount() {
+        return finishedPipeNum;
+    }
+
     public DataTransferNodeDescriptor getProducer() {
         return producer;
     }
@@ -657,6 +714,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
 
     public void clearDataPipes() {
         dataPipes.clear();
+        transferOrder = null;
         initObjects.clear();
         initProducers = new IDataTransferProducer[0];
         initConsumers = new IDataTransferConsumer[0];
@@ -664,6 +722,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
 
     public void setDataPipes(List<DataTransferPipe> dataPipes, boolean isExport) {
         this.dataPipes = dataPipes;
+        this.transferOrder = null;
 
         // Now determine main producer and consumer and processor
         DataTransferRegistry registry = DataTransferRegistry.getInstance();
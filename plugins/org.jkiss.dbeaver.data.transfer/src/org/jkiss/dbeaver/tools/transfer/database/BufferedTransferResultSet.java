@@ -0,0 +1,90 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+
+import java.util.List;
+
+/**
+ * Result set which serves already fetched values.
+ * Value handlers read values from non-JDBC result sets with getAttributeValue.
+ */
+class BufferedTransferResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+
+    private final DBCResultSetMetaData metaData;
+    private Object[] currentRow;
+
+    BufferedTransferResultSet(DBCSession session, DBCResultSet sourceResultSet) throws DBCException {
+        // Source result set may be closed before all buffered rows are consumed
+        this(session, sourceResultSet.getSourceStatement(), sourceResultSet.getMeta());
+    }
+
+    BufferedTransferResultSet(DBCSession session, @Nullable DBCStatement statement, @NotNull DBCResultSetMetaData metaData) {
+        super(session, statement);
+        this.metaData = metaData;
+    }
+
+    void setCurrentRow(Object[] currentRow) {
+        this.currentRow = currentRow;
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        if (currentRow == null || index < 0 || index >= currentRow.length) {
+            throw new DBCException("Attribute index out of range (" + index + ")");
+        }
+        return currentRow[index];
+    }
+
+    @Nullable
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        List<? extends DBCAttributeMetaData> attributes = metaData.getAttributes();
+        for (int i = 0; i < attributes.size(); i++) {
+            if (attributes.get(i).getName().equals(name)) {
+                return getAttributeValue(i);
+            }
+        }
+        throw new DBCException("Bad attribute name: " + name);
+    }
+
+    @Override
+    public boolean nextRow() {
+        return false;
+    }
+
+    @Override
+    public boolean moveTo(int position) {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() {
+        return metaData;
+    }
+
+    @Override
+    public void close() {
+        currentRow = null;
+    }
+}
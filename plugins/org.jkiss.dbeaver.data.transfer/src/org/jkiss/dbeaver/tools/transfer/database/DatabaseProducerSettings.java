@@ -37,6 +37,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
     private static final int DEFAULT_FETCH_SIZE = 10000;
+    private static final int DEFAULT_PIPELINE_BUFFER_SIZE = 10000;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
 
@@ -46,6 +47,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean pipelinedTransfer = false;
+    private int pipelineBufferSize = DEFAULT_PIPELINE_BUFFER_SIZE;
+    private int readPartitionCount = 1;
 
     public DatabaseProducerSettings() {
     }
@@ -100,6 +104,44 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.openNewConnections = openNewConnections;
     }
 
+    /**
+     * Read source rows and write them into target database in separate threads
+     */
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
+    /**
+     * Maximum number of rows read from source but not yet consumed by target
+     */
+    public int getPipelineBufferSize() {
+        return pipelineBufferSize;
+    }
+
+    public void setPipelineBufferSize(int pipelineBufferSize) {
+        if (pipelineBufferSize > 0) {
+            this.pipelineBufferSize = pipelineBufferSize;
+        }
+    }
+
+    /**
+     * Number of key ranges read simultaneously from a single table.
+     * Applicable to tables with an integer unique key.
+     */
+    public int getReadPartitionCount() {
+        return readPartitionCount;
+    }
+
+    public void setReadPartitionCount(int readPartitionCount) {
+        if (readPartitionCount > 0) {
+            this.readPartitionCount = readPartitionCount;
+        }
+    }
+
     public ExtractType getExtractType() {
         return extractType;
     }
@@ -117,6 +159,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
         selectedRowsOnly = CommonUtils.toBoolean(settings.get("selectedRowsOnly"));
+        pipelinedTransfer = CommonUtils.getBoolean(settings.get("pipelinedTransfer"), pipelinedTransfer);
+        pipelineBufferSize = CommonUtils.toInt(settings.get("pipelineBufferSize"), DEFAULT_PIPELINE_BUFFER_SIZE);
+        readPartitionCount = Math.max(1, CommonUtils.toInt(settings.get("readPartitionCount"), 1));
     }
 
     @Override
@@ -128,6 +173,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
         settings.put("selectedRowsOnly", selectedRowsOnly);
+        settings.put("pipelinedTransfer", pipelinedTransfer);
+        settings.put("pipelineBufferSize", pipelineBufferSize);
+        settings.put("readPartitionCount", readPartitionCount);
     }
 
     @Override
@@ -139,6 +187,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, pipelinedTransfer);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_read_partitions, readPartitionCount);
 
         return summary.toString();
     }
@@ -178,6 +178,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         } else {
             rsAttributes = DBUtils.makeLeafAttributeBindings(session, sourceObject, resultSet);
         }
+        DBExecUtils.setResultSetFetchAttributes(resultSet, rsAttributes);
         columnMappings = new ColumnMapping[rsAttributes.length];
         sourceBindings = rsAttributes;
         targetAttributes = new ArrayList<>(columnMappings.length);
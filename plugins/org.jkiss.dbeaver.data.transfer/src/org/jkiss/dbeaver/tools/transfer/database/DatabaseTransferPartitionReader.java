@@ -0,0 +1,422 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a single table in several threads.
+ *
+ * The key space of a numeric integer identifier is split in ranges by its MIN/MAX values.
+ * Each range is read in its own isolated execution context with its own data filter.
+ * Rows of all ranges are passed to the single consumer in the calling thread, so the order of rows is not preserved.
+ */
+class DatabaseTransferPartitionReader {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitionReader.class);
+
+    private static final int ROWS_PER_BATCH = 500;
+    private static final int QUEUE_CAPACITY = 20;
+    private static final long QUEUE_POLL_TIMEOUT = 100;
+    // Do not split small key ranges
+    private static final long MIN_PARTITION_SIZE = 10000;
+    // Decimal keys with bigger precision may not fit in long
+    private static final int MAX_KEY_PRECISION = 18;
+
+    private final DBSEntity entity;
+    private final DBSDataContainer dataContainer;
+    private final DBSEntityAttribute keyAttribute;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    private final long readFlags;
+    private final int fetchSize;
+    private final int partitionCount;
+
+    private final BlockingQueue<PartitionMessage> messageQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile boolean aborted;
+
+    private DatabaseTransferPartitionReader(
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @Nullable DBDDataFilter dataFilter,
+        long readFlags,
+        int fetchSize,
+        int partitionCount)
+    {
+        this.entity = entity;
+        this.dataContainer = (DBSDataContainer) entity;
+        this.keyAttribute = keyAttribute;
+        this.dataFilter = dataFilter;
+        this.readFlags = readFlags;
+        this.fetchSize = fetchSize;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Creates partitioned reader if data container supports it.
+     * Returns null if data container must be read in a regular way.
+     */
+    @Nullable
+    static DatabaseTransferPartitionReader create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        long readFlags,
+        int fetchSize,
+        int partitionCount)
+    {
+        if (partitionCount < 2 || !(dataContainer instanceof DBSEntity)) {
+            return null;
+        }
+        DBSEntity entity = (DBSEntity) dataContainer;
+        try {
+            Collection<? extends DBSEntityAttribute> attributes = entity.getAttributes(monitor);
+            if (attributes == null) {
+                return null;
+            }
+            for (DBSEntityAttribute attribute : attributes) {
+                // LOB values can't be read in advance
+                if (attribute.getDataKind() == DBPDataKind.CONTENT || attribute.getDataKind().isComplex()) {
+                    return null;
+                }
+            }
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() != 1 || !isIntegerAttribute(identifier.get(0))) {
+                return null;
+            }
+            return new DatabaseTransferPartitionReader(entity, identifier.get(0), dataFilter, readFlags, fetchSize, partitionCount);
+        } catch (DBException e) {
+            log.debug("Can't read table '" + entity.getName() + "' key", e);
+            return null;
+        }
+    }
+
+    private static boolean isIntegerAttribute(DBSEntityAttribute attribute) {
+        switch (attribute.getTypeID()) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return true;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                int precision = CommonUtils.toInt(attribute.getPrecision());
+                return attribute.getDataKind() == DBPDataKind.NUMERIC && CommonUtils.toInt(attribute.getScale()) == 0 &&
+                    precision > 0 && precision <= MAX_KEY_PRECISION;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads all partitions and passes rows to the consumer.
+     * Returns null if key range can't be split. In this case nothing is read.
+     * Consumer is not closed, it is up to the caller.
+     */
+    @Nullable
+    DBCStatistics readData(
+        @NotNull DBCExecutionSource source,
+        @NotNull DBCSession session,
+        @NotNull DBDDataReceiver consumer) throws DBException
+    {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        List<DBDDataFilter> partitionFilters = makePartitionFilters(source, session);
+        if (partitionFilters == null) {
+            return null;
+        }
+        log.debug("Read '" + entity.getName() + "' in " + partitionFilters.size() + " partitions");
+
+        DBCExecutionContext initContext = session.getExecutionContext();
+        List<PartitionReader> readers = new ArrayList<>();
+        for (int i = 0; i < partitionFilters.size(); i++) {
+            PartitionReader reader = new PartitionReader(source, monitor, initContext, partitionFilters.get(i), i);
+            readers.add(reader);
+            reader.start();
+        }
+
+        DBCStatistics statistics = new DBCStatistics();
+        BufferedTransferResultSet resultSet = null;
+        try {
+            int activeReaders = readers.size();
+            while (activeReaders > 0) {
+                PartitionMessage message = messageQueue.poll(QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    if (monitor.isCanceled()) {
+                        aborted = true;
+                    }
+                    continue;
+                }
+                if (aborted) {
+                    // Just drain the queue
+                    if (message.rows == null) {
+                        activeReaders--;
+                    }
+                    continue;
+                }
+                if (resultSet == null && message.metaData != null) {
+                    resultSet = new BufferedTransferResultSet(session, null, message.metaData);
+                    consumer.fetchStart(session, resultSet, 0, -1);
+                }
+                if (message.rows == null) {
+                    activeReaders--;
+                    continue;
+                }
+                for (Object[] row : message.rows) {
+                    resultSet.setCurrentRow(row);
+                    consumer.fetchRow(session, resultSet);
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Partitioned data read interrupted", e);
+        } finally {
+            // All readers are finished at this point unless consumer failed. Stop them and drain the queue.
+            aborted = true;
+            for (PartitionReader reader : readers) {
+                try {
+                    while (reader.isAlive()) {
+                        messageQueue.clear();
+                        reader.join(QUEUE_POLL_TIMEOUT);
+                    }
+                } catch (InterruptedException e) {
+                    log.debug("Interrupted while waiting for partition reader");
+                }
+            }
+            if (resultSet != null) {
+                consumer.fetchEnd(session, resultSet);
+            }
+        }
+        for (PartitionReader reader : readers) {
+            if (reader.error != null) {
+                if (reader.error instanceof DBException) {
+                    throw (DBException) reader.error;
+                }
+                throw new DBCException("Error reading partition " + reader.partitionNumber, reader.error);
+            }
+            statistics.accumulate(reader.statistics);
+        }
+        if (resultSet == null) {
+            // No partition got result set (e.g. read was canceled). Consumer wasn't started.
+            return null;
+        }
+        return statistics;
+    }
+
+    @Nullable
+    private List<DBDDataFilter> makePartitionFilters(@NotNull DBCExecutionSource source, @NotNull DBCSession session) throws DBCException {
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            .append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML));
+        SQLUtils.appendQueryConditions(entity.getDataSource(), query, null, dataFilter);
+
+        Long minValue, maxValue;
+        session.getProgressMonitor().subTask("Read key range of '" + entity.getName() + "'");
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false)) {
+            dbStat.setStatementSource(source);
+            if (!dbStat.executeStatement()) {
+                return null;
+            }
+            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                if (dbResult == null || !dbResult.nextRow()) {
+                    return null;
+                }
+                // Null for empty table
+                minValue = toLongKey(dbResult.getAttributeValue(0));
+                maxValue = toLongKey(dbResult.getAttributeValue(1));
+            }
+        }
+        if (minValue == null || maxValue == null) {
+            return null;
+        }
+        long keyRange;
+        try {
+            keyRange = Math.subtractExact(maxValue, minValue);
+        } catch (ArithmeticException e) {
+            // Range doesn't fit in long
+            return null;
+        }
+        if (keyRange < 0 || keyRange / partitionCount < MIN_PARTITION_SIZE) {
+            return null;
+        }
+        long step = keyRange / partitionCount + 1;
+        List<DBDDataFilter> filters = new ArrayList<>(partitionCount);
+        for (long offset = 0; ; offset += step) {
+            long from = minValue + offset;
+            boolean lastPartition = keyRange - offset < step;
+            String condition;
+            if (lastPartition) {
+                condition = keyName + ">=" + from; //$NON-NLS-1$
+            } else {
+                // from + step <= maxValue, so it never overflows
+                condition = keyName + ">=" + from + " AND " + keyName + "<" + (from + step); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            }
+            DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition);
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND " + condition); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            filters.add(filter);
+            if (lastPartition) {
+                break;
+            }
+        }
+        return filters;
+    }
+
+    @Nullable
+    private static Long toLongKey(@Nullable Object value) {
+        try {
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).longValueExact();
+            } else if (value instanceof BigInteger) {
+                return ((BigInteger) value).longValueExact();
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return ((Number) value).longValue();
+            }
+        } catch (ArithmeticException e) {
+            // Out of long range
+        }
+        return null;
+    }
+
+    private static class PartitionMessage {
+        private final DBCResultSetMetaData metaData;
+        private final List<Object[]> rows;
+
+        PartitionMessage(DBCResultSetMetaData metaData, List<Object[]> rows) {
+            this.metaData = metaData;
+            this.rows = rows;
+        }
+    }
+
+    private class PartitionReader extends Thread implements DBDDataReceiver {
+        private final DBCExecutionSource source;
+        private final DBRProgressMonitor monitor;
+        private final DBCExecutionContext initContext;
+        private final DBDDataFilter filter;
+        private final int partitionNumber;
+
+        private DBCResultSetMetaData metaData;
+        private DBDAttributeBinding[] bindings;
+        private List<Object[]> currentBatch;
+        private DBCStatistics statistics;
+        private Throwable error;
+
+        PartitionReader(DBCExecutionSource source, DBRProgressMonitor monitor, DBCExecutionContext initContext, DBDDataFilter filter, int partitionNumber) {
+            super("Data transfer partition reader " + (partitionNumber + 1)); //$NON-NLS-1$
+            this.source = source;
+            this.monitor = monitor;
+            this.initContext = initContext;
+            this.filter = filter;
+            this.partitionNumber = partitionNumber;
+        }
+
+        @Override
+        public void run() {
+            DBCExecutionContext context = null;
+            try {
+                context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(monitor, "Data transfer partition reader", initContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read table partition")) {
+                    session.enableLogging(false);
+                    statistics = dataContainer.readData(source, session, this, filter, -1, -1, readFlags, fetchSize);
+                }
+            } catch (Throwable e) {
+                if (!aborted) {
+                    error = e;
+                    aborted = true;
+                }
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+                // End of partition marker. Metadata lets consumer start even if all partitions are empty
+                putMessage(new PartitionMessage(metaData, null));
+            }
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            // Result set is closed before fetchEnd, so keep its metadata
+            metaData = resultSet.getMeta();
+            bindings = DBUtils.getAttributeBindings(session, dataContainer, metaData);
+            DBExecUtils.setResultSetFetchAttributes(resultSet, bindings);
+            currentBatch = new ArrayList<>(ROWS_PER_BATCH);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (aborted) {
+                throw new DBCException("Partitioned data read aborted");
+            }
+            currentBatch.add(DatabaseTransferPipelineReceiver.fetchRowValues(session, resultSet, bindings));
+            if (currentBatch.size() >= ROWS_PER_BATCH) {
+                putMessage(new PartitionMessage(metaData, currentBatch));
+                currentBatch = new ArrayList<>(ROWS_PER_BATCH);
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (!CommonUtils.isEmpty(currentBatch) && !aborted) {
+                putMessage(new PartitionMessage(metaData, currentBatch));
+            }
+            currentBatch = null;
+        }
+
+        @Override
+        public void close() {
+            metaData = null;
+            bindings = null;
+        }
+
+        private void putMessage(PartitionMessage message) {
+            try {
+                messageQueue.put(message);
+            } catch (InterruptedException e) {
+                aborted = true;
+            }
+        }
+    }
+
+}
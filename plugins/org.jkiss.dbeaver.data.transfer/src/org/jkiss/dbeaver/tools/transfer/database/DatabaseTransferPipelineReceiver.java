@@ -0,0 +1,241 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingCustom;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data receiver which decouples source cursor reading from target data consumption.
+ *
+ * Rows are fetched from the source result set in the producer thread, packed in batches
+ * and passed through a bounded queue to the consumer thread.
+ * Consumer's fetchStart/fetchEnd/close are still called in the producer thread,
+ * thus transaction and commit handling stays the same as in regular mode.
+ *
+ * Result sets with LOBs or complex attributes are always transferred synchronously because
+ * their values may depend on the current cursor position.
+ */
+class DatabaseTransferPipelineReceiver implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DatabaseTransferPipelineReceiver.class);
+
+    private static final int ROWS_PER_BATCH = 500;
+    private static final long QUEUE_POLL_TIMEOUT = 100;
+
+    // End of stream marker
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>();
+
+    private final DBSDataContainer dataContainer;
+    private final DBDDataReceiver consumer;
+    private final int queueCapacity;
+
+    private DBDAttributeBinding[] bindings;
+    private BlockingQueue<List<Object[]>> rowQueue;
+    private List<Object[]> currentBatch;
+    private Thread consumerThread;
+    private volatile Throwable consumerError;
+
+    DatabaseTransferPipelineReceiver(@NotNull DBSDataContainer dataContainer, @NotNull DBDDataReceiver consumer, int bufferSize) {
+        this.dataContainer = dataContainer;
+        this.consumer = consumer;
+        this.queueCapacity = Math.max(1, bufferSize / ROWS_PER_BATCH);
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        consumer.fetchStart(session, resultSet, offset, maxRows);
+
+        bindings = DBUtils.getAttributeBindings(session, dataContainer, resultSet.getMeta());
+        if (!isPipelineSupported(bindings)) {
+            log.debug("Result set of '" + dataContainer.getName() + "' contains LOB or complex attributes. Pipelined transfer disabled.");
+            return;
+        }
+        rowQueue = new ArrayBlockingQueue<>(queueCapacity);
+        currentBatch = new ArrayList<>(ROWS_PER_BATCH);
+        consumerError = null;
+
+        BufferedTransferResultSet bufferedResultSet = new BufferedTransferResultSet(session, resultSet);
+        consumerThread = new Thread(
+            () -> consumeRows(session, bufferedResultSet),
+            "Data transfer consumer (" + dataContainer.getName() + ")"); //$NON-NLS-1$
+        // Do not block application shutdown if transfer hangs
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (consumerThread == null) {
+            consumer.fetchRow(session, resultSet);
+            return;
+        }
+        checkConsumerError();
+
+        currentBatch.add(fetchRowValues(session, resultSet, bindings));
+        if (currentBatch.size() >= ROWS_PER_BATCH) {
+            flushBatch(session);
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        try {
+            if (consumerThread != null) {
+                try {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        // Do not process rows which were read but not consumed yet
+                        currentBatch.clear();
+                        rowQueue.clear();
+                    }
+                    if (!currentBatch.isEmpty()) {
+                        flushBatch(session);
+                    }
+                    enqueue(session, END_OF_DATA);
+                } finally {
+                    waitForConsumer();
+                }
+                checkConsumerError();
+            }
+        } finally {
+            // Consumer always finishes its work in the producer thread
+            consumer.fetchEnd(session, resultSet);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (consumerThread != null && consumerThread.isAlive()) {
+            consumerThread.interrupt();
+            waitForConsumer();
+        }
+        consumerThread = null;
+        rowQueue = null;
+        currentBatch = null;
+        bindings = null;
+        consumer.close();
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics getStatistics() {
+        return consumer.getStatistics();
+    }
+
+    /**
+     * Checks that all values can be read before they are passed to consumer
+     */
+    static boolean isPipelineSupported(DBDAttributeBinding[] bindings) {
+        for (DBDAttributeBinding binding : bindings) {
+            DBPDataKind dataKind = binding.getDataKind();
+            if (dataKind == DBPDataKind.CONTENT || dataKind.isComplex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads values of the current result set row.
+     * Values are read in the same way as consumers read them from the original result set.
+     */
+    static Object[] fetchRowValues(DBCSession session, DBCResultSet resultSet, DBDAttributeBinding[] bindings) throws DBCException {
+        Object[] row = new Object[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            DBDAttributeBinding binding = bindings[i];
+            if (binding instanceof DBDAttributeBindingCustom) {
+                // Custom attributes are evaluated by consumer
+                continue;
+            }
+            row[i] = binding.getValueHandler().fetchValueObject(session, resultSet, binding, i);
+        }
+        return row;
+    }
+
+    private void consumeRows(DBCSession session, BufferedTransferResultSet resultSet) {
+        try {
+            for (;;) {
+                List<Object[]> batch = rowQueue.take();
+                if (batch == END_OF_DATA) {
+                    break;
+                }
+                for (Object[] row : batch) {
+                    resultSet.setCurrentRow(row);
+                    consumer.fetchRow(session, resultSet);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Transfer was aborted
+        } catch (Throwable e) {
+            consumerError = e;
+        }
+    }
+
+    private void flushBatch(DBCSession session) throws DBCException {
+        enqueue(session, currentBatch);
+        currentBatch = new ArrayList<>(ROWS_PER_BATCH);
+    }
+
+    private void enqueue(DBCSession session, List<Object[]> batch) throws DBCException {
+        try {
+            // Wait for free space in queue. Stop waiting if consumer died or task was canceled.
+            while (!rowQueue.offer(batch, QUEUE_POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkConsumerError();
+                if (!consumerThread.isAlive()) {
+                    return;
+                }
+                if (session.getProgressMonitor().isCanceled() && batch != END_OF_DATA) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        }
+    }
+
+    private void waitForConsumer() {
+        try {
+            consumerThread.join();
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for data transfer consumer");
+        }
+    }
+
+    private void checkConsumerError() throws DBCException {
+        Throwable error = consumerError;
+        if (error != null) {
+            if (error instanceof DBCException) {
+                throw (DBCException) error;
+            }
+            throw new DBCException("Error while consuming transferred rows", error);
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -243,6 +244,12 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
                         }
 
+                        DBDDataReceiver dataReceiver = consumer;
+                        if (settings.isPipelinedTransfer() && consumer instanceof DatabaseTransferConsumer) {
+                            // Read source rows and write them into target in different threads
+                            dataReceiver = new DatabaseTransferPipelineReceiver(dataContainer, consumer, settings.getPipelineBufferSize());
+                        }
+
                         monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) totalRows);
 
                         try {
@@ -250,15 +257,37 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
 
                             // Perform export
                             if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
-                                // Just do it in single query
-                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                DBCStatistics partitionStatistics = null;
+                                if (!selectiveExportFromUI && newConnection) {
+                                    // Read key ranges of a big table in separate connections
+                                    DatabaseTransferPartitionReader partitionReader = DatabaseTransferPartitionReader.create(
+                                        monitor, dataContainer, dataFilter, readFlags, settings.getFetchSize(), settings.getReadPartitionCount());
+                                    if (partitionReader != null) {
+                                        boolean fallback = false;
+                                        try {
+                                            partitionStatistics = partitionReader.readData(transferSource, session, consumer);
+                                            fallback = partitionStatistics == null;
+                                        } finally {
+                                            if (!fallback) {
+                                                // Close consumer like container's readData does with its receiver
+                                                consumer.close();
+                                            }
+                                        }
+                                    }
+                                }
+                                if (partitionStatistics != null) {
+                                    producerStatistics.accumulate(partitionStatistics);
+                                } else {
+                                    // Just do it in single query
+                                    producerStatistics.accumulate(dataContainer.readData(transferSource, session, dataReceiver, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                }
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
                                 int segmentSize = settings.getSegmentSize();
                                 for (; ; ) {
                                     DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        transferSource, session, dataReceiver, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
@@ -39,6 +39,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_checkbox_select_row_count;
 	public static String data_transfer_wizard_output_checkbox_selected_columns_only;
 	public static String data_transfer_wizard_output_checkbox_selected_rows_only;
+	public static String data_transfer_wizard_output_checkbox_pipelined_transfer;
 	public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
 	public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
 	public static String data_transfer_wizard_output_description;
@@ -58,6 +59,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
 	public static String data_transfer_wizard_output_label_max_threads;
 	public static String data_transfer_wizard_output_label_segment_size;
+	public static String data_transfer_wizard_output_label_read_partitions;
 	public static String data_transfer_wizard_output_label_add_to_end_of_file;
 	public static String data_transfer_wizard_output_label_add_to_end_of_file_tip;
 	public static String data_transfer_wizard_output_error_empty_output_directory;
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
@@ -151,6 +152,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
         // Prepare columns
         columnMetas = DBUtils.getAttributeBindings(session, dataContainer, resultSet.getMeta());
+        DBExecUtils.setResultSetFetchAttributes(resultSet, columnMetas);
         if (processor instanceof IDocumentDataExporter) {
             columnBindings = DBUtils.injectAndFilterAttributeBindings(session.getDataSource(), dataContainer, columnMetas, true);
         } else {
@@ -250,8 +252,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private File saveContentToFile(DBRProgressMonitor monitor, DBDContent content)
         throws IOException, DBCException {
-        DBDContentStorage contents = content.getContents(monitor);
-        if (DBUtils.isNullValue(contents)) {
+        if (DBUtils.isNullValue(content)) {
             return null;
         }
         if (lobDirectory == null) {
@@ -266,8 +267,28 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         Boolean extractImages = (Boolean) processorProperties.get(StreamConsumerSettings.PROP_EXTRACT_IMAGES);
         String fileExt = (extractImages != null && extractImages) ? ".jpg" : ".data";
         File lobFile = new File(lobDirectory, outputFile.getName() + "-" + lobCount + fileExt); //$NON-NLS-1$ //$NON-NLS-2$
-        try (InputStream cs = contents.getContentStream()) {
-            ContentUtils.saveContentToFile(cs, lobFile, monitor);
+        // Content which wasn't cached yet is copied right from the source. Otherwise we would write it to disk twice.
+        InputStream directStream = content instanceof DBDContentStreamable ?
+            ((DBDContentStreamable) content).openDirectStream(monitor) : null;
+        if (directStream != null) {
+            try (InputStream cs = directStream) {
+                ContentUtils.transferStreamToFile(monitor, cs, -1, lobFile);
+            }
+        } else {
+            DBDContentStorage contents = content.getContents(monitor);
+            if (DBUtils.isNullValue(contents)) {
+                return null;
+            }
+            if (contents instanceof DBDContentStorageLocal) {
+                ContentUtils.copyFile(monitor, ((DBDContentStorageLocal) contents).getDataFile(), lobFile);
+            } else {
+                try (InputStream cs = contents.getContentStream()) {
+                    ContentUtils.transferStreamToFile(monitor, cs, contents.getContentLength(), lobFile);
+                }
+            }
+        }
+        if (monitor.isCanceled() && !lobFile.delete()) {
+            log.warn("Can't delete incomplete file '" + lobFile.getAbsolutePath() + "'");
         }
         return lobFile;
     }
@@ -761,10 +782,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                         }
                         case NATIVE: {
                             if (dataSource != null) {
-                                ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) cs.getContentLength());
-                                IOUtils.copyStream(stream, buffer);
-
-                                final byte[] bytes = buffer.toByteArray();
+                                final byte[] bytes = ContentUtils.readContentBytes(stream, cs.getContentLength());
                                 final String binaryString = dataSource.getSQLDialect().getNativeBinaryFormatter().toString(bytes, 0, bytes.length);
                                 writer.write(binaryString);
                                 break;
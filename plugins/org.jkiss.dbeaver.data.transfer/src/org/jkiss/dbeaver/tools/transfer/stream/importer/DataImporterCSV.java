@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
@@ -34,6 +35,8 @@ import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.Pair;
+import org.jkiss.utils.csv.CSVChunkedReader;
+import org.jkiss.utils.csv.CSVParser;
 import org.jkiss.utils.csv.CSVReader;
 import org.jkiss.utils.io.BOMInputStream;
 
@@ -57,6 +60,8 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
+    // Smaller files are parsed in a single thread
+    private static final long MIN_CHUNKED_READ_FILE_SIZE = 16 * 1024 * 1024;
 
     public enum HeaderPosition {
         none,
@@ -170,6 +175,28 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
+        return new CSVReader(reader, CSVReader.DEFAULT_SKIP_LINES, createCSVParser(processorProperties));
+    }
+
+    /**
+     * Opens reader which parses big files in several threads.
+     * Returns null if file is too small or its charset can't be parsed in chunks.
+     */
+    @Nullable
+    private CSVChunkedReader openChunkedCSVReader(@Nullable File inputFile, Map<String, Object> processorProperties) throws IOException {
+        if (inputFile == null || !inputFile.isFile() || inputFile.length() < MIN_CHUNKED_READ_FILE_SIZE ||
+            Runtime.getRuntime().availableProcessors() < 2) {
+            return null;
+        }
+        final Charset charset = Charset.forName(CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+        final CSVParser parser = createCSVParser(processorProperties);
+        if (!CSVChunkedReader.isSupported(charset, parser)) {
+            return null;
+        }
+        return new CSVChunkedReader(inputFile, charset, parser);
+    }
+
+    private CSVParser createCSVParser(Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
@@ -179,7 +206,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return new CSVParser(delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
@@ -227,8 +254,9 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+            try (CSVChunkedReader chunkedReader = openChunkedCSVReader(entityMapping.getInputFile(), properties);
+                 Reader reader = chunkedReader != null ? null : openStreamReader(inputStream, properties, true)) {
+                try (CSVReader csvReader = reader == null ? null : openCSVReader(reader, properties)) {
 
                     int maxRows = site.getSettings().getMaxRows();
                     int targetAttrSize = entityMapping.getStreamColumns().size();
@@ -237,7 +265,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
                         if (monitor.isCanceled()) {
                             break;
                         }
-                        String[] line = csvReader.readNext();
+                        String[] line = chunkedReader != null ? chunkedReader.readNext() : csvReader.readNext();
                         if (line == null) {
                             break;
                         }
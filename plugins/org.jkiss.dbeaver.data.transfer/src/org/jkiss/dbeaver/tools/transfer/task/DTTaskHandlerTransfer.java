@@ -30,8 +30,10 @@ import org.jkiss.dbeaver.model.task.DBTTaskRunStatus;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.tools.transfer.*;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseConsumerSettings;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseProducerSettings;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings;
 
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
@@ -139,22 +141,151 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler {
         if (totalJobs > settings.getMaxJobCount()) {
             totalJobs = settings.getMaxJobCount();
         }
+        if (totalJobs > 1 && !isParallelTransferSupported(settings)) {
+            log.debug("Data transfer configuration doesn't support parallel execution. Transfer pipes sequentially.");
+            totalJobs = 1;
+        }
+        if (totalJobs > 1) {
+            return runParallelDataTransferJobs(runnableContext, task, locale, log, listener, settings, totalJobs);
+        }
         Throwable error = null;
-        for (int i = 0; i < totalJobs; i++) {
-            DataTransferJob job = new DataTransferJob(settings, task, locale, log, listener);
-            try {
-                runnableContext.run(true, true, job);
-                totalStatistics.accumulate(job.getTotalStatistics());
-            } catch (InvocationTargetException e) {
-                error = e.getTargetException();
-            } catch (InterruptedException e) {
-                break;
-            }
-            listener.subTaskFinished(error);
+        DataTransferJob job = new DataTransferJob(settings, task, locale, log, listener);
+        try {
+            runnableContext.run(true, true, job);
+            totalStatistics.accumulate(job.getTotalStatistics());
+        } catch (InvocationTargetException e) {
+            error = e.getTargetException();
+        } catch (InterruptedException e) {
+            return null;
         }
+        listener.subTaskFinished(error);
         return error;
     }
 
+    /**
+     * Runs several data transfer jobs simultaneously. Each job takes the next pipe once the previous one is finished.
+     * Pipes with the largest source objects are started first, unless target tables may depend on each other.
+     * If one job fails then the rest are canceled.
+     */
+    @Nullable
+    private Throwable runParallelDataTransferJobs(@NotNull DBRRunnableContext runnableContext, DBTTask task, @NotNull Locale locale,
+                                                  @NotNull Log log, @NotNull DBTTaskExecutionListener listener,
+                                                  @NotNull DataTransferSettings settings, int totalJobs) {
+        DBTTaskExecutionListener syncListener = new DBTTaskExecutionListener() {
+            @Override
+            public synchronized void taskStarted(@NotNull Object task) {
+                listener.taskStarted(task);
+            }
+
+            @Override
+            public synchronized void taskFinished(@NotNull Object task, @Nullable Object result, @Nullable Throwable error) {
+                listener.taskFinished(task, result, error);
+            }
+
+            @Override
+            public synchronized void subTaskFinished(@Nullable Throwable error) {
+                listener.subTaskFinished(error);
+            }
+        };
+        Throwable[] errors = new Throwable[totalJobs];
+        try {
+            runnableContext.run(true, true, monitor -> {
+                if (isPipeReorderAllowed(settings)) {
+                    settings.sortDataPipesBySize(monitor);
+                }
+
+                int totalPipes = settings.getDataPipes().size();
+                monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export, totalPipes);
+                DataTransferJob[] jobs = new DataTransferJob[totalJobs];
+                DataTransferWorkerMonitor[] jobMonitors = new DataTransferWorkerMonitor[totalJobs];
+                Thread[] workers = new Thread[totalJobs];
+                for (int i = 0; i < totalJobs; i++) {
+                    jobs[i] = new DataTransferJob(settings, task, locale, log, syncListener);
+                    jobMonitors[i] = new DataTransferWorkerMonitor(monitor);
+                }
+                for (int i = 0; i < totalJobs; i++) {
+                    DataTransferJob job = jobs[i];
+                    DataTransferWorkerMonitor jobMonitor = jobMonitors[i];
+                    int jobIndex = i;
+                    workers[i] = new Thread(() -> {
+                        try {
+                            job.run(jobMonitor);
+                        } catch (InvocationTargetException e) {
+                            errors[jobIndex] = e.getTargetException();
+                        } catch (Throwable e) {
+                            errors[jobIndex] = e;
+                        }
+                        if (errors[jobIndex] != null) {
+                            // Stop other workers like sequential transfer stops on the first error
+                            for (DataTransferWorkerMonitor otherMonitor : jobMonitors) {
+                                otherMonitor.setCanceled(true);
+                            }
+                        }
+                    }, "Data transfer worker " + (i + 1)); //$NON-NLS-1$
+                    workers[i].setDaemon(true);
+                    workers[i].start();
+                }
+                // Wait for all workers and report the number of finished pipes as overall progress
+                int pipesReported = 0;
+                for (Thread worker : workers) {
+                    while (worker.isAlive()) {
+                        try {
+                            worker.join(100);
+                        } catch (InterruptedException e) {
+                            break;
+                        }
+                        int pipesFinished = settings.getFinishedPipesCount();
+                        if (pipesFinished > pipesReported) {
+                            monitor.worked(pipesFinished - pipesReported);
+                            pipesReported = pipesFinished;
+                        }
+                    }
+                }
+                for (DataTransferJob job : jobs) {
+                    totalStatistics.accumulate(job.getTotalStatistics());
+                }
+                monitor.done();
+            });
+        } catch (InvocationTargetException e) {
+            return e.getTargetException();
+        } catch (InterruptedException e) {
+            return null;
+        }
+        for (Throwable error : errors) {
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pipes order matters for database target, because tables may reference each other
+     */
+    private static boolean isPipeReorderAllowed(@NotNull DataTransferSettings settings) {
+        IDataTransferSettings consumerSettings = settings.getNodeSettings(settings.getConsumer());
+        return !(consumerSettings instanceof DatabaseConsumerSettings) ||
+            ((DatabaseConsumerSettings) consumerSettings).isDisableReferentialIntegrity();
+    }
+
+    private static boolean isParallelTransferSupported(@NotNull DataTransferSettings settings) {
+        // Each pipe must use its own connections
+        IDataTransferSettings producerSettings = settings.getNodeSettings(settings.getProducer());
+        if (producerSettings instanceof DatabaseProducerSettings && !((DatabaseProducerSettings) producerSettings).isOpenNewConnections()) {
+            return false;
+        }
+        IDataTransferSettings consumerSettings = settings.getNodeSettings(settings.getConsumer());
+        if (consumerSettings instanceof DatabaseConsumerSettings && !((DatabaseConsumerSettings) consumerSettings).isOpenNewConnections()) {
+            return false;
+        }
+        if (consumerSettings instanceof StreamConsumerSettings) {
+            // All pipes write in the same output
+            StreamConsumerSettings streamSettings = (StreamConsumerSettings) consumerSettings;
+            return !streamSettings.isUseSingleFile() && !streamSettings.isOutputClipboard();
+        }
+        return true;
+    }
+
     private void restoreReferentialIntegrity(@NotNull DBRRunnableContext runnableContext,
                                              @NotNull List<DataTransferPipe> pipes) throws DBException {
         DBException[] firstDBException = {null};
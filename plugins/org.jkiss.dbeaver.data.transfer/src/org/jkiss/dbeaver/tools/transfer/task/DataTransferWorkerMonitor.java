@@ -0,0 +1,67 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.task;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+
+/**
+ * Progress monitor of a single parallel data transfer worker.
+ * Overall progress is reported by the owner of the original monitor, workers only update its sub task.
+ * Worker may be canceled separately from the original monitor (e.g. when another worker fails).
+ */
+class DataTransferWorkerMonitor extends ProxyProgressMonitor {
+
+    private volatile boolean canceled;
+
+    DataTransferWorkerMonitor(DBRProgressMonitor original) {
+        super(original);
+    }
+
+    @Override
+    public void beginTask(String name, int totalWork) {
+        subTask(name);
+    }
+
+    @Override
+    public void done() {
+        // Overall progress is controlled by the owner
+    }
+
+    @Override
+    public void subTask(String name) {
+        synchronized (original) {
+            original.subTask(name);
+        }
+    }
+
+    @Override
+    public void worked(int work) {
+        // Overall progress is controlled by the owner
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled || super.isCanceled();
+    }
+
+    @Override
+    public void setCanceled(boolean value) {
+        canceled = value;
+    }
+
+}
@@ -289,6 +289,11 @@ public class ExasolDataSource extends JDBCDataSource implements IAdaptable {
 				public void cacheObject(@NotNull ExasolPriorityGroup object) {
 					
 				}
+
+				@Override
+				public void cacheObjects(@NotNull Collection<ExasolPriorityGroup> objects) {
+					
+				}
 			};
 			this.priorityGroupCache.getAllObjects(monitor, this);
 		}
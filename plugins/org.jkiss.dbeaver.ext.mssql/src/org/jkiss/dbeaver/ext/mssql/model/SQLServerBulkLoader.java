@@ -0,0 +1,247 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.*;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy API of Microsoft JDBC driver.
+ *
+ * Rows are buffered in memory and streamed to the server with a single bulk copy operation on each flush.
+ * Driver classes are accessed with reflection, buffered rows are exposed as ISQLServerBulkRecord proxy.
+ */
+public class SQLServerBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLServerBulkLoader.class);
+
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy"; //$NON-NLS-1$
+    private static final String BULK_COPY_OPTIONS_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions"; //$NON-NLS-1$
+    private static final String BULK_RECORD_CLASS = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord"; //$NON-NLS-1$
+
+    private DBSAttributeBase[] attributes;
+    private Class<?> bulkRecordClass;
+    private Object bulkCopy;
+    private Method writeToServerMethod;
+    private final List<Object[]> bufferedRows = new ArrayList<>();
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk copy is not supported for '" + dataContainer.getName() + "'");
+        }
+        this.attributes = attributes;
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+
+            Class<?> bulkCopyClass = Class.forName(BULK_COPY_CLASS, true, driverClassLoader);
+            Class<?> bulkCopyOptionsClass = Class.forName(BULK_COPY_OPTIONS_CLASS, true, driverClassLoader);
+            bulkRecordClass = Class.forName(BULK_RECORD_CLASS, true, driverClassLoader);
+
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+
+            Object bulkCopyOptions = bulkCopyOptionsClass.getConstructor().newInstance();
+            // Default timeout (60 seconds) is too small for big batches
+            bulkCopyOptionsClass.getMethod("setBulkCopyTimeout", Integer.TYPE).invoke(bulkCopyOptions, 0);
+            if (batchSize > 0) {
+                bulkCopyOptionsClass.getMethod("setBatchSize", Integer.TYPE).invoke(bulkCopyOptions, batchSize);
+            }
+            bulkCopyClass.getMethod("setBulkCopyOptions", bulkCopyOptionsClass).invoke(bulkCopy, bulkCopyOptions);
+
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(
+                bulkCopy, DBUtils.getEntityScriptName((DBSEntity) dataContainer, options));
+            Method addColumnMappingMethod = bulkCopyClass.getMethod("addColumnMapping", Integer.TYPE, String.class);
+            for (int i = 0; i < attributes.length; i++) {
+                addColumnMappingMethod.invoke(bulkCopy, i + 1, attributes[i].getName());
+            }
+
+            // Older drivers accept ISQLServerBulkRecord, newer ones its super interface ISQLServerBulkData
+            for (Method method : bulkCopyClass.getMethods()) {
+                if (method.getName().equals("writeToServer") && method.getParameterCount() == 1 &&
+                    method.getParameterTypes()[0].isAssignableFrom(bulkRecordClass))
+                {
+                    writeToServerMethod = method;
+                    break;
+                }
+            }
+            if (writeToServerMethod == null) {
+                throw new DBCException("Bulk copy API is not supported by driver");
+            }
+        } catch (DBCException e) {
+            throw e;
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Can't instantiate SQLServerBulkCopy", e);
+        }
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        Object[] row = new Object[attributeValues.length];
+        for (int i = 0; i < attributeValues.length; i++) {
+            Object value = attributeValues[i];
+            if (value instanceof DBDValue) {
+                value = ((DBDValue) value).isNull() ? null : ((DBDValue) value).getRawValue();
+            }
+            row[i] = value;
+        }
+        bufferedRows.add(row);
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows.isEmpty()) {
+            return;
+        }
+        try {
+            writeToServerMethod.invoke(bulkCopy, createBulkRecord());
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying rows on remote server", e);
+        } finally {
+            bufferedRows.clear();
+        }
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+    }
+
+    @Override
+    public void close() {
+        bufferedRows.clear();
+        if (bulkCopy != null) {
+            try {
+                bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+            } catch (Throwable e) {
+                log.debug("Error closing SQLServerBulkCopy", e);
+            }
+            bulkCopy = null;
+        }
+    }
+
+    /**
+     * Creates driver bulk record which iterates over buffered rows
+     */
+    private Object createBulkRecord() {
+        Iterator<Object[]> rowIterator = bufferedRows.iterator();
+        Object[][] currentRow = new Object[1][];
+        return Proxy.newProxyInstance(bulkRecordClass.getClassLoader(), new Class[]{bulkRecordClass}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnOrdinals": {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= attributes.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                }
+                case "getColumnName":
+                    return getAttribute(args).getName();
+                case "getColumnType":
+                    return getAttribute(args).getTypeID();
+                case "getPrecision":
+                    return getColumnPrecision(getAttribute(args));
+                case "getScale":
+                    return CommonUtils.toInt(getAttribute(args).getScale());
+                case "isAutoIncrement":
+                    return false;
+                case "next":
+                    if (rowIterator.hasNext()) {
+                        currentRow[0] = rowIterator.next();
+                        return true;
+                    }
+                    currentRow[0] = null;
+                    return false;
+                case "getRowData":
+                    return currentRow[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Bulk record of " + bufferedRows.size() + " rows";
+                default:
+                    // Column metadata setters and other optional methods are not used by bulk copy
+                    return getDefaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private DBSAttributeBase getAttribute(Object[] args) {
+        return attributes[(Integer) args[0] - 1];
+    }
+
+    private static int getColumnPrecision(DBSTypedObject attribute) {
+        switch (attribute.getDataKind()) {
+            case NUMERIC:
+                return CommonUtils.toInt(attribute.getPrecision());
+            case STRING:
+            case BINARY:
+                return (int) Math.min(attribute.getMaxLength(), Integer.MAX_VALUE);
+            default:
+                return Math.max(CommonUtils.toInt(attribute.getPrecision()), (int) Math.min(attribute.getMaxLength(), Integer.MAX_VALUE));
+        }
+    }
+
+    private static Object getDefaultValue(Class<?> type) {
+        if (type == Boolean.TYPE) {
+            return false;
+        } else if (type == Integer.TYPE) {
+            return 0;
+        } else if (type == Long.TYPE) {
+            return 0L;
+        }
+        return null;
+    }
+
+}
@@ -433,6 +433,10 @@ public class SQLServerDataSource extends JDBCDataSource implements DBSInstanceCo
             return adapter.cast(new SQLServerSessionManager(this));
         } else if (adapter == DBAUserPasswordManager.class) {
             return adapter.cast(new SQLServerLoginPasswordManager(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            if (!isBabelfish && !SQLServerUtils.isDriverJtds(getContainer().getDriver())) {
+                return adapter.cast(new SQLServerBulkLoader());
+            }
         }
         return super.getAdapter(adapter);
     }
@@ -273,6 +273,14 @@ public class SQLServerDatabase
             dataTypeMap.put(object.getObjectId(), object);
         }
 
+        @Override
+        public void cacheObjects(@NotNull Collection<SQLServerDataType> objects) {
+            super.cacheObjects(objects);
+            for (SQLServerDataType dt : objects) {
+                dataTypeMap.put(dt.getObjectId(), dt);
+            }
+        }
+
         @Override
         public void setCache(List<SQLServerDataType> cache) {
             super.setCache(cache);
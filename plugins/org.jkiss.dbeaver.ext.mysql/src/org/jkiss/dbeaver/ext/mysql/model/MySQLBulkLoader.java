@@ -0,0 +1,235 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Map;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ *
+ * Rows are rendered in an in-memory tab separated buffer which is passed to the driver
+ * as local infile stream (supported by MySQL Connector/J and MariaDB drivers) on each flush.
+ * Requires local infile to be enabled in driver properties (allowLoadLocalInfile) and on the server.
+ */
+public class MySQLBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    private static final String NULL_VALUE = "\\N"; //$NON-NLS-1$
+
+    private final MySQLDataSource dataSource;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private boolean[] hexEncoded;
+    private String loadQuery;
+    private Statement statement;
+    private Method setInputStreamMethod;
+    private StringBuilder rowBuffer;
+    private int bufferedRowCount;
+
+    public MySQLBulkLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("LOAD DATA is not supported for '" + dataContainer.getName() + "'");
+        }
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        this.hexEncoded = new boolean[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            hexEncoded[i] = isBinaryAttribute(attributes[i]);
+        }
+        loadQuery = generateLoadQuery((DBSEntity) dataContainer, options);
+
+        try {
+            // Driver-specific method setLocalInfileInputStream(InputStream)
+            statement = ((JDBCSession) session).getOriginal().createStatement();
+            setInputStreamMethod = statement.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+        } catch (NoSuchMethodException e) {
+            close();
+            throw new DBCException("Driver doesn't support local infile streams", e);
+        } catch (Exception e) {
+            close();
+            throw new DBCException("Can't create LOAD DATA statement", e);
+        }
+        rowBuffer = new StringBuilder(Math.max(batchSize, 1) * 100);
+        bufferedRowCount = 0;
+        return this;
+    }
+
+    private String generateLoadQuery(DBSEntity table, Map<String, Object> options) {
+        StringBuilder query = new StringBuilder(200);
+        query.append("LOAD DATA LOCAL INFILE 'stream' INTO TABLE ").append(DBUtils.getEntityScriptName(table, options)) //$NON-NLS-1$
+            .append(" CHARACTER SET ").append(dataSource.isServerVersionAtLeast(5, 5) ? "utf8mb4" : "utf8") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            .append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' ("); //$NON-NLS-1$
+        StringBuilder setClause = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            String columnName = DBUtils.getObjectFullName(dataSource, attributes[i], DBPEvaluationContext.DML);
+            if (hexEncoded[i]) {
+                // Binary data is passed in hex and decoded on server side
+                String varName = "@v" + i; //$NON-NLS-1$
+                query.append(varName);
+                setClause.append(setClause.length() == 0 ? " SET " : ",") //$NON-NLS-1$ //$NON-NLS-2$
+                    .append(columnName).append("=UNHEX(").append(varName).append(")"); //$NON-NLS-1$ //$NON-NLS-2$
+            } else {
+                query.append(columnName);
+            }
+        }
+        query.append(")").append(setClause); //$NON-NLS-1$
+        return query.toString();
+    }
+
+    private static boolean isBinaryAttribute(DBSAttributeBase attribute) {
+        switch (attribute.getTypeID()) {
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                rowBuffer.append('\t');
+            }
+            Object value = attributeValues[i];
+            if (value instanceof DBDValue) {
+                value = ((DBDValue) value).isNull() ? null : ((DBDValue) value).getRawValue();
+            }
+            if (DBUtils.isNullValue(value)) {
+                rowBuffer.append(NULL_VALUE);
+            } else if (hexEncoded[i]) {
+                byte[] bytes = value instanceof byte[] ?
+                    (byte[]) value :
+                    valueHandlers[i].getValueDisplayString(attributes[i], value, DBDDisplayFormat.NATIVE).getBytes(StandardCharsets.UTF_8);
+                rowBuffer.append(CommonUtils.toHexString(bytes));
+            } else if (value instanceof Boolean) {
+                rowBuffer.append((Boolean) value ? '1' : '0');
+            } else if (value instanceof BigDecimal) {
+                rowBuffer.append(((BigDecimal) value).toPlainString());
+            } else if (value instanceof Number) {
+                rowBuffer.append(value);
+            } else {
+                appendEscaped(valueHandlers[i].getValueDisplayString(attributes[i], value, DBDDisplayFormat.NATIVE));
+            }
+        }
+        rowBuffer.append('\n');
+        bufferedRowCount++;
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': rowBuffer.append("\\\\"); break;
+                case '\t': rowBuffer.append("\\t"); break;
+                case '\n': rowBuffer.append("\\n"); break;
+                case '\r': rowBuffer.append("\\r"); break;
+                case 0: rowBuffer.append("\\0"); break;
+                default: rowBuffer.append(c); break;
+            }
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRowCount == 0) {
+            return;
+        }
+        byte[] data = rowBuffer.toString().getBytes(StandardCharsets.UTF_8);
+        rowBuffer.setLength(0);
+        bufferedRowCount = 0;
+        try {
+            setInputStreamMethod.invoke(statement, new ByteArrayInputStream(data));
+            try {
+                statement.execute(loadQuery);
+            } finally {
+                setInputStreamMethod.invoke(statement, (Object) null);
+            }
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error loading data on remote server. Make sure that local infile is enabled in driver properties (allowLoadLocalInfile)", e);
+        }
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+    }
+
+    @Override
+    public void close() {
+        rowBuffer = null;
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (Exception e) {
+                log.debug("Error closing LOAD DATA statement", e);
+            }
+            statement = null;
+        }
+    }
+
+}
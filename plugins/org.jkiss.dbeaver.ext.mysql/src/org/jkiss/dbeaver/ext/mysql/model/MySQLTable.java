@@ -129,32 +129,37 @@ public class MySQLTable extends MySQLTableBase implements DBPObjectStatistics, D
             additionalInfo.engine = sourceAI.engine;
 
             // Copy triggers
+            List<MySQLTrigger> triggers = new ArrayList<>();
             for (MySQLTrigger srcTrigger : ((MySQLTable) source).getTriggers(monitor)) {
-                MySQLTrigger trigger = new MySQLTrigger(catalog, this, srcTrigger);
-                getContainer().triggerCache.cacheObject(trigger);
+                triggers.add(new MySQLTrigger(catalog, this, srcTrigger));
             }
+            getContainer().triggerCache.cacheObjects(triggers);
             // Copy partitions
+            List<MySQLPartition> partitions = new ArrayList<>();
             for (MySQLPartition partition : ((MySQLTable)source).partitionCache.getCachedObjects()) {
-                partitionCache.cacheObject(new MySQLPartition(monitor, this, partition));
+                partitions.add(new MySQLPartition(monitor, this, partition));
             }
+            partitionCache.cacheObjects(partitions);
         }
         if (source instanceof DBSTable) {
             // Copy indexes
+            List<MySQLTableIndex> indexes = new ArrayList<>();
             for (DBSTableIndex srcIndex : CommonUtils.safeCollection(((DBSTable)source).getIndexes(monitor))) {
                 if (srcIndex instanceof MySQLTableIndex && srcIndex.isPrimary()) {
                     // Skip primary key index (it will be created implicitly)
                     continue;
                 }
-                MySQLTableIndex index = new MySQLTableIndex(monitor, this, srcIndex);
-                this.getContainer().indexCache.cacheObject(index);
+                indexes.add(new MySQLTableIndex(monitor, this, srcIndex));
             }
+            this.getContainer().indexCache.cacheObjects(indexes);
         }
 
         // Copy constraints
+        List<MySQLTableConstraint> constraints = new ArrayList<>();
         for (DBSEntityConstraint srcConstr : CommonUtils.safeCollection(source.getConstraints(monitor))) {
-            MySQLTableConstraint constr = new MySQLTableConstraint(monitor, this, srcConstr);
-            this.getContainer().uniqueKeyCache.cacheObject(constr);
+            constraints.add(new MySQLTableConstraint(monitor, this, srcConstr));
         }
+        this.getContainer().uniqueKeyCache.cacheObjects(constraints);
 
         // Copy FKs
         List<MySQLTableForeignKey> fkList = new ArrayList<>();
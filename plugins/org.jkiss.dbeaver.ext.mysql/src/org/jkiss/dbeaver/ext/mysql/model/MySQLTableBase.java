@@ -63,13 +63,14 @@ public abstract class MySQLTableBase extends JDBCTable<MySQLDataSource, MySQLCat
 
         DBSObjectCache<MySQLTableBase, MySQLTableColumn> colCache = getContainer().getTableCache().getChildrenCache(this);
         // Copy columns
+        List<MySQLTableColumn> columns = new ArrayList<>();
         for (DBSEntityAttribute srcColumn : CommonUtils.safeCollection(source.getAttributes(monitor))) {
             if (DBUtils.isHiddenObject(srcColumn)) {
                 continue;
             }
-            MySQLTableColumn column = new MySQLTableColumn(monitor, this, srcColumn);
-            colCache.cacheObject(column);
+            columns.add(new MySQLTableColumn(monitor, this, srcColumn));
         }
+        colCache.cacheObjects(columns);
     }
 
     protected MySQLTableBase(
@@ -0,0 +1,34 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCBatchBulkLoader;
+
+/**
+ * Bulk loader based on array-bound direct-path inserts (APPEND_VALUES hint).
+ *
+ * Rows are bound in JDBC batches, each batch is written above the high water mark of the table.
+ * Direct-path inserted data can't be read in the same transaction so transaction is committed after each batch.
+ */
+public class OracleBulkLoader extends JDBCBatchBulkLoader {
+
+    @Override
+    protected String getInsertHint() {
+        return "/*+ APPEND_VALUES */ "; //$NON-NLS-1$
+    }
+
+}
@@ -156,6 +156,24 @@ public class PostgreDataTypeCache extends JDBCObjectCache<PostgreSchema, Postgre
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<PostgreDataType> objects) {
+        // Skip already cached names, the same way as cacheObject does
+        List<PostgreDataType> newObjects = new ArrayList<>(objects.size());
+        Set<String> newNames = new HashSet<>();
+        for (PostgreDataType object : objects) {
+            if (getCachedObject(object.getName()) == null && newNames.add(object.getName())) {
+                newObjects.add(object);
+            }
+        }
+        super.cacheObjects(newObjects);
+        for (PostgreDataType object : newObjects) {
+            if (!object.isAlias() || object.isExtraDataType()) {
+                dataTypeMap.put(object.getObjectId(), object);
+            }
+        }
+    }
+
     @Override
     public void setCache(List<PostgreDataType> postgreDataTypes) {
         super.setCache(postgreDataTypes);
@@ -37,6 +37,7 @@ import org.jkiss.dbeaver.model.struct.cache.DBSObjectCache;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -98,13 +99,14 @@ public abstract class PostgreTableBase extends JDBCTable<PostgreDataSource, Post
 
         DBSObjectCache<PostgreTableBase, PostgreTableColumn> colCache = getSchema().getTableCache().getChildrenCache(this);
         // Copy columns
+        List<PostgreTableColumn> columns = new ArrayList<>();
         for (PostgreTableColumn srcColumn : CommonUtils.safeCollection(source.getAttributes(monitor))) {
             if (DBUtils.isHiddenObject(srcColumn)) {
                 continue;
             }
-            PostgreTableColumn column = new PostgreTableColumn(monitor, this, srcColumn);
-            colCache.cacheObject(column);
+            columns.add(new PostgreTableColumn(monitor, this, srcColumn));
         }
+        colCache.cacheObjects(columns);
     }
 
     @Override
@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCBatchBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.Map;
+
+/**
+ * SQLite bulk loader.
+ *
+ * Each statement in auto-commit mode is a separate transaction with its own journal sync,
+ * so all rows are inserted by a single reused prepared statement in one transaction.
+ */
+public class SQLiteBulkLoader extends JDBCBatchBulkLoader {
+
+    private static final Log log = Log.getLog(SQLiteBulkLoader.class);
+
+    private DBCTransactionManager txnManager;
+    private DBCSession session;
+    private boolean loadFinished;
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && txnManager.isAutoCommit()) {
+            // Auto-commit will be restored after bulk load
+            txnManager.setAutoCommit(session.getProgressMonitor(), false);
+            this.txnManager = txnManager;
+            this.session = session;
+        }
+        loadFinished = false;
+        return super.createBulkLoad(session, dataContainer, attributes, source, batchSize, options);
+    }
+
+    @Override
+    protected boolean isCommitAfterFlush() {
+        return false;
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        super.finishBulkLoad(session);
+        loadFinished = true;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        if (txnManager != null) {
+            try {
+                if (!loadFinished) {
+                    // Do not commit partially loaded data on auto-commit switch
+                    txnManager.rollback(session, null);
+                }
+                txnManager.setAutoCommit(session.getProgressMonitor(), true);
+            } catch (DBCException e) {
+                log.debug("Error restoring auto-commit mode", e);
+            }
+            txnManager = null;
+            session = null;
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.commands;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLControlCommandHandler;
+import org.jkiss.dbeaver.model.sql.SQLScriptContext;
+
+/**
+ * Marks script for parallel execution. Must be the first script element.
+ * Command is interpreted by script executor (see {@link org.jkiss.dbeaver.model.sql.exec.SQLScriptParallelState}),
+ * the handler itself does nothing.
+ */
+public class SQLCommandParallel implements SQLControlCommandHandler {
+
+    public static final String COMMAND_ID = "parallel";
+
+    @Override
+    public boolean handleCommand(SQLControlCommand command, SQLScriptContext scriptContext) throws DBException {
+        return true;
+    }
+
+}
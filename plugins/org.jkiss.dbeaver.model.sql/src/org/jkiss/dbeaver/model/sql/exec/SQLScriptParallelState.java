@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.commands.SQLCommandParallel;
+import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * State of parallel script execution shared by all workers.
+ *
+ * Script must start with @parallel command followed by plain queries (no parameters and other commands).
+ * Workers take queries in script order. Query errors are resolved one at a time: the first failed worker asks user,
+ * STOP stops all workers and IGNORE_ALL suppresses further questions.
+ */
+public class SQLScriptParallelState {
+
+    private final int queryCount;
+    private int nextQuery;
+    private int finishedCount;
+    private volatile boolean stopped;
+    private volatile boolean ignoreErrors;
+
+    /**
+     * @param queryCount total number of script elements (including @parallel command)
+     */
+    public SQLScriptParallelState(int queryCount) {
+        this.queryCount = queryCount;
+        // The first element is @parallel command
+        this.nextQuery = 1;
+    }
+
+    /**
+     * Checks that script is marked for parallel execution and contains only queries which may be executed in parallel
+     */
+    public static boolean isParallelScript(@NotNull List<SQLScriptElement> queries) {
+        if (queries.size() < 3) {
+            return false;
+        }
+        SQLScriptElement first = queries.get(0);
+        if (!(first instanceof SQLControlCommand) ||
+            !SQLCommandParallel.COMMAND_ID.equalsIgnoreCase(((SQLControlCommand) first).getCommandId()))
+        {
+            return false;
+        }
+        for (int i = 1; i < queries.size(); i++) {
+            SQLScriptElement element = queries.get(i);
+            if (!(element instanceof SQLQuery) || !CommonUtils.isEmpty(((SQLQuery) element).getParameters())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns index of the next query to execute or -1 if execution is stopped or all queries were taken
+     */
+    public synchronized int nextQuery() {
+        if (stopped || nextQuery >= queryCount) {
+            return -1;
+        }
+        return nextQuery++;
+    }
+
+    public synchronized void queryFinished() {
+        finishedCount++;
+    }
+
+    public synchronized int getFinishedCount() {
+        return finishedCount;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isIgnoreErrors() {
+        return ignoreErrors;
+    }
+
+    /**
+     * Resolves query error. Prompt is called only if execution wasn't stopped and errors are not ignored yet.
+     * Only one prompt is shown at a time, other failed workers wait for it.
+     */
+    @NotNull
+    public synchronized DBPPlatformUI.UserResponse handleError(@NotNull Supplier<DBPPlatformUI.UserResponse> prompt) {
+        if (stopped) {
+            return DBPPlatformUI.UserResponse.STOP;
+        }
+        if (ignoreErrors) {
+            return DBPPlatformUI.UserResponse.IGNORE;
+        }
+        DBPPlatformUI.UserResponse response = prompt.get();
+        switch (response) {
+            case RETRY:
+            case IGNORE:
+                break;
+            case IGNORE_ALL:
+                ignoreErrors = true;
+                break;
+            default:
+                response = DBPPlatformUI.UserResponse.STOP;
+                stopped = true;
+                break;
+        }
+        return response;
+    }
+
+}
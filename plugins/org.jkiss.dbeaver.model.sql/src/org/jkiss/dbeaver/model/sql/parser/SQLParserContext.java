@@ -17,7 +17,9 @@
 
 package org.jkiss.dbeaver.model.sql.parser;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPDataSource;
@@ -46,6 +48,10 @@ public class SQLParserContext {
     @Nullable
     private DBPPreferenceStore preferenceStore;
 
+    // Statement indexes for each combination of scriptMode/keepDelimiters flags
+    private SQLScriptStatementIndex[] statementIndexes;
+    private IDocumentListener documentListener;
+
     public SQLParserContext(@Nullable DBPDataSource dataSource, @NotNull SQLSyntaxManager syntaxManager, @NotNull SQLRuleManager ruleManager, @NotNull IDocument document) {
         this.dataSource = dataSource;
         this.syntaxManager = syntaxManager;
@@ -99,6 +105,62 @@ public class SQLParserContext {
         this.preferenceStore = preferenceStore;
     }
 
+    /**
+     * Enables statement index for this context.
+     * Index is updated incrementally on document changes so it makes sense only for long-living contexts
+     * (e.g. in SQL editor). Context must be disposed then.
+     */
+    public synchronized void enableStatementIndex() {
+        if (statementIndexes != null) {
+            return;
+        }
+        statementIndexes = new SQLScriptStatementIndex[4];
+        documentListener = new IDocumentListener() {
+            @Override
+            public void documentAboutToBeChanged(DocumentEvent event) {
+                // Nothing
+            }
+
+            @Override
+            public void documentChanged(DocumentEvent event) {
+                onDocumentChange(event);
+            }
+        };
+        document.addDocumentListener(documentListener);
+    }
+
+    public synchronized void dispose() {
+        if (documentListener != null) {
+            document.removeDocumentListener(documentListener);
+            documentListener = null;
+        }
+        statementIndexes = null;
+    }
+
+    @Nullable
+    synchronized SQLScriptStatementIndex getStatementIndex(boolean scriptMode, boolean keepDelimiters) {
+        if (statementIndexes == null) {
+            return null;
+        }
+        int indexId = (scriptMode ? 2 : 0) + (keepDelimiters ? 1 : 0);
+        if (statementIndexes[indexId] == null) {
+            statementIndexes[indexId] = new SQLScriptStatementIndex(this, scriptMode, keepDelimiters);
+        }
+        return statementIndexes[indexId];
+    }
+
+    private synchronized void onDocumentChange(DocumentEvent event) {
+        if (statementIndexes == null) {
+            return;
+        }
+        int insertedLength = event.getText() == null ? 0 : event.getText().length();
+        for (SQLScriptStatementIndex index : statementIndexes) {
+            if (index != null) {
+                index.documentChanged(event.getOffset(), event.getLength(), insertedLength);
+            }
+        }
+    }
+
     void startScriptEvaluation() {
         getScanner().startEval();
     }
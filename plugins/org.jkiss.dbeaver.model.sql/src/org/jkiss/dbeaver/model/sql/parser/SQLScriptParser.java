@@ -423,9 +423,14 @@ public class SQLScriptParser {
             }
 
             if (!lineFeedIsDelimiter) {
-                int lineOffset = document.getLineOffset(currentLine);
+                // Statement can't start before the closest known statement boundary.
+                // Take boundary before current line because position may be moved before delimiter later.
+                SQLScriptStatementIndex statementIndex = context.getStatementIndex(false, false);
+                int statementStart = statementIndex == null ? -1 :
+                    statementIndex.getStatementStart(Math.max(0, document.getLineOffset(currentLine) - 1));
+                int minLine = statementStart <= 0 ? 0 : document.getLineOfOffset(statementStart);
                 int firstLine = currentLine;
-                while (firstLine > 0) {
+                while (firstLine > minLine) {
                     if (useBlankLines) {
                         if (TextUtils.isEmptyLine(document, firstLine) &&
                             isDefaultPartition(partitioner, document.getLineOffset(firstLine))) {
@@ -464,7 +469,7 @@ public class SQLScriptParser {
                     firstLine--;
                 }
                 if (startPos == 0) {
-                    startPos = document.getLineOffset(firstLine);
+                    startPos = Math.max(document.getLineOffset(firstLine), statementStart);
                 }
             }
 
@@ -760,6 +765,17 @@ public class SQLScriptParser {
             return queryList;
         }
 
+        SQLScriptStatementIndex statementIndex = parserContext.getStatementIndex(scriptMode, keepDelimiters);
+        if (statementIndex != null) {
+            List<SQLScriptElement> indexedQueries = statementIndex.getElements(
+                startOffset,
+                startOffset + length,
+                parseParameters && parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED));
+            if (indexedQueries != null) {
+                return indexedQueries;
+            }
+        }
+
         parserContext.startScriptEvaluation();
         try {
             for (int queryOffset = startOffset; ; ) {
@@ -0,0 +1,422 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryParameter;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement boundaries index of SQL document.
+ *
+ * Contains results of sequential script parsing (for one combination of parser flags).
+ * On document change only statements around the damaged region are dropped. The rest is shifted
+ * and re-used once re-parsing reaches one of the old statement boundaries after the damaged region.
+ *
+ * Index is built lazily: each request parses only up to the requested offset and not more than
+ * {@link #MAX_UPDATE_LENGTH} characters. So the first request in a huge script doesn't block the caller.
+ * Requests beyond the parsed part are served from the last known boundary (or by the regular parser).
+ *
+ * Delimiter redefinition commands change parser state for the rest of the script,
+ * so index stops at the first such command. Requests after it are handled by regular parser.
+ */
+class SQLScriptStatementIndex {
+
+    private static final Log log = Log.getLog(SQLScriptStatementIndex.class);
+
+    // Max number of characters parsed by a single request
+    private static final int MAX_UPDATE_LENGTH = 100000;
+
+    private static class Entry {
+        private final SQLScriptElement element;
+        private int offset;
+        private List<SQLQueryParameter> parameters;
+        private boolean parametersParsed;
+
+        Entry(SQLScriptElement element) {
+            this.element = element;
+            this.offset = element.getOffset();
+        }
+
+        int getEnd() {
+            return offset + element.getLength();
+        }
+    }
+
+    private final SQLParserContext context;
+    private final boolean scriptMode;
+    private final boolean keepDelimiters;
+
+    // Entries [0, validCount) are actual. The rest are shifted entries of the previous parse.
+    private final List<Entry> entries = new ArrayList<>();
+    private int validCount;
+    private boolean dirty = true;
+    // Re-parsed statements may be matched with old ones only after this offset
+    private int dirtyEnd;
+    // Offset of delimiter redefinition command which terminates index
+    private int stopOffset = -1;
+
+    // Document changes are just queued. Document must not wait for index update.
+    private final List<int[]> pendingChanges = new ArrayList<>();
+    private int changeCount;
+
+    SQLScriptStatementIndex(@NotNull SQLParserContext context, boolean scriptMode, boolean keepDelimiters) {
+        this.context = context;
+        this.scriptMode = scriptMode;
+        this.keepDelimiters = keepDelimiters;
+    }
+
+    void documentChanged(int offset, int removedLength, int insertedLength) {
+        synchronized (pendingChanges) {
+            pendingChanges.add(new int[] { offset, removedLength, insertedLength });
+            changeCount++;
+        }
+    }
+
+    private void applyPendingChanges() {
+        synchronized (pendingChanges) {
+            for (int[] change : pendingChanges) {
+                applyChange(change[0], change[1], change[2]);
+            }
+            pendingChanges.clear();
+        }
+    }
+
+    private int getChangeCount() {
+        synchronized (pendingChanges) {
+            return changeCount;
+        }
+    }
+
+    private void applyChange(int offset, int removedLength, int insertedLength) {
+        int changeEnd = offset + removedLength;
+        int delta = insertedLength - removedLength;
+
+        // Drop statements touched by change. Previous statement may be merged with the changed one, so drop it too
+        int first = Math.max(0, findFirstEndingAfter(offset) - 1);
+        int last = first;
+        while (last < entries.size() && entries.get(last).offset <= changeEnd) {
+            last++;
+        }
+        entries.subList(first, last).clear();
+        for (int i = first; i < entries.size(); i++) {
+            entries.get(i).offset += delta;
+        }
+        validCount = Math.min(validCount, first);
+
+        int newChangeEnd = offset + insertedLength;
+        if (dirty) {
+            if (dirtyEnd >= changeEnd) {
+                dirtyEnd += delta;
+            } else if (dirtyEnd > offset) {
+                dirtyEnd = newChangeEnd;
+            }
+            dirtyEnd = Math.max(dirtyEnd, newChangeEnd);
+        } else {
+            dirtyEnd = newChangeEnd;
+            dirty = true;
+        }
+
+        if (stopOffset >= 0) {
+            if (changeEnd >= stopOffset) {
+                // Command itself may be changed. Parse it again.
+                stopOffset = -1;
+            } else {
+                stopOffset += delta;
+            }
+        }
+    }
+
+    /**
+     * Returns script elements in the specified range.
+     * Returns null if range can't be served by index (range doesn't start at statement boundary or
+     * is beyond delimiter redefinition).
+     */
+    @Nullable
+    synchronized List<SQLScriptElement> getElements(int startOffset, int endOffset, boolean parseParameters) {
+        if (!update(endOffset)) {
+            return null;
+        }
+        if (stopOffset >= 0 && endOffset > stopOffset) {
+            return null;
+        }
+        int first = findBoundary(startOffset);
+        if (first < 0) {
+            return null;
+        }
+        List<SQLScriptElement> result = new ArrayList<>();
+        int pos = first == 0 ? 0 : entries.get(first - 1).getEnd();
+        for (int i = first; i < validCount; i++) {
+            Entry entry = entries.get(i);
+            if (entry.getEnd() > endOffset) {
+                break;
+            }
+            result.add(copyElement(entry, parseParameters));
+            pos = entry.getEnd();
+        }
+        if (pos < endOffset) {
+            // Range ends in the middle of statement. Parse the rest as is.
+            context.startScriptEvaluation();
+            try {
+                for (int queryOffset = pos; ; ) {
+                    SQLScriptElement element = SQLScriptParser.parseQuery(
+                        context, queryOffset, endOffset, queryOffset, scriptMode, keepDelimiters);
+                    if (element == null) {
+                        break;
+                    }
+                    if (parseParameters && element instanceof SQLQuery) {
+                        ((SQLQuery) element).setParameters(
+                            SQLScriptParser.parseParameters(context, element.getOffset(), element.getLength()));
+                    }
+                    result.add(element);
+                    queryOffset = element.getOffset() + element.getLength();
+                }
+            } finally {
+                context.endScriptEvaluation();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns offset of the closest statement boundary before specified position (or -1 if it is unknown).
+     * Parsing from this boundary gives the same result as parsing from the script beginning.
+     * If index isn't built up to the position yet then the last parsed boundary is returned.
+     */
+    synchronized int getStatementStart(int position) {
+        if (!update(position + 1) || (stopOffset >= 0 && position >= stopOffset)) {
+            return -1;
+        }
+        int index = findValidEndingAfter(position + 1);
+        return index == 0 ? 0 : entries.get(index - 1).getEnd();
+    }
+
+    /**
+     * Parses damaged part of the document up to the specified offset.
+     * Parsing is limited by {@link #MAX_UPDATE_LENGTH}, so index may still not cover the offset after the update.
+     * Returns false if index can't be used right now (document was changed during parse).
+     */
+    private boolean update(int untilOffset) {
+        applyPendingChanges();
+        if (!dirty) {
+            return true;
+        }
+        int startPos = validCount == 0 ? 0 : entries.get(validCount - 1).getEnd();
+        if (startPos >= untilOffset) {
+            return true;
+        }
+        int startChangeCount = getChangeCount();
+        int docLength = context.getDocument().getLength();
+        List<Entry> parsed = new ArrayList<>();
+        int candidate = validCount;
+        int matched = -1;
+        boolean stopped = false;
+        boolean interrupted = false;
+
+        context.startScriptEvaluation();
+        try {
+            for (int queryOffset = startPos; queryOffset < docLength; ) {
+                if (queryOffset >= untilOffset || queryOffset - startPos >= MAX_UPDATE_LENGTH) {
+                    // The rest will be parsed by the next requests
+                    interrupted = true;
+                    break;
+                }
+                SQLScriptElement element = SQLScriptParser.parseQuery(
+                    context, queryOffset, docLength, queryOffset, scriptMode, keepDelimiters);
+                if (element == null) {
+                    break;
+                }
+                if (element instanceof SQLControlCommand && ((SQLControlCommand) element).isEmptyCommand()) {
+                    // Delimiter redefinition. Everything after it depends on parser state.
+                    stopOffset = element.getOffset();
+                    stopped = true;
+                    break;
+                }
+                Entry entry = new Entry(element);
+                parsed.add(entry);
+                int end = entry.getEnd();
+                if (end <= queryOffset) {
+                    // Should never happen but let's avoid infinite loop
+                    break;
+                }
+                while (candidate < entries.size() && entries.get(candidate).getEnd() < end) {
+                    candidate++;
+                }
+                if (end >= dirtyEnd && candidate < entries.size()) {
+                    Entry oldEntry = entries.get(candidate);
+                    if (oldEntry.offset == entry.offset && oldEntry.getEnd() == end) {
+                        // Old parse passed through the same boundary. The rest of script wasn't changed.
+                        matched = candidate;
+                        break;
+                    }
+                }
+                queryOffset = end;
+            }
+        } catch (Exception e) {
+            log.debug("Error updating SQL statement index", e);
+            reset();
+            return false;
+        } finally {
+            context.endScriptEvaluation();
+        }
+        if (getChangeCount() != startChangeCount) {
+            // Document was modified during parse. We can't say which part of results is still valid.
+            reset();
+            return false;
+        }
+
+        if (matched >= 0) {
+            entries.subList(validCount, matched + 1).clear();
+            entries.addAll(validCount, parsed);
+            validCount = entries.size();
+        } else if (interrupted) {
+            // Keep parsed statements. Old statements overlapped by them are obsolete.
+            int parsedEnd = parsed.isEmpty() ? startPos : parsed.get(parsed.size() - 1).getEnd();
+            int last = validCount;
+            while (last < entries.size() && entries.get(last).offset < parsedEnd) {
+                last++;
+            }
+            entries.subList(validCount, last).clear();
+            entries.addAll(validCount, parsed);
+            validCount += parsed.size();
+            return true;
+        } else {
+            entries.subList(validCount, entries.size()).clear();
+            entries.addAll(parsed);
+            validCount = entries.size();
+            if (!stopped) {
+                stopOffset = -1;
+            }
+        }
+        dirty = false;
+        return true;
+    }
+
+    private void reset() {
+        entries.clear();
+        validCount = 0;
+        dirty = true;
+        dirtyEnd = 0;
+        stopOffset = -1;
+    }
+
+    /**
+     * Finds the first statement after boundary which is the closest to the specified offset.
+     * There must be only whitespaces between boundary and offset.
+     */
+    private int findBoundary(int offset) {
+        int index = findValidEndingAfter(offset + 1);
+        int boundary = index == 0 ? 0 : entries.get(index - 1).getEnd();
+        if (boundary < offset) {
+            IDocument document = context.getDocument();
+            try {
+                for (int i = boundary; i < offset; i++) {
+                    if (!Character.isWhitespace(document.getChar(i))) {
+                        return -1;
+                    }
+                }
+            } catch (BadLocationException e) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index of the first entry which ends at or after the specified offset
+     */
+    private int findFirstEndingAfter(int offset) {
+        int low = 0, high = entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).getEnd() < offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Same as {@link #findFirstEndingAfter(int)} but doesn't go beyond actual entries
+     */
+    private int findValidEndingAfter(int offset) {
+        return Math.min(findFirstEndingAfter(offset), validCount);
+    }
+
+    /**
+     * Cached elements are never exposed. Callers may modify queries and parameters.
+     */
+    private SQLScriptElement copyElement(Entry entry, boolean parseParameters) {
+        SQLScriptElement element = entry.element;
+        if (element instanceof SQLControlCommand) {
+            SQLControlCommand command = (SQLControlCommand) element;
+            return new SQLControlCommand(
+                context.getDataSource(),
+                context.getSyntaxManager(),
+                command.getText(),
+                command.getCommandId(),
+                entry.offset,
+                command.getLength(),
+                command.isEmptyCommand());
+        }
+        SQLQuery query = new SQLQuery(context.getDataSource(), element.getText(), entry.offset, element.getLength());
+        if (parseParameters) {
+            if (!entry.parametersParsed) {
+                entry.parameters = SQLScriptParser.parseParameters(context, entry.offset, element.getLength());
+                entry.parametersParsed = true;
+            }
+            query.setParameters(copyParameters(entry.parameters));
+        }
+        return query;
+    }
+
+    @Nullable
+    private List<SQLQueryParameter> copyParameters(@Nullable List<SQLQueryParameter> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        List<SQLQueryParameter> result = new ArrayList<>(parameters.size());
+        for (SQLQueryParameter parameter : parameters) {
+            result.add(new SQLQueryParameter(
+                context.getSyntaxManager(),
+                parameter.getOrdinalPosition(),
+                parameter.getName(),
+                parameter.getTokenOffset(),
+                parameter.getTokenLength()));
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            int prevIndex = parameters.indexOf(parameters.get(i).getPrevious());
+            if (prevIndex >= 0) {
+                result.get(i).setPrevious(result.get(prevIndex));
+            }
+        }
+        return result;
+    }
+
+}
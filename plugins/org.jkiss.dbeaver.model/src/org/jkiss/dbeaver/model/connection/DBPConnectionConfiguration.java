@@ -110,6 +110,9 @@ public class DBPConnectionConfiguration implements DBPObject {
     private String authModelId;
     private Map<String, String> authProperties;
 
+    // Reads user credentials on first access (they may come from secure storage which is slow)
+    private volatile Runnable credentialsLoader;
+
     public DBPConnectionConfiguration() {
         this.connectionType = DBPConnectionType.DEFAULT_TYPE;
         this.properties = new LinkedHashMap<>();
@@ -123,6 +126,7 @@ public class DBPConnectionConfiguration implements DBPObject {
     }
 
     public DBPConnectionConfiguration(@NotNull DBPConnectionConfiguration info) {
+        info.loadCredentials();
         this.hostName = info.hostName;
         this.hostPort = info.hostPort;
         this.serverName = info.serverName;
@@ -201,21 +205,47 @@ public class DBPConnectionConfiguration implements DBPObject {
     }
 
     public String getUserName() {
+        loadCredentials();
         return userName;
     }
 
     public void setUserName(String userName) {
+        loadCredentials();
         this.userName = userName;
     }
 
     public String getUserPassword() {
+        loadCredentials();
         return userPassword;
     }
 
     public void setUserPassword(@Nullable String userPassword) {
+        loadCredentials();
         this.userPassword = userPassword;
     }
 
+    /**
+     * Sets loader which fills user name and password on first access to them.
+     * Loader is called at most once. Explicitly set credentials are never overwritten by it.
+     */
+    public void setCredentialsLoader(@Nullable Runnable credentialsLoader) {
+        this.credentialsLoader = credentialsLoader;
+    }
+
+    private void loadCredentials() {
+        if (credentialsLoader == null) {
+            return;
+        }
+        synchronized (this) {
+            Runnable loader = credentialsLoader;
+            if (loader != null) {
+                // Reset loader first, it sets credentials using public setters
+                credentialsLoader = null;
+                loader.run();
+            }
+        }
+    }
+
     ////////////////////////////////////////////////////
     // Properties (connection properties, usually used by driver)
 
@@ -471,6 +501,8 @@ public class DBPConnectionConfiguration implements DBPObject {
             return false;
         }
         DBPConnectionConfiguration source = (DBPConnectionConfiguration) obj;
+        this.loadCredentials();
+        source.loadCredentials();
         return
             CommonUtils.equalOrEmptyStrings(this.hostName, source.hostName) &&
                 CommonUtils.equalOrEmptyStrings(this.hostPort, source.hostPort) &&
@@ -498,6 +530,7 @@ public class DBPConnectionConfiguration implements DBPObject {
         hostPort = GeneralUtils.replaceVariables(hostPort, variableResolver);
         serverName = GeneralUtils.replaceVariables(serverName, variableResolver);
         databaseName = GeneralUtils.replaceVariables(databaseName, variableResolver);
+        loadCredentials();
         userName = GeneralUtils.replaceVariables(userName, variableResolver);
         userPassword = GeneralUtils.replaceVariables(userPassword, variableResolver);
         url = GeneralUtils.replaceVariables(url, variableResolver);
@@ -0,0 +1,40 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.InputStream;
+
+/**
+ * Content which can be read directly from its source (e.g. database LOB) bypassing local content storage.
+ * Consumers which read content only once (exporters, data transfer) should use it to avoid extra content copy.
+ */
+public interface DBDContentStreamable extends DBDContent {
+
+    /**
+     * Opens stream which reads content from its source.
+     * Returns null if content was already loaded into local storage. Use {@link #getContents} then.
+     * Caller must close the stream.
+     */
+    @Nullable
+    InputStream openDirectStream(@NotNull DBRProgressMonitor monitor) throws DBCException;
+
+}
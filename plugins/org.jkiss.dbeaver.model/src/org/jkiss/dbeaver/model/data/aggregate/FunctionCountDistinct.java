@@ -20,15 +20,41 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * FunctionCountDistinct
+ * FunctionCountDistinct.
+ * In approximate mode uses HyperLogLog estimation instead of the set of all values.
  */
-public class FunctionCountDistinct implements IAggregateFunction {
+public class FunctionCountDistinct implements IAggregateFunctionApproximate {
 
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
+    private HyperLogLog hyperLogLog;
+    private boolean hasNulls;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        hyperLogLog = approximate ? new HyperLogLog() : null;
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return hyperLogLog != null;
+    }
+
+    @Override
+    public double getRelativeError() {
+        return hyperLogLog == null ? 0 : HyperLogLog.getStandardError();
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (hyperLogLog != null) {
+            if (value == null) {
+                hasNulls = true;
+            } else {
+                hyperLogLog.add(value);
+            }
+            return true;
+        }
         if (!cache.contains(value)) {
             count++;
             cache.add(value);
@@ -39,6 +65,10 @@ public class FunctionCountDistinct implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (hyperLogLog != null) {
+            // Null is counted as a distinct value, the same way as in exact mode
+            return hyperLogLog.getEstimate() + (hasNulls ? 1 : 0);
+        }
         return count;
     }
 }
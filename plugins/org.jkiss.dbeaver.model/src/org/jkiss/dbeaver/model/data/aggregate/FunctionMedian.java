@@ -23,19 +23,45 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Median
+ * Median.
+ * In approximate mode uses quantile sketch instead of sorting of all values.
  */
-public class FunctionMedian implements IAggregateFunction {
+public class FunctionMedian implements IAggregateFunctionApproximate {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
     private List<Comparable> cache = new ArrayList<>();
+    private QuantileSketch sketch;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        sketch = approximate ? new QuantileSketch(QuantileSketch.DEFAULT_K) : null;
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return sketch != null;
+    }
+
+    @Override
+    public double getRelativeError() {
+        return sketch == null ? 0 : sketch.getRankError();
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
         if (value != null) {
-            cache.add((Comparable) value);
+            if (sketch != null) {
+                try {
+                    sketch.add((Comparable) value);
+                } catch (Exception e) {
+                    // Values of different types can't be compared
+                    return false;
+                }
+            } else {
+                cache.add((Comparable) value);
+            }
             return true;
         }
         return false;
@@ -43,6 +69,14 @@ public class FunctionMedian implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            try {
+                return sketch.getQuantile(0.5);
+            } catch (Exception e) {
+                log.debug("Can't sort value collection", e);
+                return null;
+            }
+        }
         try {
             Collections.sort(cache);
         } catch (Exception e) {
@@ -16,15 +16,44 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Mode
+ * Mode.
+ * In approximate mode uses Misra-Gries frequent items summary with a limited number of counters.
  */
-public class FunctionMode implements IAggregateFunction {
+public class FunctionMode implements IAggregateFunctionApproximate {
 
-    private List<Object> cache = new ArrayList<>();
+    private static final int MAX_COUNTERS = 1000;
+
+    // Linked map keeps the first of equally frequent values
+    private Map<Object, long[]> counters = new LinkedHashMap<>();
+    private boolean approximate;
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+        if (approximate) {
+            counters = new HashMap<>(MAX_COUNTERS * 2);
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Frequency of the result differs from the frequency of the real mode
+     * by at most this part of value count.
+     */
+    @Override
+    public double getRelativeError() {
+        return approximate ? 1.0 / (MAX_COUNTERS + 1) : 0;
+    }
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,7 +62,20 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            long[] counter = counters.get(value);
+            if (counter != null) {
+                counter[0]++;
+            } else if (!approximate || counters.size() < MAX_COUNTERS) {
+                counters.put(value, new long[] { 1 });
+            } else {
+                // No free counters. Decrement all of them and drop zeros
+                for (Iterator<long[]> iter = counters.values().iterator(); iter.hasNext(); ) {
+                    long[] c = iter.next();
+                    if (--c[0] <= 0) {
+                        iter.remove();
+                    }
+                }
+            }
             return true;
         }
         return false;
@@ -42,18 +84,13 @@ public class FunctionMode implements IAggregateFunction {
     @Override
     public Object getResult(int valueCount) {
         Object maxValue = null;
-        int maxCount = 0;
+        long maxCount = 0;
 
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
+        for (Map.Entry<Object, long[]> entry : counters.entrySet()) {
+            long count = entry.getValue()[0];
             if (count > maxCount) {
                 maxCount = count;
-                maxValue = cache.get(i);
+                maxValue = entry.getKey();
             }
         }
 //        if (maxCount <= 1) {
@@ -0,0 +1,55 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Sample variance.
+ * Evaluated in a single pass with Welford's algorithm.
+ */
+public class FunctionVariance extends FunctionNumeric {
+
+    private long count;
+    private double mean;
+    private double squaredDiffSum;
+
+    @Override
+    public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        Number num = getNumeric(value);
+        if (num != null) {
+            double x = num.doubleValue();
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            squaredDiffSum += delta * (x - mean);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object getResult(int valueCount) {
+        if (count < 2) {
+            return null;
+        }
+        return getVariance();
+    }
+
+    protected double getVariance() {
+        return squaredDiffSum / (count - 1);
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+/**
+ * Aggregate function which may be evaluated approximately with bounded memory.
+ * Used for big value sets where exact evaluation needs to keep all values.
+ */
+public interface IAggregateFunctionApproximate extends IAggregateFunction {
+
+    /**
+     * Switches function to approximate mode. Must be called before the first value is accumulated.
+     */
+    void setApproximate(boolean approximate);
+
+    boolean isApproximate();
+
+    /**
+     * Relative error bound of approximate result (e.g. 0.01 means 1%).
+     * Returns 0 if result is exact.
+     */
+    double getRelativeError();
+
+}
@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * KLL quantile sketch.
+ * Keeps O(k * log(n / k)) values. Compacted values are sorted with their natural order.
+ * Random choice of compacted values uses a fixed seed, so the same input always gives the same result.
+ */
+public class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final long RANDOM_SEED = 0x5eed;
+
+    private final int k;
+    private final List<List<Comparable>> levels = new ArrayList<>();
+    private final Random random = new Random(RANDOM_SEED);
+    private long count;
+    private int retainedCount;
+    private int maxRetainedCount;
+
+    public QuantileSketch(int k) {
+        this.k = k;
+        addLevel();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sketch is exact until the first compaction
+     */
+    public boolean isExact() {
+        return levels.size() == 1;
+    }
+
+    /**
+     * Normalized rank error with 99% confidence
+     */
+    public double getRankError() {
+        return isExact() ? 0 : 2.296 / Math.pow(k, 0.9723);
+    }
+
+    public void add(Comparable value) {
+        levels.get(0).add(value);
+        count++;
+        retainedCount++;
+        if (retainedCount >= maxRetainedCount) {
+            compress();
+        }
+    }
+
+    /**
+     * Returns value of the specified rank (0..1)
+     */
+    public Comparable getQuantile(double rank) {
+        if (count == 0) {
+            return null;
+        }
+        List<Comparable> values = new ArrayList<>(retainedCount);
+        List<Long> weights = new ArrayList<>(retainedCount);
+        for (int i = 0; i < levels.size(); i++) {
+            for (Comparable value : levels.get(i)) {
+                values.add(value);
+                weights.add(1L << i);
+            }
+        }
+        Integer[] order = new Integer[values.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (o1, o2) -> values.get(o1).compareTo(values.get(o2)));
+
+        long totalWeight = 0;
+        for (Long weight : weights) {
+            totalWeight += weight;
+        }
+        double targetWeight = rank * totalWeight;
+        long cumulativeWeight = 0;
+        for (Integer index : order) {
+            cumulativeWeight += weights.get(index);
+            if (cumulativeWeight >= targetWeight) {
+                return values.get(index);
+            }
+        }
+        return values.get(order[order.length - 1]);
+    }
+
+    private void compress() {
+        for (int level = 0; level < levels.size(); level++) {
+            List<Comparable> items = levels.get(level);
+            if (items.size() < getLevelCapacity(level)) {
+                continue;
+            }
+            if (level == levels.size() - 1) {
+                addLevel();
+            }
+            items.sort(null);
+            // Odd item stays on the current level
+            int pairCount = items.size() / 2;
+            Comparable oddItem = items.size() % 2 == 1 ? items.get(items.size() - 1) : null;
+            List<Comparable> nextLevel = levels.get(level + 1);
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = 0; i < pairCount; i++) {
+                nextLevel.add(items.get(i * 2 + offset));
+            }
+            items.clear();
+            if (oddItem != null) {
+                items.add(oddItem);
+            }
+            retainedCount -= pairCount;
+            if (retainedCount < maxRetainedCount) {
+                break;
+            }
+        }
+    }
+
+    private void addLevel() {
+        levels.add(new ArrayList<>());
+        maxRetainedCount = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            maxRetainedCount += getLevelCapacity(i);
+        }
+    }
+
+    private int getLevelCapacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+}
@@ -20,7 +20,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.utils.IOUtils;
+import org.jkiss.dbeaver.utils.ContentUtils;
 
 import java.io.*;
 import java.nio.charset.Charset;
@@ -97,9 +97,7 @@ public class BytesContentStorage implements DBDContentStorage, DBDContentCached
         if (contentLength > Integer.MAX_VALUE) {
             throw new IOException("Too big content length for memory storage: " + contentLength);
         }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        IOUtils.copyStream(stream, baos);
-        byte[] result = baos.toByteArray();
+        byte[] result = ContentUtils.readContentBytes(stream, contentLength);
         if (result.length != contentLength) {
             log.warn("Actual content length (" + result.length + ") is less than declared: " + contentLength);
         }
@@ -77,11 +77,7 @@ public class TemporaryContentStorage implements DBDContentStorageLocal {
         // Create new local storage
         File tempFile = ContentUtils.createTempContentFile(monitor, platform, "copy" + this.hashCode());
         try {
-            try (InputStream is = new FileInputStream(file)) {
-                try (OutputStream os = new FileOutputStream(tempFile)) {
-                    ContentUtils.copyStreams(is, file.length(), os, monitor);
-                }
-            }
+            ContentUtils.copyFile(monitor, file, tempFile);
         } catch (IOException e) {
             ContentUtils.deleteTempFile(tempFile);
             throw new IOException(e);
@@ -0,0 +1,31 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+
+/**
+ * ResultSet which adjusts its fetch size while rows are read.
+ * Readers may provide attributes they actually read. They are used to estimate row size.
+ */
+public interface DBCResultSetAdaptiveFetch extends DBCResultSet
+{
+
+    void setFetchAttributes(@NotNull DBSAttributeBase[] attributes);
+
+}
@@ -234,7 +234,11 @@ public class DBExecUtils {
     }
 
     public static void setStatementFetchSize(DBCStatement dbStat, long firstRow, long maxRows, int fetchSize) {
-        boolean useFetchSize = fetchSize > 0 || dbStat.getSession().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        DBPPreferenceStore preferenceStore = dbStat.getSession().getDataSource().getContainer().getPreferenceStore();
+        // Adaptive fetch size needs some initial fetch size
+        boolean useFetchSize = fetchSize > 0 ||
+            preferenceStore.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
+            preferenceStore.getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE);
         if (useFetchSize) {
             if (fetchSize <= 0) {
                 fetchSize = DEFAULT_READ_FETCH_SIZE;
@@ -248,6 +252,15 @@ public class DBExecUtils {
         }
     }
 
+    /**
+     * Passes attributes which are read from result set rows to adaptive fetch (if result set supports it).
+     */
+    public static void setResultSetFetchAttributes(@NotNull DBCResultSet resultSet, @NotNull DBDAttributeBinding[] bindings) {
+        if (resultSet instanceof DBCResultSetAdaptiveFetch) {
+            ((DBCResultSetAdaptiveFetch) resultSet).setFetchAttributes(bindings);
+        }
+    }
+
     public static void executeScript(DBRProgressMonitor monitor, DBCExecutionContext executionContext, String jobName, List<DBEPersistAction> persistActions) {
         try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, jobName)) {
             executeScript(session, persistActions.toArray(new DBEPersistAction[0]));
@@ -21,11 +21,13 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPTransactionIsolation;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCSavepointImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCStatementCache;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -60,12 +62,32 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
+    private volatile JDBCStatementCache statementCache;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
         this.instance = instance;
     }
 
+    /**
+     * Cache of prepared statements used by metadata and utility sessions
+     */
+    @NotNull
+    public JDBCStatementCache getStatementCache() {
+        JDBCStatementCache cache = this.statementCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = this.statementCache;
+                if (cache == null) {
+                    cache = new JDBCStatementCache(
+                        dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_STATEMENT_CACHE_SIZE));
+                    this.statementCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     @Override
     public JDBCRemoteInstance getOwnerInstance() {
         return instance;
@@ -184,6 +206,10 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
         // [JDBC] Need sync here because real connection close could take some time
         // while UI may invoke callbacks to operate with connection
         synchronized (this) {
+            if (this.statementCache != null) {
+                // Cached statements belong to the closed connection
+                this.statementCache.invalidate();
+            }
             if (this.connection != null) {
                 if (!this.dataSource.closeConnection(connection, purpose, true)) {
                     log.debug("Connection close timeout");
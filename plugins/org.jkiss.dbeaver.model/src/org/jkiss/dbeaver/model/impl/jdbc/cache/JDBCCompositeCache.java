@@ -185,6 +185,17 @@ public abstract class JDBCCompositeCache<
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<OBJECT> objects)
+    {
+        super.cacheObjects(objects);
+        synchronized (objectCache) {
+            for (OBJECT object : objects) {
+                objectCache.computeIfAbsent(getParent(object), k -> new ArrayList<>()).add(object);
+            }
+        }
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
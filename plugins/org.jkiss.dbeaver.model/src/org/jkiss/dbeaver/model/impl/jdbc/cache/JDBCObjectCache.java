@@ -35,19 +35,28 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Various objects cache.
  * Simple cache which may read objects from database and keep them.
+ *
+ * Objects are loaded once for all concurrent readers: the first thread reads objects from database,
+ * other threads wait for its result instead of starting their own load.
+ * Objects are always read under the cache monitor, so loads are serialized with synchronized subclass methods.
  */
 public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject> extends AbstractObjectCache<OWNER, OBJECT>
 {
     private static final int DEFAULT_MAX_CACHE_SIZE = 1000000;
+    private static final long LOAD_WAIT_TIMEOUT = 100;
 
     private static final Log log = Log.getLog(JDBCObjectCache.class);
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Load which is in progress right now
+    private CacheLoad activeLoad;
 
     protected JDBCObjectCache() {
     }
@@ -85,13 +94,68 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return getCachedObject(name);
     }
 
-    protected synchronized void loadObjects(DBRProgressMonitor monitor, OWNER owner)
+    protected void loadObjects(DBRProgressMonitor monitor, OWNER owner)
         throws DBException
     {
-        if (isFullyCached() || monitor.isCanceled()) {
-            return;
+        for (;;) {
+            if (isFullyCached() || monitor.isCanceled()) {
+                return;
+            }
+            CacheLoad load;
+            boolean loader = false;
+            synchronized (getCacheSync()) {
+                load = activeLoad;
+                if (load == null || load.thread == Thread.currentThread() || Thread.holdsLock(this)) {
+                    // Start new load. Nested load in the loader thread is performed as before.
+                    // Thread which holds the cache monitor (in a synchronized subclass method) can't wait for
+                    // the other loader, it would block on this monitor. Such thread reads objects itself,
+                    // the other loader waits for the monitor and then sees the loaded cache.
+                    load = new CacheLoad();
+                    if (activeLoad == null) {
+                        activeLoad = load;
+                    }
+                    loader = true;
+                }
+            }
+            if (loader) {
+                try {
+                    synchronized (this) {
+                        // Cache might be loaded while we were waiting for the monitor
+                        if (!isFullyCached()) {
+                            readObjects(monitor, owner);
+                        }
+                    }
+                } catch (DBException | RuntimeException e) {
+                    load.error = e;
+                    throw e;
+                } finally {
+                    synchronized (getCacheSync()) {
+                        if (activeLoad == load) {
+                            activeLoad = null;
+                        }
+                    }
+                    load.done.countDown();
+                }
+                return;
+            }
+            if (!load.await(monitor)) {
+                // Canceled
+                return;
+            }
+            Throwable error = load.error;
+            if (error != null && !isFullyCached()) {
+                if (error instanceof DBException) {
+                    throw (DBException) error;
+                }
+                throw new DBException("Error loading " + getCacheName(), error);
+            }
+            // If the other load was canceled then objects are read by this thread
         }
+    }
 
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner)
+        throws DBException
+    {
         List<OBJECT> tmpObjectList = new ArrayList<>();
 
         DBPDataSource dataSource = owner.getDataSource();
@@ -178,4 +242,27 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return false;
     }
 
+    private static class CacheLoad {
+        private final Thread thread = Thread.currentThread();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        /**
+         * Waits for load end. Returns false if monitor was canceled or thread was interrupted.
+         */
+        boolean await(DBRProgressMonitor monitor) {
+            try {
+                while (!done.await(LOAD_WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    if (monitor.isCanceled()) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
 }
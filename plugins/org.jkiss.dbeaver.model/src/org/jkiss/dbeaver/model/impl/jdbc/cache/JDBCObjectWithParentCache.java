@@ -138,6 +138,17 @@ public abstract class JDBCObjectWithParentCache<OWNER extends DBSObject, PARENT
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<OBJECT> objects)
+    {
+        super.cacheObjects(objects);
+        synchronized (objectCache) {
+            for (OBJECT object : objects) {
+                objectCache.computeIfAbsent(getParent(object), k -> new ArrayList<>()).add(object);
+            }
+        }
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDContentStreamable;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
 import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
@@ -46,7 +47,7 @@ import java.sql.SQLFeatureNotSupportedException;
  *
  * @author Serge Rider
  */
-public class JDBCContentBLOB extends JDBCContentLOB {
+public class JDBCContentBLOB extends JDBCContentLOB implements DBDContentStreamable {
 
     private static final Log log = Log.getLog(JDBCContentBLOB.class);
 
@@ -106,10 +107,8 @@ public class JDBCContentBLOB extends JDBCContentLOB {
                 catch (IOException e) {
                     throw new DBCException("Can't create temporary file", e);
                 }
-                try (OutputStream os = new FileOutputStream(tempFile)) {
-                    try (InputStream bs = blob.getBinaryStream()) {
-                        ContentUtils.copyStreams(bs, contentLength, os, monitor);
-                    }
+                try (InputStream bs = blob.getBinaryStream()) {
+                    ContentUtils.transferStreamToFile(monitor, bs, contentLength, tempFile);
                 } catch (IOException e) {
                     ContentUtils.deleteTempFile(tempFile);
                     throw new DBCException("IO error while copying stream", e);
@@ -125,6 +124,18 @@ public class JDBCContentBLOB extends JDBCContentLOB {
         return storage;
     }
 
+    @Override
+    public InputStream openDirectStream(@NotNull DBRProgressMonitor monitor) throws DBCException {
+        if (storage != null || blob == null) {
+            return null;
+        }
+        try {
+            return blob.getBinaryStream();
+        } catch (Throwable e) {
+            throw new DBCException(e, executionContext);
+        }
+    }
+
     @Override
     public void release()
     {
@@ -274,11 +274,10 @@ public class JDBCContentValueHandler extends JDBCAbstractValueHandler implements
 
                 {
                     DBDBinaryFormatter binaryFormatter = dataSource.getSQLDialect().getNativeBinaryFormatter();
-                    ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) cs.getContentLength());
+                    final byte[] bytes;
                     try (InputStream contentStream = cs.getContentStream()) {
-                        IOUtils.copyStream(contentStream, buffer);
+                        bytes = ContentUtils.readContentBytes(contentStream, cs.getContentLength());
                     }
-                    final byte[] bytes = buffer.toByteArray();
                     final String binaryString = binaryFormatter.toString(bytes, 0, bytes.length);
                     writer.write(binaryString);
                 }
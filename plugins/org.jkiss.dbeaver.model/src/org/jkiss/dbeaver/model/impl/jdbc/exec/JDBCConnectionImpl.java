@@ -175,10 +175,13 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
                 JDBCPreparedStatement dbStat;
                 try {
                     // Generic prepared statement
-                    dbStat = prepareStatement(
-                        sqlQuery,
-                        scrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE : ResultSet.TYPE_FORWARD_ONLY,
-                        updatable ? ResultSet.CONCUR_UPDATABLE : ResultSet.CONCUR_READ_ONLY);
+                    int resultSetType = scrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE : ResultSet.TYPE_FORWARD_ONLY;
+                    int resultSetConcurrency = updatable ? ResultSet.CONCUR_UPDATABLE : ResultSet.CONCUR_READ_ONLY;
+                    if (isStatementCacheEnabled()) {
+                        dbStat = prepareCachedStatement(sqlQuery, resultSetType, resultSetConcurrency);
+                    } else {
+                        dbStat = prepareStatement(sqlQuery, resultSetType, resultSetConcurrency);
+                    }
                 }
                 catch (SQLFeatureNotSupportedException | UnsupportedOperationException | IncompatibleClassChangeError e) {
                     dbStat =  prepareStatement(sqlQuery);
@@ -241,9 +244,40 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql)
         throws SQLException
     {
+        if (isStatementCacheEnabled()) {
+            return prepareCachedStatement(sql, 0, 0);
+        }
         return createPreparedStatementImpl(getOriginal().prepareStatement(sql), sql);
     }
 
+    /**
+     * Metadata queries are usually the same each time. They may reuse prepared statements.
+     * Utility sessions (data transfer, value editors, etc) keep statements state (fetch settings, LOB streams)
+     * and hold large result sets, so they never use the cache.
+     */
+    private boolean isStatementCacheEnabled() {
+        return getPurpose() == DBCExecutionPurpose.META && context.getStatementCache().isEnabled();
+    }
+
+    /**
+     * Takes statement from context statement cache or prepares a new one.
+     * Zero result set type means driver defaults.
+     */
+    private JDBCPreparedStatement prepareCachedStatement(String sql, int resultSetType, int resultSetConcurrency)
+        throws SQLException
+    {
+        JDBCStatementCache cache = context.getStatementCache();
+        JDBCStatementCache.Key key = new JDBCStatementCache.Key(sql, resultSetType, resultSetConcurrency);
+        int cacheGeneration = cache.getGeneration();
+        PreparedStatement original = cache.take(key);
+        if (original == null) {
+            original = resultSetType == 0 ?
+                getOriginal().prepareStatement(sql) :
+                getOriginal().prepareStatement(sql, resultSetType, resultSetConcurrency);
+        }
+        return new JDBCPreparedStatementCachedImpl(this, original, sql, !isLoggingEnabled(), cache, key, cacheGeneration);
+    }
+
     @NotNull
     @Override
     public JDBCCallableStatement prepareCall(String sql)
@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.meta.ForTest;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Adjusts JDBC fetch size of a result set while it is read.
+ *
+ * Rows are read in windows of the current fetch size, so each window contains one driver round trip.
+ * Fetch size is doubled while it reduces round trip time per row. Larger fetch sizes don't help when
+ * the link is saturated, so tuning stops once per-row time stops decreasing (or gets worse - then the
+ * previous size is restored).
+ * Fetch size is always limited by memory budget divided by estimated row size.
+ */
+public class JDBCFetchSizeTuner {
+
+    private static final Log log = Log.getLog(JDBCFetchSizeTuner.class);
+
+    private static final int MIN_FETCH_SIZE = 10;
+    private static final int MAX_FETCH_SIZE = 50000;
+    // Fetch buffer of one result set never exceeds this size (or 1/32 of heap)
+    private static final long MAX_MEMORY_BUDGET = 64L * 1024 * 1024;
+    // next() calls faster than this are served from driver buffer
+    private static final long ROUND_TRIP_MIN_NANOS = 200_000;
+    // Fetch size increase must reduce per-row fetch time at least by 20%
+    private static final double MIN_GAIN_RATIO = 0.8;
+    private static final double MAX_LOSS_RATIO = 1.2;
+
+    private static final int DEFAULT_VALUE_SIZE = 64;
+    private static final int MAX_STRING_SIZE = 1000;
+    private static final int MAX_LOB_SIZE = 64 * 1024;
+    private static final int VALUE_OVERHEAD = 16;
+
+    private final ResultSet resultSet;
+    private final long memoryBudget;
+    private int fetchSize;
+    private int previousFetchSize;
+    private long rowSize;
+    private boolean stable;
+
+    private boolean warmedUp;
+    private int windowRows;
+    private long windowFetchTime;
+    private long previousRowTime;
+
+    JDBCFetchSizeTuner(@NotNull ResultSet resultSet, int fetchSize) {
+        this(resultSet, fetchSize, Math.min(Runtime.getRuntime().maxMemory() / 32, MAX_MEMORY_BUDGET));
+    }
+
+    @ForTest
+    public JDBCFetchSizeTuner(@NotNull ResultSet resultSet, int fetchSize, long memoryBudget) {
+        this.resultSet = resultSet;
+        this.fetchSize = fetchSize;
+        this.memoryBudget = memoryBudget;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public boolean isStable() {
+        return stable;
+    }
+
+    public boolean isRowSizeKnown() {
+        return rowSize > 0;
+    }
+
+    /**
+     * Sets attributes read from each row. Fetch size is reduced immediately if it exceeds memory budget.
+     */
+    public void setAttributes(@NotNull Collection<? extends DBSAttributeBase> attributes) {
+        long size = 0;
+        for (DBSAttributeBase attribute : attributes) {
+            size += estimateValueSize(attribute);
+        }
+        rowSize = Math.max(size, DEFAULT_VALUE_SIZE);
+        int maxFetchSize = getMaxFetchSize();
+        if (fetchSize > maxFetchSize) {
+            changeFetchSize(maxFetchSize);
+        }
+    }
+
+    /**
+     * Registers next() call duration
+     */
+    public void afterNext(long callTime) {
+        if (stable) {
+            return;
+        }
+        if (callTime >= ROUND_TRIP_MIN_NANOS) {
+            windowFetchTime += callTime;
+        }
+        if (++windowRows < fetchSize) {
+            return;
+        }
+        if (!warmedUp) {
+            // The first rows are often fetched during query execution
+            warmedUp = true;
+        } else {
+            tune((double) windowFetchTime / windowRows);
+        }
+        windowRows = 0;
+        windowFetchTime = 0;
+    }
+
+    private void tune(double rowTime) {
+        if (rowTime == 0) {
+            // Driver buffer is refilled fast enough. Nothing to gain.
+            stable = true;
+        } else if (previousRowTime == 0 || rowTime < previousRowTime * MIN_GAIN_RATIO) {
+            int newFetchSize = Math.min(fetchSize * 2, getMaxFetchSize());
+            if (newFetchSize > fetchSize) {
+                previousFetchSize = fetchSize;
+                previousRowTime = (long) rowTime;
+                changeFetchSize(newFetchSize);
+            } else {
+                stable = true;
+            }
+        } else {
+            if (rowTime > previousRowTime * MAX_LOSS_RATIO && previousFetchSize > 0) {
+                changeFetchSize(previousFetchSize);
+            }
+            stable = true;
+        }
+    }
+
+    private int getMaxFetchSize() {
+        if (rowSize <= 0) {
+            return MAX_FETCH_SIZE;
+        }
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, memoryBudget / rowSize));
+    }
+
+    private void changeFetchSize(int newFetchSize) {
+        try {
+            resultSet.setFetchSize(newFetchSize);
+            fetchSize = newFetchSize;
+        } catch (SQLException e) {
+            // Driver doesn't support fetch size change on result set
+            log.debug("Can't change result set fetch size: " + e.getMessage());
+            stable = true;
+        }
+    }
+
+    private static long estimateValueSize(DBSAttributeBase attribute) {
+        long maxLength = attribute.getMaxLength();
+        switch (attribute.getDataKind()) {
+            case BOOLEAN:
+                return VALUE_OVERHEAD;
+            case NUMERIC:
+            case DATETIME:
+                return VALUE_OVERHEAD * 2;
+            case STRING:
+                // Chars are 2 bytes
+                return VALUE_OVERHEAD + 2 * (maxLength > 0 ? Math.min(maxLength, MAX_STRING_SIZE) : DEFAULT_VALUE_SIZE);
+            case BINARY:
+            case CONTENT:
+            case ARRAY:
+            case STRUCT:
+            case DOCUMENT:
+            case OBJECT:
+                return VALUE_OVERHEAD + (maxLength > 0 ? Math.min(maxLength, MAX_LOB_SIZE) : MAX_LOB_SIZE);
+            default:
+                return VALUE_OVERHEAD + DEFAULT_VALUE_SIZE;
+        }
+    }
+
+}
@@ -16,20 +16,88 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.exec;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Prepared statement taken from statement cache.
+ * On close original statement is returned to cache (if it is still valid).
+ */
 public class JDBCPreparedStatementCachedImpl extends JDBCPreparedStatementImpl {
 
-	public JDBCPreparedStatementCachedImpl(JDBCPreparedStatementImpl statment){
-		super(statment.getSession(), statment.original, statment.query, statment.disableLogging);
+	private final JDBCStatementCache cache;
+	private final JDBCStatementCache.Key key;
+	private final int cacheGeneration;
+	// Statement settings which are changed by users and must be restored before caching
+	private int originalFetchSize;
+	private int originalFetchDirection;
+	private boolean closed;
+	private boolean failed;
+
+	JDBCPreparedStatementCachedImpl(
+		@NotNull JDBCSession session,
+		@NotNull PreparedStatement original,
+		@NotNull String query,
+		boolean disableLogging,
+		@NotNull JDBCStatementCache cache,
+		@NotNull JDBCStatementCache.Key key,
+		int cacheGeneration)
+	{
+		super(session, original, query, disableLogging);
+		this.cache = cache;
+		this.key = key;
+		this.cacheGeneration = cacheGeneration;
+		try {
+			this.originalFetchSize = original.getFetchSize();
+			this.originalFetchDirection = original.getFetchDirection();
+		} catch (Throwable e) {
+			// Settings can't be restored. Do not cache this statement.
+			this.failed = true;
+		}
 	}
 
 	@Override
 	public void close() {
-		// For cached statement close() do nothing
-	}
-	
-	public void drop(){
+		if (closed) {
+			return;
+		}
+		closed = true;
 		super.close();
 	}
-	
+
+	@Override
+	protected void closeOriginal() {
+		if (!failed) {
+			try {
+				// Reset statement state. Next user must get it the same as a new one.
+				original.clearParameters();
+				original.clearWarnings();
+				original.setMaxRows(0);
+				original.setQueryTimeout(0);
+				if (original.getFetchSize() != originalFetchSize) {
+					original.setFetchSize(originalFetchSize);
+				}
+				if (original.getFetchDirection() != originalFetchDirection) {
+					original.setFetchDirection(originalFetchDirection);
+				}
+				if (cache.release(key, original, cacheGeneration)) {
+					return;
+				}
+			} catch (Throwable e) {
+				// Statement can't be reused
+			}
+		}
+		super.closeOriginal();
+	}
+
+	@Override
+	protected SQLException handleExecuteError(Throwable ex) {
+		// Statement state is unknown after error. Do not cache it.
+		failed = true;
+		return super.handleExecuteError(ex);
+	}
+
 }
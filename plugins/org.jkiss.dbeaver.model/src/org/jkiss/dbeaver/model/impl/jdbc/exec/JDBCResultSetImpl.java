@@ -19,7 +19,9 @@ package org.jkiss.dbeaver.model.impl.jdbc.exec;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSetAdaptiveFetch;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSetMetaData;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
@@ -27,19 +29,21 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractResultSet;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCTrace;
 import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Map;
 
 /**
  * Managable result set
  */
-public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatement> implements JDBCResultSet {
+public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatement> implements JDBCResultSet, DBCResultSetAdaptiveFetch {
 
     private static final Log log = Log.getLog(JDBCResultSetImpl.class);
 
@@ -50,6 +54,8 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     private long maxRows = -1;
     private boolean fake;
     private boolean disableLogging;
+    private boolean fetchTunerInitialized;
+    private JDBCFetchSizeTuner fetchTuner;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -268,10 +274,24 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
 
         this.beforeFetch();
         try {
+            if (!fetchTunerInitialized) {
+                initFetchTuner();
+                if (fetchTuner != null && !fetchTuner.isRowSizeKnown()) {
+                    try {
+                        fetchTuner.setAttributes(getMeta().getAttributes());
+                    } catch (DBCException e) {
+                        log.debug("Can't read result set metadata for fetch size tuning", e);
+                    }
+                }
+            }
+            long fetchStartTime = fetchTuner == null ? 0 : System.nanoTime();
             // Fetch next row
             boolean fetched = original.next();
             if (fetched) {
                 rowsFetched++;
+                if (fetchTuner != null) {
+                    fetchTuner.afterNext(System.nanoTime() - fetchStartTime);
+                }
             }
             if (fetched && JDBCTrace.isApiTraceEnabled()) {
                 JDBCTrace.dumpResultSetRow(this.original);
@@ -284,6 +304,34 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         }
     }
 
+    @Override
+    public void setFetchAttributes(@NotNull DBSAttributeBase[] attributes) {
+        if (!fetchTunerInitialized) {
+            initFetchTuner();
+        }
+        if (fetchTuner != null) {
+            fetchTuner.setAttributes(Arrays.asList(attributes));
+        }
+    }
+
+    private void initFetchTuner() {
+        fetchTunerInitialized = true;
+        if (original == null || fake ||
+            !session.getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE))
+        {
+            return;
+        }
+        try {
+            int fetchSize = original.getFetchSize();
+            // Zero means driver default. Negative values are used by some drivers to enable streaming mode.
+            if (fetchSize > 0) {
+                fetchTuner = new JDBCFetchSizeTuner(original, fetchSize);
+            }
+        } catch (Throwable e) {
+            log.debug("Can't read result set fetch size", e);
+        }
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Prepared statements cache of one execution context.
+ *
+ * Keeps statements which were closed by their sessions (LRU, bounded by size).
+ * Statement is removed from cache while it is in use, so the same statement is never used by two sessions.
+ * Cache must be invalidated when context connection is closed.
+ */
+public class JDBCStatementCache {
+
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    /**
+     * Statement key. Result set type and concurrency are zero for statements prepared with driver defaults.
+     */
+    public static final class Key {
+        private final String sql;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+
+        public Key(@NotNull String sql, int resultSetType, int resultSetConcurrency) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return resultSetType == key.resultSetType && resultSetConcurrency == key.resultSetConcurrency && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return (sql.hashCode() * 31 + resultSetType) * 31 + resultSetConcurrency;
+        }
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    // Incremented on invalidate. Statements taken before invalidation are not returned to cache.
+    private int generation;
+    private long hitCount;
+    private long missCount;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Takes statement from cache. Returns null if there is no such statement.
+     */
+    @Nullable
+    public synchronized PreparedStatement take(@NotNull Key key) {
+        PreparedStatement statement = statements.remove(key);
+        if (statement == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return statement;
+    }
+
+    /**
+     * Returns statement to cache.
+     * Returns false if statement can't be cached. Caller must close it then.
+     */
+    public synchronized boolean release(@NotNull Key key, @NotNull PreparedStatement statement, int statementGeneration) {
+        if (statementGeneration != generation || statements.containsKey(key)) {
+            return false;
+        }
+        statements.put(key, statement);
+        if (statements.size() > maxSize) {
+            Iterator<PreparedStatement> iterator = statements.values().iterator();
+            PreparedStatement eldest = iterator.next();
+            iterator.remove();
+            closeStatement(eldest);
+        }
+        return true;
+    }
+
+    /**
+     * Closes all cached statements
+     */
+    public synchronized void invalidate() {
+        generation++;
+        if (!statements.isEmpty()) {
+            log.debug("Close " + statements.size() + " cached statement(s). Cache hit rate: " + getHitRate() + "%");
+            for (PreparedStatement statement : statements.values()) {
+                closeStatement(statement);
+            }
+            statements.clear();
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Percent of statements taken from cache
+     */
+    public synchronized int getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (int) (hitCount * 100 / total);
+    }
+
+    public synchronized int getSize() {
+        return statements.size();
+    }
+
+    private static void closeStatement(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (Throwable e) {
+            log.debug("Error closing cached statement", e);
+        }
+    }
+
+}
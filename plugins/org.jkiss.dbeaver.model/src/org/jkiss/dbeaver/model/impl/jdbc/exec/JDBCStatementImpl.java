@@ -494,6 +494,11 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         }
 
         // Close statement
+        closeOriginal();
+    }
+
+    protected void closeOriginal()
+    {
         try {
             getOriginal().close();
         }
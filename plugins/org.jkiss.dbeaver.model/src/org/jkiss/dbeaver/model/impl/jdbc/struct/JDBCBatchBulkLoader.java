@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.util.Map;
+
+/**
+ * Bulk loader based on a single prepared INSERT statement and JDBC batches.
+ *
+ * Statement is prepared once and reused for all rows. Batch is executed on each flush.
+ * Subclasses may add optimizer hints and control transaction boundaries.
+ */
+public class JDBCBatchBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private DBCStatement statement;
+    private int batchRowCount;
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load is not supported for '" + dataContainer.getName() + "'");
+        }
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+
+        String query = generateInsertQuery(session.getDataSource(), (DBSEntity) dataContainer, options);
+        statement = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false);
+        statement.setStatementSource(source);
+        batchRowCount = 0;
+        return this;
+    }
+
+    /**
+     * Generates INSERT statement with a parameter for each loaded attribute
+     */
+    protected String generateInsertQuery(@NotNull DBPDataSource dataSource, @NotNull DBSEntity table, Map<String, Object> options) {
+        StringBuilder query = new StringBuilder(200);
+        query.append("INSERT ").append(getInsertHint()).append("INTO ") //$NON-NLS-1$ //$NON-NLS-2$
+            .append(DBUtils.getEntityScriptName(table, options)).append(" ("); //$NON-NLS-1$
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            DBSAttributeBase attribute = attributes[i];
+            query.append(DBUtils.isPseudoAttribute(attribute) ?
+                attribute.getName() : DBUtils.getObjectFullName(dataSource, attribute, DBPEvaluationContext.DML));
+        }
+        query.append(") VALUES ("); //$NON-NLS-1$
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) query.append(","); //$NON-NLS-1$
+            query.append("?"); //$NON-NLS-1$
+        }
+        query.append(")"); //$NON-NLS-1$
+        return query.toString();
+    }
+
+    /**
+     * Optimizer hint placed right after INSERT keyword. Must end with a space if not empty.
+     */
+    protected String getInsertHint() {
+        return "";
+    }
+
+    /**
+     * Whether transaction must be committed after each executed batch.
+     * Otherwise all rows are loaded in a single transaction which is committed at the end of bulk load.
+     */
+    protected boolean isCommitAfterFlush() {
+        return true;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, statement, attributes[i], i, attributeValues[i]);
+        }
+        statement.addToBatch();
+        batchRowCount++;
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (batchRowCount > 0) {
+            statement.executeStatementBatch();
+            batchRowCount = 0;
+        }
+        if (isCommitAfterFlush()) {
+            commitChanges(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        if (batchRowCount > 0) {
+            statement.executeStatementBatch();
+            batchRowCount = 0;
+        }
+        commitChanges(session);
+    }
+
+    @Override
+    public void close() {
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+
+    protected void commitChanges(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            txnManager.commit(session);
+        }
+    }
+
+}
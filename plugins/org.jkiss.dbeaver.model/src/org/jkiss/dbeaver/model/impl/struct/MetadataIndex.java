@@ -0,0 +1,758 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local metadata index.
+ *
+ * Keeps names, types and parents of all database objects supported by structure assistant.
+ * Index is saved in project metadata folder and refreshed in background.
+ * Lookups use sorted names (for prefix masks) and name trigrams (for other masks).
+ *
+ * Index is used only if enabled in connection preferences. Searches which can't be served by index
+ * (comments, definitions, not indexed object types) and searches without results go to the database.
+ * Index is kept in memory while its connection is connected.
+ */
+public class MetadataIndex {
+
+    private static final Log log = Log.getLog(MetadataIndex.class);
+
+    private static final String INDEX_FOLDER = "metadata-index"; //$NON-NLS-1$
+    private static final int FILE_VERSION = 1;
+    private static final int MAX_INDEXED_OBJECTS = 2_000_000;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private static final Map<String, MetadataIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Searches objects in metadata index (if it is enabled for the connection) or with structure assistant.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static List<DBSObjectReference> findObjectsByMask(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSStructureAssistant assistant,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params) throws DBException
+    {
+        DBPDataSourceContainer container = executionContext.getDataSource().getContainer();
+        if (!isIndexEnabled(container)) {
+            MetadataIndex index = indexes.get(container.getId());
+            if (index != null) {
+                index.dispose();
+            }
+        } else if (!params.isSearchInComments() && !params.isSearchInDefinitions()) {
+            MetadataIndex index = indexes.computeIfAbsent(container.getId(), id -> new MetadataIndex(container));
+            List<DBSObjectReference> references = index.findObjects(assistant, executionContext, params);
+            if (!CommonUtils.isEmpty(references)) {
+                return references;
+            }
+        }
+        return assistant.findObjectsByMask(monitor, executionContext, params);
+    }
+
+    private static boolean isIndexEnabled(DBPDataSourceContainer container) {
+        return container.getPreferenceStore().getBoolean(ModelPreferences.META_INDEX_ENABLED);
+    }
+
+    private static Path getIndexFile(DBPDataSourceContainer container) {
+        return container.getProject().getMetadataFolder(false).resolve(INDEX_FOLDER).resolve(container.getId() + ".idx");
+    }
+
+    private final DBPDataSourceContainer container;
+    private final DBPEventListener dataSourceListener = this::handleDataSourceEvent;
+    private volatile Snapshot snapshot;
+    private volatile boolean loaded;
+    private volatile boolean disposed;
+    private volatile RefreshJob refreshJob;
+
+    private MetadataIndex(DBPDataSourceContainer container) {
+        this.container = container;
+        container.getRegistry().addDataSourceListener(dataSourceListener);
+    }
+
+    private void handleDataSourceEvent(DBPEvent event) {
+        if (event.getObject() != container) {
+            return;
+        }
+        if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+            dispose();
+            try {
+                Files.deleteIfExists(getIndexFile(container));
+            } catch (IOException e) {
+                log.debug("Error deleting metadata index of '" + container.getName() + "'", e);
+            }
+        } else if (event.getAction() == DBPEvent.Action.OBJECT_UPDATE &&
+            (Boolean.FALSE.equals(event.getEnabled()) || !isIndexEnabled(container)))
+        {
+            // Disconnected or index was disabled. Index objects refer to the closed connection
+            dispose();
+        }
+    }
+
+    private void dispose() {
+        disposed = true;
+        indexes.remove(container.getId(), this);
+        container.getRegistry().removeDataSourceListener(dataSourceListener);
+        RefreshJob job = refreshJob;
+        if (job != null) {
+            job.cancel();
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Returns null if index is not ready or can't serve this request.
+     * Doesn't access the database: object containers are resolved when the index is loaded.
+     */
+    @Nullable
+    private List<DBSObjectReference> findObjects(
+        @NotNull DBSStructureAssistant<?> assistant,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params)
+    {
+        scheduleRefreshIfNeeded();
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            return null;
+        }
+        // All requested types must be indexed
+        boolean[] typeFilter = new boolean[snapshot.typeNames.length];
+        for (DBSObjectType type : params.getObjectTypes()) {
+            int typeIndex = ArrayUtils.indexOf(snapshot.typeNames, type.getTypeName());
+            if (typeIndex < 0) {
+                return null;
+            }
+            typeFilter[typeIndex] = true;
+        }
+        DBSObject parent = params.getParentObject();
+        if (parent == null && !params.isGlobalSearch()) {
+            DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext.getContextDefaults();
+            if (contextDefaults != null) {
+                parent = contextDefaults.getDefaultSchema() != null ? contextDefaults.getDefaultSchema() : contextDefaults.getDefaultCatalog();
+            }
+        }
+        String[] parentPath = parent == null || parent instanceof DBPDataSource ? null : getObjectPath(parent);
+        boolean[] containerFilter = new boolean[snapshot.containerPaths.length];
+        for (int i = 0; i < containerFilter.length; i++) {
+            containerFilter[i] = parentPath == null || startsWith(snapshot.containerPaths[i], parentPath);
+        }
+
+        int[] found = snapshot.find(params.getMask(), params.isCaseSensitive(), typeFilter, containerFilter, params.getMaxResults());
+
+        List<DBSObjectReference> result = new ArrayList<>(found.length);
+        for (int objectIndex : found) {
+            DBSObject objectContainer = snapshot.containerObjects[snapshot.containers[objectIndex]];
+            DBSObjectType objectType = findObjectType(assistant, snapshot.typeNames[snapshot.types[objectIndex]]);
+            if (objectContainer == null || objectType == null) {
+                // Object was dropped or metadata structure was changed
+                continue;
+            }
+            result.add(new IndexedObjectReference(
+                snapshot.names[objectIndex],
+                objectContainer,
+                snapshot.descriptions[objectIndex],
+                objectType,
+                assistant,
+                executionContext));
+        }
+        return result;
+    }
+
+    private void scheduleRefreshIfNeeded() {
+        if (refreshJob != null) {
+            return;
+        }
+        Snapshot snapshot = this.snapshot;
+        long refreshInterval = container.getPreferenceStore().getInt(ModelPreferences.META_INDEX_REFRESH_INTERVAL) * 60L * 1000L;
+        if (loaded && snapshot != null && (refreshInterval <= 0 || snapshot.buildTime + refreshInterval > System.currentTimeMillis())) {
+            return;
+        }
+        synchronized (this) {
+            if (refreshJob == null) {
+                refreshJob = new RefreshJob();
+                refreshJob.schedule();
+            }
+        }
+    }
+
+    private void refreshIndex(DBRProgressMonitor monitor) throws DBException {
+        DBPDataSource dataSource = container.getDataSource();
+        if (dataSource == null || !container.isConnected()) {
+            return;
+        }
+        Path indexFile = getIndexFile(container);
+        if (!loaded) {
+            loaded = true;
+            if (Files.exists(indexFile)) {
+                try {
+                    Snapshot savedSnapshot = Snapshot.read(indexFile);
+                    savedSnapshot.resolveContainers(monitor, dataSource);
+                    snapshot = savedSnapshot;
+                } catch (Exception e) {
+                    log.debug("Error reading metadata index of '" + container.getName() + "'", e);
+                }
+            }
+            long refreshInterval = container.getPreferenceStore().getInt(ModelPreferences.META_INDEX_REFRESH_INTERVAL) * 60L * 1000L;
+            if (snapshot != null && (refreshInterval <= 0 || snapshot.buildTime + refreshInterval > System.currentTimeMillis())) {
+                return;
+            }
+        }
+        DBSStructureAssistant<?> assistant = DBUtils.getAdapter(DBSStructureAssistant.class, dataSource);
+        if (assistant == null) {
+            return;
+        }
+        DBCExecutionContext executionContext = dataSource.getDefaultInstance().getDefaultContext(monitor, true);
+
+        SnapshotBuilder builder = new SnapshotBuilder(dataSource);
+        Set<DBSObjectType> objectTypes = new LinkedHashSet<>();
+        Collections.addAll(objectTypes, assistant.getSearchObjectTypes());
+        Collections.addAll(objectTypes, assistant.getAutoCompleteObjectTypes());
+        Collections.addAll(objectTypes, assistant.getHyperlinkObjectTypes());
+        monitor.beginTask("Index metadata of '" + container.getName() + "'", objectTypes.size());
+        try {
+            for (DBSObjectType objectType : objectTypes) {
+                if (monitor.isCanceled()) {
+                    // Keep old snapshot
+                    return;
+                }
+                monitor.subTask("Read " + objectType.getTypeName());
+                DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
+                    new DBSObjectType[] { objectType }, "%"); //$NON-NLS-1$
+                params.setGlobalSearch(true);
+                params.setMaxResults(MAX_INDEXED_OBJECTS - builder.size());
+                try {
+                    @SuppressWarnings("unchecked")
+                    List<DBSObjectReference> references = ((DBSStructureAssistant<DBCExecutionContext>) assistant).findObjectsByMask(
+                        monitor, executionContext, params);
+                    builder.addType(objectType, references);
+                } catch (Exception e) {
+                    // This type will be searched in database
+                    log.debug("Error reading " + objectType.getTypeName() + " metadata", e);
+                }
+                monitor.worked(1);
+                if (builder.size() >= MAX_INDEXED_OBJECTS) {
+                    break;
+                }
+            }
+        } finally {
+            monitor.done();
+        }
+
+        if (disposed) {
+            return;
+        }
+        Snapshot newSnapshot = builder.build();
+        snapshot = newSnapshot;
+        try {
+            newSnapshot.write(indexFile);
+        } catch (IOException e) {
+            log.debug("Error saving metadata index of '" + container.getName() + "'", e);
+        }
+    }
+
+    @Nullable
+    private static DBSObject resolveContainer(DBRProgressMonitor monitor, DBPDataSource dataSource, String[] path) throws DBException {
+        // Called in index refresh job only, it may read metadata
+        DBSObject object = dataSource;
+        for (String name : path) {
+            if (!(object instanceof DBSObjectContainer)) {
+                return null;
+            }
+            object = ((DBSObjectContainer) object).getChild(monitor, name);
+            if (object == null) {
+                return null;
+            }
+        }
+        return object;
+    }
+
+    @Nullable
+    private static DBSObjectType findObjectType(DBSStructureAssistant<?> assistant, String typeName) {
+        for (DBSObjectType[] types : new DBSObjectType[][] {
+            assistant.getSearchObjectTypes(), assistant.getAutoCompleteObjectTypes(), assistant.getHyperlinkObjectTypes() })
+        {
+            for (DBSObjectType type : types) {
+                if (type.getTypeName().equals(typeName)) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Object names path from data source (exclusive) to the specified object (inclusive)
+     */
+    private static String[] getObjectPath(DBSObject object) {
+        List<String> path = new ArrayList<>();
+        for (DBSObject o = object; o != null && !(o instanceof DBPDataSource) && !(o instanceof DBPDataSourceContainer); o = o.getParentObject()) {
+            path.add(0, o.getName());
+        }
+        return path.toArray(new String[0]);
+    }
+
+    private static boolean startsWith(String[] path, String[] prefix) {
+        if (path.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (!path[i].equals(prefix[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class RefreshJob extends AbstractJob {
+        RefreshJob() {
+            super("Refresh metadata index of '" + container.getName() + "'");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                refreshIndex(monitor);
+            } catch (Throwable e) {
+                log.debug("Error refreshing metadata index of '" + container.getName() + "'", e);
+            } finally {
+                refreshJob = null;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class IndexedObjectReference extends AbstractObjectReference {
+
+        private final DBSStructureAssistant<?> assistant;
+        private final DBCExecutionContext executionContext;
+
+        IndexedObjectReference(
+            String name,
+            DBSObject container,
+            String description,
+            DBSObjectType type,
+            DBSStructureAssistant<?> assistant,
+            DBCExecutionContext executionContext)
+        {
+            super(name, container, description, type.getTypeClass(), type);
+            this.assistant = assistant;
+            this.executionContext = executionContext;
+        }
+
+        @Override
+        public DBSObject resolveObject(DBRProgressMonitor monitor) throws DBException {
+            DBSObject container = getContainer();
+            if (container instanceof DBSObjectContainer) {
+                DBSObject child = ((DBSObjectContainer) container).getChild(monitor, getName());
+                if (child != null && getObjectClass().isInstance(child)) {
+                    return child;
+                }
+            }
+            // Find real reference in database
+            DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
+                new DBSObjectType[] { getObjectType() }, getName());
+            params.setParentObject(container);
+            params.setCaseSensitive(true);
+            params.setGlobalSearch(true);
+            @SuppressWarnings("unchecked")
+            List<DBSObjectReference> references = ((DBSStructureAssistant<DBCExecutionContext>) assistant).findObjectsByMask(
+                monitor, executionContext, params);
+            for (DBSObjectReference reference : references) {
+                if (reference.getName().equals(getName())) {
+                    return reference.resolveObject(monitor);
+                }
+            }
+            throw new DBException("Object '" + getName() + "' not found in '" + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI) + "'");
+        }
+    }
+
+    public static class SnapshotBuilder {
+        private final DBSObject rootObject;
+        private final List<String> typeNames = new ArrayList<>();
+        private final List<String[]> containerPaths = new ArrayList<>();
+        private final List<DBSObject> containerObjects = new ArrayList<>();
+        private final Map<DBSObject, Integer> containerIndexes = new IdentityHashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> descriptions = new ArrayList<>();
+        private final List<Integer> types = new ArrayList<>();
+        private final List<Integer> containers = new ArrayList<>();
+
+        /**
+         * @param rootObject container of references without container (usually data source)
+         */
+        public SnapshotBuilder(@Nullable DBSObject rootObject) {
+            this.rootObject = rootObject;
+        }
+
+        int size() {
+            return names.size();
+        }
+
+        public void addType(@NotNull DBSObjectType objectType, @NotNull List<DBSObjectReference> references) {
+            int typeIndex = typeNames.size();
+            typeNames.add(objectType.getTypeName());
+            for (DBSObjectReference reference : references) {
+                DBSObject container = reference.getContainer();
+                if (container == null) {
+                    container = rootObject;
+                }
+                Integer containerIndex = containerIndexes.get(container);
+                if (containerIndex == null) {
+                    containerIndex = containerPaths.size();
+                    containerPaths.add(container == null ? new String[0] : getObjectPath(container));
+                    containerObjects.add(container);
+                    containerIndexes.put(container, containerIndex);
+                }
+                String description = reference.getObjectDescription();
+                if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+                    description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+                }
+                names.add(reference.getName());
+                descriptions.add(description);
+                types.add(typeIndex);
+                containers.add(containerIndex);
+            }
+        }
+
+        @NotNull
+        public Snapshot build() {
+            Integer[] order = new Integer[names.size()];
+            String[] lowerNames = new String[order.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+                lowerNames[i] = names.get(i).toLowerCase(Locale.ROOT);
+            }
+            Arrays.sort(order, Comparator.comparing(i -> lowerNames[i]));
+            Snapshot snapshot = new Snapshot(
+                System.currentTimeMillis(),
+                typeNames.toArray(new String[0]),
+                containerPaths.toArray(new String[0][]),
+                order.length);
+            for (int i = 0; i < order.length; i++) {
+                int src = order[i];
+                snapshot.names[i] = names.get(src);
+                snapshot.descriptions[i] = descriptions.get(src);
+                snapshot.types[i] = types.get(src);
+                snapshot.containers[i] = containers.get(src);
+            }
+            snapshot.containerObjects = containerObjects.toArray(new DBSObject[0]);
+            snapshot.buildLookupIndex();
+            return snapshot;
+        }
+    }
+
+    /**
+     * Immutable (after build) index data. Objects are sorted by lower-cased name.
+     */
+    public static class Snapshot {
+        private final long buildTime;
+        private final String[] typeNames;
+        private final String[][] containerPaths;
+        private final String[] names;
+        private final String[] descriptions;
+        private final int[] types;
+        private final int[] containers;
+        // Containers of the current connection, they are not saved. Null if container wasn't found.
+        private DBSObject[] containerObjects;
+        private String[] lowerNames;
+        private Map<Long, int[]> trigrams;
+
+        Snapshot(long buildTime, String[] typeNames, String[][] containerPaths, int size) {
+            this.buildTime = buildTime;
+            this.typeNames = typeNames;
+            this.containerPaths = containerPaths;
+            this.names = new String[size];
+            this.descriptions = new String[size];
+            this.types = new int[size];
+            this.containers = new int[size];
+            this.containerObjects = new DBSObject[containerPaths.length];
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        @NotNull
+        public String getName(int index) {
+            return names[index];
+        }
+
+        @Nullable
+        public String getDescription(int index) {
+            return descriptions[index];
+        }
+
+        @NotNull
+        public String getTypeName(int index) {
+            return typeNames[types[index]];
+        }
+
+        @NotNull
+        public String[] getContainerPath(int index) {
+            return containerPaths[containers[index]];
+        }
+
+        @Nullable
+        public DBSObject getContainerObject(int index) {
+            return containerObjects[containers[index]];
+        }
+
+        void resolveContainers(DBRProgressMonitor monitor, DBPDataSource dataSource) {
+            for (int i = 0; i < containerPaths.length && !monitor.isCanceled(); i++) {
+                try {
+                    containerObjects[i] = resolveContainer(monitor, dataSource, containerPaths[i]);
+                } catch (DBException e) {
+                    log.debug("Error resolving metadata index container", e);
+                }
+            }
+        }
+
+        void buildLookupIndex() {
+            lowerNames = new String[names.length];
+            Map<Long, int[]> postings = new HashMap<>();
+            Map<Long, Integer> postingSizes = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                lowerNames[i] = names[i].toLowerCase(Locale.ROOT);
+                String name = lowerNames[i];
+                for (int k = 0; k + 3 <= name.length(); k++) {
+                    Long trigram = makeTrigram(name, k);
+                    int[] list = postings.get(trigram);
+                    int size = list == null ? 0 : postingSizes.get(trigram);
+                    if (size > 0 && list[size - 1] == i) {
+                        // Same trigram twice in one name
+                        continue;
+                    }
+                    if (list == null) {
+                        list = new int[4];
+                        postings.put(trigram, list);
+                    } else if (size == list.length) {
+                        list = Arrays.copyOf(list, size * 2);
+                        postings.put(trigram, list);
+                    }
+                    list[size] = i;
+                    postingSizes.put(trigram, size + 1);
+                }
+            }
+            for (Map.Entry<Long, int[]> entry : postings.entrySet()) {
+                int size = postingSizes.get(entry.getKey());
+                if (size < entry.getValue().length) {
+                    entry.setValue(Arrays.copyOf(entry.getValue(), size));
+                }
+            }
+            trigrams = postings;
+        }
+
+        private static long makeTrigram(String str, int offset) {
+            return ((long) str.charAt(offset) << 32) | ((long) str.charAt(offset + 1) << 16) | str.charAt(offset + 2);
+        }
+
+        /**
+         * Finds objects matching LIKE mask. Returns indexes of found objects.
+         */
+        @NotNull
+        public int[] find(@NotNull String mask, boolean caseSensitive, @NotNull boolean[] typeFilter, @NotNull boolean[] containerFilter, int maxResults) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(
+                    SQLUtils.makeLikePattern(mask),
+                    caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            } catch (PatternSyntaxException e) {
+                // Search in database
+                return new int[0];
+            }
+            List<String> literals = new ArrayList<>();
+            // Escaped masks are rare, just scan all names for them
+            boolean startsWithLiteral = mask.indexOf('\\') == -1 && splitLikeMask(mask.toLowerCase(Locale.ROOT), literals);
+
+            int[] result = new int[Math.min(maxResults, 1000)];
+            int count = 0;
+            if (startsWithLiteral) {
+                // Prefix search
+                String prefix = literals.get(0);
+                // First name which is not less than prefix
+                int first = 0, last = lowerNames.length;
+                while (first < last) {
+                    int mid = (first + last) >>> 1;
+                    if (lowerNames[mid].compareTo(prefix) < 0) {
+                        first = mid + 1;
+                    } else {
+                        last = mid;
+                    }
+                }
+                for (int i = first; i < lowerNames.length && count < maxResults && lowerNames[i].startsWith(prefix); i++) {
+                    if (matches(i, pattern, typeFilter, containerFilter)) {
+                        result = add(result, count++, i);
+                    }
+                }
+                return Arrays.copyOf(result, count);
+            }
+
+            String longestLiteral = literals.stream().max(Comparator.comparingInt(String::length)).orElse("");
+            if (longestLiteral.length() >= 3) {
+                // Use the most selective trigram of the longest literal
+                int[] candidates = null;
+                for (int k = 0; k + 3 <= longestLiteral.length(); k++) {
+                    int[] list = trigrams.get(makeTrigram(longestLiteral, k));
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    if (candidates == null || list.length < candidates.length) {
+                        candidates = list;
+                    }
+                }
+                for (int i = 0; i < candidates.length && count < maxResults; i++) {
+                    if (matches(candidates[i], pattern, typeFilter, containerFilter)) {
+                        result = add(result, count++, candidates[i]);
+                    }
+                }
+                return Arrays.copyOf(result, count);
+            }
+
+            for (int i = 0; i < names.length && count < maxResults; i++) {
+                if (matches(i, pattern, typeFilter, containerFilter)) {
+                    result = add(result, count++, i);
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private boolean matches(int index, Pattern pattern, boolean[] typeFilter, boolean[] containerFilter) {
+            return typeFilter[types[index]] && containerFilter[containers[index]] && pattern.matcher(names[index]).matches();
+        }
+
+        private static int[] add(int[] array, int position, int value) {
+            if (position >= array.length) {
+                array = Arrays.copyOf(array, array.length * 2 + 1);
+            }
+            array[position] = value;
+            return array;
+        }
+
+        /**
+         * Splits LIKE mask on literal parts. Returns true if mask starts with literal.
+         */
+        private static boolean splitLikeMask(String mask, List<String> literals) {
+            StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < mask.length(); i++) {
+                char c = mask.charAt(i);
+                if (c == '%' || c == '*' || c == '_' || c == '?') {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                } else {
+                    literal.append(c);
+                }
+            }
+            literals.add(literal.toString());
+            boolean startsWithLiteral = !literals.get(0).isEmpty();
+            literals.removeIf(String::isEmpty);
+            return startsWithLiteral;
+        }
+
+        public void write(@NotNull Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmpFile))))) {
+                out.writeInt(FILE_VERSION);
+                out.writeLong(buildTime);
+                out.writeInt(typeNames.length);
+                for (String typeName : typeNames) {
+                    out.writeUTF(typeName);
+                }
+                out.writeInt(containerPaths.length);
+                for (String[] path : containerPaths) {
+                    out.writeInt(path.length);
+                    for (String name : path) {
+                        out.writeUTF(name);
+                    }
+                }
+                out.writeInt(names.length);
+                for (int i = 0; i < names.length; i++) {
+                    out.writeUTF(names[i]);
+                    out.writeInt(types[i]);
+                    out.writeInt(containers[i]);
+                    out.writeBoolean(descriptions[i] != null);
+                    if (descriptions[i] != null) {
+                        out.writeUTF(descriptions[i]);
+                    }
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @NotNull
+        public static Snapshot read(@NotNull Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+                if (in.readInt() != FILE_VERSION) {
+                    throw new IOException("Unsupported metadata index version");
+                }
+                long buildTime = in.readLong();
+                String[] typeNames = new String[in.readInt()];
+                for (int i = 0; i < typeNames.length; i++) {
+                    typeNames[i] = in.readUTF();
+                }
+                String[][] containerPaths = new String[in.readInt()][];
+                for (int i = 0; i < containerPaths.length; i++) {
+                    containerPaths[i] = new String[in.readInt()];
+                    for (int k = 0; k < containerPaths[i].length; k++) {
+                        containerPaths[i][k] = in.readUTF();
+                    }
+                }
+                Snapshot snapshot = new Snapshot(buildTime, typeNames, containerPaths, in.readInt());
+                for (int i = 0; i < snapshot.names.length; i++) {
+                    snapshot.names[i] = in.readUTF();
+                    snapshot.types[i] = in.readInt();
+                    snapshot.containers[i] = in.readInt();
+                    snapshot.descriptions[i] = in.readBoolean() ? in.readUTF() : null;
+                }
+                snapshot.buildLookupIndex();
+                return snapshot;
+            }
+        }
+    }
+
+}
@@ -45,6 +45,8 @@ public class DBWHandlerConfiguration {
     private boolean savePassword = true;
     private final Map<String, Object> properties;
     private final Map<String, String> secureProperties;
+    // Reads credentials and secure properties on first access
+    private volatile Runnable credentialsLoader;
 
     public DBWHandlerConfiguration(@NotNull DBWHandlerDescriptor descriptor, DBPDataSourceContainer dataSource) {
         this.descriptor = descriptor;
@@ -54,6 +56,7 @@ public class DBWHandlerConfiguration {
     }
 
     public DBWHandlerConfiguration(@NotNull DBWHandlerConfiguration configuration) {
+        configuration.loadCredentials();
         this.descriptor = configuration.descriptor;
         this.dataSource = configuration.dataSource;
         this.enabled = configuration.enabled;
@@ -115,18 +118,22 @@ public class DBWHandlerConfiguration {
     }
 
     public String getUserName() {
+        loadCredentials();
         return userName;
     }
 
     public void setUserName(String userName) {
+        loadCredentials();
         this.userName = userName;
     }
 
     public String getPassword() {
+        loadCredentials();
         return password;
     }
 
     public void setPassword(@Nullable String password) {
+        loadCredentials();
         this.password = password;
     }
 
@@ -180,29 +187,56 @@ public class DBWHandlerConfiguration {
 
     @Nullable
     public String getSecureProperty(@NotNull String name) {
+        loadCredentials();
         return secureProperties.get(name);
     }
 
     @NotNull
     public Map<String, String> getSecureProperties() {
+        loadCredentials();
         return secureProperties;
     }
 
     public void setSecureProperty(@NotNull String name, @Nullable String value) {
+        loadCredentials();
         secureProperties.put(name, value);
     }
 
     public void setSecureProperties(@NotNull Map<String, String> secureProperties) {
+        loadCredentials();
         this.secureProperties.clear();
         this.secureProperties.putAll(secureProperties);
     }
 
+    /**
+     * Sets loader which fills user name, password and secure properties on first access to them.
+     * Loader is called at most once.
+     */
+    public void setCredentialsLoader(@Nullable Runnable credentialsLoader) {
+        this.credentialsLoader = credentialsLoader;
+    }
+
+    private void loadCredentials() {
+        if (credentialsLoader == null) {
+            return;
+        }
+        synchronized (this) {
+            Runnable loader = credentialsLoader;
+            if (loader != null) {
+                credentialsLoader = null;
+                loader.run();
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof DBWHandlerConfiguration)) {
             return false;
         }
         DBWHandlerConfiguration source = (DBWHandlerConfiguration) obj;
+        this.loadCredentials();
+        source.loadCredentials();
         return
             CommonUtils.equalObjects(this.descriptor, source.descriptor) &&
                 CommonUtils.equalObjects(this.dataSource, source.dataSource) &&
@@ -215,6 +249,7 @@ public class DBWHandlerConfiguration {
     }
 
     public void resolveDynamicVariables(IVariableResolver variableResolver) {
+        loadCredentials();
         userName = GeneralUtils.replaceVariables(userName, variableResolver);
         password = GeneralUtils.replaceVariables(password, variableResolver);
         for (Map.Entry<String, Object> prop : properties.entrySet()) {
@@ -230,6 +265,7 @@ public class DBWHandlerConfiguration {
     }
 
     public boolean hasValuableInfo() {
+        loadCredentials();
         return !CommonUtils.isEmpty(userName) ||
             !CommonUtils.isEmpty(password) ||
             !CommonUtils.isEmpty(properties) ||
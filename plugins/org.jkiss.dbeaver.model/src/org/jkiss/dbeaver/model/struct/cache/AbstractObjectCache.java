@@ -32,15 +32,18 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ *
+ * Cache content is copy-on-write: readers get an immutable snapshot of objects list and name index
+ * without locking. Modifications are serialized by cache monitor and publish a new snapshot.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT>
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Current snapshot. Null if cache wasn't read.
+    private volatile CacheContent<OBJECT> content;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -70,13 +73,15 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         this.listOrderComparator = listOrderComparator;
     }
 
+    /**
+     * Returns current snapshot of cached objects. Returned list must not be modified.
+     */
     @NotNull
     @Override
     public List<OBJECT> getCachedObjects()
     {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
-        }
+        CacheContent<OBJECT> content = this.content;
+        return content == null ? Collections.<OBJECT>emptyList() : content.objects;
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -95,31 +100,68 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        CacheContent<OBJECT> content = this.content;
+        if (content == null || name == null) {
+            return null;
         }
+        Map<String, OBJECT> objectMap = getObjectMap(content);
+        // Index keys are already normalized. Upper-case names are found without conversion.
+        OBJECT object = objectMap.get(name);
+        if (object == null && !caseSensitive) {
+            String normalizedName = name.toUpperCase();
+            if (!normalizedName.equals(name)) {
+                object = objectMap.get(normalizedName);
+            }
+        }
+        return object;
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        CacheContent<OBJECT> content = this.content;
+        return content == null ? 0 : content.objects.size();
     }
 
+    /**
+     * Adds object and publishes a new snapshot. Use {@link #cacheObjects(Collection)} to add many objects.
+     */
     @Override
     public void cacheObject(@NotNull OBJECT object)
     {
+        cacheObjects(Collections.singletonList(object));
+    }
+
+    /**
+     * Adds all objects with a single snapshot copy
+     */
+    @Override
+    public void cacheObjects(@NotNull Collection<OBJECT> objects)
+    {
+        if (objects.isEmpty()) {
+            return;
+        }
         synchronized (cacheSync) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
+            CacheContent<OBJECT> oldContent = this.content;
+            List<OBJECT> newObjects;
+            Map<String, OBJECT> objectMap = null;
+            if (oldContent == null) {
+                newObjects = new ArrayList<>(objects.size());
+            } else {
+                newObjects = new ArrayList<>(oldContent.objects.size() + objects.size());
+                newObjects.addAll(oldContent.objects);
+                if (oldContent.objectMap != null) {
+                    objectMap = new HashMap<>(oldContent.objectMap);
+                }
             }
-            detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+            for (OBJECT object : objects) {
+                detectCaseSensitivity(object);
+                newObjects.add(object);
+                if (objectMap != null) {
+                    String name = getObjectName(object);
+                    checkDuplicateName(objectMap, name, object);
+                    objectMap.put(name, object);
+                }
             }
+            this.content = new CacheContent<>(newObjects, objectMap);
         }
     }
 
@@ -127,12 +169,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            if (this.content != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeCachedObject(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -143,13 +182,17 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (cacheSync) {
-            if (this.objectMap != null) {
+            CacheContent<OBJECT> oldContent = this.content;
+            if (oldContent != null && oldContent.objectMap != null) {
                 if (!caseSensitive) {
                     oldName = oldName.toUpperCase(Locale.ENGLISH);
                     newName = newName.toUpperCase(Locale.ENGLISH);
                 }
-                if (this.objectMap.remove(oldName) == object) {
-                    this.objectMap.put(newName, object);
+                if (oldContent.objectMap.get(oldName) == object) {
+                    Map<String, OBJECT> objectMap = new HashMap<>(oldContent.objectMap);
+                    objectMap.remove(oldName);
+                    objectMap.put(newName, object);
+                    this.content = new CacheContent<>(oldContent.objects, objectMap);
                 }
             }
         }
@@ -176,8 +219,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void clearCache()
     {
         synchronized (cacheSync) {
-            this.objectList = null;
-            this.objectMap = null;
+            this.content = null;
             this.fullCache = false;
         }
     }
@@ -185,8 +227,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void setCache(List<OBJECT> objects)
     {
         synchronized (cacheSync) {
-            this.objectList = objects;
-            this.objectMap = null;
+            // Copy, so caller can't change the published snapshot
+            this.content = new CacheContent<>(new ArrayList<>(objects), null);
             this.fullCache = true;
         }
     }
@@ -208,47 +250,73 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     protected void mergeCache(List<OBJECT> objects)
     {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
-                // Merge lists
+            CacheContent<OBJECT> oldContent = this.content;
+            if (oldContent != null && !oldContent.objects.isEmpty()) {
+                // Merge lists. Old objects are looked up by name, the first one wins (as in the list order).
+                Map<String, OBJECT> oldObjects = new HashMap<>(oldContent.objects.size());
+                for (OBJECT oldObject : oldContent.objects) {
+                    oldObjects.putIfAbsent(getObjectName(oldObject), oldObject);
+                }
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = getObjectName(newObject);
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = getObjectName(oldObject);
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    OBJECT oldObject = oldObjects.get(getObjectName(objects.get(i)));
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
+            setCache(objects);
         }
-        setCache(objects);
     }
 
-    private Map<String, OBJECT> getObjectMap()
+    /**
+     * Returns name index of the snapshot. Index is built once per snapshot.
+     */
+    private Map<String, OBJECT> getObjectMap(@NotNull CacheContent<OBJECT> content)
     {
+        Map<String, OBJECT> objectMap = content.objectMap;
+        if (objectMap != null) {
+            return objectMap;
+        }
         synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                if (objectList.size() > 0) {
-                    detectCaseSensitivity(objectList.get(0));
+            if (content.objectMap == null) {
+                if (content.objects.size() > 0) {
+                    detectCaseSensitivity(content.objects.get(0));
                 }
-
-                for (OBJECT object : objectList) {
+                objectMap = new HashMap<>(content.objects.size() * 4 / 3 + 1);
+                for (OBJECT object : content.objects) {
                     String name = getObjectName(object);
-                    checkDuplicateName(name, object);
-                    this.objectMap.put(name, object);
+                    checkDuplicateName(objectMap, name, object);
+                    objectMap.put(name, object);
                 }
+                content.objectMap = objectMap;
             }
-            return this.objectMap;
+            return content.objectMap;
+        }
+    }
+
+    /**
+     * Publishes new snapshot without the specified object. Must be called under cache monitor.
+     */
+    private void removeCachedObject(@NotNull OBJECT object) {
+        CacheContent<OBJECT> oldContent = this.content;
+        if (oldContent == null) {
+            return;
+        }
+        List<OBJECT> objects = new ArrayList<>(oldContent.objects);
+        if (!objects.remove(object)) {
+            return;
+        }
+        Map<String, OBJECT> objectMap = null;
+        if (oldContent.objectMap != null) {
+            objectMap = new HashMap<>(oldContent.objectMap);
+            objectMap.remove(getObjectName(object));
         }
+        this.content = new CacheContent<>(objects, objectMap);
     }
 
-    private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    private void checkDuplicateName(Map<String, OBJECT> objectMap, String name, OBJECT object) {
+        if (objectMap.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
         }
     }
@@ -274,21 +342,20 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (cacheSync) {
-            if (objectList == null) {
+            CacheContent<OBJECT> oldContent = this.content;
+            if (oldContent == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
-                if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
-                    fullCache = false;
-                } else {
-                    i++;
+            List<OBJECT> objects = new ArrayList<>(oldContent.objects.size());
+            for (OBJECT object : oldContent.objects) {
+                if (object.getParentObject() != parent) {
+                    objects.add(object);
                 }
             }
+            if (objects.size() != oldContent.objects.size()) {
+                this.content = new CacheContent<>(objects, null);
+                fullCache = false;
+            }
         }
     }
 
@@ -358,8 +425,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over the current snapshot. Removal publishes a new snapshot.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private Iterator<OBJECT> listIterator = objectList.iterator();
+        private Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
         public CacheIterator()
         {
@@ -380,13 +450,25 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            synchronized (cacheSync) {
+                removeCachedObject(curObject);
             }
         }
     }
 
+    /**
+     * Immutable objects list with lazily built name index
+     */
+    private static class CacheContent<OBJECT> {
+        private final List<OBJECT> objects;
+        private volatile Map<String, OBJECT> objectMap;
+
+        CacheContent(@NotNull List<OBJECT> objects, @Nullable Map<String, OBJECT> objectMap) {
+            this.objects = objects;
+            this.objectMap = objectMap;
+        }
+    }
+
     public static boolean isPropertyGroupField(Field field) {
         String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
         for (Method getter : field.getDeclaringClass().getMethods()) {
@@ -56,6 +56,17 @@ public interface DBSObjectCache<OWNER extends DBSObject, OBJECT extends DBSObjec
      */
     void cacheObject(@NotNull OBJECT object);
 
+    /**
+     * Adds specified objects to cache.
+     * Use it instead of cacheObject calls in a loop, implementations may add all objects at once.
+     * @param objects objects to cache
+     */
+    default void cacheObjects(@NotNull Collection<OBJECT> objects) {
+        for (OBJECT object : objects) {
+            cacheObject(object);
+        }
+    }
+
     /**
      * Sets new cache contents. setCache(getCachedObjects()) will reset named cache.
      * Set fullyCache flag to true.
@@ -62,6 +62,21 @@ public interface DBTTask extends DBPNamedObject, DBPObjectWithDescription {
     @NotNull
     DBTTaskRun[] getRunStatistics();
 
+    /**
+     * Returns page of task runs. Runs are ordered from the most recent one.
+     */
+    @NotNull
+    DBTTaskRun[] getRunStatistics(int offset, int maxCount);
+
+    int getRunCount();
+
+    /**
+     * Returns statistics of all task runs by day, ordered from the oldest day.
+     * Includes old runs which are not kept in details anymore.
+     */
+    @NotNull
+    DBTTaskRunDailyStatistics[] getDailyRunStatistics();
+
     @NotNull
     Path getRunLogFolder();
 
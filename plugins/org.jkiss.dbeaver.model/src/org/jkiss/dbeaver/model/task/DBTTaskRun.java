@@ -40,6 +40,11 @@ public interface DBTTaskRun {
 
     long getRunDuration();
 
+    /**
+     * Time the task spent in execution queue before start
+     */
+    long getQueueWaitTime();
+
     boolean isRunSuccess();
 
     @Nullable
@@ -31,8 +31,7 @@ import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Task utils
@@ -42,6 +41,10 @@ public class DBTaskUtils {
 
     public static final String TASK_VARIABLES = "taskVariables";
     public static final String TASK_CONTEXT = "taskContext";
+    // Tasks with higher priority are started first when execution queue is full
+    public static final String TASK_PRIORITY = "taskPriority";
+    // Ids of tasks which must finish before this task starts
+    public static final String TASK_DEPENDENCIES = "taskDependencies";
 
     @NotNull
     public static Map<String, Object> getVariables(@NotNull DBTTask task) {
@@ -62,6 +65,21 @@ public class DBTaskUtils {
         }
     }
 
+    @NotNull
+    public static List<String> getDependencies(@NotNull DBTTask task) {
+        Object dependencies = task.getProperties().get(TASK_DEPENDENCIES);
+        if (!(dependencies instanceof Collection)) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (Object taskId : (Collection<?>) dependencies) {
+            if (taskId != null) {
+                result.add(taskId.toString());
+            }
+        }
+        return result;
+    }
+
     public static DBTTaskContext extractContext(@NotNull DBCExecutionContext executionContext) {
         DBTTaskContext context = new DBTTaskContext();
 
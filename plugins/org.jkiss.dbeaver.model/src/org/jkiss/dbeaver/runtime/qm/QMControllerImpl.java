@@ -48,6 +48,8 @@ public class QMControllerImpl implements QMController {
     private QMMCollectorImpl metaHandler;
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
+    private boolean eventBrowserResolved;
+    private QMHistoryStore historyStore;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMControllerImpl() {
@@ -58,10 +60,20 @@ public class QMControllerImpl implements QMController {
 
         metaHandler = new QMMCollectorImpl();
         registerHandler(metaHandler);
+
+        historyStore = new QMHistoryStore();
+        metaHandler.addListener(historyStore);
     }
 
     public void dispose()
     {
+        if (historyStore != null) {
+            if (metaHandler != null) {
+                metaHandler.removeListener(historyStore);
+            }
+            historyStore.dispose();
+            historyStore = null;
+        }
         if (metaHandler != null) {
             unregisterHandler(metaHandler);
             metaHandler.dispose();
@@ -93,15 +105,19 @@ public class QMControllerImpl implements QMController {
         if (currentSessionOnly) {
             return defaultEventBrowser;
         }
-        if (eventBrowser == null) {
+        if (!eventBrowserResolved) {
             eventBrowser = GeneralUtils.adapt(this, QMEventBrowser.class);
-            if (eventBrowser == null) {
-                // Default browser
-                this.eventBrowser = defaultEventBrowser;
-            }
+            eventBrowserResolved = true;
         }
-
-        return eventBrowser;
+        if (eventBrowser != null) {
+            return eventBrowser;
+        }
+        if (historyStore != null && historyStore.isEnabled()) {
+            // Persistent history
+            return historyStore;
+        }
+        // Default browser
+        return defaultEventBrowser;
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free multi-producer single-consumer ring buffer.
+ *
+ * Each slot has a sequence number which tells whether it is free for producer or ready for consumer.
+ * Producers reserve slots with CAS on the tail counter. Offer and poll do not allocate memory.
+ * If buffer is full then new elements are dropped.
+ */
+public class QMEventRingBuffer<T> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Accessed by consumer thread only
+    private long head;
+
+    private final LongAdder offeredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder contentionCount = new LongAdder();
+
+    public QMEventRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds element in buffer. Returns false if buffer is full.
+     */
+    public boolean offer(T element) {
+        long position = tail.get();
+        for (;;) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = element;
+                    // Publish element to consumer
+                    sequences.lazySet(index, position + 1);
+                    offeredCount.increment();
+                    return true;
+                }
+                // Another producer took this slot
+                contentionCount.increment();
+                position = tail.get();
+            } else if (difference < 0) {
+                // Consumer didn't free this slot yet
+                droppedCount.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes next element. Must be called from a single consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T element = (T) buffer[index];
+        buffer[index] = null;
+        // Free slot for the next round of producers
+        sequences.lazySet(index, head + buffer.length);
+        head++;
+        return element;
+    }
+
+    public long getOfferedCount() {
+        return offeredCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getContentionCount() {
+        return contentionCount.sum();
+    }
+
+}
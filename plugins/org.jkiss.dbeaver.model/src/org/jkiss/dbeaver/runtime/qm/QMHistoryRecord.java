@@ -0,0 +1,237 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMObjectType;
+import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Flat copy of QM event stored in history segment.
+ * Only session and query execution events are stored.
+ */
+public class QMHistoryRecord {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_TOKENS = 256;
+
+    QMObjectType objectType;
+    QMMetaEvent.Action action;
+    long openTime;
+    long closeTime;
+    String sessionId;
+    String containerId;
+    String containerName;
+    String driverId;
+    String instanceId;
+    String contextName;
+    boolean transactional;
+    // Query execution only
+    DBCExecutionPurpose purpose;
+    String queryString;
+    long rowCount;
+    int errorCode;
+    String errorMessage;
+    long fetchBeginTime;
+    long fetchEndTime;
+
+    @Nullable
+    public static QMHistoryRecord fromEvent(@NotNull QMMetaEvent event) {
+        QMMObject object = event.getObject();
+        QMHistoryRecord record = new QMHistoryRecord();
+        record.action = event.getAction();
+        record.sessionId = event.getQmAppSessionId();
+        record.openTime = object.getOpenTime();
+        record.closeTime = object.getCloseTime();
+        if (object instanceof QMMStatementExecuteInfo) {
+            if (event.getAction() != QMMetaEvent.Action.END) {
+                return null;
+            }
+            QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) object;
+            record.objectType = QMObjectType.query;
+            record.purpose = exec.getStatement().getPurpose();
+            record.queryString = exec.getQueryString();
+            record.rowCount = exec.getUpdateRowCount() >= 0 ? exec.getUpdateRowCount() : exec.getFetchRowCount();
+            record.errorCode = exec.getErrorCode();
+            record.errorMessage = exec.getErrorMessage();
+            record.fetchBeginTime = exec.getFetchBeginTime();
+            record.fetchEndTime = exec.getFetchEndTime();
+            record.transactional = exec.isTransactional();
+        } else if (object instanceof QMMConnectionInfo) {
+            if (event.getAction() == QMMetaEvent.Action.UPDATE) {
+                return null;
+            }
+            record.objectType = QMObjectType.session;
+        } else {
+            return null;
+        }
+        QMMConnectionInfo connection = object.getConnection();
+        if (connection != null) {
+            record.containerId = connection.getContainerId();
+            record.containerName = connection.getContainerName();
+            record.driverId = connection.getDriverId();
+            record.instanceId = connection.getInstanceId();
+            record.contextName = connection.getContextName();
+            if (record.objectType == QMObjectType.session) {
+                record.transactional = connection.isTransactional();
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Restores QM objects. Restored objects are not linked with live connections.
+     */
+    @NotNull
+    public QMMObject toObject() {
+        QMMConnectionInfo connection = new QMMConnectionInfo(
+            openTime, closeTime, containerId, containerName, driverId, null, instanceId, contextName,
+            objectType == QMObjectType.session && transactional);
+        if (objectType == QMObjectType.session) {
+            return connection;
+        }
+        QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, connection, purpose);
+        return new QMMStatementExecuteInfo(
+            openTime, closeTime, statement, queryString, rowCount, errorCode, errorMessage, fetchBeginTime, fetchEndTime, transactional);
+    }
+
+    boolean hasError() {
+        return errorCode != 0 || errorMessage != null;
+    }
+
+    /**
+     * Text used for search. The same as text of QM object.
+     */
+    @NotNull
+    public String getText() {
+        if (objectType == QMObjectType.query) {
+            return CommonUtils.notEmpty(queryString);
+        }
+        return containerName + " - " + contextName;
+    }
+
+    /**
+     * Splits text in lower-case words. Used to build and query search index.
+     */
+    @NotNull
+    static Set<String> tokenize(@NotNull String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length && tokens.size() < MAX_TOKENS; i++) {
+            boolean wordChar = i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (wordChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                if (i - start >= 2) {
+                    tokens.add(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    public void write(@NotNull DataOutput out) throws IOException {
+        out.writeByte(objectType.ordinal());
+        out.writeByte(action.getId());
+        out.writeLong(openTime);
+        out.writeLong(closeTime);
+        writeString(out, sessionId);
+        writeString(out, containerId);
+        writeString(out, containerName);
+        writeString(out, driverId);
+        writeString(out, instanceId);
+        writeString(out, contextName);
+        out.writeBoolean(transactional);
+        if (objectType == QMObjectType.query) {
+            writeString(out, purpose == null ? null : purpose.name());
+            writeString(out, queryString);
+            out.writeLong(rowCount);
+            out.writeInt(errorCode);
+            writeString(out, errorMessage);
+            out.writeLong(fetchBeginTime);
+            out.writeLong(fetchEndTime);
+        }
+    }
+
+    @NotNull
+    public static QMHistoryRecord read(@NotNull DataInput in) throws IOException {
+        QMHistoryRecord record = new QMHistoryRecord();
+        int typeIndex = in.readByte();
+        if (typeIndex < 0 || typeIndex >= QMObjectType.values().length) {
+            throw new IOException("Bad QM history record type: " + typeIndex);
+        }
+        record.objectType = QMObjectType.values()[typeIndex];
+        record.action = QMMetaEvent.Action.getById(in.readByte());
+        record.openTime = in.readLong();
+        record.closeTime = in.readLong();
+        record.sessionId = readString(in);
+        record.containerId = readString(in);
+        record.containerName = readString(in);
+        record.driverId = readString(in);
+        record.instanceId = readString(in);
+        record.contextName = readString(in);
+        record.transactional = in.readBoolean();
+        if (record.objectType == QMObjectType.query) {
+            String purposeName = readString(in);
+            record.purpose = purposeName == null ? null : CommonUtils.valueOf(DBCExecutionPurpose.class, purposeName, DBCExecutionPurpose.USER);
+            record.queryString = readString(in);
+            record.rowCount = in.readLong();
+            record.errorCode = in.readInt();
+            record.errorMessage = readString(in);
+            record.fetchBeginTime = in.readLong();
+            record.fetchEndTime = in.readLong();
+        }
+        return record;
+    }
+
+    private static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
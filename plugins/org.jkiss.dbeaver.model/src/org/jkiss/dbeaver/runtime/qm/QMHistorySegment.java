@@ -0,0 +1,582 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.qm.QMObjectType;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Single file of persistent QM history.
+ *
+ * Data file (.qmd) contains length-prefixed records in the order they were appended.
+ * Index file (.qmi) is written when segment is sealed. It contains time range of the segment,
+ * record offsets, record times and posting lists for data source ids and query words.
+ * Active segment keeps its index in memory. Index of a sealed segment is loaded on demand and may be
+ * released under memory pressure.
+ * Segment files are deleted only when segment isn't used by history cursors.
+ */
+public class QMHistorySegment {
+
+    private static final Log log = Log.getLog(QMHistorySegment.class);
+
+    public static final String FILE_PREFIX = "qm-";
+    public static final String DATA_FILE_EXT = ".qmd";
+    public static final String INDEX_FILE_EXT = ".qmi";
+
+    private static final int INDEX_MAGIC = 0x514D4958;
+    private static final int INDEX_VERSION = 1;
+
+    private final File dataFile;
+    private final File indexFile;
+    private final long createTime;
+    private final int generation;
+    // Create time of the last segment merged in this one
+    private long coveredTime;
+
+    private boolean sealed;
+    private int recordCount;
+    private long dataLength;
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+
+    private Index activeIndex;
+    private SoftReference<Index> sealedIndex;
+
+    private DataOutputStream writer;
+    private RandomAccessFile reader;
+
+    // Number of cursors (and compactions) which read this segment
+    private int useCount;
+    private boolean deletePending;
+
+    private QMHistorySegment(@NotNull File folder, long createTime, int generation) {
+        this.createTime = createTime;
+        this.generation = generation;
+        this.coveredTime = createTime;
+        String name = FILE_PREFIX + createTime + "-" + generation;
+        this.dataFile = new File(folder, name + DATA_FILE_EXT);
+        this.indexFile = new File(folder, name + INDEX_FILE_EXT);
+    }
+
+    /**
+     * Creates new empty active segment.
+     * Segments created by compaction have generation greater than generations of merged segments.
+     */
+    @NotNull
+    public static QMHistorySegment create(@NotNull File folder, long createTime, int generation, long coveredTime) {
+        QMHistorySegment segment = new QMHistorySegment(folder, createTime, generation);
+        segment.coveredTime = coveredTime;
+        segment.activeIndex = new Index();
+        return segment;
+    }
+
+    /**
+     * Opens existing segment. Segments without valid index are opened as active and their index is rebuilt.
+     * Returns null if data file name is not a segment name.
+     */
+    @Nullable
+    public static QMHistorySegment open(@NotNull File dataFile) throws IOException {
+        String name = dataFile.getName();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(DATA_FILE_EXT)) {
+            return null;
+        }
+        String[] parts = name.substring(FILE_PREFIX.length(), name.length() - DATA_FILE_EXT.length()).split("-");
+        if (parts.length != 2) {
+            return null;
+        }
+        QMHistorySegment segment;
+        try {
+            segment = new QMHistorySegment(dataFile.getParentFile(), Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (segment.indexFile.exists() && segment.readIndexHeader()) {
+            segment.sealed = true;
+        } else {
+            segment.rebuildIndex();
+        }
+        return segment;
+    }
+
+    @NotNull
+    public File getDataFile() {
+        return dataFile;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public synchronized long getCoveredTime() {
+        return coveredTime;
+    }
+
+    public synchronized boolean isSealed() {
+        return sealed;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized long getDataLength() {
+        return dataLength;
+    }
+
+    public synchronized long getMinTime() {
+        return minTime;
+    }
+
+    public synchronized long getMaxTime() {
+        return maxTime;
+    }
+
+    public synchronized boolean overlaps(long fromTime, long toTime) {
+        return recordCount > 0 && minTime <= toTime && maxTime >= fromTime;
+    }
+
+    public synchronized void append(@NotNull QMHistoryRecord record) throws IOException {
+        if (sealed) {
+            throw new IOException("Segment " + dataFile.getName() + " is sealed");
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        record.write(new DataOutputStream(buffer));
+        if (writer == null) {
+            writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dataFile, true)));
+        }
+        writer.writeInt(buffer.size());
+        buffer.writeTo(writer);
+        activeIndex.add(record, dataLength);
+        dataLength += 4 + buffer.size();
+        updateStats(record.openTime);
+    }
+
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Closes data file and writes index. Sealed segment is read-only.
+     */
+    public synchronized void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        closeWriter();
+        File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeInt(recordCount);
+            out.writeLong(coveredTime);
+            out.writeLong(dataLength);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            activeIndex.write(out);
+        }
+        Files.move(tmpFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        sealed = true;
+        sealedIndex = new SoftReference<>(activeIndex);
+        activeIndex = null;
+    }
+
+    @NotNull
+    private Index getIndex() throws IOException {
+        if (!sealed) {
+            return activeIndex;
+        }
+        Index index = sealedIndex == null ? null : sealedIndex.get();
+        if (index == null) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+                readHeader(in);
+                index = Index.read(in, recordCount);
+            }
+            sealedIndex = new SoftReference<>(index);
+        }
+        return index;
+    }
+
+    /**
+     * Finds records which may match the criteria. Results are ascending record numbers.
+     * Each search word must be a part of some indexed word of the record text. Caller must check the full text.
+     */
+    @NotNull
+    public synchronized int[] select(
+        long fromTime,
+        long toTime,
+        @Nullable Set<QMObjectType> objectTypes,
+        @Nullable String containerId,
+        @NotNull Collection<String> searchTokens) throws IOException
+    {
+        Index index = getIndex();
+        int[] candidates = null;
+        if (containerId != null) {
+            Postings postings = index.containers.get(containerId);
+            if (postings == null) {
+                return new int[0];
+            }
+            candidates = postings.toArray();
+        }
+        for (String searchToken : searchTokens) {
+            int[] matches = null;
+            for (Map.Entry<String, Postings> entry : index.tokens.entrySet()) {
+                if (entry.getKey().contains(searchToken)) {
+                    matches = matches == null ? entry.getValue().toArray() : union(matches, entry.getValue().toArray());
+                }
+            }
+            if (matches == null) {
+                return new int[0];
+            }
+            candidates = candidates == null ? matches : intersect(candidates, matches);
+            if (candidates.length == 0) {
+                return candidates;
+            }
+        }
+        int count = candidates == null ? index.size : candidates.length;
+        int[] result = new int[count];
+        int resultSize = 0;
+        for (int i = 0; i < count; i++) {
+            int recordNumber = candidates == null ? i : candidates[i];
+            long time = index.times[recordNumber];
+            if (time >= fromTime && time <= toTime &&
+                (objectTypes == null || objectTypes.contains(index.getObjectType(recordNumber))))
+            {
+                result[resultSize++] = recordNumber;
+            }
+        }
+        return resultSize == count ? result : Arrays.copyOf(result, resultSize);
+    }
+
+    @NotNull
+    public synchronized QMHistoryRecord readRecord(int recordNumber) throws IOException {
+        long offset = getIndex().offsets[recordNumber];
+        if (writer != null) {
+            writer.flush();
+        }
+        if (reader == null) {
+            reader = new RandomAccessFile(dataFile, "r");
+        }
+        reader.seek(offset);
+        byte[] data = new byte[reader.readInt()];
+        reader.readFully(data);
+        return QMHistoryRecord.read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    /**
+     * Closes open files. Segment can be used after close, files will be reopened.
+     */
+    public synchronized void close() {
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            log.debug("Error closing QM history segment " + dataFile.getName(), e);
+        }
+        if (reader != null) {
+            IOUtils.close(reader);
+            reader = null;
+        }
+    }
+
+    /**
+     * Registers segment reader. Returns false if segment is already deleted.
+     */
+    public synchronized boolean acquire() {
+        if (deletePending) {
+            return false;
+        }
+        useCount++;
+        return true;
+    }
+
+    /**
+     * Unregisters segment reader. Deferred delete is performed by the last reader.
+     */
+    public synchronized void release() {
+        if (useCount > 0) {
+            useCount--;
+        }
+        if (useCount == 0 && deletePending) {
+            deleteFiles();
+        }
+    }
+
+    public synchronized boolean isDeleted() {
+        return deletePending;
+    }
+
+    /**
+     * Deletes segment files. Files of segment which is used by readers are deleted when the last reader releases it.
+     */
+    public synchronized void delete() {
+        deletePending = true;
+        if (useCount == 0) {
+            deleteFiles();
+        }
+    }
+
+    private void deleteFiles() {
+        close();
+        if (indexFile.exists() && !indexFile.delete()) {
+            log.debug("Can't delete QM history index " + indexFile.getAbsolutePath());
+        }
+        if (dataFile.exists() && !dataFile.delete()) {
+            log.debug("Can't delete QM history file " + dataFile.getAbsolutePath());
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void updateStats(long time) {
+        recordCount++;
+        minTime = Math.min(minTime, time);
+        maxTime = Math.max(maxTime, time);
+    }
+
+    private boolean readIndexHeader() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            readHeader(in);
+            return dataLength == dataFile.length();
+        } catch (IOException e) {
+            log.debug("Bad QM history index " + indexFile.getName() + ", rebuild", e);
+            return false;
+        }
+    }
+
+    private void readHeader(@NotNull DataInputStream in) throws IOException {
+        if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+            throw new IOException("Unsupported QM history index format");
+        }
+        recordCount = in.readInt();
+        coveredTime = in.readLong();
+        dataLength = in.readLong();
+        minTime = in.readLong();
+        maxTime = in.readLong();
+    }
+
+    /**
+     * Scans data file. Incomplete tail record (e.g. after crash) is truncated.
+     */
+    private void rebuildIndex() throws IOException {
+        if (indexFile.exists() && !indexFile.delete()) {
+            log.debug("Can't delete QM history index " + indexFile.getAbsolutePath());
+        }
+        activeIndex = new Index();
+        recordCount = 0;
+        minTime = Long.MAX_VALUE;
+        maxTime = Long.MIN_VALUE;
+        long offset = 0;
+        long fileLength = dataFile.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(dataFile)))) {
+            while (offset + 4 <= fileLength) {
+                int length = in.readInt();
+                if (length < 0 || offset + 4 + length > fileLength) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                QMHistoryRecord record;
+                try {
+                    record = QMHistoryRecord.read(new DataInputStream(new ByteArrayInputStream(data)));
+                } catch (IOException e) {
+                    log.debug("Corrupted record in QM history file " + dataFile.getName(), e);
+                    break;
+                }
+                activeIndex.add(record, offset);
+                updateStats(record.openTime);
+                offset += 4 + length;
+            }
+        }
+        if (offset < fileLength) {
+            log.warn("Truncate QM history file " + dataFile.getName() + " to " + offset + " bytes");
+            try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+                file.setLength(offset);
+            }
+        }
+        dataLength = offset;
+    }
+
+    @NotNull
+    private static int[] intersect(@NotNull int[] a, @NotNull int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, k = 0; i < a.length && k < b.length; ) {
+            if (a[i] < b[k]) {
+                i++;
+            } else if (a[i] > b[k]) {
+                k++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                k++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @NotNull
+    private static int[] union(@NotNull int[] a, @NotNull int[] b) {
+        int[] result = new int[a.length + b.length];
+        int size = 0;
+        int i = 0, k = 0;
+        while (i < a.length || k < b.length) {
+            int value;
+            if (k >= b.length || (i < a.length && a[i] < b[k])) {
+                value = a[i++];
+            } else if (i >= a.length || b[k] < a[i]) {
+                value = b[k++];
+            } else {
+                value = a[i];
+                i++;
+                k++;
+            }
+            result[size++] = value;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public String toString() {
+        return dataFile.getName();
+    }
+
+    /**
+     * Segment index. Record numbers in posting lists are ascending.
+     */
+    static class Index {
+        int size;
+        long[] offsets = new long[64];
+        long[] times = new long[64];
+        byte[] objectTypes = new byte[64];
+        final Map<String, Postings> containers = new HashMap<>();
+        final Map<String, Postings> tokens = new HashMap<>();
+
+        void add(@NotNull QMHistoryRecord record, long offset) {
+            if (size == offsets.length) {
+                int newLength = size * 2;
+                offsets = Arrays.copyOf(offsets, newLength);
+                times = Arrays.copyOf(times, newLength);
+                objectTypes = Arrays.copyOf(objectTypes, newLength);
+            }
+            int recordNumber = size++;
+            offsets[recordNumber] = offset;
+            times[recordNumber] = record.openTime;
+            objectTypes[recordNumber] = (byte) record.objectType.ordinal();
+            if (record.containerId != null) {
+                containers.computeIfAbsent(record.containerId, k -> new Postings()).add(recordNumber);
+            }
+            for (String token : QMHistoryRecord.tokenize(record.getText())) {
+                tokens.computeIfAbsent(token, k -> new Postings()).add(recordNumber);
+            }
+        }
+
+        @NotNull
+        QMObjectType getObjectType(int recordNumber) {
+            return QMObjectType.values()[objectTypes[recordNumber]];
+        }
+
+        void write(@NotNull DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(offsets[i]);
+                out.writeLong(times[i]);
+                out.writeByte(objectTypes[i]);
+            }
+            writePostings(out, containers);
+            writePostings(out, tokens);
+        }
+
+        @NotNull
+        static Index read(@NotNull DataInputStream in, int size) throws IOException {
+            Index index = new Index();
+            index.size = size;
+            index.offsets = new long[size];
+            index.times = new long[size];
+            index.objectTypes = new byte[size];
+            for (int i = 0; i < size; i++) {
+                index.offsets[i] = in.readLong();
+                index.times[i] = in.readLong();
+                index.objectTypes[i] = in.readByte();
+            }
+            readPostings(in, index.containers);
+            readPostings(in, index.tokens);
+            return index;
+        }
+
+        private static void writePostings(@NotNull DataOutputStream out, @NotNull Map<String, Postings> map) throws IOException {
+            out.writeInt(map.size());
+            for (Map.Entry<String, Postings> entry : map.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Postings postings = entry.getValue();
+                out.writeInt(postings.size);
+                for (int i = 0; i < postings.size; i++) {
+                    out.writeInt(postings.records[i]);
+                }
+            }
+        }
+
+        private static void readPostings(@NotNull DataInputStream in, @NotNull Map<String, Postings> map) throws IOException {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                Postings postings = new Postings();
+                postings.size = in.readInt();
+                postings.records = new int[postings.size];
+                for (int k = 0; k < postings.size; k++) {
+                    postings.records[k] = in.readInt();
+                }
+                map.put(key, postings);
+            }
+        }
+    }
+
+    static class Postings {
+        int[] records = new int[4];
+        int size;
+
+        void add(int recordNumber) {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = recordNumber;
+        }
+
+        @NotNull
+        int[] toArray() {
+            return Arrays.copyOf(records, size);
+        }
+    }
+
+}
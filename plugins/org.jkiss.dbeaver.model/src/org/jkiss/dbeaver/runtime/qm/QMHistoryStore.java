@@ -0,0 +1,568 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.DateRange;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.QMMObject;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Persistent query manager history.
+ *
+ * Query executions and sessions are appended to segment files in the history folder.
+ * Segment is rolled over every day or when it reaches maximum size. Segments older than
+ * history retention period are deleted, adjacent small segments are merged in one.
+ * Expiration and compaction are performed by background job, segments used by open cursors
+ * are deleted when cursors are closed.
+ * History is searched with segment indexes, so only matching records are read from disk.
+ */
+public class QMHistoryStore implements QMMetaListener, QMEventBrowser, DBPPreferenceListener {
+
+    private static final Log log = Log.getLog(QMHistoryStore.class);
+
+    private static final String HISTORY_FOLDER = "history";
+    private static final long MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final long COMPACT_SEGMENT_SIZE = MAX_SEGMENT_SIZE / 4;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Segments ordered by create time. The last one is active if it is not sealed.
+    private final List<QMHistorySegment> segments = new ArrayList<>();
+    private final CompactJob compactJob = new CompactJob();
+    // Only one compaction at a time
+    private final Object compactLock = new Object();
+    private File historyFolder;
+    private boolean enabled;
+    private int historyDays;
+
+    public QMHistoryStore() {
+        ModelPreferences.getPreferences().addPropertyChangeListener(this);
+        initStore();
+    }
+
+    public synchronized void dispose() {
+        ModelPreferences.getPreferences().removePropertyChangeListener(this);
+        compactJob.cancel();
+        closeStore();
+    }
+
+    /**
+     * Store is enabled in preferences and history folder is accessible
+     */
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    private synchronized void initStore() {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        boolean storeHistory = preferences.getBoolean(QMConstants.PROP_STORE_HISTORY);
+        File folder = new File(preferences.getString(QMConstants.PROP_LOG_DIRECTORY), HISTORY_FOLDER);
+        historyDays = preferences.getInt(QMConstants.PROP_HISTORY_DAYS);
+        if (storeHistory == enabled && folder.equals(historyFolder)) {
+            return;
+        }
+        closeStore();
+        if (!storeHistory) {
+            return;
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.error("Can't create QM history folder '" + folder.getAbsolutePath() + "'");
+            return;
+        }
+        historyFolder = folder;
+        try {
+            loadSegments();
+            enabled = true;
+        } catch (IOException e) {
+            log.error("Error opening QM history. Disable persistent history", e);
+            closeStore();
+            return;
+        }
+        compactJob.schedule();
+    }
+
+    private void closeStore() {
+        for (QMHistorySegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        historyFolder = null;
+        enabled = false;
+    }
+
+    private void loadSegments() throws IOException {
+        File[] files = historyFolder.listFiles((dir, name) -> name.endsWith(QMHistorySegment.DATA_FILE_EXT));
+        if (files != null) {
+            for (File file : files) {
+                QMHistorySegment segment = QMHistorySegment.open(file);
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(QMHistorySegment::getCreateTime)
+            .thenComparingInt(QMHistorySegment::getGeneration));
+
+        // Remove segments which were merged but not deleted (compaction was interrupted)
+        for (QMHistorySegment merged : new ArrayList<>(segments)) {
+            if (merged.getGeneration() > 0 && merged.isSealed()) {
+                segments.removeIf(segment -> {
+                    if (segment != merged && segment.getGeneration() < merged.getGeneration() &&
+                        segment.getCreateTime() >= merged.getCreateTime() && segment.getCreateTime() <= merged.getCoveredTime())
+                    {
+                        segment.delete();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+        segments.removeIf(segment -> {
+            if (!segment.isSealed() && segment.getGeneration() > 0) {
+                // Unfinished compaction
+                segment.delete();
+                return true;
+            }
+            return false;
+        });
+        // Only the last segment may stay active
+        for (int i = 0; i < segments.size() - 1; i++) {
+            segments.get(i).seal();
+        }
+    }
+
+    @Override
+    public synchronized void metaInfoChanged(DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        QMHistorySegment activeSegment = null;
+        try {
+            // Events are ordered from the newest to the oldest
+            for (int i = events.size() - 1; i >= 0; i--) {
+                QMHistoryRecord record = QMHistoryRecord.fromEvent(events.get(i));
+                if (record == null) {
+                    continue;
+                }
+                activeSegment = getActiveSegment(activeSegment);
+                activeSegment.append(record);
+            }
+            if (activeSegment != null) {
+                activeSegment.flush();
+            }
+        } catch (IOException e) {
+            log.warn("IO error writing QM history. Disable persistent history", e);
+            closeStore();
+        }
+    }
+
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event) {
+        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
+            initStore();
+        }
+    }
+
+    @NotNull
+    private QMHistorySegment getActiveSegment(@Nullable QMHistorySegment current) throws IOException {
+        if (current != null && current.getDataLength() < MAX_SEGMENT_SIZE) {
+            return current;
+        }
+        long currentTime = System.currentTimeMillis();
+        QMHistorySegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && !last.isSealed()) {
+            if (last.getDataLength() < MAX_SEGMENT_SIZE && isSameDay(last.getCreateTime(), currentTime)) {
+                return last;
+            }
+            last.seal();
+            compactJob.schedule();
+        }
+        if (last != null && last.getCreateTime() >= currentTime) {
+            // Keep segment names unique and ordered
+            currentTime = last.getCreateTime() + 1;
+        }
+        QMHistorySegment segment = QMHistorySegment.create(historyFolder, currentTime, 0, currentTime);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static boolean isSameDay(long time1, long time2) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(time1).atZone(zone).toLocalDate()
+            .equals(Instant.ofEpochMilli(time2).atZone(zone).toLocalDate());
+    }
+
+    /**
+     * Deletes expired segments and merges adjacent small sealed segments.
+     * Segments are merged without store lock: sealed segments are read-only, merged segment
+     * replaces its sources only if they are still in the store.
+     */
+    public void compactHistory(@NotNull DBRProgressMonitor monitor) throws IOException {
+        synchronized (compactLock) {
+            synchronized (this) {
+                if (!enabled) {
+                    return;
+                }
+                deleteExpiredSegments();
+            }
+            while (!monitor.isCanceled()) {
+                File folder;
+                List<QMHistorySegment> run;
+                synchronized (this) {
+                    if (!enabled) {
+                        return;
+                    }
+                    folder = historyFolder;
+                    run = findCompactRun();
+                    if (run == null) {
+                        return;
+                    }
+                    for (QMHistorySegment segment : run) {
+                        // Segments are protected from expiration while they are merged
+                        segment.acquire();
+                    }
+                }
+                try {
+                    QMHistorySegment merged = mergeSegments(folder, run);
+                    synchronized (this) {
+                        int start = segments.indexOf(run.get(0));
+                        if (enabled && folder.equals(historyFolder) && start >= 0 && start + run.size() <= segments.size() &&
+                            segments.subList(start, start + run.size()).equals(run))
+                        {
+                            segments.subList(start, start + run.size()).clear();
+                            segments.add(start, merged);
+                            // Merged segment is written first, source segments are deleted after it
+                            for (QMHistorySegment segment : run) {
+                                segment.delete();
+                            }
+                        } else {
+                            // Store was changed during compaction
+                            merged.delete();
+                            return;
+                        }
+                    }
+                } finally {
+                    for (QMHistorySegment segment : run) {
+                        segment.release();
+                    }
+                }
+            }
+        }
+    }
+
+    private void deleteExpiredSegments() {
+        if (historyDays <= 0) {
+            return;
+        }
+        long expireTime = System.currentTimeMillis() - historyDays * DAY_MILLIS;
+        segments.removeIf(segment -> {
+            if (segment.isSealed() && (segment.getRecordCount() == 0 || segment.getMaxTime() < expireTime)) {
+                log.debug("Delete expired QM history segment " + segment);
+                segment.delete();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Finds the first run of adjacent small sealed segments
+     */
+    @Nullable
+    private List<QMHistorySegment> findCompactRun() {
+        int start = 0;
+        while (start < segments.size()) {
+            int end = start;
+            long totalSize = 0;
+            while (end < segments.size()) {
+                QMHistorySegment segment = segments.get(end);
+                if (!segment.isSealed() || segment.getDataLength() >= COMPACT_SEGMENT_SIZE ||
+                    totalSize + segment.getDataLength() > MAX_SEGMENT_SIZE)
+                {
+                    break;
+                }
+                totalSize += segment.getDataLength();
+                end++;
+            }
+            if (end - start >= 2) {
+                return new ArrayList<>(segments.subList(start, end));
+            }
+            start = Math.max(end, start + 1);
+        }
+        return null;
+    }
+
+    @NotNull
+    private static QMHistorySegment mergeSegments(@NotNull File folder, @NotNull List<QMHistorySegment> run) throws IOException {
+        int generation = 0;
+        for (QMHistorySegment segment : run) {
+            generation = Math.max(generation, segment.getGeneration());
+        }
+        QMHistorySegment merged = QMHistorySegment.create(
+            folder, run.get(0).getCreateTime(), generation + 1, run.get(run.size() - 1).getCreateTime());
+        try {
+            for (QMHistorySegment segment : run) {
+                int recordCount = segment.getRecordCount();
+                for (int i = 0; i < recordCount; i++) {
+                    merged.append(segment.readRecord(i));
+                }
+            }
+            merged.seal();
+        } catch (IOException e) {
+            merged.delete();
+            throw e;
+        }
+        return merged;
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull QMEventCriteria criteria,
+        @Nullable QMEventFilter filter) throws DBException
+    {
+        List<QMHistorySegment> segmentsCopy;
+        synchronized (this) {
+            if (!enabled) {
+                throw new DBException("Persistent query history is disabled");
+            }
+            segmentsCopy = new ArrayList<>(segments.size());
+            for (QMHistorySegment segment : segments) {
+                // Cursor keeps segments until it is closed
+                if (segment.acquire()) {
+                    segmentsCopy.add(segment);
+                }
+            }
+        }
+        if (criteria.isDesc()) {
+            Collections.reverse(segmentsCopy);
+        }
+        return new HistoryCursor(segmentsCopy, criteria, filter);
+    }
+
+    private static long toMillis(@Nullable LocalDateTime dateTime, long defaultValue) {
+        return dateTime == null ? defaultValue : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Lazy cursor. Segments are searched one by one, records are read only when requested.
+     * Cursor must be closed to release its segments.
+     */
+    private static class HistoryCursor implements QMEventCursor {
+
+        private final List<QMHistorySegment> segments;
+        private final QMEventCriteria criteria;
+        private final QMEventFilter filter;
+        private final boolean desc;
+        private final long fromTime;
+        private final long toTime;
+        private final Set<QMObjectType> objectTypes;
+        private final String searchString;
+        private final Set<String> searchTokens;
+
+        private int segmentIndex;
+        private QMHistorySegment segment;
+        private int[] segmentRecords;
+        private int recordPosition;
+        private QMMetaEventEntity nextEvent;
+        private long position;
+        private boolean closed;
+
+        HistoryCursor(@NotNull List<QMHistorySegment> segments, @NotNull QMEventCriteria criteria, @Nullable QMEventFilter filter) {
+            this.segments = segments;
+            this.criteria = criteria;
+            this.filter = filter;
+            this.desc = criteria.isDesc();
+            DateRange dateRange = criteria.getStartDateRange();
+            this.fromTime = dateRange == null ? Long.MIN_VALUE : toMillis(dateRange.getFrom(), Long.MIN_VALUE);
+            this.toTime = dateRange == null ? Long.MAX_VALUE : toMillis(dateRange.getTo(), Long.MAX_VALUE);
+            this.objectTypes = criteria.hasObjectTypes() ? EnumSet.copyOf(Arrays.asList(criteria.getObjectTypes())) : null;
+            this.searchString = CommonUtils.isEmpty(criteria.getSearchString()) ? null : criteria.getSearchString().toLowerCase();
+            this.searchTokens = searchString == null ? Collections.emptySet() : QMHistoryRecord.tokenize(searchString);
+        }
+
+        @Override
+        public long getTotalSize() {
+            // Unknown until all segments are scanned
+            return -1;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            if (position < this.position) {
+                segmentIndex = 0;
+                segment = null;
+                segmentRecords = null;
+                nextEvent = null;
+                this.position = 0;
+            }
+            while (this.position < position && hasNextEvent(monitor)) {
+                nextEvent(monitor);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (nextEvent == null) {
+                try {
+                    nextEvent = findNextEvent(monitor);
+                } catch (IOException e) {
+                    throw new DBException("Error reading query history", e);
+                }
+            }
+            return nextEvent != null;
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events");
+            }
+            QMMetaEventEntity event = nextEvent;
+            nextEvent = null;
+            position++;
+            return event;
+        }
+
+        @Override
+        public void close() {
+            segmentRecords = null;
+            segment = null;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            for (QMHistorySegment historySegment : segments) {
+                historySegment.release();
+            }
+        }
+
+        @Nullable
+        private QMMetaEventEntity findNextEvent(@NotNull DBRProgressMonitor monitor) throws IOException {
+            while (!monitor.isCanceled()) {
+                if (segmentRecords == null || recordPosition >= segmentRecords.length) {
+                    if (!nextSegment()) {
+                        return null;
+                    }
+                    continue;
+                }
+                int recordNumber = segmentRecords[desc ? segmentRecords.length - 1 - recordPosition : recordPosition];
+                recordPosition++;
+                QMHistoryRecord record = segment.readRecord(recordNumber);
+                if (!matches(record)) {
+                    continue;
+                }
+                QMMObject object = record.toObject();
+                QMMetaEventEntity event = new QMMetaEventEntity(object, record.action, position, record.sessionId, null);
+                if (filter != null && !filter.accept(event)) {
+                    continue;
+                }
+                return event;
+            }
+            return null;
+        }
+
+        private boolean nextSegment() throws IOException {
+            while (segmentIndex < segments.size()) {
+                segment = segments.get(segmentIndex++);
+                if (!segment.overlaps(fromTime, toTime)) {
+                    continue;
+                }
+                segmentRecords = segment.select(fromTime, toTime, objectTypes, criteria.getContainerId(), searchTokens);
+                recordPosition = 0;
+                if (segmentRecords.length > 0) {
+                    return true;
+                }
+            }
+            segment = null;
+            segmentRecords = null;
+            return false;
+        }
+
+        private boolean matches(@NotNull QMHistoryRecord record) {
+            if (criteria.getSessionId() != null && !criteria.getSessionId().equals(record.sessionId)) {
+                return false;
+            }
+            if (criteria.hasDriverIds() && !criteria.getDriverIds().contains(record.driverId)) {
+                return false;
+            }
+            if (searchString != null && !record.getText().toLowerCase().contains(searchString)) {
+                return false;
+            }
+            if (record.objectType == QMObjectType.query) {
+                if (criteria.hasQueryTypes() && !ArrayUtils.contains(criteria.getQueryTypes(), record.purpose)) {
+                    return false;
+                }
+                if (criteria.isSkipEmptyQueries() && CommonUtils.isEmptyTrimmed(record.queryString)) {
+                    return false;
+                }
+                if (criteria.hasEventStatuses() &&
+                    !criteria.getEventStatuses().contains(record.hasError() ? QMEventStatus.FAILED : QMEventStatus.SUCCESS))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Deletes expired history and merges small segments out of the QM event dispatcher thread
+     */
+    private class CompactJob extends AbstractJob {
+        CompactJob() {
+            super("Compact query manager history");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                compactHistory(monitor);
+            } catch (IOException e) {
+                log.warn("Error compacting QM history", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
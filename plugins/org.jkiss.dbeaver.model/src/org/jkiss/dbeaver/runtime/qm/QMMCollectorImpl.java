@@ -39,14 +39,21 @@ import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.LoggingProgressMonitor;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called concurrently from different execution contexts. There is no global lock:
+ * connection meta info is modified under its own monitor and events are passed to the dispatcher
+ * through a lock-free ring buffer.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -54,28 +61,31 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     private static final long EVENT_DISPATCH_PERIOD = 250;
     private static final int MAX_HISTORY_EVENTS = 10000;
+    private static final int EVENT_BUFFER_SIZE = 1 << 16;
 
     // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
-    // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
+    // Events which are not dispatched yet
+    private final QMEventRingBuffer<QMMetaEvent> eventBuffer = new QMEventRingBuffer<>(EVENT_BUFFER_SIZE);
     // Sync object
     private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    // History ring. The oldest events are overwritten when limit reached
+    private final QMMetaEvent[] pastEvents = new QMMetaEvent[MAX_HISTORY_EVENTS];
+    private int pastEventsStart;
+    private int pastEventsCount;
+    private volatile boolean running = true;
 
     public QMMCollectorImpl()
     {
         new EventDispatcher().schedule(EVENT_DISPATCH_PERIOD);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
@@ -95,6 +105,8 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
             }
         }
         running = false;
+        log.debug("QM meta events: " + getPublishedEventCount() + " published, " +
+            getDroppedEventCount() + " dropped, " + getContentionCount() + " contended");
     }
 
     boolean isRunning()
@@ -125,6 +137,27 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
+    /**
+     * Number of events passed to dispatcher
+     */
+    public long getPublishedEventCount() {
+        return eventBuffer.getOfferedCount();
+    }
+
+    /**
+     * Number of events lost because dispatcher didn't keep up with producers
+     */
+    public long getDroppedEventCount() {
+        return eventBuffer.getDroppedCount();
+    }
+
+    /**
+     * Number of event publish retries caused by concurrent producers
+     */
+    public long getContentionCount() {
+        return eventBuffer.getContentionCount();
+    }
+
     private List<QMMetaListener> getListeners()
     {
         synchronized (listeners) {
@@ -138,7 +171,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMMetaEvent.Action action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMMetaEvent.Action action, DBCExecutionContext context) {
         try {
             DBRProgressMonitor monitor = new LoggingProgressMonitor();
             DBPProject project = context.getDataSource().getContainer().getProject();
@@ -159,21 +192,24 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action, DBASessionPersistent session) {
+    private void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action, DBASessionPersistent session) {
         String qmSessionId = session.getAttribute(QMConstants.QM_SESSION_ID_ATTR);
         if (CommonUtils.isEmpty(qmSessionId)) {
             log.warn("QM session not found");
             return;
         }
-        eventPool.add(new QMMetaEvent(object, action, qmSessionId));
+        eventBuffer.offer(new QMMetaEvent(object, action, qmSessionId));
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
-        if (eventPool.isEmpty()) {
+    private List<QMMetaEvent> obtainEvents() {
+        QMMetaEvent event = eventBuffer.poll();
+        if (event == null) {
             return Collections.emptyList();
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (; event != null; event = eventBuffer.poll()) {
+            events.add(event);
+        }
         return events;
     }
 
@@ -187,147 +223,192 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     public List<QMMetaEvent> getPastEvents() {
         synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
+            List<QMMetaEvent> events = new ArrayList<>(pastEventsCount);
+            for (int i = 0; i < pastEventsCount; i++) {
+                events.add(pastEvents[(pastEventsStart + i) % MAX_HISTORY_EVENTS]);
+            }
+            return events;
+        }
+    }
+
+    private void addPastEvents(List<QMMetaEvent> events) {
+        synchronized (historySync) {
+            for (QMMetaEvent event : events) {
+                int index = (pastEventsStart + pastEventsCount) % MAX_HISTORY_EVENTS;
+                pastEvents[index] = event;
+                if (pastEventsCount < MAX_HISTORY_EVENTS) {
+                    pastEventsCount++;
+                } else {
+                    pastEventsStart = (pastEventsStart + 1) % MAX_HISTORY_EVENTS;
+                }
+            }
         }
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
         QMMConnectionInfo connection = connectionMap.get(contextId);
+        boolean reopen = true;
         if (connection == null) {
-            connection = new QMMConnectionInfo(
+            QMMConnectionInfo newConnection = new QMMConnectionInfo(
                 context,
                 transactional);
-            connectionMap.put(contextId, connection);
-        } else {
-            // This session may already be in cache in case of reconnect/invalidate
-            // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
+            connection = connectionMap.putIfAbsent(contextId, newConnection);
+            if (connection == null) {
+                connection = newConnection;
+                reopen = false;
+            }
         }
+        synchronized (connection) {
+            if (reopen) {
+                // This session may already be in cache in case of reconnect/invalidate
+                // (when context closed and reopened without new context object creation)
+                connection.reopen(context);
+            }
 
-        // Remove from closed sessions (in case of re-opened connection)
-        closedConnections.remove(contextId);
-        tryFireMetaEvent(connection, QMMetaEvent.Action.BEGIN, context);
-        // Notify
+            // Remove from closed sessions (in case of re-opened connection)
+            closedConnections.remove(contextId);
+            tryFireMetaEvent(connection, QMMetaEvent.Action.BEGIN, context);
+        }
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context)
+    public void handleContextClose(@NotNull DBCExecutionContext context)
     {
         QMMConnectionInfo session = getConnectionInfo(context);
         if (session != null) {
-            session.close();
-            tryFireMetaEvent(session, QMMetaEvent.Action.END, context);
+            synchronized (session) {
+                session.close();
+                tryFireMetaEvent(session, QMMetaEvent.Action.END, context);
+            }
         }
         closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
     {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+                }
+                tryFireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE, context);
             }
-            tryFireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE, context);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context)
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context)
     {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
     {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMMetaEvent.Action.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement)
+    public void handleStatementOpen(@NotNull DBCStatement statement)
     {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            tryFireMetaEvent(stat, QMMetaEvent.Action.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                tryFireMetaEvent(stat, QMMetaEvent.Action.BEGIN, statement.getSession().getExecutionContext());
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows)
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows)
     {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                tryFireMetaEvent(stat, QMMetaEvent.Action.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    tryFireMetaEvent(stat, QMMetaEvent.Action.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement)
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement)
     {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMMetaEvent.Action.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMMetaEvent.Action.BEGIN, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
     {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMMetaEvent.Action.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMMetaEvent.Action.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet)
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet)
     {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMMetaEvent.Action.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMMetaEvent.Action.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
     {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMMetaEvent.Action.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMMetaEvent.Action.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
@@ -344,13 +425,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         @Override
         protected IStatus run(DBRProgressMonitor monitor)
         {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
-            }
+            final List<QMMetaEvent> events = obtainEvents();
             if (!events.isEmpty()) {
                 final List<QMMetaListener> listeners = getListeners();
                 if (!listeners.isEmpty() && !events.isEmpty()) {
@@ -365,26 +440,13 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                         }
                     }
                 }
-                synchronized (historySync) {
-                    pastEvents.addAll(events);
-                    int size = pastEvents.size();
-                    if (size > MAX_HISTORY_EVENTS) {
-                        pastEvents = new ArrayList<>(pastEvents.subList(
-                            size - MAX_HISTORY_EVENTS,
-                            size));
-                    }
-                }
+                addPastEvents(events);
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        connectionMap.remove(sessionId);
-                    }
-                }
+            for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                connectionMap.computeIfPresent(sessionId, (id, session) -> session.isClosed() ? null : session);
             }
             if (isRunning()) {
                 this.schedule(EVENT_DISPATCH_PERIOD);
@@ -38,15 +38,21 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Content manipulation utilities
@@ -54,10 +60,16 @@ import java.util.Locale;
 public class ContentUtils {
 
     static final int STREAM_COPY_BUFFER_SIZE = 10000;
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_CHANNEL_BUFFERS = 8;
+    private static final long FILE_TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
     private static final String LOB_DIR = ".lob"; //$NON-NLS-1$
 
     private static final Log log = Log.getLog(ContentUtils.class);
 
+    // Content copy operations reuse buffers instead of allocating them for each LOB
+    private static final Queue<ByteBuffer> channelBufferPool = new ConcurrentLinkedQueue<>();
+
     public static File getLobFolder(DBRProgressMonitor monitor, DBPPlatform application)
         throws IOException
     {
@@ -194,6 +206,115 @@ public class ContentUtils {
         }
     }
 
+    /**
+     * Copies stream to file through file channel.
+     * Stream is read straight into the backing array of a pooled buffer, so no buffer is allocated per copy.
+     * Input stream is not closed.
+     */
+    public static long transferStreamToFile(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull InputStream inputStream,
+        long contentLength,
+        @NotNull File file)
+        throws IOException
+    {
+        // Progress is reported in kilobytes, so content bigger than 2Gb doesn't overflow work counter
+        monitor.beginTask("Copy binary content", contentLength < 0 ? STREAM_COPY_BUFFER_SIZE : (int) Math.min(contentLength / 1024 + 1, Integer.MAX_VALUE));
+        ByteBuffer buffer = acquireChannelBuffer();
+        try (FileChannel fileChannel = FileChannel.open(
+            file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            long totalCopied = 0;
+            NumberFormat nf = NumberFormat.getInstance();
+            while (!monitor.isCanceled()) {
+                int count = inputStream.read(buffer.array(), 0, buffer.capacity());
+                if (count < 0) {
+                    break;
+                }
+                buffer.clear();
+                buffer.limit(count);
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                monitor.worked((int) ((totalCopied + count) / 1024 - totalCopied / 1024));
+                totalCopied += count;
+                if (contentLength > 0) {
+                    monitor.subTask(nf.format(totalCopied) + " of " + nf.format(contentLength));
+                }
+            }
+            return totalCopied;
+        } finally {
+            releaseChannelBuffer(buffer);
+            monitor.done();
+        }
+    }
+
+    /**
+     * Copies file contents with file channel transfer (data doesn't pass through Java heap if OS supports it).
+     */
+    public static void copyFile(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull File source,
+        @NotNull File target)
+        throws IOException
+    {
+        try (FileChannel sourceChannel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(
+                 target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            long size = sourceChannel.size();
+            long position = 0;
+            while (position < size && !monitor.isCanceled()) {
+                long count = sourceChannel.transferTo(position, Math.min(size - position, FILE_TRANSFER_CHUNK_SIZE), targetChannel);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+            }
+        }
+    }
+
+    /**
+     * Reads whole stream into byte array.
+     * If content length is known then data is read directly into array of this size (without intermediate buffers).
+     */
+    @NotNull
+    public static byte[] readContentBytes(@NotNull InputStream stream, long contentLength)
+        throws IOException
+    {
+        if (contentLength >= 0 && contentLength < Integer.MAX_VALUE) {
+            byte[] data = new byte[(int) contentLength];
+            int totalRead = IOUtils.readStreamToBuffer(stream, data);
+            if (totalRead < data.length) {
+                return Arrays.copyOf(data, totalRead);
+            }
+            int nextByte = stream.read();
+            if (nextByte < 0) {
+                return data;
+            }
+            // Declared length is less than actual. Read the rest.
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length + STREAM_COPY_BUFFER_SIZE);
+            buffer.write(data);
+            buffer.write(nextByte);
+            IOUtils.copyStream(stream, buffer);
+            return buffer.toByteArray();
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        IOUtils.copyStream(stream, buffer);
+        return buffer.toByteArray();
+    }
+
+    private static ByteBuffer acquireChannelBuffer() {
+        ByteBuffer buffer = channelBufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+    }
+
+    private static void releaseChannelBuffer(ByteBuffer buffer) {
+        if (channelBufferPool.size() < MAX_POOLED_CHANNEL_BUFFERS) {
+            channelBufferPool.offer(buffer);
+        }
+    }
+
     public static long calculateContentLength(
         File file,
         String charset)
@@ -754,7 +754,11 @@ public class DataSourceDescriptor
     @Override
     public void persistConfiguration()
     {
-        registry.flushConfig();
+        if (registry instanceof DataSourceRegistry) {
+            ((DataSourceRegistry) registry).flushConfig(this);
+        } else {
+            registry.flushConfig();
+        }
     }
 
     @Override
@@ -52,6 +52,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class DataSourceRegistry implements DBPDataSourceRegistry {
@@ -80,6 +82,13 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     private final Map<String, DBAAuthProfile> authProfiles = new LinkedHashMap<>();
     private volatile boolean saveInProgress = false;
 
+    // Serialized configuration of data sources which were not modified since the last save
+    private final Map<String, DataSourceSerializerModern.SerializedDataSource> serializedDataSources = new ConcurrentHashMap<>();
+    private final AtomicLong modificationCount = new AtomicLong();
+    // Extra storages with modified data sources. Default storage is saved always.
+    private final Set<DBPDataSourceConfigurationStorage> modifiedStorages = new HashSet<>();
+    private boolean allStoragesModified;
+
     private final DBVModel.ModelChangeListener modelChangeListener = new DBVModel.ModelChangeListener();
     private volatile ConfigSaver configSaver;
     private DBAAuthCredentialsProvider authCredentialsProvider;
@@ -463,6 +472,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     public void addDataSource(@NotNull DBPDataSourceContainer dataSource) {
         final DataSourceDescriptor descriptor = (DataSourceDescriptor) dataSource;
         addDataSourceToList(descriptor);
+        markDataSourceModified(descriptor);
         if (!descriptor.isDetached()) {
             this.saveDataSources();
         }
@@ -480,6 +490,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         synchronized (dataSources) {
             this.dataSources.remove(descriptor.getId());
         }
+        markDataSourceModified(descriptor);
         if (!descriptor.isDetached()) {
             this.saveDataSources();
         }
@@ -497,6 +508,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         if (!dataSources.containsKey(dataSource.getId())) {
             addDataSource(dataSource);
         } else {
+            markDataSourceModified((DataSourceDescriptor) dataSource);
             if (!((DataSourceDescriptor) dataSource).isDetached()) {
                 this.saveDataSources();
             }
@@ -506,6 +518,20 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 
     @Override
     public void flushConfig() {
+        markConfigModified();
+        scheduleConfigSave();
+    }
+
+    /**
+     * Saves configuration after changes in a single data source.
+     * Other data sources are not serialized again.
+     */
+    void flushConfig(@NotNull DataSourceDescriptor dataSource) {
+        markDataSourceModified(dataSource);
+        scheduleConfigSave();
+    }
+
+    private void scheduleConfigSave() {
         if (project.isInMemory()) {
             return;
         }
@@ -728,6 +754,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         if (!Files.exists(fromFile)) {
             return;
         }
+        // Loaded data sources may differ from their serialized state
+        markConfigModified();
 
         try {
             DataSourceSerializer serializer = modern ? new DataSourceSerializerModern(this) : new DataSourceSerializerLegacy(this);
@@ -748,9 +776,21 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 
         updateProjectNature();
         final DBRProgressMonitor monitor = new VoidProgressMonitor();
+        boolean saveAllStorages;
+        Set<DBPDataSourceConfigurationStorage> storagesToSave;
+        synchronized (modifiedStorages) {
+            saveAllStorages = allStoragesModified;
+            storagesToSave = new HashSet<>(modifiedStorages);
+            allStoragesModified = false;
+            modifiedStorages.clear();
+        }
         saveInProgress = true;
         try {
             for (DataSourceStorage storage : storages.values()) {
+                if (!saveAllStorages && !storage.isDefault() && !storagesToSave.contains(storage)) {
+                    // Nothing was changed in this configuration
+                    continue;
+                }
                 List<DataSourceDescriptor> localDataSources = getDataSources(storage);
 
                 Path configFile = storage.getSourceFile();
@@ -803,6 +843,9 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
                     }
                 } catch (Exception ex) {
                     log.error("Error saving datasources configuration", ex);
+                    synchronized (modifiedStorages) {
+                        modifiedStorages.add(storage);
+                    }
                 }
             }
         } finally {
@@ -810,6 +853,51 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         }
     }
 
+    /**
+     * Drops serialized state of the data source and marks its storage as modified
+     */
+    void markDataSourceModified(@NotNull DataSourceDescriptor dataSource) {
+        modificationCount.incrementAndGet();
+        serializedDataSources.remove(dataSource.getId());
+        synchronized (modifiedStorages) {
+            modifiedStorages.add(dataSource.getStorage());
+        }
+    }
+
+    /**
+     * Configuration was changed in unknown way. All data sources will be serialized on next save.
+     */
+    void markConfigModified() {
+        modificationCount.incrementAndGet();
+        serializedDataSources.clear();
+        synchronized (modifiedStorages) {
+            allStoragesModified = true;
+        }
+    }
+
+    long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    @Nullable
+    DataSourceSerializerModern.SerializedDataSource getSerializedDataSource(@NotNull DataSourceDescriptor dataSource) {
+        return serializedDataSources.get(dataSource.getId());
+    }
+
+    /**
+     * Caches serialized data source state. State is ignored if configuration was modified after serialization start.
+     */
+    void cacheSerializedDataSource(
+        @NotNull DataSourceDescriptor dataSource,
+        @NotNull DataSourceSerializerModern.SerializedDataSource serialized,
+        long serializeStartCount)
+    {
+        serializedDataSources.put(dataSource.getId(), serialized);
+        if (modificationCount.get() != serializeStartCount) {
+            serializedDataSources.remove(dataSource.getId());
+        }
+    }
+
     private List<DataSourceDescriptor> getDataSources(DataSourceStorage storage) {
         List<DataSourceDescriptor> result = new ArrayList<>();
         synchronized (dataSources) {
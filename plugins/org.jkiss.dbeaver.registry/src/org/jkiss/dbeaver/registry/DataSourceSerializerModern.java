@@ -87,7 +87,7 @@ class DataSourceSerializerModern implements DataSourceSerializer
         .serializeNulls()
         .create();
 
-    private boolean passwordReadCanceled = false;
+    private final SecureStorageAccess secureStorageAccess = new SecureStorageAccess();
     private boolean passwordWriteCanceled = false;
 
     private final DataSourceRegistry registry;
@@ -135,7 +135,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
                     for (DataSourceDescriptor dataSource : localDataSources) {
                         // Skip temporary
                         if (!dataSource.isDetached()) {
-                            saveDataSource(jsonWriter, dataSource);
+                            jsonWriter.name(dataSource.getId());
+                            saveDataSourceCached(jsonWriter, dataSource);
                             if (dataSource.getVirtualModel().hasValuableData()) {
                                 virtualModels.put(dataSource.getVirtualModel().getId(), dataSource.getVirtualModel());
                             }
@@ -536,19 +537,30 @@ class DataSourceSerializerModern implements DataSourceSerializer
                     config.setServerName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_SERVER));
                     config.setDatabaseName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_DATABASE));
                     config.setUrl(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_URL));
-                    if (!passwordReadCanceled) {
-                        final SecureCredentials creds = readSecuredCredentials(dataSource, null, null);
-                        config.setUserName(creds.getUserName());
-                        if (dataSource.isSavePassword()) {
-                            config.setUserPassword(creds.getUserPassword());
-                        }
-                    }
                     {
-                        // Still try to read credentials directly from configuration (#6564)
-                        String userName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
-                        if (!CommonUtils.isEmpty(userName)) config.setUserName(userName);
-                        String userPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
-                        if (!CommonUtils.isEmpty(userPassword)) config.setUserPassword(userPassword);
+                        // Only secure storage reads are deferred (decryption is slow). Credentials are read on first
+                        // access to them. Loader keeps only values it needs, not the serializer and its secure properties.
+                        final String cfgUserName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
+                        final String cfgUserPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
+                        final SecureStorageAccess storageAccess = secureStorageAccess;
+                        final DBASecureStorage secureStorage = dataSource.getProject().getSecureStorage();
+                        final Map<String, String> fileCredentials = getFileCredentials(dataSource.getId(), null);
+                        config.setCredentialsLoader(() -> {
+                            final SecureCredentials creds = readSecuredCredentials(storageAccess, secureStorage, dataSource, null);
+                            applyCredentials(creds, fileCredentials);
+                            config.setUserName(creds.getUserName());
+                            if (dataSource.isSavePassword()) {
+                                config.setUserPassword(creds.getUserPassword());
+                            }
+                            // Still try to read credentials directly from configuration (#6564)
+                            if (!CommonUtils.isEmpty(cfgUserName)) config.setUserName(cfgUserName);
+                            if (!CommonUtils.isEmpty(cfgUserPassword)) config.setUserPassword(cfgUserPassword);
+                        });
+                        if (!storageAccess.isResolved()) {
+                            // The first read may ask for master password. Do it now, so it is never asked later
+                            // from arbitrary thread (or while configuration is locked).
+                            config.getUserName();
+                        }
                     }
 
                     config.setClientHomeId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOME));
@@ -708,9 +720,15 @@ class DataSourceSerializerModern implements DataSourceSerializer
             DBWHandlerConfiguration curNetworkHandler = new DBWHandlerConfiguration(handlerDescriptor, dataSource);
             curNetworkHandler.setEnabled(JSONUtils.getBoolean(handlerCfg, RegistryConstants.ATTR_ENABLED));
             curNetworkHandler.setSavePassword(JSONUtils.getBoolean(handlerCfg, RegistryConstants.ATTR_SAVE_PASSWORD));
-            if (!passwordReadCanceled) {
-                final SecureCredentials creds = readSecuredCredentials(dataSource, profile,
-                    "network/" + handlerId + (profile == null ? "" : "/profile/" + profile.getProfileName()));
+            final String cfgUserName = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_USER);
+            final String cfgUserPassword = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_PASSWORD);
+            final String subNode = "network/" + handlerId + (profile == null ? "" : "/profile/" + profile.getProfileName());
+            final SecureStorageAccess storageAccess = secureStorageAccess;
+            final DBASecureStorage secureStorage = getSecureStorage(dataSource);
+            final Map<String, String> fileCredentials = getFileCredentials(getSecureNodeId(dataSource, profile), subNode);
+            curNetworkHandler.setCredentialsLoader(() -> {
+                final SecureCredentials creds = readSecuredCredentials(storageAccess, secureStorage, dataSource, subNode);
+                applyCredentials(creds, fileCredentials);
                 curNetworkHandler.setUserName(creds.getUserName());
                 if (curNetworkHandler.isSavePassword()) {
                     curNetworkHandler.setPassword(creds.getUserPassword());
@@ -718,13 +736,13 @@ class DataSourceSerializerModern implements DataSourceSerializer
                 if (creds.getProperties() != null) {
                     curNetworkHandler.setSecureProperties(creds.getProperties());
                 }
-            }
-            {
                 // Still try to read credentials directly from configuration (#6564)
-                String userName = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_USER);
-                if (!CommonUtils.isEmpty(userName)) curNetworkHandler.setUserName(userName);
-                String userPassword = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_PASSWORD);
-                if (!CommonUtils.isEmpty(userPassword)) curNetworkHandler.setPassword(userPassword);
+                if (!CommonUtils.isEmpty(cfgUserName)) curNetworkHandler.setUserName(cfgUserName);
+                if (!CommonUtils.isEmpty(cfgUserPassword)) curNetworkHandler.setPassword(cfgUserPassword);
+            });
+            if (!storageAccess.isResolved()) {
+                // See data source credentials loader
+                curNetworkHandler.getUserName();
             }
 
             Map<String, Object> properties = JSONUtils.deserializeProperties(handlerCfg, RegistryConstants.TAG_PROPERTIES);
@@ -759,10 +777,45 @@ class DataSourceSerializerModern implements DataSourceSerializer
         json.endObject();
     }
 
+    /**
+     * Writes serialized data source. Data sources which were not modified since the last save are not serialized again,
+     * their configuration and secure credentials are taken from the registry cache.
+     */
+    private void saveDataSourceCached(@NotNull JsonWriter json, @NotNull DataSourceDescriptor dataSource)
+        throws IOException
+    {
+        SerializedDataSource serialized = registry.getSerializedDataSource(dataSource);
+        if (serialized == null) {
+            long modificationCount = registry.getModificationCount();
+            StringWriter buffer = new StringWriter(1000);
+            try (JsonWriter dsWriter = CONFIG_GSON.newJsonWriter(buffer)) {
+                dsWriter.setIndent("\t");
+                secureProperties.remove(dataSource.getId());
+                saveDataSource(dsWriter, dataSource);
+            }
+            Map<String, Map<String, String>> dsSecureProperties = secureProperties.get(dataSource.getId());
+            serialized = new SerializedDataSource(
+                // Data source object is written on the third level of config file
+                buffer.toString().replace("\n", "\n\t\t"),
+                dsSecureProperties == null ? null : copySecureProperties(dsSecureProperties));
+            registry.cacheSerializedDataSource(dataSource, serialized, modificationCount);
+        } else if (serialized.secureProperties != null) {
+            secureProperties.put(dataSource.getId(), copySecureProperties(serialized.secureProperties));
+        }
+        json.jsonValue(serialized.json);
+    }
+
+    private static Map<String, Map<String, String>> copySecureProperties(@NotNull Map<String, Map<String, String>> properties) {
+        Map<String, Map<String, String>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : properties.entrySet()) {
+            copy.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+
     private void saveDataSource(@NotNull JsonWriter json, @NotNull DataSourceDescriptor dataSource)
         throws IOException
     {
-        json.name(dataSource.getId());
         json.beginObject();
         JSONUtils.field(json, RegistryConstants.ATTR_PROVIDER, dataSource.getDriver().getProviderDescriptor().getId());
         JSONUtils.field(json, RegistryConstants.ATTR_DRIVER, dataSource.getDriver().getId());
@@ -1027,62 +1080,129 @@ class DataSourceSerializerModern implements DataSourceSerializer
         @Nullable String subNode)
     {
         assert dataSource != null || profile != null;
-        SecureCredentials creds = new SecureCredentials();
-        final DBASecureStorage secureStorage = dataSource == null ? registry.getProject().getSecureStorage() : dataSource.getProject().getSecureStorage();
-        {
-            try {
-                if (secureStorage.useSecurePreferences() && !passwordReadCanceled) {
-                    ISecurePreferences prefNode = dataSource == null ? secureStorage.getSecurePreferences() : dataSource.getSecurePreferences();
-                    if (subNode != null) {
-                        for (String nodeName : subNode.split("/")) {
-                            prefNode = prefNode.node(nodeName);
-                        }
-                    }
-                    for (String key : prefNode.keys()) {
-                        switch (key) {
-                            case RegistryConstants.ATTR_USER:
-                                creds.setUserName(prefNode.get(key, null));
-                                break;
-                            case RegistryConstants.ATTR_PASSWORD:
-                                creds.setUserPassword(prefNode.get(key, null));
-                                break;
-                            default:
-                                creds.setSecureProp(key, prefNode.get(key, null));
-                                break;
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                // Most likely user canceled master password enter of failed by some other reason.
-                // Anyhow we won't try it again
-                log.error("Can't read password from secure storage", e);
-                passwordReadCanceled = true;
-            }
-        }
-        String topNodeId = profile != null ? "profile:" + profile.getProfileId() : dataSource.getId();
-        if (subNode == null) subNode = NODE_CONNECTION;
+        SecureCredentials creds = readSecuredCredentials(secureStorageAccess, getSecureStorage(dataSource), dataSource, subNode);
+        applyCredentials(creds, getFileCredentials(getSecureNodeId(dataSource, profile), subNode));
+        return creds;
+    }
+
+    @NotNull
+    private DBASecureStorage getSecureStorage(@Nullable DataSourceDescriptor dataSource) {
+        return dataSource == null ? registry.getProject().getSecureStorage() : dataSource.getProject().getSecureStorage();
+    }
+
+    @NotNull
+    private static String getSecureNodeId(@Nullable DataSourceDescriptor dataSource, @Nullable DBPConfigurationProfile profile) {
+        return profile != null ? "profile:" + profile.getProfileId() : dataSource.getId();
+    }
 
+    /**
+     * Returns copy of credentials saved in the credentials file (when secure storage is not available)
+     */
+    @Nullable
+    private Map<String, String> getFileCredentials(@NotNull String topNodeId, @Nullable String subNode) {
         Map<String, Map<String, String>> subMap = secureProperties.get(topNodeId);
         if (subMap != null) {
-            Map<String, String> propMap = subMap.get(subNode);
+            Map<String, String> propMap = subMap.get(subNode == null ? NODE_CONNECTION : subNode);
             if (propMap != null) {
-                for (Map.Entry<String, String> prop : propMap.entrySet()) {
-                    switch (prop.getKey()) {
+                return new LinkedHashMap<>(propMap);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads credentials from secure storage.
+     * Static, so deferred credentials loaders do not reference the serializer.
+     */
+    @NotNull
+    private static SecureCredentials readSecuredCredentials(
+        @NotNull SecureStorageAccess storageAccess,
+        @NotNull DBASecureStorage secureStorage,
+        @Nullable DataSourceDescriptor dataSource,
+        @Nullable String subNode)
+    {
+        SecureCredentials creds = new SecureCredentials();
+        try {
+            if (!secureStorage.useSecurePreferences()) {
+                storageAccess.unlocked = true;
+            } else if (!storageAccess.readCanceled) {
+                ISecurePreferences prefNode = dataSource == null ? secureStorage.getSecurePreferences() : dataSource.getSecurePreferences();
+                if (subNode != null) {
+                    for (String nodeName : subNode.split("/")) {
+                        prefNode = prefNode.node(nodeName);
+                    }
+                }
+                for (String key : prefNode.keys()) {
+                    switch (key) {
                         case RegistryConstants.ATTR_USER:
-                            creds.setUserName(prop.getValue());
+                            creds.setUserName(prefNode.get(key, null));
                             break;
                         case RegistryConstants.ATTR_PASSWORD:
-                            creds.setUserPassword(prop.getValue());
+                            creds.setUserPassword(prefNode.get(key, null));
                             break;
                         default:
-                            creds.setSecureProp(prop.getKey(), prop.getValue());
+                            creds.setSecureProp(key, prefNode.get(key, null));
                             break;
                     }
+                    // Value was decrypted, master password (if any) is known now
+                    storageAccess.unlocked = true;
                 }
             }
+        } catch (Throwable e) {
+            // Most likely user canceled master password enter of failed by some other reason.
+            // Anyhow we won't try it again
+            log.error("Can't read password from secure storage", e);
+            storageAccess.readCanceled = true;
         }
-
         return creds;
     }
 
+    private static void applyCredentials(@NotNull SecureCredentials creds, @Nullable Map<String, String> propMap) {
+        if (propMap == null) {
+            return;
+        }
+        for (Map.Entry<String, String> prop : propMap.entrySet()) {
+            switch (prop.getKey()) {
+                case RegistryConstants.ATTR_USER:
+                    creds.setUserName(prop.getValue());
+                    break;
+                case RegistryConstants.ATTR_PASSWORD:
+                    creds.setUserPassword(prop.getValue());
+                    break;
+                default:
+                    creds.setSecureProp(prop.getKey(), prop.getValue());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Secure storage state shared by credentials loaders of the registry.
+     * Only the first secure storage read may ask for master password. It is performed while registry is loaded,
+     * deferred loaders run after the storage was unlocked (or its reading failed) and never start the prompt.
+     */
+    private static class SecureStorageAccess {
+        // Read failed (e.g. master password input was canceled). Secure storage is not read anymore.
+        volatile boolean readCanceled;
+        // Some value was decrypted or secure storage is not used, so reads do not need master password.
+        volatile boolean unlocked;
+
+        boolean isResolved() {
+            return unlocked || readCanceled;
+        }
+    }
+
+    /**
+     * Serialized data source configuration. Secure properties are stored only if they are saved in the credentials file.
+     */
+    static class SerializedDataSource {
+        private final String json;
+        private final Map<String, Map<String, String>> secureProperties;
+
+        SerializedDataSource(@NotNull String json, @Nullable Map<String, Map<String, String>> secureProperties) {
+            this.json = json;
+            this.secureProperties = secureProperties;
+        }
+    }
+
 }
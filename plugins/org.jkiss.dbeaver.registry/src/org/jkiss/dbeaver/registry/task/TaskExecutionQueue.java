@@ -0,0 +1,305 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.model.task.DBTaskUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Task execution queue.
+ *
+ * Limits the number of simultaneously running tasks (globally and per data source).
+ * Waiting tasks are started in priority order. Task also waits for its dependencies
+ * which were launched before it. If such dependency fails then dependent task fails too
+ * (and so do its own dependents).
+ *
+ * Queue position (sequence) is reserved when task is launched, while the ticket is enqueued
+ * only when task job actually starts. Every enqueued ticket must be finished.
+ */
+public class TaskExecutionQueue {
+
+    private static final long WAIT_TIMEOUT = 500;
+
+    /**
+     * Queued task run
+     */
+    public static class Ticket {
+        private final DBTTask task;
+        private final int priority;
+        private final long sequence;
+        private final Set<String> dataSources;
+        private final Set<String> dependencies;
+        private final long queueTime;
+        private long startTime;
+        private String failedDependency;
+        private boolean failed;
+        // Last sequence reserved when run finished. Tasks launched later don't wait for this run.
+        private long finishSequence;
+
+        private Ticket(DBTTask task, int priority, long sequence, Set<String> dataSources, Set<String> dependencies) {
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.dataSources = dataSources;
+            this.dependencies = dependencies;
+            this.queueTime = System.currentTimeMillis();
+        }
+
+        public long getQueueWaitTime() {
+            return startTime - queueTime;
+        }
+    }
+
+    private final List<Ticket> waiting = new ArrayList<>();
+    private final List<Ticket> running = new ArrayList<>();
+    private final Map<String, Integer> dataSourceRuns = new HashMap<>();
+    // Last finished run of each task. Used by dependents which were launched before it finished.
+    private final Map<String, Ticket> finishedRuns = new HashMap<>();
+    private long lastSequence;
+
+    /**
+     * Reserves queue position for a launched task
+     */
+    public synchronized long nextSequence() {
+        return ++lastSequence;
+    }
+
+    @NotNull
+    public synchronized Ticket enqueue(@NotNull DBTTask task, @NotNull Map<String, Object> options, long sequence) {
+        Ticket ticket = new Ticket(
+            task,
+            getTaskPriority(task, options),
+            sequence,
+            getTaskDataSources(task),
+            new HashSet<>(DBTaskUtils.getDependencies(task)));
+        for (String dependency : ticket.dependencies) {
+            Ticket lastRun = finishedRuns.get(dependency);
+            if (lastRun != null && lastRun.failed && lastRun.sequence < sequence && sequence <= lastRun.finishSequence &&
+                !hasActiveRun(dependency, sequence))
+            {
+                ticket.failedDependency = lastRun.task.getName();
+            }
+        }
+        waiting.add(ticket);
+        return ticket;
+    }
+
+    /**
+     * Waits until task may be started.
+     * Returns false if task was canceled while waiting.
+     */
+    public boolean waitForStart(@NotNull Ticket ticket, @NotNull DBRProgressMonitor monitor) throws DBException {
+        boolean reported = false;
+        synchronized (this) {
+            try {
+                while (!canStart(ticket)) {
+                    if (ticket.failedDependency != null) {
+                        throw new DBException("Dependency task '" + ticket.failedDependency + "' failed");
+                    }
+                    if (monitor.isCanceled()) {
+                        return false;
+                    }
+                    if (!reported) {
+                        monitor.subTask("Wait for running tasks");
+                        reported = true;
+                    }
+                    try {
+                        wait(WAIT_TIMEOUT);
+                    } catch (InterruptedException e) {
+                        return false;
+                    }
+                }
+                if (ticket.failedDependency != null) {
+                    throw new DBException("Dependency task '" + ticket.failedDependency + "' failed");
+                }
+            } finally {
+                waiting.remove(ticket);
+                // Our place in queue may block other tasks
+                notifyAll();
+            }
+            ticket.startTime = System.currentTimeMillis();
+            running.add(ticket);
+            for (String dsId : ticket.dataSources) {
+                dataSourceRuns.merge(dsId, 1, Integer::sum);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes ticket from queue. Ticket may be waiting (canceled or failed before start) or running.
+     * Failed run fails all waiting dependents. Canceled run must be finished as successful.
+     */
+    public synchronized void finish(@NotNull Ticket ticket, boolean success) {
+        waiting.remove(ticket);
+        if (running.remove(ticket)) {
+            for (String dsId : ticket.dataSources) {
+                Integer count = dataSourceRuns.get(dsId);
+                if (count == null || count <= 1) {
+                    dataSourceRuns.remove(dsId);
+                } else {
+                    dataSourceRuns.put(dsId, count - 1);
+                }
+            }
+        }
+        ticket.failed = !success;
+        ticket.finishSequence = lastSequence;
+        String taskId = ticket.task.getId();
+        Ticket lastRun = finishedRuns.get(taskId);
+        if (lastRun == null || lastRun.sequence < ticket.sequence) {
+            finishedRuns.put(taskId, ticket);
+        }
+        if (!success) {
+            for (Ticket dependent : waiting) {
+                if (dependent.sequence > ticket.sequence && dependent.dependencies.contains(taskId)) {
+                    dependent.failedDependency = ticket.task.getName();
+                }
+            }
+        }
+        notifyAll();
+    }
+
+    private boolean hasActiveRun(String taskId, long beforeSequence) {
+        for (Ticket other : running) {
+            if (other.sequence < beforeSequence && other.task.getId().equals(taskId)) {
+                return true;
+            }
+        }
+        for (Ticket other : waiting) {
+            if (other.sequence < beforeSequence && other.task.getId().equals(taskId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canStart(Ticket ticket) {
+        if (ticket.failedDependency != null || !hasFreeSlots(ticket)) {
+            return false;
+        }
+        // Tasks with higher priority (or queued earlier) go first
+        for (Ticket other : waiting) {
+            if (other != ticket && isBefore(other, ticket) && hasFreeSlots(other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasFreeSlots(Ticket ticket) {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        int maxRuns = preferences.getInt(ModelPreferences.TASK_MAX_PARALLEL_RUNS);
+        if (maxRuns > 0 && running.size() >= maxRuns) {
+            return false;
+        }
+        int maxDataSourceRuns = preferences.getInt(ModelPreferences.TASK_MAX_PARALLEL_RUNS_PER_DATASOURCE);
+        if (maxDataSourceRuns > 0) {
+            for (String dsId : ticket.dataSources) {
+                Integer count = dataSourceRuns.get(dsId);
+                if (count != null && count >= maxDataSourceRuns) {
+                    return false;
+                }
+            }
+        }
+        return !hasActiveDependencies(ticket);
+    }
+
+    private boolean hasActiveDependencies(Ticket ticket) {
+        if (ticket.dependencies.isEmpty()) {
+            return false;
+        }
+        // Only dependencies queued earlier are counted, so dependency cycles never block the queue
+        for (Ticket other : running) {
+            if (ticket.dependencies.contains(other.task.getId())) {
+                return true;
+            }
+        }
+        for (Ticket other : waiting) {
+            if (other.sequence < ticket.sequence && ticket.dependencies.contains(other.task.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBefore(Ticket ticket1, Ticket ticket2) {
+        if (ticket1.priority != ticket2.priority) {
+            return ticket1.priority > ticket2.priority;
+        }
+        return ticket1.sequence < ticket2.sequence;
+    }
+
+    private static int getTaskPriority(DBTTask task, Map<String, Object> options) {
+        Object priority = options.get(DBTaskUtils.TASK_PRIORITY);
+        if (priority == null) {
+            priority = task.getProperties().get(DBTaskUtils.TASK_PRIORITY);
+        }
+        return CommonUtils.toInt(priority);
+    }
+
+    /**
+     * Collects data sources referenced by task configuration.
+     * Task handlers save data source id in "dataSource" attribute or as a prefix of object id.
+     */
+    private static Set<String> getTaskDataSources(DBTTask task) {
+        Set<String> result = new HashSet<>();
+        collectDataSources(task, task.getProperties(), result);
+        return result;
+    }
+
+    private static void collectDataSources(DBTTask task, @Nullable Object config, Set<String> result) {
+        if (config instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) config).entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof String) {
+                    String key = String.valueOf(entry.getKey());
+                    if (key.equals("dataSource")) {
+                        addDataSource(task, (String) value, result);
+                    } else if (key.equals("objectId") || key.equals("entityId")) {
+                        String objectId = (String) value;
+                        int divPos = objectId.indexOf('/');
+                        addDataSource(task, divPos == -1 ? objectId : objectId.substring(0, divPos), result);
+                    }
+                } else {
+                    collectDataSources(task, value, result);
+                }
+            }
+        } else if (config instanceof Collection) {
+            for (Object item : (Collection<?>) config) {
+                collectDataSources(task, item, result);
+            }
+        }
+    }
+
+    private static void addDataSource(DBTTask task, String dataSourceId, Set<String> result) {
+        DBPDataSourceContainer dataSource = task.getProject().getDataSourceRegistry().getDataSource(dataSourceId);
+        if (dataSource != null) {
+            result.add(dataSource.getId());
+        }
+    }
+
+}
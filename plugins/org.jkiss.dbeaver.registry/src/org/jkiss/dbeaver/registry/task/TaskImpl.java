@@ -28,8 +28,6 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -41,9 +39,6 @@ import java.util.stream.Collectors;
 public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private static final Log log = Log.getLog(TaskImpl.class);
 
-    private static final String META_FILE_NAME = "meta.json";
-
-    private static final int MAX_RUNS_IN_STATS = 100;
     private static final TaskRunImpl VOID_RUN = new TaskRunImpl();
     private static final Gson gson = new GsonBuilder()
         .setLenient()
@@ -59,12 +54,9 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private DBTTaskType type;
     private Map<String, Object> properties;
     private TaskRunImpl lastRun;
+    private TaskRunHistory runHistory;
     @Nullable private TaskFolderImpl taskFolder;
 
-    private static class RunStatistics {
-        private final List<TaskRunImpl> runs = new ArrayList<>();
-    }
-
     public TaskImpl(@NotNull DBPProject project, @NotNull DBTTaskType type, @NotNull String id, @NotNull String label, @Nullable String description, @NotNull Date createTime, @Nullable Date updateTime, @Nullable TaskFolderImpl taskFolder) {
         this.project = project;
         this.id = id;
@@ -162,7 +154,24 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     @NotNull
     @Override
     public DBTTaskRun[] getRunStatistics() {
-        return loadRunStatistics().runs.toArray(new DBTTaskRun[0]);
+        return getRunHistory().getRuns();
+    }
+
+    @NotNull
+    @Override
+    public DBTTaskRun[] getRunStatistics(int offset, int maxCount) {
+        return getRunHistory().getRuns(offset, maxCount);
+    }
+
+    @Override
+    public int getRunCount() {
+        return getRunHistory().getRunCount();
+    }
+
+    @NotNull
+    @Override
+    public DBTTaskRunDailyStatistics[] getDailyRunStatistics() {
+        return getRunHistory().getDailyStatistics();
     }
 
     @NotNull
@@ -183,9 +192,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete log file '" + runLog.toAbsolutePath() + "'", e);
             }
         }
-        RunStatistics runStatistics = loadRunStatistics();
-        runStatistics.runs.remove(taskRun);
-        flushRunStatistics(runStatistics);
+        getRunHistory().removeRun(taskRun.getId());
         if (CommonUtils.equalObjects(lastRun, taskRun)) {
             lastRun = null;
         }
@@ -210,8 +217,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete logs folder '" + statsFolder.toAbsolutePath() + "'", e);
             }
         }
-        RunStatistics runStatistics = new RunStatistics();
-        flushRunStatistics(runStatistics);
+        getRunHistory().clear();
         lastRun = null;
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
@@ -220,8 +226,10 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     public void refreshRunStatistics() {
         try {
             synchronized (this) {
-                List<TaskRunImpl> runs = loadRunStatistics().runs;
-                lastRun = runs.isEmpty() ? VOID_RUN : runs.get(runs.size() - 1);
+                TaskRunHistory history = getRunHistory();
+                history.refresh();
+                TaskRunImpl historyLastRun = history.getLastRun();
+                lastRun = historyLastRun == null ? VOID_RUN : historyLastRun;
             }
         } catch (Throwable e) {
             log.debug("Error loading task runs", e); //$NON-NLS-1$
@@ -256,59 +264,24 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
         return taskStatsFolder;
     }
 
-    private RunStatistics loadRunStatistics() {
-        Path metaFile = getTaskStatsFolder(false).resolve(META_FILE_NAME);
-        if (!Files.exists(metaFile)) {
-            return new RunStatistics();
-        }
-        try (Reader reader = Files.newBufferedReader(metaFile)) {
-            RunStatistics statistics = gson.fromJson(reader, RunStatistics.class);
-            if (statistics == null) {
-                log.error("Null task run statistics returned");
-                return new RunStatistics();
-            }
-            return statistics;
-        } catch (Exception e) {
-            log.error("Error reading task run statistics", e);
-            return new RunStatistics();
-        }
-    }
-
-    private void flushRunStatistics(RunStatistics stats) {
-        Path metaFile = getTaskStatsFolder(true).resolve(META_FILE_NAME);
-        try (Writer writer = Files.newBufferedWriter(metaFile)) {
-            String metaContent = gson.toJson(stats);
-            writer.write(metaContent);
-        } catch (IOException e) {
-            log.error("Error writing task run statistics", e);
+    private synchronized TaskRunHistory getRunHistory() {
+        if (runHistory == null) {
+            runHistory = new TaskRunHistory(getTaskStatsFolder(false), gson);
         }
+        return runHistory;
     }
 
     void addNewRun(TaskRunImpl taskRun) {
         synchronized (this) {
             lastRun = taskRun;
-            RunStatistics stats = loadRunStatistics();
-            stats.runs.add(taskRun);
-            while (stats.runs.size() > MAX_RUNS_IN_STATS) {
-                stats.runs.remove(0);
-            }
-            flushRunStatistics(stats);
+            getRunHistory().addRun(taskRun);
         }
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
     void updateRun(TaskRunImpl taskRun) {
         synchronized (this) {
-            RunStatistics stats = loadRunStatistics();
-            List<TaskRunImpl> runs = stats.runs;
-            for (int i = 0; i < runs.size(); i++) {
-                TaskRunImpl run = runs.get(i);
-                if (CommonUtils.equalObjects(run.getId(), taskRun.getId())) {
-                    runs.set(i, taskRun);
-                    break;
-                }
-            }
-            flushRunStatistics(stats);
+            getRunHistory().updateRun(taskRun);
         }
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
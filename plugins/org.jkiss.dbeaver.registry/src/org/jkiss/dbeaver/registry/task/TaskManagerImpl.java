@@ -267,7 +267,7 @@ public class TaskManagerImpl implements DBTTaskManager {
 
     @Override
     public Job runTask(@NotNull DBTTask task, @NotNull DBTTaskExecutionListener listener, @NotNull Map<String, Object> options) {
-        TaskRunJob runJob = new TaskRunJob((TaskImpl) task, Locale.getDefault(), listener);
+        TaskRunJob runJob = new TaskRunJob((TaskImpl) task, Locale.getDefault(), listener, options);
         runJob.schedule();
         return runJob;
     }
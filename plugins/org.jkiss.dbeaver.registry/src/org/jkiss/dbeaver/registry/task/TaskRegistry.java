@@ -53,6 +53,7 @@ public class TaskRegistry implements DBTTaskRegistry
     private final Map<String, TaskTypeDescriptor> taskDescriptors = new LinkedHashMap<>();
     private final List<DBTTaskListener> taskListeners = new ArrayList<>();
     private final List<SchedulerDescriptor> schedulers = new ArrayList<>();
+    private final TaskExecutionQueue executionQueue = new TaskExecutionQueue();
 
     private TaskRegistry(IExtensionRegistry registry)
     {
@@ -167,6 +168,10 @@ public class TaskRegistry implements DBTTaskRegistry
         return null;
     }
 
+    TaskExecutionQueue getExecutionQueue() {
+        return executionQueue;
+    }
+
     @Override
     public void addTaskListener(DBTTaskListener listener) {
         synchronized (taskListeners) {
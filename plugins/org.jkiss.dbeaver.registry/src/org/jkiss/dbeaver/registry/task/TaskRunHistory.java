@@ -0,0 +1,462 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.task.DBTTaskRunDailyStatistics;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Task run history.
+ *
+ * Runs are stored in append-only log. Each line is a JSON entry which adds/updates or removes a run.
+ * Log is read once and then kept in memory. It is re-read only if it was changed by somebody else.
+ *
+ * Only the last {@link #MAX_DETAILED_RUNS} runs are kept in details. Older runs are rolled up into
+ * daily statistics when log is compacted. Compacted log starts with statistics entry
+ * so statistics and runs are always replaced at once.
+ * Log is compacted when it has too many runs or too many update/remove entries.
+ */
+public class TaskRunHistory {
+
+    private static final Log log = Log.getLog(TaskRunHistory.class);
+
+    public static final String HISTORY_FILE_NAME = "runs.jsonl";
+    // Run statistics file of older versions
+    static final String LEGACY_META_FILE_NAME = "meta.json";
+
+    public static final int MAX_DETAILED_RUNS = 1000;
+    // Compact log when it has this many extra entries. Avoids log rewrite on each run.
+    public static final int COMPACT_THRESHOLD = 200;
+
+    /**
+     * Aggregated statistics of runs started in one day
+     */
+    static class DailyRunStatistics implements DBTTaskRunDailyStatistics {
+        private String day;
+        private int runCount;
+        private int errorCount;
+        private long totalDuration;
+
+        DailyRunStatistics(String day) {
+            this.day = day;
+        }
+
+        DailyRunStatistics(DailyRunStatistics source) {
+            this.day = source.day;
+            this.runCount = source.runCount;
+            this.errorCount = source.errorCount;
+            this.totalDuration = source.totalDuration;
+        }
+
+        @NotNull
+        @Override
+        public LocalDate getDay() {
+            return LocalDate.parse(day);
+        }
+
+        @Override
+        public int getRunCount() {
+            return runCount;
+        }
+
+        @Override
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        @Override
+        public long getTotalDuration() {
+            return totalDuration;
+        }
+
+        private void addRun(TaskRunImpl run) {
+            runCount++;
+            if (!run.isRunSuccess()) {
+                errorCount++;
+            }
+            totalDuration += run.getRunDuration();
+        }
+    }
+
+    private static class HistoryEntry {
+        private TaskRunImpl run;
+        private String removed;
+        private List<DailyRunStatistics> statistics;
+    }
+
+    private static class LegacyRunStatistics {
+        private List<TaskRunImpl> runs;
+    }
+
+    private final Path folder;
+    private final Gson gson;
+
+    // Runs ordered by start. Map is used for lookups by id.
+    private final List<TaskRunImpl> runs = new ArrayList<>();
+    private final Map<String, TaskRunImpl> runMap = new HashMap<>();
+    private final Map<String, DailyRunStatistics> dailyStatistics = new TreeMap<>();
+    private boolean loaded;
+    private int logEntryCount;
+    private long logSize;
+    private FileTime logModifyTime;
+
+    public TaskRunHistory(@NotNull Path folder, @NotNull Gson gson) {
+        this.folder = folder;
+        this.gson = gson;
+    }
+
+    @Nullable
+    public synchronized TaskRunImpl getLastRun() {
+        checkLoaded();
+        return runs.isEmpty() ? null : runs.get(runs.size() - 1);
+    }
+
+    /**
+     * Returns count of runs kept in details
+     */
+    public synchronized int getRunCount() {
+        checkLoaded();
+        return runs.size();
+    }
+
+    @NotNull
+    public synchronized TaskRunImpl[] getRuns() {
+        checkLoaded();
+        return runs.toArray(new TaskRunImpl[0]);
+    }
+
+    /**
+     * Returns runs page. Runs are ordered from the most recent one.
+     */
+    @NotNull
+    public synchronized TaskRunImpl[] getRuns(int offset, int maxCount) {
+        checkLoaded();
+        int count = Math.max(0, Math.min(maxCount, runs.size() - offset));
+        TaskRunImpl[] result = new TaskRunImpl[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = runs.get(runs.size() - 1 - offset - i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns statistics of all runs by day: rolled up statistics plus statistics of detailed runs.
+     */
+    @NotNull
+    public synchronized DBTTaskRunDailyStatistics[] getDailyStatistics() {
+        checkLoaded();
+        Map<String, DailyRunStatistics> result = new TreeMap<>();
+        for (DailyRunStatistics stat : dailyStatistics.values()) {
+            result.put(stat.day, new DailyRunStatistics(stat));
+        }
+        for (TaskRunImpl run : runs) {
+            addToStatistics(result, run);
+        }
+        return result.values().toArray(new DBTTaskRunDailyStatistics[0]);
+    }
+
+    public synchronized void addRun(@NotNull TaskRunImpl run) {
+        checkLoaded();
+        putRun(run);
+        HistoryEntry entry = new HistoryEntry();
+        entry.run = run;
+        appendEntry(entry);
+        compactIfNeeded();
+    }
+
+    public synchronized void updateRun(@NotNull TaskRunImpl run) {
+        checkLoaded();
+        if (!runMap.containsKey(run.getId())) {
+            return;
+        }
+        putRun(run);
+        HistoryEntry entry = new HistoryEntry();
+        entry.run = run;
+        appendEntry(entry);
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes detailed run. Removed run is not counted in statistics.
+     */
+    public synchronized void removeRun(@NotNull String runId) {
+        checkLoaded();
+        TaskRunImpl run = runMap.remove(runId);
+        if (run == null) {
+            return;
+        }
+        runs.remove(run);
+        HistoryEntry entry = new HistoryEntry();
+        entry.removed = runId;
+        appendEntry(entry);
+        compactIfNeeded();
+    }
+
+    public synchronized void clear() {
+        runs.clear();
+        runMap.clear();
+        dailyStatistics.clear();
+        logEntryCount = 0;
+        try {
+            Files.deleteIfExists(folder.resolve(HISTORY_FILE_NAME));
+            Files.deleteIfExists(folder.resolve(LEGACY_META_FILE_NAME));
+        } catch (IOException e) {
+            log.error("Error deleting task run history", e);
+        }
+        saveLogState();
+        loaded = true;
+    }
+
+    /**
+     * Re-reads history if log was changed externally.
+     */
+    public synchronized void refresh() {
+        if (loaded && isLogChanged()) {
+            loaded = false;
+        }
+        checkLoaded();
+    }
+
+    private void checkLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        runs.clear();
+        runMap.clear();
+        dailyStatistics.clear();
+        logEntryCount = 0;
+
+        Path historyFile = folder.resolve(HISTORY_FILE_NAME);
+        if (!Files.exists(historyFile)) {
+            Path legacyFile = folder.resolve(LEGACY_META_FILE_NAME);
+            if (Files.exists(legacyFile)) {
+                migrateLegacyStatistics(legacyFile);
+            }
+            saveLogState();
+            return;
+        }
+        boolean hasBadEntries = false;
+        try (BufferedReader reader = Files.newBufferedReader(historyFile, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                HistoryEntry entry;
+                try {
+                    entry = gson.fromJson(line, HistoryEntry.class);
+                } catch (Exception e) {
+                    // Most likely the last line was written partially
+                    log.debug("Bad task run history entry: " + e.getMessage());
+                    hasBadEntries = true;
+                    continue;
+                }
+                if (entry == null) {
+                    continue;
+                }
+                logEntryCount++;
+                if (entry.statistics != null) {
+                    dailyStatistics.clear();
+                    for (DailyRunStatistics stat : entry.statistics) {
+                        dailyStatistics.put(stat.day, stat);
+                    }
+                }
+                if (entry.run != null && entry.run.getId() != null) {
+                    putRun(entry.run);
+                }
+                if (entry.removed != null) {
+                    TaskRunImpl run = runMap.remove(entry.removed);
+                    if (run != null) {
+                        runs.remove(run);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading task run history", e);
+        }
+        saveLogState();
+        // Rewrite log with bad entries, otherwise next entry may be appended to the broken line
+        if (hasBadEntries) {
+            compact();
+        } else {
+            compactIfNeeded();
+        }
+    }
+
+    private void migrateLegacyStatistics(Path legacyFile) {
+        try (Reader reader = Files.newBufferedReader(legacyFile)) {
+            LegacyRunStatistics statistics = gson.fromJson(reader, LegacyRunStatistics.class);
+            if (statistics != null && statistics.runs != null) {
+                for (TaskRunImpl run : statistics.runs) {
+                    if (run != null && run.getId() != null) {
+                        putRun(run);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error reading task run statistics", e);
+            return;
+        }
+        compact();
+        if (Files.exists(folder.resolve(HISTORY_FILE_NAME))) {
+            try {
+                Files.delete(legacyFile);
+            } catch (IOException e) {
+                log.debug("Can't delete legacy task run statistics: " + e.getMessage());
+            }
+        }
+    }
+
+    private void putRun(TaskRunImpl run) {
+        TaskRunImpl oldRun = runMap.put(run.getId(), run);
+        if (oldRun == null) {
+            runs.add(run);
+        } else {
+            int index = runs.lastIndexOf(oldRun);
+            runs.set(index, run);
+        }
+    }
+
+    private static void addToStatistics(Map<String, DailyRunStatistics> statistics, TaskRunImpl run) {
+        if (run.getStartTime() != null) {
+            String day = run.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString();
+            statistics.computeIfAbsent(day, DailyRunStatistics::new).addRun(run);
+        }
+    }
+
+    private void appendEntry(HistoryEntry entry) {
+        try {
+            Files.createDirectories(folder);
+            try (Writer writer = Files.newBufferedWriter(
+                folder.resolve(HISTORY_FILE_NAME),
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+            {
+                writer.write(gson.toJson(entry));
+                writer.write('\n');
+            }
+            logEntryCount++;
+        } catch (IOException e) {
+            log.error("Error writing task run history", e);
+        }
+        saveLogState();
+    }
+
+    /**
+     * Compacts log if it has too many detailed runs or if most of its entries are updates and removals.
+     */
+    private void compactIfNeeded() {
+        if (runs.size() > MAX_DETAILED_RUNS + COMPACT_THRESHOLD || logEntryCount > runs.size() * 2 + COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Rolls up old runs into daily statistics and rewrites log with actual runs only.
+     */
+    private void compact() {
+        List<TaskRunImpl> rolledRuns = new ArrayList<>();
+        while (runs.size() > MAX_DETAILED_RUNS) {
+            TaskRunImpl run = runs.remove(0);
+            runMap.remove(run.getId());
+            rolledRuns.add(run);
+            addToStatistics(dailyStatistics, run);
+        }
+
+        Path historyFile = folder.resolve(HISTORY_FILE_NAME);
+        Path tempFile = folder.resolve(HISTORY_FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(folder);
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                HistoryEntry statEntry = new HistoryEntry();
+                statEntry.statistics = new ArrayList<>(dailyStatistics.values());
+                writer.write(gson.toJson(statEntry));
+                writer.write('\n');
+                for (TaskRunImpl run : runs) {
+                    HistoryEntry entry = new HistoryEntry();
+                    entry.run = run;
+                    writer.write(gson.toJson(entry));
+                    writer.write('\n');
+                }
+            }
+            Files.move(tempFile, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logEntryCount = runs.size() + 1;
+        } catch (IOException e) {
+            log.error("Error compacting task run history", e);
+            return;
+        } finally {
+            saveLogState();
+        }
+
+        // Logs of rolled up runs are not needed anymore
+        for (TaskRunImpl run : rolledRuns) {
+            Path runLog = folder.resolve(TaskRunImpl.RUN_LOG_PREFIX + run.getId() + "." + TaskRunImpl.RUN_LOG_EXT);
+            try {
+                Files.deleteIfExists(runLog);
+            } catch (IOException e) {
+                log.debug("Can't delete task run log '" + runLog + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isLogChanged() {
+        Path historyFile = folder.resolve(HISTORY_FILE_NAME);
+        try {
+            if (!Files.exists(historyFile)) {
+                return logModifyTime != null;
+            }
+            return Files.size(historyFile) != logSize ||
+                !CommonUtils.equalObjects(Files.getLastModifiedTime(historyFile), logModifyTime);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private void saveLogState() {
+        Path historyFile = folder.resolve(HISTORY_FILE_NAME);
+        try {
+            if (Files.exists(historyFile)) {
+                logSize = Files.size(historyFile);
+                logModifyTime = Files.getLastModifiedTime(historyFile);
+                return;
+            }
+        } catch (IOException e) {
+            log.debug("Can't read task run history file state: " + e.getMessage());
+        }
+        logSize = 0;
+        logModifyTime = null;
+    }
+
+}
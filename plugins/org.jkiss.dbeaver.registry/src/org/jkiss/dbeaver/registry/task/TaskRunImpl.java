@@ -26,16 +26,17 @@ import java.util.Date;
 /**
  * TaskRunImpl
  */
-class TaskRunImpl implements DBTTaskRun {
+public class TaskRunImpl implements DBTTaskRun {
 
-    static final String RUN_LOG_PREFIX = "run_";
-    static final String RUN_LOG_EXT = "log";
+    public static final String RUN_LOG_PREFIX = "run_";
+    public static final String RUN_LOG_EXT = "log";
 
     private String id;
     private Date startTime;
     private String startUser;
     private String startedBy;
     private long duration;
+    private long queueWaitTime;
     private String errorMessage;
     private String errorStackTrace;
     private String extraMessage;
@@ -44,7 +45,7 @@ class TaskRunImpl implements DBTTaskRun {
         this.id = "void";
     }
 
-    TaskRunImpl(String id, Date startTime, String startUser, String startedBy, long duration, String errorMessage, String errorStackTrace) {
+    public TaskRunImpl(String id, Date startTime, String startUser, String startedBy, long duration, String errorMessage, String errorStackTrace) {
         this.id = id;
         this.startTime = startTime;
         this.startUser = startUser;
@@ -86,6 +87,15 @@ class TaskRunImpl implements DBTTaskRun {
         this.duration = duration;
     }
 
+    @Override
+    public long getQueueWaitTime() {
+        return queueWaitTime;
+    }
+
+    public void setQueueWaitTime(long queueWaitTime) {
+        this.queueWaitTime = queueWaitTime;
+    }
+
     @Override
     public boolean isRunSuccess() {
         return errorMessage == null;
@@ -40,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -53,6 +54,9 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
 
     private final TaskImpl task;
     private final Locale locale;
+    private final TaskExecutionQueue executionQueue;
+    private final Map<String, Object> options;
+    private final long queueSequence;
     private DBTTaskExecutionListener executionListener;
     private Log taskLog = log;
     private DBRProgressMonitor activeMonitor;
@@ -61,18 +65,44 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
     private long elapsedTime;
     private Throwable taskError;
 
-    protected TaskRunJob(TaskImpl task, Locale locale, DBTTaskExecutionListener executionListener) {
+    protected TaskRunJob(TaskImpl task, Locale locale, DBTTaskExecutionListener executionListener, Map<String, Object> options) {
         super("Task [" + task.getType().getName() + "] runner - " + task.getName());
         setUser(true);
         setSystem(false);
         this.task = task;
         this.locale = locale;
         this.executionListener = new LoggingExecutionListener(executionListener);
-
+        this.options = options;
+        // Reserve place in queue right now, so tasks start in the order they were launched.
+        // Ticket is enqueued in run(), so jobs canceled before start never stay in queue.
+        this.executionQueue = TaskRegistry.getInstance().getExecutionQueue();
+        this.queueSequence = executionQueue.nextSequence();
     }
 
     @Override
     protected IStatus run(DBRProgressMonitor monitor) {
+        TaskExecutionQueue.Ticket queueTicket = executionQueue.enqueue(task, options, queueSequence);
+        boolean success = false;
+        try {
+            Throwable queueError = null;
+            try {
+                if (!executionQueue.waitForStart(queueTicket, monitor)) {
+                    // Canceled run doesn't fail its dependents
+                    success = true;
+                    return Status.CANCEL_STATUS;
+                }
+            } catch (DBException e) {
+                queueError = e;
+            }
+            runTask(monitor, queueTicket, queueError);
+            success = queueError == null && taskError == null;
+        } finally {
+            executionQueue.finish(queueTicket, success);
+        }
+        return Status.OK_STATUS;
+    }
+
+    private void runTask(DBRProgressMonitor monitor, @NotNull TaskExecutionQueue.Ticket queueTicket, @Nullable Throwable queueError) {
         Date startTime = new Date();
 
         String taskId = TaskManagerImpl.systemDateFormat.format(startTime) + "_" + taskNumber.incrementAndGet();
@@ -82,6 +112,7 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
             System.getProperty(StandardConstants.ENV_USER_NAME),
             GeneralUtils.getProductTitle(),
             0, null, null);
+        taskRun.setQueueWaitTime(queueTicket.getQueueWaitTime());
         task.getTaskStatsFolder(true);
         Path logFile = task.getRunLog(taskRun);
         task.addNewRun(taskRun);
@@ -91,6 +122,9 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
             Log.setLogWriter(logStream);
             monitor.beginTask("Run task '" + task.getName() + " (" + task.getType().getName() + ")", 1);
             try {
+                if (queueError != null) {
+                    throw queueError;
+                }
                 DBTTaskRunStatus runResultStatus = executeTask(new LoggingProgressMonitor(monitor), logStream);
                 taskRun.setExtraMessage(runResultStatus.getResultMessage());
             } catch (Throwable e) {
@@ -117,7 +151,6 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
         } catch (IOException e) {
             log.error("Error opning task run log file", e);
         }
-        return Status.OK_STATUS;
     }
 
     private DBTTaskRunStatus executeTask(DBRProgressMonitor monitor, PrintStream logWriter) throws DBException {
@@ -37,6 +37,9 @@ public class TaskUIViewMessages extends NLS {
 	public static String db_tasks_tree_column_controller_add_name_last_result;
 	public static String db_tasks_tree_column_controller_add_descr_last_result;
 	public static String db_tasks_tree_column_cell_text_success;
+	public static String db_tasks_tree_column_controller_add_name_runs;
+	public static String db_tasks_tree_column_controller_add_descr_runs;
+	public static String db_tasks_tree_column_cell_text_runs;
 	public static String db_tasks_tree_column_controller_add_name_next_run;
 	public static String db_tasks_tree_column_controller_add_descr_next_run;
 	public static String db_tasks_tree_column_controller_add_name_description;
@@ -53,6 +56,8 @@ public class TaskUIViewMessages extends NLS {
 	public static String db_tasks_view_column_controller_add_descr_start_time;
 	public static String db_tasks_view_column_controller_add_name_duration;
 	public static String db_tasks_view_column_controller_add_descr_task_duration;
+	public static String db_tasks_view_column_controller_add_name_queue_wait;
+	public static String db_tasks_view_column_controller_add_descr_task_queue_wait;
 	public static String db_tasks_view_column_controller_add_name_result;
 	public static String db_tasks_view_column_controller_add_descr_task_result;
 	public static String db_tasks_view_cell_text_success;
@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.jface.viewers.*;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.*;
 import org.eclipse.swt.graphics.Color;
@@ -184,6 +185,23 @@ public class DatabaseTasksTree {
                 return null;
             }
         });
+        taskColumnController.addColumn(TaskUIViewMessages.db_tasks_tree_column_controller_add_name_runs, TaskUIViewMessages.db_tasks_tree_column_controller_add_descr_runs, SWT.LEFT, false, false, new TaskLabelProvider() {
+            @Override
+            protected String getCellText(Object element) {
+                if (element instanceof DBTTask) {
+                    int runCount = 0, errorCount = 0;
+                    for (DBTTaskRunDailyStatistics stat : ((DBTTask) element).getDailyRunStatistics()) {
+                        runCount += stat.getRunCount();
+                        errorCount += stat.getErrorCount();
+                    }
+                    if (errorCount == 0) {
+                        return String.valueOf(runCount);
+                    }
+                    return NLS.bind(TaskUIViewMessages.db_tasks_tree_column_cell_text_runs, runCount, errorCount);
+                }
+                return null;
+            }
+        });
         DBTScheduler scheduler = TaskRegistry.getInstance().getActiveSchedulerInstance();
         if (scheduler != null) {
             taskColumnController.addColumn(TaskUIViewMessages.db_tasks_tree_column_controller_add_name_next_run, TaskUIViewMessages.db_tasks_tree_column_controller_add_descr_next_run, SWT.LEFT, true, false, new TaskLabelProvider() {
@@ -74,6 +74,8 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
     public static final String GROUP_TASK_CMD_ID = "org.jkiss.dbeaver.task.group";
 
     private static final ArrayList<Object> EMPTY_TASK_RUN_LIST = new ArrayList<>();
+    // Only the most recent runs are shown. Full history may be very big for scheduled tasks.
+    private static final int MAX_VISIBLE_TASK_RUNS = 500;
 
     private DatabaseTasksTree tasksTree;
 
@@ -142,6 +144,18 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
                 cell.setText(RuntimeUtils.formatExecutionTime(taskRun.getRunDuration()));
             }
         }, null);
+        taskRunColumnController.addColumn(TaskUIViewMessages.db_tasks_view_column_controller_add_name_queue_wait, TaskUIViewMessages.db_tasks_view_column_controller_add_descr_task_queue_wait, SWT.LEFT, false, false, true, null, new TaskRunLabelProviderEx() {
+            @Override
+            public String getText(Object element, boolean forUI) {
+                DBTTaskRun taskRun = (DBTTaskRun) element;
+                return forUI ? RuntimeUtils.formatExecutionTime(taskRun.getQueueWaitTime()) : String.valueOf(taskRun.getQueueWaitTime());
+            }
+
+            @Override
+            protected void update(ViewerCell cell, DBTTaskRun taskRun) {
+                cell.setText(RuntimeUtils.formatExecutionTime(taskRun.getQueueWaitTime()));
+            }
+        }, null);
         taskRunColumnController.addColumn(TaskUIViewMessages.db_tasks_view_column_controller_add_name_result, TaskUIViewMessages.db_tasks_view_column_controller_add_descr_task_result, SWT.LEFT, true, false, new TaskRunLabelProvider() {
             @Override
             protected void update(ViewerCell cell, DBTTaskRun taskRun) {
@@ -344,11 +358,10 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
         if (selectedTask == null) {
             taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
         } else {
-            DBTTaskRun[] runs = selectedTask.getRunStatistics();
+            DBTTaskRun[] runs = selectedTask.getRunStatistics(0, MAX_VISIBLE_TASK_RUNS);
             if (ArrayUtils.isEmpty(runs)) {
                 taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
             } else {
-                Arrays.sort(runs, Comparator.comparing(DBTTaskRun::getStartTime).reversed());
                 taskRunViewer.setInput(Arrays.asList(runs));
             }
         }
@@ -47,6 +47,7 @@ public class DashboardItem extends Composite implements DashboardContainer {
     private final DashboardItemViewConfiguration dashboardConfig;
 
     private Date lastUpdateTime;
+    private volatile long refreshDelay;
     private DashboardViewType curViewType;
     private DashboardRenderer renderer;
     private DashboardChartComposite dashboardControl;
@@ -353,6 +354,26 @@ public class DashboardItem extends Composite implements DashboardContainer {
         return lastUpdateTime;
     }
 
+    @Override
+    public long getRefreshDelay() {
+        return refreshDelay;
+    }
+
+    @Override
+    public void updateRefreshStatistics(long refreshTime, long refreshDelay) {
+        this.refreshDelay = refreshDelay;
+        UIUtils.asyncExec(() -> {
+            if (titleLabel.isDisposed()) {
+                return;
+            }
+            String tip = "Refresh time: " + refreshTime + "ms";
+            if (refreshDelay > 0) {
+                tip += "\nUpdates are postponed by " + refreshDelay + "ms because of slow refresh";
+            }
+            titleLabel.setToolTipText(tip);
+        });
+    }
+
     @Override
     public void updateDashboardData(DashboardDataset dataset) {
         UIUtils.asyncExec(() -> {
@@ -78,6 +78,16 @@ public interface DashboardContainer {
 
     Date getLastUpdateTime();
 
+    /**
+     * Additional delay (in ms) before the next update. Set when data refresh takes too long.
+     */
+    long getRefreshDelay();
+
+    /**
+     * Reports duration of the last data refresh and the resulting update delay (both in ms)
+     */
+    void updateRefreshStatistics(long refreshTime, long refreshDelay);
+
     void updateDashboardData(DashboardDataset dataset);
 
     void resetDashboardData();
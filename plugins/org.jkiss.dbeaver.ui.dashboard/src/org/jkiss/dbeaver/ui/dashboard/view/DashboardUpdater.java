@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.ui.dashboard.view;
 
 import org.apache.commons.jexl3.JexlContext;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.*;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -24,8 +26,10 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dashboard.control.DashboardListViewer;
 import org.jkiss.dbeaver.ui.dashboard.model.*;
 import org.jkiss.dbeaver.ui.dashboard.model.data.DashboardDataset;
@@ -36,11 +40,28 @@ import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads dashboards data.
+ *
+ * Dashboards of each data source are updated by a separate job, so a slow server doesn't delay other dashboards.
+ * New update of data source starts only after the previous one is finished. If update takes a long time
+ * then next updates of its dashboards are postponed.
+ */
 public class DashboardUpdater {
 
     private static final Log log = Log.getLog(DashboardUpdater.class);
-    private Map<DBPDataSourceContainer, List<MapQueryInfo>> mapQueries = new HashMap<>();
+
+    // Query timeout (in update periods and minimal in seconds)
+    private static final int QUERY_TIMEOUT_PERIODS = 3;
+    private static final int MIN_QUERY_TIMEOUT = 10;
+    private static final long MAX_REFRESH_DELAY = 60 * 1000;
+
+    private static final Set<DBPDataSourceContainer> activeUpdates = ConcurrentHashMap.newKeySet();
+
+    // Map queries by query text. The same query may be used by different dashboards, it is executed only once.
+    private final Map<String, MapQueryInfo> mapQueries = new LinkedHashMap<>();
 
     private static class MapQueryInfo {
         private final DashboardContainer dashboard;
@@ -56,14 +77,66 @@ public class DashboardUpdater {
         }
     }
 
+    private static class DataSourceUpdateJob extends AbstractJob {
+        private final DBPDataSourceContainer dataSourceContainer;
+        private final List<DashboardContainer> dashboards;
+
+        DataSourceUpdateJob(DBPDataSourceContainer dataSourceContainer, List<DashboardContainer> dashboards) {
+            super("Update dashboards of '" + dataSourceContainer.getName() + "'");
+            this.dataSourceContainer = dataSourceContainer;
+            this.dashboards = dashboards;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                long startTime = System.currentTimeMillis();
+                new DashboardUpdater().updateDashboards(monitor, dashboards);
+                updateRefreshStatistics(dashboards, System.currentTimeMillis() - startTime);
+            } catch (Exception e) {
+                log.error("Error updating dashboards of '" + dataSourceContainer.getName() + "'", e);
+            } finally {
+                activeUpdates.remove(dataSourceContainer);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
     public DashboardUpdater() {
     }
 
+    /**
+     * Starts update of all dashboards which need it.
+     * Doesn't wait for data read.
+     */
     public void updateDashboards(DBRProgressMonitor monitor) {
-        List<DashboardContainer> dashboards = getDashboardsToUpdate();
-
-        updateDashboards(monitor, dashboards);
+        Map<DBPDataSourceContainer, List<DashboardContainer>> dsDashboards = new LinkedHashMap<>();
+        for (DashboardContainer dashboard : getDashboardsToUpdate()) {
+            dsDashboards.computeIfAbsent(dashboard.getDataSourceContainer(), k -> new ArrayList<>()).add(dashboard);
+        }
+        for (Map.Entry<DBPDataSourceContainer, List<DashboardContainer>> entry : dsDashboards.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (activeUpdates.add(entry.getKey())) {
+                new DataSourceUpdateJob(entry.getKey(), entry.getValue()).schedule();
+            }
+        }
+    }
 
+    /**
+     * Postpones next update of dashboards if refresh takes more than a half of update period
+     */
+    private static void updateRefreshStatistics(List<DashboardContainer> dashboards, long refreshTime) {
+        for (DashboardContainer dashboard : dashboards) {
+            long refreshDelay = 0;
+            if (refreshTime > dashboard.getUpdatePeriod() / 2) {
+                refreshDelay = Math.min(refreshTime, MAX_REFRESH_DELAY);
+            }
+            dashboard.updateRefreshStatistics(refreshTime, refreshDelay);
+        }
     }
 
     private void updateDashboards(DBRProgressMonitor monitor, List<DashboardContainer> dashboards) {
@@ -72,51 +145,39 @@ public class DashboardUpdater {
         // Get all map queries used by dashboards
         for (DashboardContainer dashboard : dashboards) {
             DashboardMapQuery mapQuery = dashboard.getMapQuery();
-            if (mapQuery != null) {
-                List<MapQueryInfo> queryList = mapQueries.computeIfAbsent(
-                    dashboard.getDataSourceContainer(), k -> new ArrayList<>());
-                boolean found = false;
-                for (MapQueryInfo mqi : queryList) {
-                    if (mqi.mapQuery == mapQuery) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    queryList.add(new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery));
-                }
+            if (mapQuery != null && !mapQueries.containsKey(mapQuery.getQueryText())) {
+                mapQueries.put(mapQuery.getQueryText(), new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery));
             }
         }
 
-        for (Map.Entry<DBPDataSourceContainer, List<MapQueryInfo>> mqEntry : mapQueries.entrySet()) {
+        if (!mapQueries.isEmpty()) {
             monitor.subTask("Read dashboard data");
-            DBPDataSourceContainer dsContainer = mqEntry.getKey();
+            DBPDataSourceContainer dsContainer = dashboards.get(0).getDataSourceContainer();
             DBPDataSource dataSource = dsContainer.getDataSource();
-            if (dataSource == null) {
-                continue;
-            }
-            try {
-                DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
-                    try {
-                        for (MapQueryInfo mqi : mqEntry.getValue()) {
-                            if (!mqi.dashboard.isAutoUpdateEnabled()) {
-                                continue;
-                            }
+            if (dataSource != null) {
+                try {
+                    DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
+                        try {
+                            for (MapQueryInfo mqi : mapQueries.values()) {
+                                if (!mqi.dashboard.isAutoUpdateEnabled()) {
+                                    continue;
+                                }
 
-                            try {
-                                readMapQueryData(monitor, mqi);
-                            } catch (DBCException e) {
-                                log.debug("Datasource '" + mqi.dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
-                                mqi.dashboard.disableAutoUpdate();
-                                throw e;
+                                try {
+                                    readMapQueryData(monitor, mqi);
+                                } catch (DBCException e) {
+                                    log.debug("Datasource '" + mqi.dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
+                                    mqi.dashboard.disableAutoUpdate();
+                                    throw e;
+                                }
                             }
+                        } catch (Throwable e) {
+                            throw new InvocationTargetException(e);
                         }
-                    } catch (Throwable e) {
-                        throw new InvocationTargetException(e);
-                    }
-                });
-            } catch (DBException e) {
-                log.debug("Error reading map query data for '" + dsContainer.getName() + "'", e);
+                    });
+                } catch (DBException e) {
+                    log.debug("Error reading map query data for '" + dsContainer.getName() + "'", e);
+                }
             }
         }
 
@@ -146,6 +207,10 @@ public class DashboardUpdater {
         monitor.done();
     }
 
+    private static int getQueryTimeout(long updatePeriod) {
+        return (int) Math.max(MIN_QUERY_TIMEOUT, updatePeriod * QUERY_TIMEOUT_PERIODS / 1000);
+    }
+
     private void readMapQueryData(DBRProgressMonitor monitor, MapQueryInfo mqInfo) throws DBCException {
         DBCExecutionContext executionContext = mqInfo.viewContainer.getExecutionContext();
         if (executionContext == null) {
@@ -155,6 +220,7 @@ public class DashboardUpdater {
             monitor, DBCExecutionPurpose.UTIL, "Read map query '" + mqInfo.mapQuery.getId() + "' data")) {
             session.enableLogging(false);
             try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, mqInfo.mapQuery.getQueryText(), false, false, false)) {
+                dbStat.setStatementTimeout(getQueryTimeout(mqInfo.mapQuery.getUpdatePeriod()));
                 if (dbStat.executeStatement()) {
                     try (DBCResultSet dbResults = dbStat.openResultSet()) {
                         mqInfo.timestamp = new Date();
@@ -206,6 +272,7 @@ public class DashboardUpdater {
             try {
                 for (DashboardQuery query : queries) {
                     try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
+                        dbStat.setStatementTimeout(getQueryTimeout(dashboard.getUpdatePeriod()));
                         if (dbStat.executeStatement()) {
                             try (DBCResultSet dbResults = dbStat.openResultSet()) {
                                 if (dbResults != null) {
@@ -379,18 +446,21 @@ public class DashboardUpdater {
 
     public List<DashboardContainer> getDashboardsToUpdate() {
         List<DashboardContainer> dashboards = new ArrayList<>();
-        for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
-            for (IWorkbenchPage page : window.getPages()) {
-                for (IViewReference view : page.getViewReferences()) {
-                    if (view.getId().equalsIgnoreCase(DashboardView.VIEW_ID)) {
-                        IWorkbenchPart part = view.getPart(false);
-                        if (part instanceof DashboardView) {
-                            getViewDashboards((DashboardView) part, dashboards);
+        UIUtils.syncExec(() -> {
+            for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
+                for (IWorkbenchPage page : window.getPages()) {
+                    for (IViewReference view : page.getViewReferences()) {
+                        if (view.getId().equalsIgnoreCase(DashboardView.VIEW_ID)) {
+                            IWorkbenchPart part = view.getPart(false);
+                            // Hidden dashboards are updated when they become visible
+                            if (part instanceof DashboardView && page.isPartVisible(part)) {
+                                getViewDashboards((DashboardView) part, dashboards);
+                            }
                         }
                     }
                 }
             }
-        }
+        });
         return dashboards;
     }
 
@@ -403,7 +473,7 @@ public class DashboardUpdater {
         for (DashboardGroupContainer group : viewManager.getGroups()) {
             for (DashboardContainer dashboard : group.getItems()) {
                 Date lastUpdateTime = dashboard.getLastUpdateTime();
-                if (lastUpdateTime == null || (currentTime - lastUpdateTime.getTime()) >= dashboard.getUpdatePeriod()) {
+                if (lastUpdateTime == null || (currentTime - lastUpdateTime.getTime()) >= dashboard.getUpdatePeriod() + dashboard.getRefreshDelay()) {
                     dashboards.add(dashboard);
                 }
             }
@@ -411,15 +481,8 @@ public class DashboardUpdater {
     }
 
     private MapQueryInfo getMapQueryData(DashboardContainer dashboard) {
-        List<MapQueryInfo> mapQueryInfos = mapQueries.get(dashboard.getDataSourceContainer());
-        if (mapQueryInfos != null) {
-            for (MapQueryInfo mqi : mapQueryInfos) {
-                if (mqi.mapQuery == dashboard.getMapQuery()) {
-                    return mqi;
-                }
-            }
-        }
-        return null;
+        DashboardMapQuery mapQuery = dashboard.getMapQuery();
+        return mapQuery == null ? null : mapQueries.get(mapQuery.getQueryText());
     }
 
 }
\ No newline at end of file
@@ -40,6 +40,8 @@ class GridColumn {
 	 * Default width of the column.
 	 */
 	private static final int DEFAULT_WIDTH = 10;
+    // Max number of rows measured by pack
+    private static final int MAX_PACK_SAMPLE_ROWS = 100;
 
     static final int topMargin = 6;
     static final int bottomMargin = 6;
@@ -271,8 +273,9 @@ class GridColumn {
             int topIndex = grid.getTopIndex();
             int bottomIndex = grid.getBottomIndex();
             if (topIndex >= 0 && bottomIndex >= topIndex) {
-                int itemCount = grid.getItemCount();
-                for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
+                int lastIndex = Math.min(bottomIndex, grid.getItemCount() - 1);
+                int step = Math.max(1, (lastIndex - topIndex + 1) / MAX_PACK_SAMPLE_ROWS);
+                for (int i = topIndex; i <= lastIndex; i += step) {
                     newWidth = Math.max(newWidth, computeCellWidth(element, grid.getRowElement(i)));
                 }
             }
@@ -315,7 +318,7 @@ class GridColumn {
             x += imageBounds.width + insideMargin;
         }
 
-        x += grid.sizingGC.textExtent(cellText).x + rightMargin;
+        x += grid.getTextWidth(cellText) + rightMargin;
         return x;
     }
 
@@ -54,6 +54,7 @@ public abstract class LightGrid extends Canvas {
     private static final Log log = Log.getLog(LightGrid.class);
 
     private static final int MAX_TOOLTIP_LENGTH = 1000;
+    private static final int MAX_TEXT_WIDTH_CACHE_SIZE = 10000;
 
     protected static final int Event_ChangeSort = 1000;
     protected static final int Event_NavigateLink = 1001;
@@ -263,6 +264,8 @@ public abstract class LightGrid extends Canvas {
 
     final GC sizingGC;
     FontMetrics fontMetrics;
+    // Text widths measured with sizingGC. Valid until font change.
+    private final Map<String, Integer> textWidthCache = new HashMap<>();
     Font normalFont;
     Font boldFont;
     Font italicFont;
@@ -4481,12 +4484,29 @@ public abstract class LightGrid extends Canvas {
 
 
 
+    /**
+     * Returns width of the text in the grid font
+     */
+    int getTextWidth(String text)
+    {
+        Integer width = textWidthCache.get(text);
+        if (width == null) {
+            if (textWidthCache.size() >= MAX_TEXT_WIDTH_CACHE_SIZE) {
+                textWidthCache.clear();
+            }
+            width = sizingGC.textExtent(text).x;
+            textWidthCache.put(text, width);
+        }
+        return width;
+    }
+
     @Override
     public void setFont(Font font)
     {
         super.setFont(font);
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
+        textWidthCache.clear();
         normalFont = font;
         UIUtils.dispose(boldFont);
         UIUtils.dispose(italicFont);
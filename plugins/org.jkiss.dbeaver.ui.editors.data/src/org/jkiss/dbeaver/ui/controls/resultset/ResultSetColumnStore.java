@@ -0,0 +1,922 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.meta.ForTest;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar storage of result set values.
+ *
+ * Rows are split in pages of fixed size. Values of each page column are kept in a separate array.
+ * Numbers, booleans and date/time values are stored in primitive arrays with a null bitmap,
+ * strings are dictionary encoded while column has few distinct values.
+ * All other values (LOBs, complex values, etc) are kept as is.
+ *
+ * Storage type of page column is chosen by the first non-null value. If value of another type appears later
+ * then column is converted to plain object storage.
+ *
+ * If spilling is enabled then only a limited number of pages is kept in memory. Least recently used pages
+ * are written in append-only temporary file and read back on access. Pages with plain object values
+ * can't be serialized and always stay in memory. Pages with edited values also stay in memory, so edits
+ * are never lost because of spill file errors.
+ */
+public class ResultSetColumnStore {
+
+    private static final Log log = Log.getLog(ResultSetColumnStore.class);
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Bigger dictionaries don't save memory comparing to plain values
+    private static final int MAX_DICTIONARY_SIZE = PAGE_SIZE / 4;
+
+    private static final String SPILL_FOLDER = "resultset-spill"; //$NON-NLS-1$
+
+    private static class Page {
+        // Null if page is spilled to disk
+        @Nullable
+        ColumnData[] columns;
+        long spillOffset = -1;
+        int spillLength;
+        boolean modified = true;
+        // Page has edited values and must not be spilled
+        boolean pinned;
+
+        Page(@NotNull ColumnData[] columns) {
+            this.columns = columns;
+        }
+    }
+
+    private final int columnCount;
+    private final List<Page> pages = new ArrayList<>();
+    private int rowCount;
+
+    // Spilling. Zero means all pages are kept in memory
+    private int maxResidentPages;
+    private final Map<Page, Page> residentPages = new LinkedHashMap<>(16, 0.75f, true);
+    @Nullable
+    private final File spillFolder;
+    private File spillFile;
+    private FileChannel spillChannel;
+    private long spillFileLength;
+
+    public ResultSetColumnStore(int columnCount) {
+        this(columnCount, null);
+    }
+
+    @ForTest
+    public ResultSetColumnStore(int columnCount, @Nullable File spillFolder) {
+        this.columnCount = columnCount;
+        this.spillFolder = spillFolder;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Limits the number of rows kept in memory. Other rows are spilled to temporary file.
+     */
+    public synchronized void setMaxResidentRows(int maxResidentRows) {
+        if (maxResidentRows <= 0) {
+            maxResidentPages = 0;
+            return;
+        }
+        // Keep at least the page being filled and the page being read
+        maxResidentPages = Math.max(2, (maxResidentRows + PAGE_SIZE - 1) / PAGE_SIZE);
+        for (Page page : pages) {
+            if (page.columns != null && isSpillable(page)) {
+                residentPages.put(page, page);
+            }
+        }
+        evictPages();
+    }
+
+    /**
+     * Adds new row and returns its index in storage
+     */
+    public synchronized int addRow(@NotNull Object[] values) {
+        int rowIndex = rowCount;
+        if ((rowIndex & PAGE_MASK) == 0) {
+            ColumnData[] columns = new ColumnData[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = new NullColumn();
+            }
+            pages.add(new Page(columns));
+        }
+        rowCount++;
+        Page page;
+        try {
+            page = getResidentPage(rowIndex);
+        } catch (IOException e) {
+            // New page is always resident
+            throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < columnCount; i++) {
+            setPageValue(page, rowIndex & PAGE_MASK, i, i < values.length ? values[i] : null);
+        }
+        return rowIndex;
+    }
+
+    /**
+     * Returns value or {@link DBDValueError} if rows can't be read from spill file.
+     */
+    @Nullable
+    public synchronized Object getValue(int rowIndex, int columnIndex) {
+        Page page;
+        try {
+            page = getResidentPage(rowIndex);
+        } catch (IOException e) {
+            return new DBDValueError(e);
+        }
+        assert page.columns != null;
+        return page.columns[columnIndex].get(rowIndex & PAGE_MASK);
+    }
+
+    /**
+     * Changes value. Page of edited row is kept in memory since then.
+     *
+     * @throws IllegalStateException if rows can't be read from spill file
+     */
+    public synchronized void setValue(int rowIndex, int columnIndex, @Nullable Object value) {
+        Page page;
+        try {
+            page = getResidentPage(rowIndex);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't change value of row " + rowIndex, e);
+        }
+        assert page.columns != null;
+        setPageValue(page, rowIndex & PAGE_MASK, columnIndex, value);
+        page.pinned = true;
+        residentPages.remove(page);
+    }
+
+    @NotNull
+    synchronized Object[] getRow(int rowIndex) {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = getValue(rowIndex, i);
+        }
+        return values;
+    }
+
+    synchronized void releaseRow(int rowIndex) {
+        // Only plain objects may hold resources (LOBs, cursors, etc). Such pages are never spilled.
+        Page page = pages.get(rowIndex >> PAGE_SHIFT);
+        if (page.columns != null) {
+            for (ColumnData column : page.columns) {
+                if (column instanceof ObjectColumn) {
+                    DBUtils.releaseValue(column.get(rowIndex & PAGE_MASK));
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes spill file. Spilled rows are not available after dispose.
+     * Resident rows are kept because they may be released later.
+     */
+    public synchronized void dispose() {
+        closeSpillFile();
+        maxResidentPages = 0;
+        residentPages.clear();
+    }
+
+    private void setPageValue(@NotNull Page page, int pageRow, int columnIndex, @Nullable Object value) {
+        assert page.columns != null;
+        ColumnData column = page.columns[columnIndex];
+        if (!column.set(pageRow, value)) {
+            // Column can't keep this value. Switch to a wider storage
+            if (column instanceof NullColumn) {
+                column = createColumn(value);
+            } else {
+                ObjectColumn objectColumn = new ObjectColumn();
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    objectColumn.set(i, column.get(i));
+                }
+                column = objectColumn;
+            }
+            if (!column.set(pageRow, value)) {
+                throw new IllegalStateException("Can't store value of type " + value.getClass().getName());
+            }
+            page.columns[columnIndex] = column;
+        }
+        page.modified = true;
+    }
+
+    @NotNull
+    private Page getResidentPage(int rowIndex) throws IOException {
+        Page page = pages.get(rowIndex >> PAGE_SHIFT);
+        if (page.columns == null) {
+            if (spillChannel == null) {
+                throw new IOException("Result set rows are not available after dispose");
+            }
+            readPage(page);
+        }
+        if (maxResidentPages > 0) {
+            if (isSpillable(page)) {
+                residentPages.put(page, page);
+                evictPages();
+            } else {
+                // Pages with plain objects are pinned in memory
+                residentPages.remove(page);
+            }
+        }
+        return page;
+    }
+
+    private void evictPages() {
+        if (residentPages.size() <= maxResidentPages) {
+            return;
+        }
+        Page lastPage = pages.get(pages.size() - 1);
+        for (Iterator<Page> iter = residentPages.keySet().iterator(); iter.hasNext() && residentPages.size() > maxResidentPages; ) {
+            Page page = iter.next();
+            if (page == lastPage || !isSpillable(page)) {
+                continue;
+            }
+            if (page.modified || page.spillOffset < 0) {
+                if (!writePage(page)) {
+                    return;
+                }
+            }
+            page.columns = null;
+            iter.remove();
+        }
+    }
+
+    private static boolean isSpillable(@NotNull Page page) {
+        if (page.pinned) {
+            return false;
+        }
+        if (page.columns != null) {
+            for (ColumnData column : page.columns) {
+                if (column instanceof ObjectColumn) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean writePage(@NotNull Page page) {
+        assert page.columns != null;
+        try {
+            if (spillChannel == null) {
+                File spillFolder = this.spillFolder != null ?
+                    this.spillFolder : DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), SPILL_FOLDER);
+                spillFile = File.createTempFile("rows", ".bin", spillFolder); //$NON-NLS-1$ //$NON-NLS-2$
+                spillFile.deleteOnExit();
+                spillChannel = FileChannel.open(spillFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                for (ColumnData column : page.columns) {
+                    out.writeByte(column.getTypeCode());
+                    column.write(out);
+                }
+            }
+            byte[] data = buffer.toByteArray();
+            // Append only. Previous image of modified page is just left in file
+            ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+            long offset = spillFileLength;
+            while (byteBuffer.hasRemaining()) {
+                offset += spillChannel.write(byteBuffer, offset);
+            }
+            page.spillOffset = spillFileLength;
+            page.spillLength = data.length;
+            page.modified = false;
+            spillFileLength = offset;
+            return true;
+        } catch (IOException e) {
+            log.warn("Error writing result set rows to spill file. Keep all rows in memory.", e);
+            maxResidentPages = 0;
+            residentPages.clear();
+            return false;
+        }
+    }
+
+    private void readPage(@NotNull Page page) throws IOException {
+        try {
+            ByteBuffer byteBuffer = ByteBuffer.allocate(page.spillLength);
+            long offset = page.spillOffset;
+            while (byteBuffer.hasRemaining()) {
+                int count = spillChannel.read(byteBuffer, offset);
+                if (count < 0) {
+                    throw new EOFException();
+                }
+                offset += count;
+            }
+            ColumnData[] columns = new ColumnData[columnCount];
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(byteBuffer.array()))) {
+                for (int i = 0; i < columnCount; i++) {
+                    columns[i] = createColumn(in.readByte());
+                    columns[i].read(in);
+                }
+            }
+            page.columns = columns;
+            page.modified = false;
+        } catch (IOException e) {
+            log.error("Error reading result set rows from spill file", e);
+            throw e;
+        }
+    }
+
+    private void closeSpillFile() {
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            if (!spillFile.delete()) {
+                log.debug("Can't delete spill file " + spillFile.getAbsolutePath());
+            }
+            spillFile = null;
+        }
+        spillFileLength = 0;
+    }
+
+    @NotNull
+    private static ColumnData createColumn(@NotNull Object value) {
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Long.class || valueClass == Integer.class || valueClass == Short.class || valueClass == Byte.class) {
+            return new LongColumn(valueClass);
+        } else if (valueClass == Double.class || valueClass == Float.class) {
+            return new DoubleColumn(valueClass);
+        } else if (valueClass == BigDecimal.class) {
+            return new DecimalColumn();
+        } else if (valueClass == Boolean.class) {
+            return new BooleanColumn();
+        } else if (valueClass == Timestamp.class) {
+            return new TimestampColumn();
+        } else if (valueClass == java.util.Date.class || valueClass == java.sql.Date.class || valueClass == Time.class) {
+            return new DateColumn(valueClass);
+        } else if (valueClass == String.class) {
+            return new StringColumn();
+        } else {
+            return new ObjectColumn();
+        }
+    }
+
+    @NotNull
+    private static ColumnData createColumn(byte typeCode) throws IOException {
+        switch (typeCode) {
+            case TYPE_NULL: return new NullColumn();
+            case TYPE_LONG: return new LongColumn(Long.class);
+            case TYPE_INTEGER: return new LongColumn(Integer.class);
+            case TYPE_SHORT: return new LongColumn(Short.class);
+            case TYPE_BYTE: return new LongColumn(Byte.class);
+            case TYPE_DOUBLE: return new DoubleColumn(Double.class);
+            case TYPE_FLOAT: return new DoubleColumn(Float.class);
+            case TYPE_DECIMAL: return new DecimalColumn();
+            case TYPE_BOOLEAN: return new BooleanColumn();
+            case TYPE_TIMESTAMP: return new TimestampColumn();
+            case TYPE_DATE: return new DateColumn(java.util.Date.class);
+            case TYPE_SQL_DATE: return new DateColumn(java.sql.Date.class);
+            case TYPE_SQL_TIME: return new DateColumn(Time.class);
+            case TYPE_STRING: return new StringColumn();
+            default:
+                throw new IOException("Bad column type code: " + typeCode);
+        }
+    }
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_SHORT = 3;
+    private static final byte TYPE_BYTE = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_DECIMAL = 7;
+    private static final byte TYPE_BOOLEAN = 8;
+    private static final byte TYPE_TIMESTAMP = 9;
+    private static final byte TYPE_DATE = 10;
+    private static final byte TYPE_SQL_DATE = 11;
+    private static final byte TYPE_SQL_TIME = 12;
+    private static final byte TYPE_STRING = 13;
+
+    /**
+     * Values of a single column in a page
+     */
+    private abstract static class ColumnData {
+        @Nullable
+        abstract Object get(int pageRow);
+
+        /**
+         * Stores value. Returns false if value can't be stored in this column.
+         */
+        abstract boolean set(int pageRow, @Nullable Object value);
+
+        abstract byte getTypeCode();
+
+        abstract void write(@NotNull DataOutput out) throws IOException;
+
+        abstract void read(@NotNull DataInput in) throws IOException;
+    }
+
+    /**
+     * Column without any values yet
+     */
+    private static class NullColumn extends ColumnData {
+        @Override
+        Object get(int pageRow) {
+            return null;
+        }
+
+        @Override
+        boolean set(int pageRow, Object value) {
+            return value == null;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return TYPE_NULL;
+        }
+
+        @Override
+        void write(@NotNull DataOutput out) {
+        }
+
+        @Override
+        void read(@NotNull DataInput in) {
+        }
+    }
+
+    private static class ObjectColumn extends ColumnData {
+        private final Object[] data = new Object[PAGE_SIZE];
+
+        @Override
+        Object get(int pageRow) {
+            return data[pageRow];
+        }
+
+        @Override
+        boolean set(int pageRow, Object value) {
+            data[pageRow] = value;
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            throw new IllegalStateException("Object values can't be serialized");
+        }
+
+        @Override
+        void write(@NotNull DataOutput out) {
+            throw new IllegalStateException("Object values can't be serialized");
+        }
+
+        @Override
+        void read(@NotNull DataInput in) {
+            throw new IllegalStateException("Object values can't be serialized");
+        }
+    }
+
+    /**
+     * Column of primitive values. Nulls are kept in a bitmap.
+     */
+    private abstract static class PrimitiveColumn extends ColumnData {
+        private BitSet notNulls = new BitSet(PAGE_SIZE);
+
+        @Override
+        Object get(int pageRow) {
+            return notNulls.get(pageRow) ? getPrimitive(pageRow) : null;
+        }
+
+        @Override
+        boolean set(int pageRow, Object value) {
+            if (value == null) {
+                notNulls.clear(pageRow);
+                return true;
+            }
+            if (!setPrimitive(pageRow, value)) {
+                return false;
+            }
+            notNulls.set(pageRow);
+            return true;
+        }
+
+        @Override
+        void write(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, notNulls.toLongArray());
+            writePrimitives(out);
+        }
+
+        @Override
+        void read(@NotNull DataInput in) throws IOException {
+            notNulls = BitSet.valueOf(readLongs(in));
+            readPrimitives(in);
+        }
+
+        @NotNull
+        abstract Object getPrimitive(int pageRow);
+
+        abstract boolean setPrimitive(int pageRow, @NotNull Object value);
+
+        abstract void writePrimitives(@NotNull DataOutput out) throws IOException;
+
+        abstract void readPrimitives(@NotNull DataInput in) throws IOException;
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private long[] data = new long[PAGE_SIZE];
+
+        LongColumn(Class<?> valueClass) {
+            this.valueClass = valueClass;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            long value = data[pageRow];
+            if (valueClass == Integer.class) {
+                return (int) value;
+            } else if (valueClass == Short.class) {
+                return (short) value;
+            } else if (valueClass == Byte.class) {
+                return (byte) value;
+            }
+            return value;
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            data[pageRow] = ((Number) value).longValue();
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            if (valueClass == Integer.class) {
+                return TYPE_INTEGER;
+            } else if (valueClass == Short.class) {
+                return TYPE_SHORT;
+            } else if (valueClass == Byte.class) {
+                return TYPE_BYTE;
+            }
+            return TYPE_LONG;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, data);
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            data = readLongs(in);
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private final double[] data = new double[PAGE_SIZE];
+
+        DoubleColumn(Class<?> valueClass) {
+            this.valueClass = valueClass;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            double value = data[pageRow];
+            if (valueClass == Float.class) {
+                return (float) value;
+            }
+            return value;
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            data[pageRow] = ((Number) value).doubleValue();
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return valueClass == Float.class ? TYPE_FLOAT : TYPE_DOUBLE;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            for (double value : data) {
+                out.writeDouble(value);
+            }
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                data[i] = in.readDouble();
+            }
+        }
+    }
+
+    /**
+     * Decimals which unscaled value fits into long
+     */
+    private static class DecimalColumn extends PrimitiveColumn {
+        private long[] unscaledValues = new long[PAGE_SIZE];
+        private final int[] scales = new int[PAGE_SIZE];
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            return BigDecimal.valueOf(unscaledValues[pageRow], scales[pageRow]);
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != BigDecimal.class) {
+                return false;
+            }
+            BigInteger unscaledValue = ((BigDecimal) value).unscaledValue();
+            if (unscaledValue.bitLength() >= Long.SIZE) {
+                return false;
+            }
+            unscaledValues[pageRow] = unscaledValue.longValue();
+            scales[pageRow] = ((BigDecimal) value).scale();
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return TYPE_DECIMAL;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, unscaledValues);
+            for (int scale : scales) {
+                out.writeInt(scale);
+            }
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            unscaledValues = readLongs(in);
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                scales[i] = in.readInt();
+            }
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+        private BitSet data = new BitSet(PAGE_SIZE);
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            return data.get(pageRow);
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (!(value instanceof Boolean)) {
+                return false;
+            }
+            data.set(pageRow, (Boolean) value);
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return TYPE_BOOLEAN;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, data.toLongArray());
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            data = BitSet.valueOf(readLongs(in));
+        }
+    }
+
+    private static class TimestampColumn extends PrimitiveColumn {
+        private long[] times = new long[PAGE_SIZE];
+        private final int[] nanos = new int[PAGE_SIZE];
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            Timestamp timestamp = new Timestamp(times[pageRow]);
+            timestamp.setNanos(nanos[pageRow]);
+            return timestamp;
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != Timestamp.class) {
+                return false;
+            }
+            times[pageRow] = ((Timestamp) value).getTime();
+            nanos[pageRow] = ((Timestamp) value).getNanos();
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return TYPE_TIMESTAMP;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, times);
+            for (int nano : nanos) {
+                out.writeInt(nano);
+            }
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            times = readLongs(in);
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                nanos[i] = in.readInt();
+            }
+        }
+    }
+
+    private static class DateColumn extends PrimitiveColumn {
+        private final Class<?> valueClass;
+        private long[] times = new long[PAGE_SIZE];
+
+        DateColumn(Class<?> valueClass) {
+            this.valueClass = valueClass;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            long time = times[pageRow];
+            if (valueClass == java.sql.Date.class) {
+                return new java.sql.Date(time);
+            } else if (valueClass == Time.class) {
+                return new Time(time);
+            }
+            return new java.util.Date(time);
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            times[pageRow] = ((java.util.Date) value).getTime();
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            if (valueClass == java.sql.Date.class) {
+                return TYPE_SQL_DATE;
+            } else if (valueClass == Time.class) {
+                return TYPE_SQL_TIME;
+            }
+            return TYPE_DATE;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            writeLongs(out, times);
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            times = readLongs(in);
+        }
+    }
+
+    /**
+     * Dictionary encoded strings
+     */
+    private static class StringColumn extends PrimitiveColumn {
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private final int[] codes = new int[PAGE_SIZE];
+
+        @NotNull
+        @Override
+        Object getPrimitive(int pageRow) {
+            return dictionary.get(codes[pageRow]);
+        }
+
+        @Override
+        boolean setPrimitive(int pageRow, @NotNull Object value) {
+            if (value.getClass() != String.class) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    // Too many distinct values, dictionary doesn't save memory anymore
+                    return false;
+                }
+                code = dictionary.size();
+                dictionary.add((String) value);
+                dictionaryIndex.put((String) value, code);
+            }
+            codes[pageRow] = code;
+            return true;
+        }
+
+        @Override
+        byte getTypeCode() {
+            return TYPE_STRING;
+        }
+
+        @Override
+        void writePrimitives(@NotNull DataOutput out) throws IOException {
+            out.writeInt(dictionary.size());
+            for (String value : dictionary) {
+                // writeUTF is limited to 64K bytes
+                byte[] bytes = value.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (int code : codes) {
+                out.writeInt(code);
+            }
+        }
+
+        @Override
+        void readPrimitives(@NotNull DataInput in) throws IOException {
+            int dictionarySize = in.readInt();
+            for (int i = 0; i < dictionarySize; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                String value = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+                dictionaryIndex.put(value, dictionary.size());
+                dictionary.add(value);
+            }
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                codes[i] = in.readInt();
+            }
+        }
+    }
+
+    private static void writeLongs(@NotNull DataOutput out, @NotNull long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    @NotNull
+    private static long[] readLongs(@NotNull DataInput in) throws IOException {
+        long[] values = new long[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+}
@@ -42,12 +42,17 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
     private static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
+    // Number of rows passed to the model at once in chunked fetch
+    private static final int FETCH_CHUNK_SIZE = 10000;
+
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
     private List<Object[]> rows = new ArrayList<>();
     private boolean hasMoreData;
     private boolean nextSegmentRead;
+    private boolean chunkedFetch;
+    private int appendedRowCount;
     private long offset;
     private long maxRows;
 
@@ -76,6 +81,14 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         this.nextSegmentRead = nextSegmentRead;
     }
 
+    /**
+     * Appends fetched rows to the model by chunks instead of holding all of them until the end of fetch.
+     * Works only for next segment read.
+     */
+    void setChunkedFetch(boolean chunkedFetch) {
+        this.chunkedFetch = chunkedFetch;
+    }
+
     void setFocusRow(int focusRow) {
         this.focusRow = focusRow;
     }
@@ -93,6 +106,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         throws DBCException {
         this.errorList.clear();
         this.rows.clear();
+        this.appendedRowCount = 0;
         this.offset = offset;
         this.maxRows = maxRows;
 
@@ -111,6 +125,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
         }
+        if (metaColumns != null) {
+            DBExecUtils.setResultSetFetchAttributes(resultSet, metaColumns);
+        }
     }
 
     @Override
@@ -149,6 +166,18 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+
+        if (chunkedFetch && nextSegmentRead && rows.size() >= FETCH_CHUNK_SIZE) {
+            final List<Object[]> chunk = rows;
+            rows = new ArrayList<>();
+            // Model is read by UI thread, so change it there. Also show fetched rows right away.
+            UIUtils.syncExec(() -> {
+                appendRows(chunk);
+                if (!resultSetViewer.getControl().isDisposed()) {
+                    resultSetViewer.getActivePresentation().refreshData(false, true, true);
+                }
+            });
+        }
     }
 
     @Override
@@ -179,11 +208,14 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             resultSetViewer.setData(tmpRows, focusRow);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            if (chunkedFetch) {
+                UIUtils.syncExec(() -> appendRows(tmpRows));
+            } else {
+                appendRows(tmpRows);
+            }
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && (nextSegmentRead ? appendedRowCount : tmpRows.size()) >= maxRows;
         monitor.done();
 
         UIUtils.asyncExec(() -> {
@@ -199,6 +231,14 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         });
     }
 
+    private void appendRows(List<Object[]> chunk) {
+        // Old rows are reset only by the first chunk
+        boolean resetOldRows = appendedRowCount == 0 &&
+            getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
+        resultSetViewer.appendData(chunk, resetOldRows);
+        appendedRowCount += chunk.size();
+    }
+
     private DBSDataContainer getDataContainer() {
         return targetDataContainer != null ? targetDataContainer : resultSetViewer.getDataContainer();
     }
@@ -206,6 +246,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     @Override
     public void close() {
         nextSegmentRead = false;
+        chunkedFetch = false;
 
         attrErrors.clear();
         rows = new ArrayList<>();
@@ -58,6 +58,10 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Columnar storage of fetched rows. Used only if columnar storage is enabled
+    private ResultSetColumnStore columnStore;
+    private boolean columnarStorage;
+    private int maxResidentRows;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -338,7 +342,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -356,7 +360,17 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(attribute, attributes, row.values);
+        if (attribute.isCustom()) {
+            return DBUtils.getAttributeValue(attribute, attributes, row.getValues());
+        }
+        // Read values directly from row storage
+        int rootIndex = attribute.getLevel() == 0 ? attribute.getOrdinalPosition() : attribute.getTopParent().getOrdinalPosition();
+        if (rootIndex >= row.getValueCount()) {
+            log.debug("Bad attribute '" + attribute.getName() + "' index: " + rootIndex + " is out of row values' bounds (" + row.getValueCount() + ")");
+            return null;
+        }
+        Object rootValue = row.getValue(rootIndex);
+        return attribute.getLevel() == 0 ? rootValue : DBUtils.getNestedAttributeValue(attribute, rootValue);
     }
 
     /**
@@ -379,7 +393,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -485,7 +499,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -799,16 +813,49 @@ public class ResultSetModel {
         }
     }
 
+    boolean isColumnarStorage() {
+        return columnarStorage;
+    }
+
+    /**
+     * Enables columnar storage of fetched rows. Affects only rows which will be fetched later.
+     */
+    void setColumnarStorage(boolean columnarStorage) {
+        this.columnarStorage = columnarStorage;
+    }
+
+    /**
+     * Limits the number of rows kept in memory. Other rows are spilled to temporary file.
+     * Rows are spilled only with columnar storage. Zero means that all rows are kept in memory.
+     */
+    void setMaxResidentRows(int maxResidentRows) {
+        this.maxResidentRows = maxResidentRows;
+        if (columnStore != null) {
+            columnStore.setMaxResidentRows(maxResidentRows);
+        }
+    }
+
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            disposeColumnStore();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+            Object[] rowValues = rows.get(i);
+            if (columnarStorage && columnStore == null) {
+                columnStore = new ResultSetColumnStore(rowValues.length);
+                columnStore.setMaxResidentRows(maxResidentRows);
+            }
+            if (columnarStorage && rowValues.length == columnStore.getColumnCount()) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, columnStore, columnStore.addRow(rowValues)));
+            } else {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, rowValues));
+            }
         }
         curRows.addAll(newRows);
 
@@ -818,12 +865,20 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.disposeColumnStore();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
         this.hasData = false;
     }
 
+    private void disposeColumnStore() {
+        if (columnStore != null) {
+            columnStore.dispose();
+            columnStore = null;
+        }
+    }
+
     public boolean hasData() {
         return hasData;
     }
@@ -52,9 +52,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in columnar storage
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetColumnStore store;
+    private int storeIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -71,11 +74,62 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnStore store, int storeIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.store = store;
+        this.storeIndex = storeIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns all row values.
+     * For rows kept in columnar storage new array is created on each call, so changes in it are not reflected in row.
+     * Use {@link #getValue(int)} and {@link #setValue(int, Object)} to access particular values.
+     */
     @NotNull
     public Object[] getValues() {
+        if (store != null) {
+            return store.getRow(storeIndex);
+        }
+        assert values != null;
         return values;
     }
 
+    public int getValueCount() {
+        if (store != null) {
+            return store.getColumnCount();
+        }
+        assert values != null;
+        return values.length;
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        if (store != null) {
+            return store.getValue(storeIndex, index);
+        }
+        assert values != null;
+        return values[index];
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        if (store != null) {
+            store.setValue(storeIndex, index, value);
+        } else {
+            assert values != null;
+            values[index] = value;
+        }
+    }
+
+    /**
+     * Replaces all row values. Row is detached from columnar storage.
+     */
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.store = null;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -132,8 +186,12 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (store != null) {
+            store.releaseRow(storeIndex);
+        } else if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -2223,6 +2223,8 @@ public class ResultSetViewer extends Viewer
      */
     void setMetaData(@NotNull DBCResultSet resultSet, @NotNull DBDAttributeBinding[] attributes)
     {
+        model.setColumnarStorage(getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE));
+        model.setMaxResidentRows(0);
         model.setMetaData(resultSet, attributes);
         activePresentation.clearMetaData();
     }
@@ -3767,6 +3769,14 @@ public class ResultSetViewer extends Viewer
             dataReceiver.setHasMoreData(false);
             dataReceiver.setNextSegmentRead(true);
 
+            int memoryRows = getPreferenceStore().getInt(ResultSetPreferences.RESULT_SET_FETCH_ALL_MEMORY_ROWS);
+            if (memoryRows > 0 && getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE)) {
+                // Keep only a window of rows in memory, others go to spill file.
+                // Spilling works only with columnar storage which is enabled explicitly.
+                model.setMaxResidentRows(memoryRows);
+                dataReceiver.setChunkedFetch(true);
+            }
+
             runDataPump(
                 dataContainer,
                 model.getDataFilter(),
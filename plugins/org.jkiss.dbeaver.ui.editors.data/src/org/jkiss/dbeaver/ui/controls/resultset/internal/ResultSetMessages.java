@@ -323,6 +323,12 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_read_metadata_tip;
     public static String pref_page_database_resultsets_label_read_references_tip;
     public static String pref_page_database_resultsets_label_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_adaptive_fetch_size;
+    public static String pref_page_database_resultsets_label_adaptive_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_columnar_storage;
+    public static String pref_page_database_resultsets_label_columnar_storage_tip;
+    public static String pref_page_database_resultsets_label_fetch_all_memory_rows;
+    public static String pref_page_database_resultsets_label_fetch_all_memory_rows_tip;
 
     public static String pref_page_content_cache_clob;
     public static String pref_page_content_cache_blob;
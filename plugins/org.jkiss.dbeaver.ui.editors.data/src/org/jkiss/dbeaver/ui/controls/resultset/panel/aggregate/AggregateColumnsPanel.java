@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionApproximate;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -60,6 +61,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
+    private static final DecimalFormat ERROR_FORMAT = new DecimalFormat("0.##%");
 
     private IResultSetPresentation presentation;
     private Tree aggregateTable;
@@ -249,6 +251,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
         List<AggregateFunctionDescriptor> functions = enabledFunctions;
         Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
+        // Exact median, mode and distinct count keep all values. Use approximation for big selections.
+        int approximateThreshold = presentation.getController().getPreferenceStore().getInt(ResultSetPreferences.RS_AGGREGATE_APPROXIMATE_THRESHOLD);
+        boolean approximate = approximateThreshold > 0 && values.size() > approximateThreshold;
         for (AggregateFunctionDescriptor funcDesc : functions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
@@ -261,6 +266,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             }
             try {
                 IAggregateFunction func = funcDesc.createFunction();
+                if (approximate && func instanceof IAggregateFunctionApproximate) {
+                    ((IAggregateFunctionApproximate) func).setApproximate(true);
+                }
                 funcMap.put(func, funcItem);
             } catch (DBException e) {
                 log.error(e);
@@ -292,6 +300,12 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 } else {
                     strValue = result.toString();
                 }
+                if (strValue != null && func instanceof IAggregateFunctionApproximate) {
+                    double error = ((IAggregateFunctionApproximate) func).getRelativeError();
+                    if (error > 0) {
+                        strValue = "~" + strValue + " (\u00B1" + ERROR_FORMAT.format(error) + ")";
+                    }
+                }
                 if (strValue != null) {
                     treeItem.setText(1, strValue);
                 }
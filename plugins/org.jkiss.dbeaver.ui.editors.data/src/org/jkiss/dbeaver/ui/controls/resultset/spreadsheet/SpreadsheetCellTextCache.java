@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.spreadsheet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of formatted cell values.
+ *
+ * Grid formats each visible cell on every repaint, and date/number formatting is expensive.
+ * Entries keep the formatted value and are valid only while the cell value is equal to it,
+ * so edits don't need explicit invalidation. Only immutable values are cached.
+ * Cache must be cleared when data formatting settings change.
+ */
+class SpreadsheetCellTextCache {
+
+    private static final int MAX_ENTRIES = 100000;
+
+    private static class Entry {
+        private final Object value;
+        private final DBDDisplayFormat format;
+        private final String text;
+
+        Entry(Object value, DBDDisplayFormat format, String text) {
+            this.value = value;
+            this.format = format;
+            this.text = text;
+        }
+    }
+
+    // Rows and attributes are compared by identity. Rows are re-created on data refresh.
+    private final Map<DBDAttributeBinding, Map<ResultSetRow, Entry>> entries = new IdentityHashMap<>();
+    private int size;
+
+    static boolean isCacheable(@Nullable Object value) {
+        return value == null ||
+            value instanceof String ||
+            value instanceof Number ||
+            value instanceof Boolean ||
+            value instanceof Date ||
+            value instanceof TemporalAccessor;
+    }
+
+    @Nullable
+    String getText(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable Object value, @NotNull DBDDisplayFormat format) {
+        Map<ResultSetRow, Entry> attrEntries = entries.get(attribute);
+        if (attrEntries == null) {
+            return null;
+        }
+        Entry entry = attrEntries.get(row);
+        if (entry == null || entry.format != format || !Objects.equals(entry.value, value)) {
+            return null;
+        }
+        return entry.text;
+    }
+
+    void putText(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row, @Nullable Object value, @NotNull DBDDisplayFormat format, @NotNull String text) {
+        if (size >= MAX_ENTRIES) {
+            clear();
+        }
+        if (entries.computeIfAbsent(attribute, a -> new IdentityHashMap<>()).put(row, new Entry(value, format, text)) == null) {
+            size++;
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+}
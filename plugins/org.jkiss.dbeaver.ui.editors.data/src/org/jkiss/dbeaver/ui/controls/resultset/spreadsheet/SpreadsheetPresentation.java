@@ -143,6 +143,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     private BooleanStyleSet booleanStyles;
     private int rowBatchSize;
     private IValueEditor activeInlineEditor;
+    private final SpreadsheetCellTextCache cellTextCache = new SpreadsheetCellTextCache();
 
     private int highlightScopeFirstLine;
     private int highlightScopeLastLine;
@@ -248,6 +249,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     {
         closeEditors();
         clearMetaData();
+        cellTextCache.clear();
 
         UIUtils.dispose(this.cellHeaderSelectionBackground);
         super.dispose();
@@ -840,6 +842,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
         spreadsheet.setColumnScrolling(!getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_USE_SMOOTH_SCROLLING));
 
+        cellTextCache.clear();
         spreadsheet.setRedraw(false);
         try {
             spreadsheet.refreshData(refreshMetadata, keepState, false);
@@ -850,6 +853,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     @Override
     public void formatData(boolean refreshData) {
+        cellTextCache.clear();
         spreadsheet.refreshData(false, true, false);
     }
 
@@ -2034,11 +2038,23 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                         return "[" + ((DBDComposite) value).getDataType().getName() + "]";
                     }
                 }
+                DBDDisplayFormat format = getValueRenderFormat(attr, value);
+                boolean cacheable = SpreadsheetCellTextCache.isCacheable(value);
+                if (cacheable) {
+                    String cachedText = cellTextCache.getText(attr, row, value, format);
+                    if (cachedText != null) {
+                        return cachedText;
+                    }
+                }
                 try {
-                    return attr.getValueRenderer().getValueDisplayString(
+                    String text = attr.getValueRenderer().getValueDisplayString(
                         attr.getAttribute(),
                         value,
-                        getValueRenderFormat(attr, value));
+                        format);
+                    if (cacheable && text != null) {
+                        cellTextCache.putText(attr, row, value, format, text);
+                    }
+                    return text;
                 } catch (Exception e) {
                     return new DBDValueError(e);
                 }
@@ -524,6 +524,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         if (viewerConfiguration != null) {
             viewerConfiguration.saveFoldingState();
         }
+        if (parserContext != null) {
+            parserContext.dispose();
+            parserContext = null;
+        }
 
         super.dispose();
     }
@@ -622,7 +626,13 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
         ruleManager.loadRules(getDataSource(), SQLEditorBase.isBigScript(getEditorInput()));
         ruleScanner.refreshRules(getDataSource(), ruleManager);
+        if (parserContext != null) {
+            parserContext.dispose();
+        }
         parserContext = new SQLParserContext(getDataSource(), syntaxManager, ruleManager, document != null ? document : new Document());
+        if (document != null) {
+            parserContext.enableStatementIndex();
+        }
 
         if (document instanceof IDocumentExtension3) {
             IDocumentPartitioner partitioner = new FastPartitioner(
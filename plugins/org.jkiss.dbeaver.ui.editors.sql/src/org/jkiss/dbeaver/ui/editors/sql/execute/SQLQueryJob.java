@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.ui.editors.sql.execute;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.dialogs.MessageDialog;
@@ -44,6 +45,7 @@ import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.sql.exec.SQLScriptParallelState;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -107,6 +109,8 @@ public class SQLQueryJob extends DataSourceJob
     private int fetchSize;
     private long fetchFlags;
     private SQLQueryResult curResult;
+    // Set only in parallel script workers
+    private SQLScriptParallelState parallelState;
 
     public SQLQueryJob(
         @NotNull IWorkbenchPartSite partSite,
@@ -180,11 +184,23 @@ public class SQLQueryJob extends DataSourceJob
     @Override
     protected IStatus run(DBRProgressMonitor monitor)
     {
+        if (parallelState != null) {
+            // Parallel script worker. Script events are reported by the owner job.
+            RuntimeUtils.setThreadName("SQL script worker");
+            executeScriptPart(monitor);
+            return Status.OK_STATUS;
+        }
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
         skipConfirmation = false;
         monitor.beginTask("Execute SQL script", queries.size());
         try {
+            if (isParallelExecutionAllowed() && executeScriptParallel(monitor)) {
+                return new Status(
+                    Status.OK,
+                    SQLEditorActivator.PLUGIN_ID,
+                    "SQL job completed");
+            }
             DBCExecutionContext context = getExecutionContext();
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
             DBCExecutionPurpose purpose = queries.size() > 1 ? DBCExecutionPurpose.USER_SCRIPT : DBCExecutionPurpose.USER;
@@ -318,6 +334,245 @@ public class SQLQueryJob extends DataSourceJob
         }
     }
 
+    /**
+     * Parallel execution is requested by @parallel command in the beginning of script.
+     * It is possible only for plain queries which do not need any user interaction and only in auto-commit mode:
+     * queries are executed in separate connections, so their changes can't be committed or rolled back together.
+     */
+    private boolean isParallelExecutionAllowed() {
+        DBPDataSourceContainer container = getDataSourceContainer();
+        if (dataFilter != null || !SQLScriptParallelState.isParallelScript(queries)) {
+            return false;
+        }
+        if (!container.getPreferenceStore().getBoolean(SQLPreferenceConstants.SCRIPT_PARALLEL_EXECUTION) ||
+            container.getConnectionConfiguration().getConnectionType().isConfirmExecute())
+        {
+            log.info("Parallel script execution is disabled for connection '" + container.getName() + "'. Script is executed sequentially.");
+            return false;
+        }
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit() && commitType != SQLScriptCommitType.AUTOCOMMIT) {
+            log.info("Parallel script execution is possible only in auto-commit mode. Script is executed sequentially.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Executes script queries in several isolated contexts (all in auto-commit mode).
+     * Each context is served by a separate worker job. Workers take the next query from the script
+     * until all queries are executed. Result tabs are allocated in script order before execution.
+     *
+     * @return false if isolated contexts can't be opened. Script must be executed in regular mode then.
+     */
+    private boolean executeScriptParallel(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBCExecutionContext mainContext = getExecutionContext();
+        int contextCount = Math.min(
+            queries.size() - 1,
+            Math.max(1, getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.SCRIPT_PARALLEL_CONTEXTS)));
+
+        List<DBCExecutionContext> contexts = new ArrayList<>(contextCount);
+        try {
+            monitor.subTask("Open execution contexts");
+            for (int i = 0; i < contextCount; i++) {
+                DBCExecutionContext workerContext = null;
+                try {
+                    workerContext = mainContext.getOwnerInstance().openIsolatedContext(monitor, "SQL script worker", mainContext);
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(workerContext);
+                    if (txnManager != null && !txnManager.isAutoCommit()) {
+                        txnManager.setAutoCommit(monitor, true);
+                    }
+                    contexts.add(workerContext);
+                } catch (DBException e) {
+                    log.debug("Can't open isolated context for parallel script execution: " + e.getMessage());
+                    if (workerContext != null) {
+                        workerContext.close();
+                    }
+                    break;
+                }
+            }
+            if (contexts.isEmpty()) {
+                return false;
+            }
+
+            try (DBCSession session = mainContext.openSession(monitor, DBCExecutionPurpose.USER_SCRIPT, "SQL Query")) {
+                if (session.isLoggingEnabled()) {
+                    QMUtils.getDefaultHandler().handleScriptBegin(session);
+                }
+                if (listener != null) {
+                    try {
+                        listener.onStartScript();
+                    } catch (Exception e) {
+                        log.error(e);
+                    }
+                }
+                // @parallel command
+                executeSingleQuery(session, queries.get(0), true);
+                monitor.worked(1);
+
+                // Allocate result tabs in script order. Only queries which return results get their tabs.
+                int[] resultTabs = new int[queries.size()];
+                DBDDataReceiver[] dataReceivers = new DBDDataReceiver[queries.size()];
+                SQLDialect dialect = mainContext.getDataSource().getSQLDialect();
+                resultSetNumber = 0;
+                for (int i = 0; i < queries.size(); i++) {
+                    resultTabs[i] = -1;
+                    SQLScriptElement query = queries.get(i);
+                    if (fetchResultSets && resultsConsumer != null && query instanceof SQLQuery &&
+                        SQLSemanticProcessor.isSelectQuery(dialect, query.getText()))
+                    {
+                        dataReceivers[i] = resultsConsumer.getDataReceiver((SQLQuery) query, resultSetNumber);
+                        resultTabs[i] = resultSetNumber++;
+                    }
+                }
+
+                SQLScriptParallelState parallelState = new SQLScriptParallelState(queries.size());
+                SQLQueryListener workerListener = listener == null ? null : new SynchronizedQueryListener(listener);
+                List<SQLQueryJob> workers = new ArrayList<>();
+                for (DBCExecutionContext workerContext : contexts) {
+                    SQLQueryJob worker = new SQLQueryJob(
+                        partSite, getName(), workerContext, dataContainer, queries, scriptContext,
+                        new ParallelResultsConsumer(resultTabs, dataReceivers),
+                        workerListener);
+                    worker.parallelState = parallelState;
+                    worker.commitType = SQLScriptCommitType.AUTOCOMMIT;
+                    worker.errorHandling = errorHandling;
+                    worker.rsOffset = rsOffset;
+                    worker.rsMaxRows = rsMaxRows;
+                    worker.fetchSize = fetchSize;
+                    worker.fetchFlags = fetchFlags;
+                    worker.skipConfirmation = true;
+                    // Worker jobs are shown in progress view. Owner job shows the overall progress.
+                    worker.setUser(false);
+                    workers.add(worker);
+                }
+                for (SQLQueryJob worker : workers) {
+                    worker.schedule();
+                }
+                waitForWorkers(monitor, parallelState, workers);
+
+                for (SQLQueryJob worker : workers) {
+                    statistics.accumulate(worker.statistics);
+                    if (lastError == null && worker.lastError != null) {
+                        lastError = worker.lastError;
+                    }
+                    if (worker.lastGoodQuery != null) {
+                        lastGoodQuery = worker.lastGoodQuery;
+                    }
+                }
+                if (statistics.getStatementsCount() > 0) {
+                    showExecutionResult(session);
+                }
+                if (session.isLoggingEnabled()) {
+                    QMUtils.getDefaultHandler().handleScriptEnd(session);
+                }
+            }
+            return true;
+        } finally {
+            for (DBCExecutionContext context : contexts) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Waits for all worker jobs. Owner job cancel stops all workers.
+     */
+    private void waitForWorkers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull SQLScriptParallelState parallelState,
+        @NotNull List<SQLQueryJob> workers)
+    {
+        int reportedCount = 0;
+        while (true) {
+            boolean running = false;
+            for (SQLQueryJob worker : workers) {
+                if (worker.getState() != Job.NONE) {
+                    running = true;
+                    break;
+                }
+            }
+            int finishedCount = parallelState.getFinishedCount();
+            if (finishedCount > reportedCount) {
+                monitor.worked(finishedCount - reportedCount);
+                reportedCount = finishedCount;
+            }
+            if (!running) {
+                break;
+            }
+            if (monitor.isCanceled() && !parallelState.isStopped()) {
+                parallelState.stop();
+                for (SQLQueryJob worker : workers) {
+                    worker.cancel();
+                }
+            }
+            RuntimeUtils.pause(100);
+        }
+    }
+
+    /**
+     * Executes script queries in the worker context. Queries are taken from the shared parallel state.
+     * Context is in auto-commit mode, so there is nothing to commit or rollback.
+     */
+    private void executeScriptPart(@NotNull DBRProgressMonitor monitor) {
+        statistics = new DBCStatistics();
+        ParallelResultsConsumer consumer = (ParallelResultsConsumer) resultsConsumer;
+        DBCExecutionContext context = getExecutionContext();
+        try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.USER_SCRIPT, "SQL Query")) {
+            Throwable scriptError = null;
+            int queryNum = parallelState.nextQuery();
+            while (queryNum >= 0) {
+                if (monitor.isCanceled()) {
+                    parallelState.stop();
+                    break;
+                }
+                if (parallelState.isIgnoreErrors()) {
+                    errorHandling = SQLScriptErrorHandling.IGNORE;
+                }
+                // Results of each query go to the tab allocated for it. Other result sets are skipped.
+                consumer.setQuery(queryNum);
+                fetchResultSets = consumer.resultTab >= 0;
+                resultSetNumber = Math.max(consumer.resultTab, 0);
+                fetchResultSetNumber = resultSetNumber;
+
+                boolean runNext = executeSingleQuery(session, queries.get(queryNum), true);
+                if (!runNext) {
+                    if (lastError == null) {
+                        // Execution cancel
+                        parallelState.stop();
+                        break;
+                    }
+                    log.error(lastError);
+                    Throwable error = lastError;
+                    DBPPlatformUI.UserResponse response = parallelState.handleError(
+                        () -> ExecutionQueueErrorJob.showError("SQL script execution", error, true));
+                    if (response == DBPPlatformUI.UserResponse.RETRY) {
+                        continue;
+                    }
+                    if (scriptError == null) {
+                        scriptError = error;
+                    }
+                    if (response == DBPPlatformUI.UserResponse.STOP) {
+                        break;
+                    }
+                } else if (lastError != null && scriptError == null) {
+                    scriptError = lastError;
+                }
+                parallelState.queryFinished();
+                queryNum = parallelState.nextQuery();
+            }
+            lastError = scriptError;
+        } catch (Throwable e) {
+            log.error("Error in SQL script worker", e);
+            if (lastError == null) {
+                lastError = e;
+            }
+            parallelState.stop();
+        } finally {
+            closeStatement();
+        }
+    }
+
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element, final boolean fireEvents)
     {
         if (element instanceof SQLControlCommand) {
@@ -909,4 +1164,61 @@ public class SQLQueryJob extends DataSourceJob
         }.execute();
     }
 
+    /**
+     * Passes results of the current worker query into the result tab allocated for it
+     */
+    private static class ParallelResultsConsumer implements SQLResultsConsumer {
+        private final int[] resultTabs;
+        private final DBDDataReceiver[] dataReceivers;
+        private int resultTab = -1;
+        private DBDDataReceiver dataReceiver;
+
+        ParallelResultsConsumer(int[] resultTabs, DBDDataReceiver[] dataReceivers) {
+            this.resultTabs = resultTabs;
+            this.dataReceivers = dataReceivers;
+        }
+
+        void setQuery(int queryNum) {
+            this.resultTab = resultTabs[queryNum];
+            this.dataReceiver = dataReceivers[queryNum];
+        }
+
+        @Nullable
+        @Override
+        public DBDDataReceiver getDataReceiver(SQLQuery statement, int resultSetNumber) {
+            return resultSetNumber == resultTab ? dataReceiver : null;
+        }
+    }
+
+    /**
+     * Serializes query events of parallel workers
+     */
+    private static class SynchronizedQueryListener implements SQLQueryListener {
+        private final SQLQueryListener listener;
+
+        SynchronizedQueryListener(SQLQueryListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void onStartScript() {
+            listener.onStartScript();
+        }
+
+        @Override
+        public synchronized void onStartQuery(DBCSession session, SQLQuery query) {
+            listener.onStartQuery(session, query);
+        }
+
+        @Override
+        public synchronized void onEndQuery(DBCSession session, SQLQueryResult result, DBCStatistics statistics) {
+            listener.onEndQuery(session, result, statistics);
+        }
+
+        @Override
+        public synchronized void onEndScript(DBCStatistics statistics, boolean hasErrors) {
+            listener.onEndScript(statistics, hasErrors);
+        }
+    }
+
 }
@@ -59,6 +59,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
     private Button fetchResultSetsCheck;
     private Button resetCursorCheck;
     private Button maxEditorCheck;
+    private Button parallelExecutionCheck;
+    private Spinner parallelContextsSpinner;
 
     private Text statementDelimiterText;
     private Button ignoreNativeDelimiter;
@@ -90,6 +92,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.contains(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING) ||
             store.contains(SQLPreferenceConstants.SCRIPT_COMMIT_LINES) ||
             store.contains(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) ||
+            store.contains(SQLPreferenceConstants.SCRIPT_PARALLEL_EXECUTION) ||
+            store.contains(SQLPreferenceConstants.SCRIPT_PARALLEL_CONTEXTS) ||
 
             store.contains(ModelPreferences.SCRIPT_STATEMENT_DELIMITER) ||
             store.contains(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER) ||
@@ -178,6 +182,14 @@ public class PrefPageSQLExecute extends TargetPrefPage
             fetchResultSetsCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_fetch_resultsets, null, false, 2);
             resetCursorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_reset_cursor, null, false, 2);
             maxEditorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_max_editor_on_script_exec, null, false, 2);
+            parallelExecutionCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_parallel_execution, SQLEditorMessages.pref_page_sql_editor_checkbox_parallel_execution_tip, false, 2);
+            parallelExecutionCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    parallelContextsSpinner.setEnabled(parallelExecutionCheck.getSelection());
+                }
+            });
+            parallelContextsSpinner = UIUtils.createLabelSpinner(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_label_parallel_contexts, 4, 1, 64);
         }
         // Parameters
         {
@@ -242,6 +254,9 @@ public class PrefPageSQLExecute extends TargetPrefPage
             fetchResultSetsCheck.setSelection(store.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS));
             resetCursorCheck.setSelection(store.getBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE));
             maxEditorCheck.setSelection(store.getBoolean(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE));
+            parallelExecutionCheck.setSelection(store.getBoolean(SQLPreferenceConstants.SCRIPT_PARALLEL_EXECUTION));
+            parallelContextsSpinner.setSelection(store.getInt(SQLPreferenceConstants.SCRIPT_PARALLEL_CONTEXTS));
+            parallelContextsSpinner.setEnabled(parallelExecutionCheck.getSelection());
 
             statementDelimiterText.setText(store.getString(ModelPreferences.SCRIPT_STATEMENT_DELIMITER));
             ignoreNativeDelimiter.setSelection(store.getBoolean(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER));
@@ -276,6 +291,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.setValue(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS, fetchResultSetsCheck.getSelection());
             store.setValue(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE, resetCursorCheck.getSelection());
             store.setValue(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE, maxEditorCheck.getSelection());
+            store.setValue(SQLPreferenceConstants.SCRIPT_PARALLEL_EXECUTION, parallelExecutionCheck.getSelection());
+            store.setValue(SQLPreferenceConstants.SCRIPT_PARALLEL_CONTEXTS, parallelContextsSpinner.getSelection());
 
             store.setValue(ModelPreferences.SCRIPT_STATEMENT_DELIMITER, statementDelimiterText.getText());
             store.setValue(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER, ignoreNativeDelimiter.getSelection());
@@ -305,6 +322,8 @@ public class PrefPageSQLExecute extends TargetPrefPage
         store.setToDefault(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS);
+        store.setToDefault(SQLPreferenceConstants.SCRIPT_PARALLEL_EXECUTION);
+        store.setToDefault(SQLPreferenceConstants.SCRIPT_PARALLEL_CONTEXTS);
 
         store.setToDefault(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE);
         store.setToDefault(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE);
@@ -51,6 +51,7 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_MASK = "search.data.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.data.case-sensitive"; //$NON-NLS-1$
     private static final String PROP_SAMPLE_ROWS = "search.data.sample-rows"; //$NON-NLS-1$
+    private static final String PROP_PARALLEL_SEARCHES = "search.data.parallel-searches"; //$NON-NLS-1$
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
@@ -132,6 +133,14 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            if (params.maxParallelSearches <= 0) {
+                params.maxParallelSearches = 4;
+            }
+
+            final Spinner parallelSearchesSpinner = UIUtils.createLabelSpinner(optionsGroup2, "Parallel searches", "Maximum number of tables searched simultaneously. Each search uses separate connection.", params.maxParallelSearches, 1, 64);
+            parallelSearchesSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            parallelSearchesSpinner.addModifyListener(e -> params.maxParallelSearches = parallelSearchesSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(optionsGroup2, UISearchMessages.dialog_search_objects_case_sensitive, "Case sensitive search", params.caseSensitive, 2);
             caseCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -205,6 +214,7 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxParallelSearches = store.getInt(PROP_PARALLEL_SEARCHES);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -229,6 +239,7 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_MASK, params.searchString);
         store.setValue(PROP_CASE_SENSITIVE, params.caseSensitive);
         store.setValue(PROP_SAMPLE_ROWS, params.maxResults);
+        store.setValue(PROP_PARALLEL_SEARCHES, params.maxParallelSearches);
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
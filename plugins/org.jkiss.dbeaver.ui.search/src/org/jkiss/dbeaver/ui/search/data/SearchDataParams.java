@@ -35,6 +35,7 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int maxParallelSearches;
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +106,14 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    public int getMaxParallelSearches() {
+        return maxParallelSearches;
+    }
+
+    public void setMaxParallelSearches(int maxParallelSearches) {
+        this.maxParallelSearches = maxParallelSearches;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
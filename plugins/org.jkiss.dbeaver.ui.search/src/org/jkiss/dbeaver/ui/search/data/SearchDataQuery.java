@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.ui.IEditorPart;
@@ -36,12 +37,14 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -50,18 +53,26 @@ import org.jkiss.dbeaver.ui.editors.data.DatabaseDataEditor;
 import org.jkiss.dbeaver.ui.editors.entity.EntityEditor;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final int WORKERS_CHECK_PERIOD = 100;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    // Search string converted to number/UUID (null if it isn't a number/UUID)
+    private Object numericValue;
+    private String uuidValue;
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -108,26 +119,36 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            numericValue = parseNumber(searchString);
+            uuidValue = parseUUID(searchString);
+
+            Queue<DBSDataContainer> containers = new ConcurrentLinkedQueue<>(params.sources);
+            AtomicInteger totalObjects = new AtomicInteger();
+            AtomicInteger searchedCount = new AtomicInteger();
+            int workerCount = Math.max(1, Math.min(params.maxParallelSearches, params.sources.size()));
 
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                if (workerCount == 1) {
+                    searchInContainers(monitor, dbnModel, containers, totalObjects, searchedCount, false);
+                } else {
+                    // Each worker job searches in its own isolated contexts, so tables are scanned simultaneously.
+                    // Worker count (and thus count of extra connections) is limited by search settings.
+                    List<SearchWorkerJob> workers = new ArrayList<>(workerCount);
+                    for (int i = 0; i < workerCount; i++) {
+                        SearchWorkerJob worker = new SearchWorkerJob(i + 1, dbnModel, containers, totalObjects, searchedCount);
+                        workers.add(worker);
+                        worker.schedule();
                     }
-                    monitor.worked(1);
+                    waitForWorkers(monitor, workers, searchedCount);
                 }
             } finally {
                 monitor.done();
             }
 
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects.get()));
 
             return Status.OK_STATUS;
         } catch (Exception e) {
@@ -135,7 +156,97 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    /**
+     * Waits for all worker jobs and reports their progress. Search cancel cancels all workers.
+     */
+    private void waitForWorkers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<SearchWorkerJob> workers,
+        @NotNull AtomicInteger searchedCount)
+    {
+        int reportedCount = 0;
+        boolean canceled = false;
+        while (true) {
+            boolean running = false;
+            for (SearchWorkerJob worker : workers) {
+                if (worker.getState() != Job.NONE) {
+                    running = true;
+                    break;
+                }
+            }
+            int count = searchedCount.get();
+            if (count > reportedCount) {
+                monitor.worked(count - reportedCount);
+                reportedCount = count;
+            }
+            if (!running) {
+                break;
+            }
+            if (!canceled && monitor.isCanceled()) {
+                // Wait for workers anyway, they close their contexts
+                canceled = true;
+                for (SearchWorkerJob worker : workers) {
+                    worker.cancel();
+                }
+            }
+            RuntimeUtils.pause(WORKERS_CHECK_PERIOD);
+        }
+    }
+
+    /**
+     * Searches in containers until queue is empty.
+     * In isolated mode every database instance is searched in separate execution context (which is opened on demand).
+     */
+    private void searchInContainers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull Queue<DBSDataContainer> containers,
+        @NotNull AtomicInteger totalObjects,
+        @NotNull AtomicInteger searchedCount,
+        boolean isolated)
+    {
+        Map<DBSInstance, DBCExecutionContext> contexts = new HashMap<>();
+        List<DBCExecutionContext> isolatedContexts = new ArrayList<>();
+        try {
+            for (DBSDataContainer dataContainer = containers.poll(); dataContainer != null; dataContainer = containers.poll()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                DBCExecutionContext executionContext = null;
+                if (isolated) {
+                    DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+                    executionContext = contexts.get(instance);
+                    if (executionContext == null && instance != null && !contexts.containsKey(instance)) {
+                        try {
+                            executionContext = instance.openIsolatedContext(
+                                monitor, "Data search", DBUtils.getDefaultContext(dataContainer, false));
+                            isolatedContexts.add(executionContext);
+                        } catch (DBException e) {
+                            // Use default context then
+                            log.debug("Can't open isolated context for data search: " + e.getMessage());
+                        }
+                        contexts.put(instance, executionContext);
+                    }
+                }
+                if (searchDataInContainer(monitor, dbnModel, dataContainer, executionContext)) {
+                    totalObjects.incrementAndGet();
+                }
+                searchedCount.incrementAndGet();
+                monitor.worked(1);
+            }
+        } finally {
+            for (DBCExecutionContext executionContext : isolatedContexts) {
+                executionContext.close();
+            }
+        }
+    }
+
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBCExecutionContext executionContext)
+    {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -149,7 +260,10 @@ public class SearchDataQuery implements ISearchQuery {
         monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = executionContext != null ?
+            executionContext.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName) :
+            DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -161,7 +275,9 @@ public class SearchDataQuery implements ISearchQuery {
 
             if (dataReceiver.rowCount > 0) {
                 SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
+                synchronized (searchResult) {
+                    searchResult.addObjects(Collections.singletonList(object));
+                }
                 return true;
             }
         } catch (DBCException e) {
@@ -205,28 +321,11 @@ public class SearchDataQuery implements ISearchQuery {
                         if (!params.searchNumbers) {
                             continue;
                         }
-                        if (!ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
+                        if (numericValue == null || !ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
                             continue;
                         }
                         operator = DBCLogicalOperator.EQUALS;
-                        try {
-                            value = Integer.valueOf(params.searchString);
-                        } catch (NumberFormatException e) {
-                            try {
-                                value = Long.valueOf(params.searchString);
-                            } catch (NumberFormatException e1) {
-                                try {
-                                    value = Double.valueOf(params.searchString);
-                                } catch (NumberFormatException e2) {
-                                    try {
-                                        value = new BigDecimal(params.searchString);
-                                    } catch (Exception e3) {
-                                        // Not a number
-                                        continue;
-                                    }
-                                }
-                            }
-                        }
+                        value = numericValue;
                         break;
                     case CONTENT:
                     case BINARY:
@@ -259,15 +358,9 @@ public class SearchDataQuery implements ISearchQuery {
                             continue;
                         }
                         String typeName = attribute.getTypeName();
-                        if (typeName.equals(DBConstants.TYPE_NAME_UUID) || typeName.equals(DBConstants.TYPE_NAME_UUID2)) {
-                            try {
-                                UUID uuid = UUID.fromString(params.searchString);
-                                operator = DBCLogicalOperator.EQUALS;
-                                value = uuid.toString();
-                            } catch (Exception e) {
-                                // No a UUID
-                                continue;
-                            }
+                        if ((typeName.equals(DBConstants.TYPE_NAME_UUID) || typeName.equals(DBConstants.TYPE_NAME_UUID2)) && uuidValue != null) {
+                            operator = DBCLogicalOperator.EQUALS;
+                            value = uuidValue;
                         } else {
                             continue;
                         }
@@ -301,6 +394,38 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
+    @Nullable
+    private static Object parseNumber(String searchString) {
+        try {
+            return Integer.valueOf(searchString);
+        } catch (NumberFormatException e) {
+            try {
+                return Long.valueOf(searchString);
+            } catch (NumberFormatException e1) {
+                try {
+                    return Double.valueOf(searchString);
+                } catch (NumberFormatException e2) {
+                    try {
+                        return new BigDecimal(searchString);
+                    } catch (Exception e3) {
+                        // Not a number
+                        return null;
+                    }
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static String parseUUID(String searchString) {
+        try {
+            return UUID.fromString(searchString).toString();
+        } catch (Exception e) {
+            // Not a UUID
+            return null;
+        }
+    }
+
     static SearchDataQuery createQuery(SearchDataParams params) throws DBException {
         return new SearchDataQuery(params);
     }
@@ -331,6 +456,40 @@ public class SearchDataQuery implements ISearchQuery {
         return dataFilter;
     }
 
+    private class SearchWorkerJob extends AbstractJob {
+
+        private final DBNModel dbnModel;
+        private final Queue<DBSDataContainer> containers;
+        private final AtomicInteger totalObjects;
+        private final AtomicInteger searchedCount;
+
+        SearchWorkerJob(
+            int index,
+            @NotNull DBNModel dbnModel,
+            @NotNull Queue<DBSDataContainer> containers,
+            @NotNull AtomicInteger totalObjects,
+            @NotNull AtomicInteger searchedCount)
+        {
+            super("Data search worker " + index);
+            this.dbnModel = dbnModel;
+            this.containers = containers;
+            this.totalObjects = totalObjects;
+            this.searchedCount = searchedCount;
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            monitor.beginTask(getName(), containers.size());
+            try {
+                searchInContainers(monitor, dbnModel, containers, totalObjects, searchedCount, true);
+            } finally {
+                monitor.done();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
     private class SearchTableMonitor extends VoidProgressMonitor {
 
         private DBRProgressMonitor baseMonitor;
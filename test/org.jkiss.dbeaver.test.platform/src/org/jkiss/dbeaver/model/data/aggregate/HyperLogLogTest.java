@@ -0,0 +1,69 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HyperLogLogTest {
+    // Estimate is within 4 standard errors almost surely
+    private static final double MAX_ERROR = 4 * HyperLogLog.getStandardError();
+
+    @Test
+    public void testEmpty() {
+        Assert.assertEquals(0, new HyperLogLog().getEstimate());
+    }
+
+    @Test
+    public void testDuplicates() {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < 100000; i++) {
+            hyperLogLog.add("value " + (i % 100));
+        }
+        assertEstimate(100, hyperLogLog.getEstimate());
+    }
+
+    @Test
+    public void testStringErrorBound() {
+        for (int distinctCount : new int[]{1000, 50000, 1000000}) {
+            HyperLogLog hyperLogLog = new HyperLogLog();
+            for (int i = 0; i < distinctCount; i++) {
+                hyperLogLog.add("value " + i);
+            }
+            assertEstimate(distinctCount, hyperLogLog.getEstimate());
+        }
+    }
+
+    @Test
+    public void testNumberErrorBound() {
+        int distinctCount = 500000;
+        HyperLogLog longs = new HyperLogLog();
+        HyperLogLog doubles = new HyperLogLog();
+        for (int i = 0; i < distinctCount; i++) {
+            // Sequential values must not affect hash distribution
+            longs.add((long) i);
+            doubles.add(i * 0.5);
+        }
+        assertEstimate(distinctCount, longs.getEstimate());
+        assertEstimate(distinctCount, doubles.getEstimate());
+    }
+
+    private static void assertEstimate(long expected, long estimate) {
+        double error = Math.abs(estimate - expected) / (double) expected;
+        Assert.assertTrue("Estimate " + estimate + " of " + expected + " distinct values", error <= MAX_ERROR);
+    }
+}
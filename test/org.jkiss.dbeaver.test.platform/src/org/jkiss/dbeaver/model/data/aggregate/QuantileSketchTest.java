@@ -0,0 +1,99 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class QuantileSketchTest {
+    private static final double[] RANKS = {0.0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0};
+
+    @Test
+    public void testEmpty() {
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        Assert.assertNull(sketch.getQuantile(0.5));
+        Assert.assertTrue(sketch.isExact());
+    }
+
+    @Test
+    public void testExactBeforeCompaction() {
+        int k = QuantileSketch.DEFAULT_K;
+        QuantileSketch sketch = new QuantileSketch(k);
+        List<Integer> values = shuffledValues(k - 1, 1);
+        for (Integer value : values) {
+            sketch.add(value);
+        }
+        Assert.assertTrue(sketch.isExact());
+        Assert.assertEquals(0.0, sketch.getRankError(), 0);
+        Assert.assertEquals(k - 1, sketch.getCount());
+        for (double rank : RANKS) {
+            // Smallest value which rank is not less than requested
+            int expected = Math.max(0, (int) Math.ceil(rank * values.size()) - 1);
+            Assert.assertEquals("Rank " + rank, expected, sketch.getQuantile(rank));
+        }
+    }
+
+    @Test
+    public void testRankErrorAfterCompaction() {
+        int count = 200000;
+        for (int k : new int[]{QuantileSketch.DEFAULT_K, 50}) {
+            QuantileSketch sketch = new QuantileSketch(k);
+            for (Integer value : shuffledValues(count, k)) {
+                sketch.add(value);
+            }
+            Assert.assertFalse(sketch.isExact());
+            Assert.assertEquals(count, sketch.getCount());
+            double rankError = sketch.getRankError();
+            Assert.assertTrue(rankError > 0);
+            for (double rank : RANKS) {
+                int value = (Integer) sketch.getQuantile(rank);
+                double actualRank = (value + 1) / (double) count;
+                Assert.assertTrue(
+                    "k=" + k + ", rank " + rank + ": value " + value + " has rank " + actualRank,
+                    Math.abs(actualRank - rank) <= rankError);
+            }
+        }
+    }
+
+    @Test
+    public void testSameResultForSameInput() {
+        List<Integer> values = shuffledValues(50000, 2);
+        QuantileSketch sketch1 = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        QuantileSketch sketch2 = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        for (Integer value : values) {
+            sketch1.add(value);
+            sketch2.add(value);
+        }
+        for (double rank : RANKS) {
+            Assert.assertEquals(sketch1.getQuantile(rank), sketch2.getQuantile(rank));
+        }
+    }
+
+    private static List<Integer> shuffledValues(int count, long seed) {
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+}
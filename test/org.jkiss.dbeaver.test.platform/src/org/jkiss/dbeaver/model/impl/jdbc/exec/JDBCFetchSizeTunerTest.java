@@ -0,0 +1,161 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class JDBCFetchSizeTunerTest {
+
+    private static final long MEMORY_BUDGET = 1024 * 1024;
+    private static final long ROUND_TRIP_TIME = 1_000_000;
+
+    private List<Integer> fetchSizeChanges;
+    private ResultSet resultSet;
+
+    @Before
+    public void init() {
+        fetchSizeChanges = new ArrayList<>();
+        resultSet = (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[] { ResultSet.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("setFetchSize")) {
+                    fetchSizeChanges.add((Integer) args[0]);
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    @Test
+    public void testDoubling() {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, 100, MEMORY_BUDGET);
+        // The first window is skipped
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(100, tuner.getFetchSize());
+        // Round trip time doesn't depend on fetch size, so each increase gives 2x gain
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(400, tuner.getFetchSize());
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(800, tuner.getFetchSize());
+        Assert.assertFalse(tuner.isStable());
+        Assert.assertEquals(List.of(200, 400, 800), fetchSizeChanges);
+    }
+
+    @Test
+    public void testNoGain() {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, 100, MEMORY_BUDGET);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        // Link is saturated: the same time per row
+        fetchWindow(tuner, ROUND_TRIP_TIME * 2);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        Assert.assertTrue(tuner.isStable());
+    }
+
+    @Test
+    public void testFastDriverBuffer() {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, 100, MEMORY_BUDGET);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        // Calls are too fast to be round trips
+        fetchWindow(tuner, 1000);
+        Assert.assertEquals(100, tuner.getFetchSize());
+        Assert.assertTrue(tuner.isStable());
+        Assert.assertTrue(fetchSizeChanges.isEmpty());
+    }
+
+    @Test
+    public void testCapByMemoryBudget() {
+        // Row size is 16 + 1000 * 2 bytes, so budget allows 520 rows
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, 1000, MEMORY_BUDGET);
+        Assert.assertFalse(tuner.isRowSizeKnown());
+        tuner.setAttributes(Collections.singletonList(createAttribute(DBPDataKind.STRING, 1000)));
+        Assert.assertTrue(tuner.isRowSizeKnown());
+        Assert.assertEquals(520, tuner.getFetchSize());
+
+        tuner = new JDBCFetchSizeTuner(resultSet, 200, MEMORY_BUDGET);
+        tuner.setAttributes(Collections.singletonList(createAttribute(DBPDataKind.STRING, 1000)));
+        Assert.assertEquals(200, tuner.getFetchSize());
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(400, tuner.getFetchSize());
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(520, tuner.getFetchSize());
+        // Can't grow anymore
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(520, tuner.getFetchSize());
+        Assert.assertTrue(tuner.isStable());
+        Assert.assertEquals(List.of(520, 400, 520), fetchSizeChanges);
+    }
+
+    @Test
+    public void testRevert() {
+        JDBCFetchSizeTuner tuner = new JDBCFetchSizeTuner(resultSet, 100, MEMORY_BUDGET);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(200, tuner.getFetchSize());
+        // Larger fetch is 30% slower per row
+        fetchWindow(tuner, ROUND_TRIP_TIME * 2 * 13 / 10);
+        Assert.assertEquals(100, tuner.getFetchSize());
+        Assert.assertTrue(tuner.isStable());
+        // Stable tuner ignores further fetches
+        fetchWindow(tuner, ROUND_TRIP_TIME);
+        Assert.assertEquals(100, tuner.getFetchSize());
+        Assert.assertEquals(List.of(200, 100), fetchSizeChanges);
+    }
+
+    /**
+     * Reads one fetch window. The first row takes the whole round trip, the rest is read from driver buffer.
+     */
+    private static void fetchWindow(JDBCFetchSizeTuner tuner, long fetchTime) {
+        int rows = tuner.getFetchSize();
+        tuner.afterNext(fetchTime);
+        for (int i = 1; i < rows; i++) {
+            tuner.afterNext(0);
+        }
+    }
+
+    private static DBSAttributeBase createAttribute(DBPDataKind dataKind, long maxLength) {
+        return (DBSAttributeBase) Proxy.newProxyInstance(
+            JDBCFetchSizeTunerTest.class.getClassLoader(),
+            new Class[] { DBSAttributeBase.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDataKind":
+                        return dataKind;
+                    case "getMaxLength":
+                        return maxLength;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+}
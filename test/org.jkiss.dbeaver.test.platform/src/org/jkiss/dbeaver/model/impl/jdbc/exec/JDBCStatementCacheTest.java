@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.Set;
+
+public class JDBCStatementCacheTest {
+
+    private final Set<PreparedStatement> closedStatements = new HashSet<>();
+
+    @Test
+    public void testLruEviction() {
+        JDBCStatementCache cache = new JDBCStatementCache(2);
+        JDBCStatementCache.Key key1 = new JDBCStatementCache.Key("select 1", 0, 0);
+        JDBCStatementCache.Key key2 = new JDBCStatementCache.Key("select 2", 0, 0);
+        JDBCStatementCache.Key key3 = new JDBCStatementCache.Key("select 3", 0, 0);
+        PreparedStatement stat1 = createStatement();
+        PreparedStatement stat2 = createStatement();
+        PreparedStatement stat3 = createStatement();
+        int generation = cache.getGeneration();
+
+        Assert.assertTrue(cache.release(key1, stat1, generation));
+        Assert.assertTrue(cache.release(key2, stat2, generation));
+        // Use the first statement once again. Now the second one is the least recently used.
+        Assert.assertSame(stat1, cache.take(key1));
+        Assert.assertTrue(cache.release(key1, stat1, generation));
+        Assert.assertTrue(cache.release(key3, stat3, generation));
+
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertTrue(closedStatements.contains(stat2));
+        Assert.assertFalse(closedStatements.contains(stat1));
+        Assert.assertFalse(closedStatements.contains(stat3));
+        Assert.assertNull(cache.take(key2));
+        Assert.assertSame(stat1, cache.take(key1));
+        Assert.assertSame(stat3, cache.take(key3));
+    }
+
+    @Test
+    public void testOldGenerationDropped() {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        JDBCStatementCache.Key key1 = new JDBCStatementCache.Key("select 1", 0, 0);
+        JDBCStatementCache.Key key2 = new JDBCStatementCache.Key("select 2", 0, 0);
+        PreparedStatement stat1 = createStatement();
+        PreparedStatement stat2 = createStatement();
+
+        int oldGeneration = cache.getGeneration();
+        Assert.assertTrue(cache.release(key1, stat1, oldGeneration));
+        cache.invalidate();
+        Assert.assertTrue(closedStatements.contains(stat1));
+        Assert.assertEquals(0, cache.getSize());
+
+        // Statement taken before invalidation belongs to the closed connection
+        Assert.assertFalse(cache.release(key2, stat2, oldGeneration));
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertNull(cache.take(key2));
+
+        Assert.assertTrue(cache.release(key2, stat2, cache.getGeneration()));
+        Assert.assertSame(stat2, cache.take(key2));
+    }
+
+    @Test
+    public void testNoDuplicateKeys() {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        JDBCStatementCache.Key key = new JDBCStatementCache.Key("select 1", 0, 0);
+        PreparedStatement stat1 = createStatement();
+        PreparedStatement stat2 = createStatement();
+        int generation = cache.getGeneration();
+
+        Assert.assertTrue(cache.release(key, stat1, generation));
+        // Another statement with the same key must be closed by its owner
+        Assert.assertFalse(cache.release(new JDBCStatementCache.Key("select 1", 0, 0), stat2, generation));
+        Assert.assertEquals(1, cache.getSize());
+
+        // Statement is removed while it is in use, so it is never returned twice
+        Assert.assertSame(stat1, cache.take(key));
+        Assert.assertNull(cache.take(key));
+
+        // Different result set type is a different key
+        Assert.assertTrue(cache.release(key, stat1, generation));
+        Assert.assertNull(cache.take(new JDBCStatementCache.Key("select 1", 1003, 1007)));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    private PreparedStatement createStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[] { PreparedStatement.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        closedStatements.add((PreparedStatement) proxy);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class MetadataIndexTest {
+
+    // Types and containers are numbered in order of appearance
+    private static final boolean[] ALL_TYPES = { true, true };
+    private static final boolean[] ALL_CONTAINERS = { true, true, true };
+
+    private DBSObject schemaA;
+    private DBSObject schemaB;
+    private MetadataIndex.Snapshot snapshot;
+
+    @Before
+    public void init() {
+        DBSObject catalog = createObject("db", null);
+        schemaA = createObject("schema_a", catalog);
+        schemaB = createObject("schema_b", catalog);
+
+        MetadataIndex.SnapshotBuilder builder = new MetadataIndex.SnapshotBuilder(catalog);
+        builder.addType(RelationalObjectType.TYPE_TABLE, Arrays.asList(
+            createReference("CUSTOMER", schemaA, "Customers", RelationalObjectType.TYPE_TABLE),
+            createReference("customer_address", schemaA, null, RelationalObjectType.TYPE_TABLE),
+            createReference("ORDERS", schemaA, null, RelationalObjectType.TYPE_TABLE),
+            createReference("order_customer", schemaB, null, RelationalObjectType.TYPE_TABLE),
+            createReference("ITEM", schemaB, null, RelationalObjectType.TYPE_TABLE)));
+        builder.addType(RelationalObjectType.TYPE_VIEW, Arrays.asList(
+            createReference("CUSTOMER_VIEW", schemaB, null, RelationalObjectType.TYPE_VIEW),
+            createReference("global_view", null, null, RelationalObjectType.TYPE_VIEW)));
+        snapshot = builder.build();
+    }
+
+    @Test
+    public void testFindByPrefix() {
+        Assert.assertEquals(
+            set("CUSTOMER", "customer_address", "CUSTOMER_VIEW"),
+            find(snapshot, "cust%", false, ALL_TYPES, ALL_CONTAINERS));
+        Assert.assertEquals(
+            set("CUSTOMER", "CUSTOMER_VIEW"),
+            find(snapshot, "CUST%", true, ALL_TYPES, ALL_CONTAINERS));
+        Assert.assertEquals(
+            set("CUSTOMER"),
+            find(snapshot, "customer", false, ALL_TYPES, ALL_CONTAINERS));
+    }
+
+    @Test
+    public void testFindByInnerLiteral() {
+        // Trigram lookup
+        Assert.assertEquals(
+            set("CUSTOMER", "customer_address", "order_customer", "CUSTOMER_VIEW"),
+            find(snapshot, "%customer%", false, ALL_TYPES, ALL_CONTAINERS));
+        // Short literals are matched by scan
+        Assert.assertEquals(
+            set("ORDERS", "order_customer", "customer_address", "CUSTOMER_VIEW"),
+            find(snapshot, "%r_%", false, ALL_TYPES, ALL_CONTAINERS));
+        Assert.assertEquals(
+            set(),
+            find(snapshot, "%nothing%", false, ALL_TYPES, ALL_CONTAINERS));
+    }
+
+    @Test
+    public void testFindWithFilters() {
+        Assert.assertEquals(
+            set("CUSTOMER_VIEW"),
+            find(snapshot, "%customer%", false, new boolean[] { false, true }, ALL_CONTAINERS));
+        Assert.assertEquals(
+            set("order_customer", "CUSTOMER_VIEW"),
+            find(snapshot, "%customer%", false, ALL_TYPES, new boolean[] { false, true, false }));
+        Assert.assertEquals(
+            set("CUSTOMER", "customer_address"),
+            find(snapshot, "cust%", false, new boolean[] { true, false }, new boolean[] { true, false, false }));
+
+        Assert.assertEquals(2, snapshot.find("%", false, ALL_TYPES, ALL_CONTAINERS, 2).length);
+    }
+
+    @Test
+    public void testContainers() {
+        int[] found = snapshot.find("%customer%", false, ALL_TYPES, ALL_CONTAINERS, 100);
+        for (int index : found) {
+            String name = snapshot.getName(index);
+            DBSObject container = snapshot.getContainerObject(index);
+            if (name.equals("CUSTOMER") || name.equals("customer_address")) {
+                Assert.assertSame(schemaA, container);
+            } else {
+                Assert.assertSame(schemaB, container);
+            }
+            Assert.assertArrayEquals(new String[] { "db", container.getName() }, snapshot.getContainerPath(index));
+        }
+        int[] global = snapshot.find("global_view", false, ALL_TYPES, ALL_CONTAINERS, 100);
+        Assert.assertEquals(1, global.length);
+        Assert.assertArrayEquals(new String[] { "db" }, snapshot.getContainerPath(global[0]));
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        Path folder = Files.createTempDirectory("metadata-index");
+        try {
+            Path file = folder.resolve("test.idx");
+            snapshot.write(file);
+            MetadataIndex.Snapshot loaded = MetadataIndex.Snapshot.read(file);
+
+            Assert.assertEquals(snapshot.size(), loaded.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                Assert.assertEquals(snapshot.getName(i), loaded.getName(i));
+                Assert.assertEquals(snapshot.getDescription(i), loaded.getDescription(i));
+                Assert.assertEquals(snapshot.getTypeName(i), loaded.getTypeName(i));
+                Assert.assertArrayEquals(snapshot.getContainerPath(i), loaded.getContainerPath(i));
+                // Containers are resolved on index load
+                Assert.assertNull(loaded.getContainerObject(i));
+            }
+            Assert.assertEquals(
+                find(snapshot, "%customer%", false, ALL_TYPES, ALL_CONTAINERS),
+                find(loaded, "%customer%", false, ALL_TYPES, ALL_CONTAINERS));
+            Assert.assertFalse(Files.exists(folder.resolve("test.idx.tmp")));
+        } finally {
+            Files.deleteIfExists(folder.resolve("test.idx"));
+            Files.deleteIfExists(folder);
+        }
+    }
+
+    private static Set<String> find(MetadataIndex.Snapshot snapshot, String mask, boolean caseSensitive, boolean[] typeFilter, boolean[] containerFilter) {
+        Set<String> result = new HashSet<>();
+        for (int index : snapshot.find(mask, caseSensitive, typeFilter, containerFilter, 100)) {
+            result.add(snapshot.getName(index));
+        }
+        return result;
+    }
+
+    private static Set<String> set(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static DBSObject createObject(String name, DBSObject parent) {
+        return (DBSObject) Proxy.newProxyInstance(
+            MetadataIndexTest.class.getClassLoader(),
+            new Class[] { DBSObject.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                        return name;
+                    case "getParentObject":
+                        return parent;
+                    case "isPersisted":
+                        return true;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return name;
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    private static DBSObjectReference createReference(String name, DBSObject container, String description, DBSObjectType type) {
+        return new AbstractObjectReference(name, container, description, type.getTypeClass(), type) {
+            @Override
+            public DBSObject resolveObject(DBRProgressMonitor monitor) {
+                return null;
+            }
+        };
+    }
+
+}
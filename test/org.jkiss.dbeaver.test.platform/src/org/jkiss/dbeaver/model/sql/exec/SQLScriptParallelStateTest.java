@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryParameter;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SQLScriptParallelStateTest {
+
+    private SQLSyntaxManager syntaxManager;
+
+    @Before
+    public void init() {
+        syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(BasicSQLDialect.INSTANCE, DBWorkbench.getPlatform().getPreferenceStore());
+    }
+
+    @Test
+    public void parallelScriptRequiresCommand() {
+        Assert.assertTrue(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            command("@parallel"), query("select 1"), query("select 2"))));
+        Assert.assertFalse(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            query("select 1"), query("select 2"), query("select 3"))));
+        Assert.assertFalse(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            command("@set a=1"), query("select 1"), query("select 2"))));
+        // Nothing to parallelize
+        Assert.assertFalse(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            command("@parallel"), query("select 1"))));
+    }
+
+    @Test
+    public void parallelScriptRequiresPlainQueries() {
+        Assert.assertFalse(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            command("@parallel"), query("select 1"), command("@set a=1"), query("select 2"))));
+
+        SQLQuery parameterQuery = query("select :a");
+        parameterQuery.setParameters(Collections.singletonList(new SQLQueryParameter(syntaxManager, 0, ":a")));
+        Assert.assertFalse(SQLScriptParallelState.isParallelScript(Arrays.asList(
+            command("@parallel"), query("select 1"), parameterQuery)));
+    }
+
+    @Test
+    public void queriesAreTakenOnceInScriptOrder() throws InterruptedException {
+        int queryCount = 1001;
+        SQLScriptParallelState state = new SQLScriptParallelState(queryCount);
+        List<List<Integer>> workerQueries = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            List<Integer> queries = new ArrayList<>();
+            workerQueries.add(queries);
+            workers.add(new Thread(() -> {
+                for (int queryNum = state.nextQuery(); queryNum >= 0; queryNum = state.nextQuery()) {
+                    queries.add(queryNum);
+                    state.queryFinished();
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        List<Integer> taken = new ArrayList<>();
+        for (List<Integer> queries : workerQueries) {
+            for (int i = 1; i < queries.size(); i++) {
+                Assert.assertTrue(queries.get(i) > queries.get(i - 1));
+            }
+            taken.addAll(queries);
+        }
+        Collections.sort(taken);
+        Assert.assertEquals(queryCount - 1, taken.size());
+        for (int i = 0; i < taken.size(); i++) {
+            // Command in the beginning of script is never taken
+            Assert.assertEquals(i + 1, taken.get(i).intValue());
+        }
+        Assert.assertEquals(queryCount - 1, state.getFinishedCount());
+    }
+
+    @Test
+    public void stopFinishesExecution() {
+        SQLScriptParallelState state = new SQLScriptParallelState(5);
+        Assert.assertEquals(1, state.nextQuery());
+        state.stop();
+        Assert.assertTrue(state.isStopped());
+        Assert.assertEquals(-1, state.nextQuery());
+    }
+
+    @Test
+    public void errorStopsAllWorkers() {
+        SQLScriptParallelState state = new SQLScriptParallelState(5);
+        AtomicInteger prompts = new AtomicInteger();
+        Assert.assertEquals(DBPPlatformUI.UserResponse.STOP, state.handleError(() -> {
+            prompts.incrementAndGet();
+            return DBPPlatformUI.UserResponse.CANCEL;
+        }));
+        // Other failed workers are stopped without prompt
+        Assert.assertEquals(DBPPlatformUI.UserResponse.STOP, state.handleError(() -> {
+            prompts.incrementAndGet();
+            return DBPPlatformUI.UserResponse.IGNORE;
+        }));
+        Assert.assertEquals(1, prompts.get());
+        Assert.assertEquals(-1, state.nextQuery());
+    }
+
+    @Test
+    public void errorsAreIgnoredAfterIgnoreAll() {
+        SQLScriptParallelState state = new SQLScriptParallelState(5);
+        AtomicInteger prompts = new AtomicInteger();
+        Assert.assertEquals(DBPPlatformUI.UserResponse.RETRY, state.handleError(() -> {
+            prompts.incrementAndGet();
+            return DBPPlatformUI.UserResponse.RETRY;
+        }));
+        Assert.assertEquals(DBPPlatformUI.UserResponse.IGNORE_ALL, state.handleError(() -> {
+            prompts.incrementAndGet();
+            return DBPPlatformUI.UserResponse.IGNORE_ALL;
+        }));
+        Assert.assertTrue(state.isIgnoreErrors());
+        Assert.assertEquals(DBPPlatformUI.UserResponse.IGNORE, state.handleError(() -> {
+            prompts.incrementAndGet();
+            return DBPPlatformUI.UserResponse.STOP;
+        }));
+        Assert.assertEquals(2, prompts.get());
+        Assert.assertFalse(state.isStopped());
+    }
+
+    private SQLControlCommand command(String text) {
+        String commandId = text.substring(1).split(" ")[0];
+        return new SQLControlCommand(null, syntaxManager, text, commandId, 0, text.length(), false);
+    }
+
+    private static SQLQuery query(String text) {
+        return new SQLQuery(null, text);
+    }
+
+}
@@ -16,7 +16,9 @@
  */
 package org.jkiss.dbeaver.model.sql.parser;
 
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
@@ -464,6 +466,131 @@ public class SQLScriptParserTest {
         assertParse("oracle", packageBodyStatements);
     }
 
+    @Test
+    public void parseWithStatementIndexAfterEdits() throws DBException, BadLocationException {
+        SQLDialect dialect = setDialect("postgresql");
+        SQLParserContext context = createParserContext(dialect,
+            "select 1;\nselect 2;\n\nselect 3 from dual;\nupdate t set a = 1;\ndelete from t;\n");
+        context.enableStatementIndex();
+        try {
+            IDocument document = context.getDocument();
+            assertIndexedParse(context, dialect, 0);
+            // Change inside statement
+            document.replace(document.get().indexOf("3"), 1, "33");
+            assertIndexedParse(context, dialect, 0);
+            // Merge two statements
+            document.replace(document.get().indexOf("2;") + 1, 1, "");
+            assertIndexedParse(context, dialect, 0);
+            // Split statement
+            document.replace(document.get().indexOf("from dual"), 0, "; select 4 ");
+            assertIndexedParse(context, dialect, 0);
+            // Insert before all statements. Offsets of indexed statements must be shifted.
+            document.replace(0, 0, "select 0;\n");
+            assertIndexedParse(context, dialect, 0);
+            assertIndexedParse(context, dialect, document.get().indexOf("update"));
+            // Remove statements in the end and add another one
+            int deleteOffset = document.get().indexOf("delete");
+            document.replace(deleteOffset, document.getLength() - deleteOffset, "");
+            document.replace(document.getLength(), 0, "select 5;");
+            assertIndexedParse(context, dialect, 0);
+            assertIndexedParse(context, dialect, document.get().indexOf("select 5"));
+        } finally {
+            context.dispose();
+        }
+    }
+
+    @Test
+    public void parseWithStatementIndexDelimiterRedefinition() throws DBException, BadLocationException {
+        SQLDialect dialect = setDialect(new JDBCSQLDialect("Test", "test") {
+            @Override
+            public String getScriptDelimiterRedefiner() {
+                return "DELIMITER";
+            }
+        });
+        SQLParserContext context = createParserContext(dialect,
+            "select 1;\nselect 2;\nDELIMITER $$\nselect 3; select 4$$\nselect 5$$\n");
+        context.enableStatementIndex();
+        try {
+            IDocument document = context.getDocument();
+            assertIndexedParse(context, dialect, 0);
+            // Change before delimiter redefinition
+            document.replace(document.get().indexOf("1"), 1, "100");
+            assertIndexedParse(context, dialect, 0);
+            // Change after delimiter redefinition
+            document.replace(document.get().indexOf("3"), 1, "33");
+            assertIndexedParse(context, dialect, 0);
+            // Remove delimiter redefinition
+            int commandOffset = document.get().indexOf("DELIMITER");
+            document.replace(commandOffset, "DELIMITER $$\n".length(), "");
+            assertIndexedParse(context, dialect, 0);
+            // Redefine delimiter in another place
+            document.replace(document.get().indexOf("select 2"), 0, "DELIMITER $$\n");
+            assertIndexedParse(context, dialect, 0);
+            assertIndexedParse(context, dialect, document.get().indexOf("select 5"));
+        } finally {
+            context.dispose();
+        }
+    }
+
+    @Test
+    public void parseWithStatementIndexLargeScript() throws DBException, BadLocationException {
+        SQLDialect dialect = setDialect("postgresql");
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            script.append("select ").append(i).append(" from dual;\n");
+        }
+        SQLParserContext context = createParserContext(dialect, script.toString());
+        context.enableStatementIndex();
+        try {
+            IDocument document = context.getDocument();
+            // Index is built partially by each request
+            assertIndexedQueryAtPos(context, dialect, document.getLength() - 5);
+            assertIndexedQueryAtPos(context, dialect, document.getLength() / 2);
+            assertIndexedParse(context, dialect, 0);
+            assertIndexedParse(context, dialect, 0);
+            assertIndexedParse(context, dialect, document.get().indexOf("select 5000 "));
+            // Change in the middle of script
+            document.replace(document.get().indexOf("select 5000 "), 0, "select 0;\n");
+            assertIndexedQueryAtPos(context, dialect, document.getLength() - 5);
+            assertIndexedParse(context, dialect, 0);
+        } finally {
+            context.dispose();
+        }
+    }
+
+    private void assertIndexedParse(SQLParserContext context, SQLDialect dialect, int startOffset) {
+        String script = context.getDocument().get();
+        int length = script.length() - startOffset;
+        SQLParserContext regularContext = createParserContext(dialect, script);
+        for (boolean scriptMode : new boolean[] { false, true }) {
+            List<SQLScriptElement> expected = SQLScriptParser.extractScriptQueries(regularContext, startOffset, length, scriptMode, false, false);
+            List<SQLScriptElement> actual = SQLScriptParser.extractScriptQueries(context, startOffset, length, scriptMode, false, false);
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int index = 0; index < expected.size(); index++) {
+                assertSameElement(expected.get(index), actual.get(index));
+            }
+        }
+    }
+
+    private void assertIndexedQueryAtPos(SQLParserContext context, SQLDialect dialect, int position) {
+        SQLParserContext regularContext = createParserContext(dialect, context.getDocument().get());
+        assertSameElement(
+            SQLScriptParser.extractQueryAtPos(regularContext, position),
+            SQLScriptParser.extractQueryAtPos(context, position));
+    }
+
+    private void assertSameElement(SQLScriptElement expected, SQLScriptElement actual) {
+        if (expected == null) {
+            Assert.assertNull(actual);
+            return;
+        }
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.getOffset(), actual.getOffset());
+        Assert.assertEquals(expected.getLength(), actual.getLength());
+        Assert.assertEquals(expected.getText(), actual.getText());
+    }
+
     private void assertParse(String dialectName, String[] expected) throws DBException {
     	String source = Arrays.stream(expected).filter(e -> e != null).collect(Collectors.joining());
     	List<String> expectedParts = new ArrayList<>(expected.length);
@@ -498,7 +625,10 @@ public class SQLScriptParserTest {
 
     private SQLDialect setDialect(String name) throws DBException {
         SQLDialectRegistry registry = SQLDialectRegistry.getInstance();
-        SQLDialect dialect = registry.getDialect(name).createInstance();
+        return setDialect(registry.getDialect(name).createInstance());
+    }
+
+    private SQLDialect setDialect(SQLDialect dialect) {
         Mockito.when(dataSource.isServerVersionAtLeast(12, 1)).thenReturn(true);
         ((JDBCSQLDialect)dialect).initDriverSettings(session, dataSource, databaseMetaData);
         Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
@@ -0,0 +1,195 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.model.task.DBTaskUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+public class TaskExecutionQueueTest {
+
+    private TaskExecutionQueue queue;
+
+    @Before
+    public void init() {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        preferences.setValue(ModelPreferences.TASK_MAX_PARALLEL_RUNS, 1);
+        preferences.setValue(ModelPreferences.TASK_MAX_PARALLEL_RUNS_PER_DATASOURCE, 0);
+        queue = new TaskExecutionQueue();
+    }
+
+    @After
+    public void cleanup() {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        preferences.setToDefault(ModelPreferences.TASK_MAX_PARALLEL_RUNS);
+        preferences.setToDefault(ModelPreferences.TASK_MAX_PARALLEL_RUNS_PER_DATASOURCE);
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        TaskExecutionQueue.Ticket first = enqueue(createTask("first", 0));
+        Assert.assertTrue(queue.waitForStart(first, new VoidProgressMonitor()));
+
+        List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+        Thread lowPriority = startWaiting(enqueue(createTask("low", 0)), "low", startOrder);
+        Thread highPriority = startWaiting(enqueue(createTask("high", 10)), "high", startOrder);
+        Thread samePriority = startWaiting(enqueue(createTask("low2", 0)), "low2", startOrder);
+
+        queue.finish(first, true);
+        lowPriority.join(10000);
+        highPriority.join(10000);
+        samePriority.join(10000);
+        Assert.assertEquals(Arrays.asList("high", "low", "low2"), startOrder);
+    }
+
+    @Test
+    public void testCancelBeforeRun() throws Exception {
+        TaskExecutionQueue.Ticket first = enqueue(createTask("first", 0));
+        Assert.assertTrue(queue.waitForStart(first, new VoidProgressMonitor()));
+
+        // Canceled while waiting
+        TaskExecutionQueue.Ticket canceled = enqueue(createTask("canceled", 10));
+        Assert.assertFalse(queue.waitForStart(canceled, new CanceledMonitor()));
+        queue.finish(canceled, true);
+        // Never started at all
+        TaskExecutionQueue.Ticket abandoned = enqueue(createTask("abandoned", 10));
+        queue.finish(abandoned, true);
+
+        queue.finish(first, true);
+        // Removed tickets have higher priority but must not block the queue
+        TaskExecutionQueue.Ticket next = enqueue(createTask("next", 0));
+        Assert.assertTrue(queue.waitForStart(next, new VoidProgressMonitor()));
+        queue.finish(next, true);
+    }
+
+    @Test
+    public void testDependencyFailure() throws Exception {
+        DBTTask taskA = createTask("a", 0);
+        DBTTask taskB = createTask("b", 0, "a");
+        DBTTask taskC = createTask("c", 0, "b");
+
+        TaskExecutionQueue.Ticket ticketA = enqueue(taskA);
+        Assert.assertTrue(queue.waitForStart(ticketA, new VoidProgressMonitor()));
+        TaskExecutionQueue.Ticket ticketB = enqueue(taskB);
+        TaskExecutionQueue.Ticket ticketC = enqueue(taskC);
+        // Launched before A finished but enqueued after that
+        long lateSequence = queue.nextSequence();
+
+        queue.finish(ticketA, false);
+        assertDependencyFailed(ticketB);
+        queue.finish(ticketB, false);
+        // Failure goes further to dependents of failed dependent
+        assertDependencyFailed(ticketC);
+        queue.finish(ticketC, false);
+
+        TaskExecutionQueue.Ticket lateTicket = queue.enqueue(createTask("d", 0, "a"), Collections.emptyMap(), lateSequence);
+        assertDependencyFailed(lateTicket);
+        queue.finish(lateTicket, false);
+
+        // Task launched after failed dependency finished doesn't depend on it
+        TaskExecutionQueue.Ticket newTicket = enqueue(createTask("e", 0, "a"));
+        Assert.assertTrue(queue.waitForStart(newTicket, new VoidProgressMonitor()));
+        queue.finish(newTicket, true);
+    }
+
+    @Test
+    public void testDependencyWait() throws Exception {
+        TaskExecutionQueue.Ticket ticketA = enqueue(createTask("a", 0));
+        TaskExecutionQueue.Ticket ticketB = enqueue(createTask("b", 10, "a"));
+        // B has higher priority but must wait for A
+        Assert.assertTrue(queue.waitForStart(ticketA, new VoidProgressMonitor()));
+        List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+        Thread waitB = startWaiting(ticketB, "b", startOrder);
+        queue.finish(ticketA, true);
+        waitB.join(10000);
+        Assert.assertEquals(Collections.singletonList("b"), startOrder);
+    }
+
+    private TaskExecutionQueue.Ticket enqueue(DBTTask task) {
+        return queue.enqueue(task, Collections.emptyMap(), queue.nextSequence());
+    }
+
+    private Thread startWaiting(TaskExecutionQueue.Ticket ticket, String name, List<String> startOrder) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (queue.waitForStart(ticket, new VoidProgressMonitor())) {
+                    startOrder.add(name);
+                    queue.finish(ticket, true);
+                }
+            } catch (DBException e) {
+                queue.finish(ticket, false);
+            }
+        });
+        thread.start();
+        // Let it take its place in queue
+        while (thread.getState() != Thread.State.TIMED_WAITING && thread.isAlive()) {
+            Thread.yield();
+        }
+        return thread;
+    }
+
+    private void assertDependencyFailed(TaskExecutionQueue.Ticket ticket) {
+        try {
+            queue.waitForStart(ticket, new VoidProgressMonitor());
+            Assert.fail("Dependency failure expected");
+        } catch (DBException e) {
+            // expected
+        }
+    }
+
+    private static DBTTask createTask(String id, int priority, String... dependencies) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(DBTaskUtils.TASK_PRIORITY, priority);
+        properties.put(DBTaskUtils.TASK_DEPENDENCIES, Arrays.asList(dependencies));
+        return (DBTTask) Proxy.newProxyInstance(
+            TaskExecutionQueueTest.class.getClassLoader(),
+            new Class[]{DBTTask.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getId":
+                    case "getName":
+                        return id;
+                    case "getProperties":
+                        return properties;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    private static class CanceledMonitor extends VoidProgressMonitor {
+        @Override
+        public boolean isCanceled() {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.dbeaver.model.task.DBTTaskRunDailyStatistics;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+public class TaskRunHistoryTest {
+
+    private static final Gson gson = new GsonBuilder()
+        .setLenient()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+
+    private Path folder;
+
+    @Before
+    public void init() throws Exception {
+        folder = Files.createTempDirectory("task-history");
+    }
+
+    @After
+    public void cleanup() {
+        ContentUtils.deleteFileRecursive(folder.toFile());
+    }
+
+    @Test
+    public void testCompactionBoundary() throws Exception {
+        TaskRunHistory history = new TaskRunHistory(folder, gson);
+        int maxRuns = TaskRunHistory.MAX_DETAILED_RUNS + TaskRunHistory.COMPACT_THRESHOLD;
+        for (int i = 0; i < maxRuns; i++) {
+            history.addRun(createRun(i, i / 100, true));
+        }
+        Assert.assertEquals(maxRuns, history.getRunCount());
+        Assert.assertEquals(maxRuns, getLogLineCount());
+
+        Path firstRunLog = folder.resolve(TaskRunImpl.RUN_LOG_PREFIX + "run0." + TaskRunImpl.RUN_LOG_EXT);
+        Files.write(firstRunLog, new byte[0]);
+
+        history.addRun(createRun(maxRuns, maxRuns / 100, true));
+        Assert.assertEquals(TaskRunHistory.MAX_DETAILED_RUNS, history.getRunCount());
+        Assert.assertEquals("run" + (maxRuns - TaskRunHistory.MAX_DETAILED_RUNS + 1), history.getRuns()[0].getId());
+        Assert.assertEquals("run" + maxRuns, history.getLastRun().getId());
+        // Statistics entry and detailed runs
+        Assert.assertEquals(TaskRunHistory.MAX_DETAILED_RUNS + 1, getLogLineCount());
+        Assert.assertFalse(Files.exists(firstRunLog));
+        Assert.assertEquals(maxRuns + 1, getTotalRunCount(history.getDailyStatistics()));
+
+        TaskRunHistory loaded = new TaskRunHistory(folder, gson);
+        Assert.assertEquals(TaskRunHistory.MAX_DETAILED_RUNS, loaded.getRunCount());
+        Assert.assertEquals(maxRuns + 1, getTotalRunCount(loaded.getDailyStatistics()));
+    }
+
+    @Test
+    public void testAggregates() {
+        TaskRunHistory history = new TaskRunHistory(folder, gson);
+        int runCount = TaskRunHistory.MAX_DETAILED_RUNS + TaskRunHistory.COMPACT_THRESHOLD + 1;
+        for (int i = 0; i < runCount; i++) {
+            // 3 days. Every 10th run fails.
+            history.addRun(createRun(i, i * 3 / runCount, i % 10 != 0));
+        }
+        // First day is rolled up completely, second one partially
+        DBTTaskRunDailyStatistics[] statistics = history.getDailyStatistics();
+        Assert.assertEquals(3, statistics.length);
+        for (int day = 0; day < 3; day++) {
+            int dayRuns = 0, dayErrors = 0;
+            long dayDuration = 0;
+            for (int i = 0; i < runCount; i++) {
+                if (i * 3 / runCount == day) {
+                    dayRuns++;
+                    dayDuration += i;
+                    if (i % 10 == 0) {
+                        dayErrors++;
+                    }
+                }
+            }
+            DBTTaskRunDailyStatistics stat = statistics[day];
+            Assert.assertEquals(FIRST_DAY.plusDays(day), stat.getDay());
+            Assert.assertEquals(dayRuns, stat.getRunCount());
+            Assert.assertEquals(dayErrors, stat.getErrorCount());
+            Assert.assertEquals(dayDuration, stat.getTotalDuration());
+        }
+    }
+
+    @Test
+    public void testRemoveRunCompactsLog() throws Exception {
+        TaskRunHistory history = new TaskRunHistory(folder, gson);
+        for (int i = 0; i < 300; i++) {
+            history.addRun(createRun(i, 0, true));
+        }
+        for (int i = 0; i < 290; i++) {
+            history.removeRun("run" + i);
+        }
+        Assert.assertEquals(10, history.getRunCount());
+        Assert.assertEquals(10, getTotalRunCount(history.getDailyStatistics()));
+        // Without compaction log would have 590 entries
+        Assert.assertTrue(getLogLineCount() < 300);
+
+        TaskRunHistory loaded = new TaskRunHistory(folder, gson);
+        Assert.assertEquals(10, loaded.getRunCount());
+        Assert.assertEquals("run290", loaded.getRuns()[0].getId());
+    }
+
+    private int getLogLineCount() throws Exception {
+        return Files.readAllLines(folder.resolve(TaskRunHistory.HISTORY_FILE_NAME), StandardCharsets.UTF_8).size();
+    }
+
+    private static int getTotalRunCount(DBTTaskRunDailyStatistics[] statistics) {
+        int count = 0;
+        for (DBTTaskRunDailyStatistics stat : statistics) {
+            count += stat.getRunCount();
+        }
+        return count;
+    }
+
+    private static TaskRunImpl createRun(int index, int day, boolean success) {
+        Date startTime = Date.from(FIRST_DAY.plusDays(day).atStartOfDay(ZoneId.systemDefault()).plusSeconds(index).toInstant());
+        return new TaskRunImpl(
+            "run" + index,
+            startTime,
+            "user",
+            "test",
+            index,
+            success ? null : "error",
+            null);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QMEventRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new QMEventRingBuffer<Integer>(3);
+    }
+
+    @Test
+    public void testWraparound() {
+        QMEventRingBuffer<Integer> buffer = new QMEventRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        // Many rounds over the same slots with a different fill level
+        for (int round = 0; round < 1000; round++) {
+            int count = 1 + round % 4;
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(buffer.offer(next++));
+            }
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(Integer.valueOf(expected++), buffer.poll());
+            }
+            Assert.assertNull(buffer.poll());
+        }
+        Assert.assertEquals(next, buffer.getOfferedCount());
+        Assert.assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        QMEventRingBuffer<Integer> buffer = new QMEventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        Assert.assertFalse(buffer.offer(4));
+        Assert.assertFalse(buffer.offer(5));
+        Assert.assertEquals(2, buffer.getDroppedCount());
+
+        // Freed slot can be used again. Dropped elements never appear.
+        Assert.assertEquals(Integer.valueOf(0), buffer.poll());
+        Assert.assertTrue(buffer.offer(6));
+        Assert.assertFalse(buffer.offer(7));
+        for (int expected : new int[]{1, 2, 3, 6}) {
+            Assert.assertEquals(Integer.valueOf(expected), buffer.poll());
+        }
+        Assert.assertNull(buffer.poll());
+        Assert.assertEquals(5, buffer.getOfferedCount());
+        Assert.assertEquals(3, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testMultipleProducers() throws Exception {
+        final int producerCount = 4;
+        final int elementCount = 200000;
+        final QMEventRingBuffer<long[]> buffer = new QMEventRingBuffer<>(1024);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final AtomicInteger activeProducers = new AtomicInteger(producerCount);
+        final int[] acceptedCounts = new int[producerCount];
+
+        Thread[] producers = new Thread[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            producers[p] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < elementCount; i++) {
+                    if (buffer.offer(new long[]{producer, i})) {
+                        acceptedCounts[producer]++;
+                    }
+                }
+                activeProducers.decrementAndGet();
+            });
+            producers[p].start();
+        }
+
+        // Consume in this thread
+        int[] receivedCounts = new int[producerCount];
+        long[] lastReceived = new long[producerCount];
+        java.util.Arrays.fill(lastReceived, -1);
+        startLatch.countDown();
+        for (;;) {
+            boolean producersDone = activeProducers.get() == 0;
+            long[] element = buffer.poll();
+            if (element == null) {
+                if (producersDone) {
+                    break;
+                }
+                Thread.yield();
+                continue;
+            }
+            int producer = (int) element[0];
+            // Elements of each producer come in order and without duplicates
+            Assert.assertTrue(element[1] > lastReceived[producer]);
+            lastReceived[producer] = element[1];
+            receivedCounts[producer]++;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        long acceptedTotal = 0;
+        for (int p = 0; p < producerCount; p++) {
+            Assert.assertEquals(acceptedCounts[p], receivedCounts[p]);
+            acceptedTotal += acceptedCounts[p];
+        }
+        Assert.assertEquals(acceptedTotal, buffer.getOfferedCount());
+        Assert.assertEquals((long) producerCount * elementCount, buffer.getOfferedCount() + buffer.getDroppedCount());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMMetaEventEntity;
+import org.jkiss.dbeaver.model.qm.QMObjectType;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMObject;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumSet;
+
+public class QMHistorySegmentTest {
+
+    private File folder;
+
+    @Before
+    public void init() throws IOException {
+        folder = Files.createTempDirectory("qm-history-test").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        ContentUtils.deleteFileRecursive(folder);
+    }
+
+    @Test
+    public void testRecordRoundTrip() throws IOException {
+        QMHistoryRecord record = createQueryRecord(1000, "select * from test_table", "Error text");
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        record.write(new DataOutputStream(buffer));
+        QMHistoryRecord copy = QMHistoryRecord.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+        ByteArrayOutputStream copyBuffer = new ByteArrayOutputStream();
+        copy.write(new DataOutputStream(copyBuffer));
+        Assert.assertArrayEquals(buffer.toByteArray(), copyBuffer.toByteArray());
+
+        QMMObject object = copy.toObject();
+        Assert.assertTrue(object instanceof QMMStatementExecuteInfo);
+        QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) object;
+        Assert.assertEquals("select * from test_table", exec.getQueryString());
+        Assert.assertEquals("Error text", exec.getErrorMessage());
+        Assert.assertEquals(1000, exec.getOpenTime());
+        Assert.assertEquals(DBCExecutionPurpose.USER, exec.getStatement().getPurpose());
+        Assert.assertEquals("test-container", exec.getConnection().getContainerId());
+    }
+
+    @Test
+    public void testSegmentSealAndOpen() throws IOException {
+        QMHistorySegment segment = QMHistorySegment.create(folder, 1000, 0, 1000);
+        segment.append(createQueryRecord(1000, "select a from first_table", null));
+        segment.append(createQueryRecord(2000, "select b from second_table", null));
+        segment.append(createQueryRecord(3000, "update first_table set a = 1", null));
+        // Active segment is searched with in-memory index
+        Assert.assertArrayEquals(new int[]{0, 2}, select(segment, 0, Long.MAX_VALUE, "first_tab"));
+        segment.seal();
+        segment.close();
+
+        QMHistorySegment opened = QMHistorySegment.open(segment.getDataFile());
+        Assert.assertNotNull(opened);
+        Assert.assertTrue(opened.isSealed());
+        Assert.assertEquals(3, opened.getRecordCount());
+        Assert.assertEquals(1000, opened.getMinTime());
+        Assert.assertEquals(3000, opened.getMaxTime());
+        Assert.assertArrayEquals(new int[]{0, 2}, select(opened, 0, Long.MAX_VALUE, "first_tab"));
+        Assert.assertArrayEquals(new int[]{1, 2}, select(opened, 1500, 3000, null));
+        Assert.assertEquals("select b from second_table", opened.readRecord(1).getText());
+        opened.close();
+    }
+
+    @Test
+    public void testActiveSegmentRecovery() throws IOException {
+        QMHistorySegment segment = QMHistorySegment.create(folder, 1000, 0, 1000);
+        segment.append(createQueryRecord(1000, "select 1", null));
+        segment.append(createQueryRecord(2000, "select 2", null));
+        segment.close();
+        // Incomplete record at the end of file (e.g. after crash)
+        try (OutputStream out = new FileOutputStream(segment.getDataFile(), true)) {
+            out.write(new byte[]{0, 0, 1, 0, 1, 2});
+        }
+        QMHistorySegment opened = QMHistorySegment.open(segment.getDataFile());
+        Assert.assertNotNull(opened);
+        Assert.assertFalse(opened.isSealed());
+        Assert.assertEquals(2, opened.getRecordCount());
+        Assert.assertEquals(segment.getDataLength(), opened.getDataFile().length());
+        Assert.assertEquals("select 2", opened.readRecord(1).getText());
+        opened.close();
+    }
+
+    @Test
+    public void testDeleteUsedSegment() throws IOException {
+        QMHistorySegment segment = QMHistorySegment.create(folder, 1000, 0, 1000);
+        segment.append(createQueryRecord(1000, "select 1", null));
+        segment.seal();
+
+        Assert.assertTrue(segment.acquire());
+        segment.delete();
+        // Reader still may read deleted segment
+        Assert.assertTrue(segment.getDataFile().exists());
+        Assert.assertEquals("select 1", segment.readRecord(0).getText());
+        Assert.assertFalse(segment.acquire());
+
+        segment.release();
+        Assert.assertFalse(segment.getDataFile().exists());
+    }
+
+    private static int[] select(QMHistorySegment segment, long fromTime, long toTime, String searchString) throws IOException {
+        return segment.select(
+            fromTime,
+            toTime,
+            EnumSet.of(QMObjectType.query),
+            null,
+            searchString == null ? Collections.emptySet() : Collections.singleton(searchString));
+    }
+
+    static QMHistoryRecord createQueryRecord(long time, String queryString, String errorMessage) {
+        QMMConnectionInfo connection = new QMMConnectionInfo(
+            time, time, "test-container", "Test", "test-driver", null, "instance", "Main", false);
+        QMMStatementInfo statement = new QMMStatementInfo(time, time, connection, DBCExecutionPurpose.USER);
+        QMMStatementExecuteInfo exec = new QMMStatementExecuteInfo(
+            time, time, statement, queryString, 1, errorMessage == null ? 0 : 1, errorMessage, 0, 0, false);
+        QMHistoryRecord record = QMHistoryRecord.fromEvent(new QMMetaEventEntity(exec, QMMetaEvent.Action.END, 0, "test-session", null));
+        Assert.assertNotNull(record);
+        return record;
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class QMHistoryStoreTest {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private File logFolder;
+    private File historyFolder;
+    private QMHistoryStore store;
+
+    @Before
+    public void init() throws IOException {
+        logFolder = Files.createTempDirectory("qm-store-test").toFile();
+        historyFolder = new File(logFolder, "history");
+        Assert.assertTrue(historyFolder.mkdirs());
+    }
+
+    @After
+    public void cleanup() {
+        if (store != null) {
+            store.dispose();
+        }
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        preferences.setToDefault(QMConstants.PROP_STORE_HISTORY);
+        preferences.setToDefault(QMConstants.PROP_LOG_DIRECTORY);
+        preferences.setToDefault(QMConstants.PROP_HISTORY_DAYS);
+        ContentUtils.deleteFileRecursive(logFolder);
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        long time = System.currentTimeMillis() - 1000;
+        createSegment(time, "select 1", "select 2");
+        createSegment(time + 1, "select 3");
+        createSegment(time + 2, "select 4", "select 5");
+
+        openStore(0);
+        store.compactHistory(new VoidProgressMonitor());
+
+        File[] dataFiles = getDataFiles();
+        Assert.assertEquals(1, dataFiles.length);
+        Assert.assertEquals("qm-" + time + "-1" + QMHistorySegment.DATA_FILE_EXT, dataFiles[0].getName());
+        Assert.assertEquals(Arrays.asList("select 1", "select 2", "select 3", "select 4", "select 5"), readQueries());
+
+        // Merged segment is loaded after restart
+        store.dispose();
+        openStore(0);
+        Assert.assertEquals(Arrays.asList("select 1", "select 2", "select 3", "select 4", "select 5"), readQueries());
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        long time = System.currentTimeMillis();
+        createSegment(time - 10 * DAY_MILLIS, "select old");
+        createSegment(time - 1000, "select new");
+
+        openStore(5);
+        store.compactHistory(new VoidProgressMonitor());
+
+        File[] dataFiles = getDataFiles();
+        Assert.assertEquals(1, dataFiles.length);
+        Assert.assertEquals("qm-" + (time - 1000) + "-0" + QMHistorySegment.DATA_FILE_EXT, dataFiles[0].getName());
+        Assert.assertEquals(Arrays.asList("select new"), readQueries());
+    }
+
+    @Test
+    public void testCursorKeepsSegments() throws Exception {
+        long time = System.currentTimeMillis() - 10 * DAY_MILLIS;
+        createSegment(time, "select 1");
+        createSegment(time + 1, "select 2");
+
+        // Keep old history and merge it in one segment
+        openStore(0);
+        store.compactHistory(new VoidProgressMonitor());
+        File[] dataFiles = getDataFiles();
+        Assert.assertEquals(1, dataFiles.length);
+        File mergedFile = dataFiles[0];
+
+        QMEventCursor cursor = store.getQueryHistoryCursor(new VoidProgressMonitor(), createCriteria(), null);
+        ModelPreferences.getPreferences().setValue(QMConstants.PROP_HISTORY_DAYS, 5);
+        store.compactHistory(new VoidProgressMonitor());
+        // Expired segment is removed from store, but its file is deleted only after cursor is closed
+        Assert.assertEquals(0, readQueries().size());
+        Assert.assertTrue(mergedFile.exists());
+        Assert.assertEquals(Arrays.asList("select 1", "select 2"), readQueries(cursor));
+
+        cursor.close();
+        Assert.assertFalse(mergedFile.exists());
+    }
+
+    private void openStore(int historyDays) {
+        DBPPreferenceStore preferences = ModelPreferences.getPreferences();
+        preferences.setValue(QMConstants.PROP_LOG_DIRECTORY, logFolder.getAbsolutePath());
+        preferences.setValue(QMConstants.PROP_HISTORY_DAYS, historyDays);
+        preferences.setValue(QMConstants.PROP_STORE_HISTORY, true);
+        store = new QMHistoryStore();
+        Assert.assertTrue(store.isEnabled());
+    }
+
+    private void createSegment(long createTime, String... queries) throws IOException {
+        QMHistorySegment segment = QMHistorySegment.create(historyFolder, createTime, 0, createTime);
+        for (String query : queries) {
+            segment.append(QMHistorySegmentTest.createQueryRecord(createTime, query, null));
+        }
+        segment.seal();
+        segment.close();
+    }
+
+    private static QMEventCriteria createCriteria() {
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setDesc(false);
+        return criteria;
+    }
+
+    private File[] getDataFiles() {
+        File[] files = historyFolder.listFiles((dir, name) -> name.endsWith(QMHistorySegment.DATA_FILE_EXT));
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        return files;
+    }
+
+    private List<String> readQueries() throws DBException {
+        try (QMEventCursor cursor = store.getQueryHistoryCursor(new VoidProgressMonitor(), createCriteria(), null)) {
+            return readQueries(cursor);
+        }
+    }
+
+    private static List<String> readQueries(QMEventCursor cursor) throws DBException {
+        List<String> queries = new ArrayList<>();
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        while (cursor.hasNextEvent(monitor)) {
+            queries.add(((QMMStatementExecuteInfo) cursor.nextEvent(monitor).getObject()).getQueryString());
+        }
+        return queries;
+    }
+
+}
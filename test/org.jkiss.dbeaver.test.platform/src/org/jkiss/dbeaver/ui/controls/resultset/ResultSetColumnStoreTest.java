@@ -0,0 +1,204 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+public class ResultSetColumnStoreTest {
+    // Several pages of rows
+    private static final int ROW_COUNT = 20000;
+
+    private File spillFolder;
+
+    @Before
+    public void createSpillFolder() throws IOException {
+        spillFolder = Files.createTempDirectory("resultset-spill-test").toFile();
+    }
+
+    @After
+    public void deleteSpillFolder() {
+        File[] files = spillFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spillFolder.delete();
+    }
+
+    @Test
+    public void testValuesInMemory() {
+        ResultSetColumnStore store = fillStore(0);
+        assertRows(store);
+        store.dispose();
+    }
+
+    @Test
+    public void testSpilledValues() {
+        ResultSetColumnStore store = fillStore(1);
+        Assert.assertTrue("Rows must be spilled", getSpillFileLength() > 0);
+        // Read twice to read back pages evicted during the first pass
+        assertRows(store);
+        assertRows(store);
+        store.dispose();
+    }
+
+    @Test
+    public void testValueTypesAfterSpill() {
+        ResultSetColumnStore store = fillStore(1);
+        for (int row : new int[]{1, ROW_COUNT - 1, 1}) {
+            Object[] values = makeRow(row);
+            for (int i = 0; i < values.length; i++) {
+                Object value = store.getValue(row, i);
+                Assert.assertNotNull(value);
+                Assert.assertEquals("Column " + i, values[i].getClass(), value.getClass());
+            }
+        }
+        Assert.assertEquals(new BigDecimal("1.100"), store.getValue(1, 6));
+        Assert.assertEquals(3, ((BigDecimal) store.getValue(1, 6)).scale());
+        Assert.assertEquals(123456789, ((Timestamp) store.getValue(1, 7)).getNanos());
+        store.dispose();
+    }
+
+    @Test
+    public void testEditedValuesAfterSpill() {
+        ResultSetColumnStore store = fillStore(1);
+        store.setValue(0, 0, -1L);
+        store.setValue(0, 11, "edited");
+        store.setValue(0, 12, null);
+        // Touch all other pages
+        for (int row = 0; row < ROW_COUNT; row++) {
+            store.getValue(row, 0);
+        }
+        Assert.assertEquals(-1L, store.getValue(0, 0));
+        Assert.assertEquals("edited", store.getValue(0, 11));
+        Assert.assertNull(store.getValue(0, 12));
+        Assert.assertEquals(makeRow(1)[0], store.getValue(1, 0));
+        store.dispose();
+    }
+
+    @Test
+    public void testDictionaryOverflow() {
+        ResultSetColumnStore store = new ResultSetColumnStore(1, spillFolder);
+        store.setMaxResidentRows(1);
+        for (int row = 0; row < ROW_COUNT; row++) {
+            // First rows have few distinct values, then each value is unique
+            store.addRow(new Object[]{row < 1000 ? "value " + (row % 10) : "value " + row});
+        }
+        for (int row = 0; row < ROW_COUNT; row++) {
+            Assert.assertEquals(row < 1000 ? "value " + (row % 10) : "value " + row, store.getValue(row, 0));
+        }
+        store.dispose();
+    }
+
+    @Test
+    public void testTypeChangeInColumn() {
+        ResultSetColumnStore store = new ResultSetColumnStore(1, spillFolder);
+        store.setMaxResidentRows(1);
+        for (int row = 0; row < ROW_COUNT; row++) {
+            store.addRow(new Object[]{row % 3 == 0 ? (Object) (long) row : (Object) row});
+        }
+        for (int row = 0; row < ROW_COUNT; row++) {
+            Assert.assertEquals(row % 3 == 0 ? (Object) (long) row : (Object) row, store.getValue(row, 0));
+        }
+        store.dispose();
+    }
+
+    @Test
+    public void testSpillFileReadError() throws IOException {
+        ResultSetColumnStore store = fillStore(1);
+        File[] spillFiles = spillFolder.listFiles();
+        Assert.assertNotNull(spillFiles);
+        Assert.assertEquals(1, spillFiles.length);
+        try (RandomAccessFile file = new RandomAccessFile(spillFiles[0], "rw")) {
+            file.setLength(0);
+        }
+        Assert.assertTrue(store.getValue(0, 0) instanceof DBDValueError);
+        try {
+            store.setValue(0, 0, 1L);
+            Assert.fail("Edit of unavailable row must fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        // Last page is always in memory
+        Assert.assertEquals(makeRow(ROW_COUNT - 1)[0], store.getValue(ROW_COUNT - 1, 0));
+        store.dispose();
+    }
+
+    private ResultSetColumnStore fillStore(int maxResidentRows) {
+        ResultSetColumnStore store = new ResultSetColumnStore(makeRow(0).length, spillFolder);
+        store.setMaxResidentRows(maxResidentRows);
+        for (int row = 0; row < ROW_COUNT; row++) {
+            Assert.assertEquals(row, store.addRow(makeRow(row)));
+        }
+        Assert.assertEquals(ROW_COUNT, store.getRowCount());
+        return store;
+    }
+
+    private static void assertRows(ResultSetColumnStore store) {
+        for (int row = 0; row < ROW_COUNT; row++) {
+            Object[] values = makeRow(row);
+            for (int i = 0; i < values.length; i++) {
+                Assert.assertEquals("Row " + row + ", column " + i, values[i], store.getValue(row, i));
+            }
+        }
+    }
+
+    private long getSpillFileLength() {
+        long length = 0;
+        File[] files = spillFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                length += file.length();
+            }
+        }
+        return length;
+    }
+
+    private static Object[] makeRow(int row) {
+        Timestamp timestamp = new Timestamp(1600000000000L + row * 1000L);
+        timestamp.setNanos(row % 2 == 0 ? row : 123456789);
+        return new Object[]{
+            (long) row * 1000000000L,
+            row,
+            (short) row,
+            (byte) row,
+            row + 0.5f,
+            row + 0.25,
+            // Keep trailing zeros to check scale
+            BigDecimal.valueOf(row * 1000L + 100, 3),
+            timestamp,
+            new java.sql.Date(1600000000000L + row * 86400000L),
+            new Time(row * 1000L),
+            new java.util.Date(1600000000000L - row),
+            "status " + (row % 7),
+            row % 5 == 0 ? null : row % 2 == 0,
+        };
+    }
+}
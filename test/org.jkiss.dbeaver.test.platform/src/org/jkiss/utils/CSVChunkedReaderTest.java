@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.utils.csv.CSVChunkedReader;
+import org.jkiss.utils.csv.CSVParser;
+import org.jkiss.utils.csv.CSVReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CSVChunkedReaderTest {
+    @Test
+    public void testSameRecordsAsCSVReader() throws IOException {
+        final String csv = "id,name,comment\r\n" +
+            "1,\"Smith, John\",\"multi\nline \"\"quoted\"\" value\"\n" +
+            "2,'single',\"escaped \\\" quote\"\r" +
+            "\n" +
+            "3,,\"\"\n" +
+            "4,\"unterminated at the end";
+        for (int chunkSize = 1; chunkSize < csv.length() + 2; chunkSize++) {
+            assertSameRecords(csv, StandardCharsets.UTF_8, new CSVParser(), chunkSize);
+        }
+    }
+
+    @Test
+    public void testRandomContent() throws IOException {
+        final String alphabet = "ab,;\"'\\\n\r \u00e9";
+        final Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            final StringBuilder csv = new StringBuilder();
+            for (int length = random.nextInt(300); length > 0; length--) {
+                csv.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            final Charset charset = random.nextBoolean() ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+            final CSVParser parser = new CSVParser(random.nextBoolean() ? ',' : ';', random.nextBoolean() ? '"' : '\'');
+            assertSameRecords(csv.toString(), charset, parser, 1 + random.nextInt(50));
+        }
+    }
+
+    @Test
+    public void testUtf8Bom() throws IOException {
+        final File file = writeFile(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', ',', 'b', '\n', 'c'});
+        try {
+            Assert.assertEquals(
+                Arrays.asList("[a, b]", "[c]"),
+                readChunked(file, StandardCharsets.UTF_8, new CSVParser(), 1));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        Assert.assertTrue(CSVChunkedReader.isSupported(StandardCharsets.UTF_8, new CSVParser()));
+        Assert.assertTrue(CSVChunkedReader.isSupported(StandardCharsets.ISO_8859_1, new CSVParser(';')));
+        Assert.assertFalse(CSVChunkedReader.isSupported(StandardCharsets.UTF_16, new CSVParser()));
+        Assert.assertFalse(CSVChunkedReader.isSupported(StandardCharsets.UTF_8, new CSVParser('\u00a7')));
+    }
+
+    private static void assertSameRecords(@NotNull String csv, @NotNull Charset charset, @NotNull CSVParser parser, int chunkSize) throws IOException {
+        final File file = writeFile(csv.getBytes(charset));
+        try {
+            final List<String> expected = new ArrayList<>();
+            try (CSVReader reader = new CSVReader(new InputStreamReader(new FileInputStream(file), charset), 0, copyParser(parser))) {
+                for (String[] record = reader.readNext(); record != null; record = reader.readNext()) {
+                    expected.add(Arrays.toString(record));
+                }
+            }
+            Assert.assertEquals(expected, readChunked(file, charset, parser, chunkSize));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @NotNull
+    private static List<String> readChunked(@NotNull File file, @NotNull Charset charset, @NotNull CSVParser parser, int chunkSize) throws IOException {
+        final List<String> records = new ArrayList<>();
+        try (CSVChunkedReader reader = new CSVChunkedReader(file, charset, parser, chunkSize, 3)) {
+            for (String[] record = reader.readNext(); record != null; record = reader.readNext()) {
+                records.add(Arrays.toString(record));
+            }
+        }
+        return records;
+    }
+
+    @NotNull
+    private static CSVParser copyParser(@NotNull CSVParser parser) {
+        return new CSVParser(parser.getSeparator(), parser.getQuotechar(), parser.getEscape());
+    }
+
+    @NotNull
+    private static File writeFile(@NotNull byte[] content) throws IOException {
+        final File file = File.createTempFile("chunked", ".csv");
+        Files.write(file.toPath(), content);
+        return file;
+    }
+}